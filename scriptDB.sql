@@ -7,16 +7,25 @@ CREATE TABLE users (
     created TIMESTAMP NOT NULL,
     modified TIMESTAMP,
     last_login TIMESTAMP,
-    token VARCHAR(255),
-    is_active BOOLEAN NOT NULL DEFAULT TRUE
+    token VARCHAR(1024),
+    is_active BOOLEAN NOT NULL DEFAULT TRUE,
+    token_version BIGINT NOT NULL DEFAULT 0
 );
 
--- Tabla PHONES
+-- Orden del listado y cursor de la paginacion por keyset (GET /api/users)
+CREATE INDEX idx_users_created_id ON users (created, id);
+
+-- Tabla PHONES (ids desde una secuencia con incremento 50, igual al allocationSize de la entidad)
+CREATE SEQUENCE phones_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE phones (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     number VARCHAR(255) NOT NULL,
     city_code VARCHAR(255) NOT NULL,
     country_code VARCHAR(255) NOT NULL,
     user_id UUID NOT NULL,
     CONSTRAINT fk_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
 );
+
+-- Carga de los telefonos de una pagina de usuarios
+CREATE INDEX idx_phones_user_id ON phones (user_id);
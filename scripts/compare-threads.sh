@@ -0,0 +1,57 @@
+#!/usr/bin/env bash
+#
+# Platform vs virtual threads on the servlet stack: starts the app once per mode and drives the profile,
+# login and registration endpoints with LoadGenerator. Requires a JDK 21 on the PATH (or JAVA_HOME).
+#
+#   scripts/compare-threads.sh [clients] [duration] [warmup]
+#   scripts/compare-threads.sh 1000 PT30S PT10S
+#
+# In virtual mode the JVM runs with -Djdk.tracePinnedThreads=short; the number of pinning stack traces
+# found in the app log is printed after each run (target/load/app-virtual.log has the details).
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+CLIENTS=${1:-1000}
+DURATION=${2:-PT30S}
+WARMUP=${3:-PT10S}
+PORT=${PORT:-8080}
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+OUT=target/load
+
+"$JAVA" -version 2>&1 | grep -q 'version "2[1-9]' || { echo "JDK 21+ required" >&2; exit 1; }
+
+# clean: the Java 21 classes left in target/ would otherwise break a later Java 17 build
+mvn -B -q -Pjava21 -DskipTests clean package
+mvn -B -q -Pjava21,benchmark -DskipTests test-compile
+mkdir -p "$OUT"
+JAR=$(ls target/user-management-api-*.jar | grep -v original | head -1)
+
+run_mode() {
+  local mode=$1; shift
+  local log="$OUT/app-$mode.log"
+  "$JAVA" "$@" -jar "$JAR" --server.port="$PORT" --spring.jpa.show-sql=false \
+      --app.security.rate-limit.enabled=false \
+      --logging.level.com.nisum.app=WARN --logging.level.org.springframework.web=WARN \
+      ${SPRING_PROFILE:+--spring.profiles.active=$SPRING_PROFILE} > "$log" 2>&1 &
+  local pid=$!
+  trap 'kill $pid 2>/dev/null || true' EXIT
+  for _ in $(seq 1 120); do
+    curl -sf "http://localhost:$PORT/actuator/health" > /dev/null && break
+    sleep 1
+  done
+  for scenario in profile login register; do
+    "$JAVA" -cp target/test-classes com.nisum.app.benchmark.LoadGenerator --url="http://localhost:$PORT" \
+        --label="$mode" --scenario="$scenario" --clients="$CLIENTS" --duration="$DURATION" --warmup="$WARMUP" \
+        | tee -a "$OUT/results.txt"
+  done
+  kill "$pid"; wait "$pid" 2>/dev/null || true
+  trap - EXIT
+  if [ "$mode" = virtual ]; then
+    echo "virtual    pinned-thread traces: $(grep -c '<== monitors' "$log" || true)" | tee -a "$OUT/results.txt"
+  fi
+}
+
+: > "$OUT/results.txt"
+SPRING_PROFILE= run_mode platform
+SPRING_PROFILE=virtual-threads run_mode virtual -Djdk.tracePinnedThreads=short
+echo "Results in $OUT/results.txt"
@@ -0,0 +1,80 @@
+#!/usr/bin/env bash
+#
+# Startup of each build variant: time from launching the process to the first successful request, and
+# the resident memory (RSS) right after it. Builds the AOT jar with its AppCDS archive (-Paot) and, when
+# native-image is on the PATH, the native executable (-Pnative), then starts every variant [runs] times:
+#
+#   jar       java -jar, without AOT
+#   aot       java -Dspring.aot.enabled=true, extracted jar
+#   aot-cds   the same with the AppCDS archive of the training run
+#   native    GraalVM native image
+#
+#   scripts/startup-report.sh [runs]
+#   SKIP_BUILD=1 scripts/startup-report.sh 5
+#
+# The first request is GET /.well-known/jwks.json: public, and served only once the servlet stack and the
+# security filter chain are up. Results in target/startup/results.txt.
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+RUNS=${1:-3}
+PORT=${PORT:-8080}
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+OUT=target/startup
+NAME=user-management-api-1.0-SNAPSHOT
+
+if [ -z "${SKIP_BUILD:-}" ]; then
+  mvn -B -q -Paot -DskipTests clean package
+  if command -v native-image > /dev/null; then
+    mvn -B -q -Pnative -DskipTests package native:compile
+  else
+    echo "native-image not found: native variant skipped" >&2
+  fi
+fi
+mkdir -p "$OUT"
+
+now_ms() {
+  echo $(( $(date +%s%N) / 1000000 ))
+}
+
+# run_variant <label> <dir> <command...>
+run_variant() {
+  local label=$1 dir=$2; shift 2
+  local log="$OUT/app-$label.log"
+  for run in $(seq 1 "$RUNS"); do
+    local start pid ready rss
+    start=$(now_ms)
+    (cd "$dir" && exec "$@" --server.port="$PORT" --spring.jpa.show-sql=false --spring.main.banner-mode=off) > "$log" 2>&1 &
+    pid=$!
+    trap 'kill $pid 2>/dev/null || true' EXIT
+    ready=
+    for _ in $(seq 1 1200); do
+      if curl -sf -o /dev/null "http://localhost:$PORT/.well-known/jwks.json"; then
+        ready=$(now_ms)
+        break
+      fi
+      kill -0 "$pid" 2>/dev/null || break
+      sleep 0.05
+    done
+    if [ -z "$ready" ]; then
+      echo "$label did not start, see $log" >&2
+      kill "$pid" 2>/dev/null || true
+      trap - EXIT
+      return 1
+    fi
+    rss=$(ps -o rss= -p "$pid" | tr -d ' ')
+    printf '%-8s run %d  first request %6d ms  rss %6d MB\n' "$label" "$run" $((ready - start)) $((rss / 1024)) \
+        | tee -a "$OUT/results.txt"
+    kill "$pid"; wait "$pid" 2>/dev/null || true
+    trap - EXIT
+  done
+}
+
+: > "$OUT/results.txt"
+run_variant jar target "$JAVA" -jar "$NAME.jar"
+run_variant aot target/aot "$JAVA" -Dspring.aot.enabled=true -jar "$NAME.jar"
+run_variant aot-cds target/aot "$JAVA" -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true -jar "$NAME.jar"
+if [ -x target/user-management-api ]; then
+  run_variant native target ./user-management-api
+fi
+echo "Results in $OUT/results.txt"
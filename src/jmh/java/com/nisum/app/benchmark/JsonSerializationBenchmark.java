@@ -0,0 +1,122 @@
+package com.nisum.app.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.nisum.app.infrastructure.config.JacksonConfig;
+import com.nisum.app.infrastructure.dto.error.ErrorResponseDto;
+import com.nisum.app.infrastructure.dto.phone.PhoneDto;
+import com.nisum.app.infrastructure.dto.user.UserInfoResponseDto;
+import com.nisum.app.infrastructure.dto.user.UserRegistrationRequestDto;
+import com.nisum.app.infrastructure.dto.user.UserResponseDto;
+import com.nisum.app.infrastructure.exception.ErrorBodies;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The response DTOs with the ObjectMapper Spring MVC would get before and after {@link JacksonConfig}:
+ * {@code default} is Jackson2ObjectMapperBuilder's, {@code tuned} adds Blackbird and the LocalDateTime
+ * serializer, writes through writers cached per type, and takes error bodies from {@link ErrorBodies}.
+ * Compare ops/s and gc.alloc.rate.norm between the two.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private static final String ERROR_MESSAGE = "Credenciales inválidas";
+
+    @Param({"default", "tuned"})
+    private String mapper;
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter responseWriter;
+    private ObjectWriter infoWriter;
+    private ObjectReader registrationReader;
+    private ErrorBodies errorBodies;
+    private UserResponseDto responseDto;
+    private UserInfoResponseDto infoDto;
+    private byte[] registrationJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        // Same defaults Spring MVC applies to its message converters
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        boolean tuned = "tuned".equals(mapper);
+        if (tuned) {
+            JacksonConfig.tune(builder);
+            errorBodies = new ErrorBodies(256);
+        }
+        objectMapper = builder.build();
+        responseWriter = tuned ? objectMapper.writerFor(UserResponseDto.class) : objectMapper.writer();
+        infoWriter = tuned ? objectMapper.writerFor(UserInfoResponseDto.class) : objectMapper.writer();
+        registrationReader = objectMapper.readerFor(UserRegistrationRequestDto.class);
+
+        LocalDateTime created = LocalDateTime.of(2024, 3, 14, 9, 26, 53, 589_793_000);
+        LocalDateTime now = LocalDateTime.now();
+        responseDto = UserResponseDto.builder()
+                .id(UUID.randomUUID())
+                .created(created)
+                .modified(now)
+                .lastLogin(now)
+                .token("eyJhbGciOiJIUzI1NiJ9.eyJzdWIiOiJqdWFuQHJvZHJpZ3Vlei5vcmcifQ.signature")
+                .isActive(true)
+                .build();
+        infoDto = new UserInfoResponseDto();
+        infoDto.setId(UUID.randomUUID());
+        infoDto.setCreated(created);
+        infoDto.setModified(now);
+        infoDto.setLastLogin(now);
+        infoDto.setIsActive(true);
+        infoDto.setName("Juan Rodriguez");
+        infoDto.setEmail("juan@rodriguez.org");
+        infoDto.setPhones(List.of(new PhoneDto("1234567", "1", "57")));
+
+        registrationJson = objectMapper.writeValueAsBytes(new UserRegistrationRequestDto(
+                "Juan Rodriguez",
+                "juan@rodriguez.org",
+                "Password123",
+                List.of(new PhoneDto("1234567", "1", "57"))
+        ));
+    }
+
+    @Benchmark
+    public byte[] serializeUserResponse() throws Exception {
+        return responseWriter.writeValueAsBytes(responseDto);
+    }
+
+    @Benchmark
+    public byte[] serializeUserInfoResponse() throws Exception {
+        return infoWriter.writeValueAsBytes(infoDto);
+    }
+
+    @Benchmark
+    public byte[] serializeErrorResponse() throws Exception {
+        return errorBodies != null
+                ? errorBodies.get(ERROR_MESSAGE)
+                : objectMapper.writeValueAsBytes(new ErrorResponseDto(ERROR_MESSAGE));
+    }
+
+    @Benchmark
+    public UserRegistrationRequestDto deserializeRegistrationRequest() throws Exception {
+        return registrationReader.readValue(registrationJson);
+    }
+}
@@ -0,0 +1,108 @@
+package com.nisum.app.benchmark;
+
+import com.nisum.app.application.service.JwtService;
+import com.nisum.app.application.service.impl.JwtServiceImpl;
+import com.nisum.app.application.service.token.Hs256TokenCodec;
+import com.nisum.app.application.service.token.ParsedToken;
+import com.nisum.app.application.service.token.TokenKeyRing;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code jjwt*}: sign and verify with jjwt 0.9.1 as {@link JwtService} does (String key, new Mac, Jackson
+ * maps and Dates per call), against {@link JwtServiceImpl} on {@code Hs256TokenCodec}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "mySecretKey123456789mySecretKey123456789";
+    private static final long EXPIRATION = 86400000;
+    private static final String EMAIL = "juan@rodriguez.org";
+
+    private JwtService legacyService;
+    private JwtServiceImpl uncachedService;
+    private JwtServiceImpl cachedService;
+    private JwtServiceImpl keyRingService;
+    private String token;
+    private String keyRingToken;
+
+    @Setup
+    public void setUp() {
+        legacyService = new JwtService(SECRET, EXPIRATION);
+        uncachedService = new JwtServiceImpl(SECRET, EXPIRATION, 0);
+        cachedService = new JwtServiceImpl(SECRET, EXPIRATION, 10_000);
+        token = uncachedService.generateToken(EMAIL);
+
+        // Three keys with kid; the token is from the oldest, the last one the header comparison reaches
+        Hs256TokenCodec oldest = new Hs256TokenCodec("2026-08", key('a'));
+        TokenKeyRing keyRing = new TokenKeyRing(new Hs256TokenCodec("2026-10", key('c')),
+                List.of(new Hs256TokenCodec("2026-09", key('b')), oldest));
+        keyRingService = new JwtServiceImpl(() -> keyRing, EXPIRATION, 0, new CompositeMeterRegistry());
+        keyRingToken = new JwtServiceImpl(() -> new TokenKeyRing(oldest, List.of()), EXPIRATION, 0,
+                new CompositeMeterRegistry()).generateToken(EMAIL);
+    }
+
+    private static byte[] key(char fill) {
+        return String.valueOf(fill).repeat(32).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return uncachedService.generateToken(EMAIL);
+    }
+
+    @Benchmark
+    public String jjwtGenerateToken() {
+        return legacyService.generateToken(EMAIL);
+    }
+
+    @Benchmark
+    public String jjwtParse() {
+        return legacyService.extractEmail(token);
+    }
+
+    @Benchmark
+    public Boolean validateToken() {
+        return uncachedService.validateToken(token, EMAIL);
+    }
+
+    // What JwtAuthenticationFilter did before parseToken: extractEmail + validateToken (three verifications)
+    @Benchmark
+    public Boolean filterPathTripleParse() {
+        String email = legacyService.extractEmail(token);
+        return legacyService.validateToken(token, email);
+    }
+
+    @Benchmark
+    public ParsedToken filterPathSingleParse() {
+        return uncachedService.parseToken(token);
+    }
+
+    @Benchmark
+    public ParsedToken keyRingParse() {
+        return keyRingService.parseToken(keyRingToken);
+    }
+
+    @Benchmark
+    public ParsedToken filterPathCachedParse() {
+        return cachedService.parseToken(token);
+    }
+}
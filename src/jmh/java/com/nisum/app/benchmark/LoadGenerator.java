@@ -0,0 +1,197 @@
+package com.nisum.app.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop HTTP load against a running instance: N clients, each sending its next request as soon
+ * as the previous one completes, for a fixed duration. Clients are async chains on a single
+ * HttpClient rather than threads, so 1k+ clients do not need 1k+ threads on the load side.
+ * <p>
+ * Not a JMH benchmark (JMH cannot drive this many concurrent clients); used by
+ * {@code scripts/compare-threads.sh} to compare platform and virtual threads on the server.
+ * <pre>
+ * java -cp target/test-classes com.nisum.app.benchmark.LoadGenerator \
+ *     --url=http://localhost:8080 --scenario=profile --clients=1000 --duration=PT30S --warmup=PT10S
+ * </pre>
+ * Scenarios: {@code profile} (GET /api/profile/me), {@code login} (POST /api/login, same user) and
+ * {@code register} (POST /api/users, a new email per request).
+ */
+public final class LoadGenerator {
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+    private static final String PASSWORD = "Password123";
+
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final String scenario;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong emailSequence = new AtomicLong();
+    private String seedEmail;
+    private String token;
+
+    private LoadGenerator(String baseUrl, String scenario) {
+        this.baseUrl = baseUrl;
+        this.scenario = scenario;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String url = options.getOrDefault("url", "http://localhost:8080");
+        String scenario = options.getOrDefault("scenario", "profile");
+        int clients = Integer.parseInt(options.getOrDefault("clients", "1000"));
+        Duration duration = Duration.parse(options.getOrDefault("duration", "PT30S"));
+        Duration warmup = Duration.parse(options.getOrDefault("warmup", "PT10S"));
+        String label = options.getOrDefault("label", "");
+
+        LoadGenerator generator = new LoadGenerator(url, scenario);
+        generator.seed();
+        if (!warmup.isZero()) {
+            generator.run(clients, warmup);
+        }
+        Result result = generator.run(clients, duration);
+        System.out.println(result.format(label, scenario, clients, duration));
+    }
+
+    private void seed() throws Exception {
+        seedEmail = "load-" + runId + "@example.com";
+        send(registerRequest(seedEmail)).join();
+        HttpResponse<String> login = send(loginRequest()).join();
+        Matcher matcher = TOKEN.matcher(login.body());
+        if (login.statusCode() != 200 || !matcher.find()) {
+            throw new IllegalStateException("Seed login failed: " + login.statusCode() + " " + login.body());
+        }
+        token = matcher.group(1);
+    }
+
+    private Result run(int clients, Duration duration) {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Client> running = new ArrayList<>(clients);
+        List<CompletableFuture<Void>> done = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            Client client = new Client(deadline);
+            running.add(client);
+            done.add(client.start());
+        }
+        CompletableFuture.allOf(done.toArray(new CompletableFuture[0])).join();
+        return Result.merge(running, duration);
+    }
+
+    private HttpRequest nextRequest() {
+        return switch (scenario) {
+            case "profile" -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/profile/me"))
+                    .header("Authorization", "Bearer " + token)
+                    .GET()
+                    .build();
+            case "login" -> loginRequest();
+            case "register" -> registerRequest("load-" + runId + "-" + emailSequence.incrementAndGet() + "@example.com");
+            default -> throw new IllegalArgumentException("Unknown scenario " + scenario);
+        };
+    }
+
+    private HttpRequest loginRequest() {
+        return json("/api/login", "{\"email\":\"" + seedEmail + "\",\"password\":\"" + PASSWORD + "\"}");
+    }
+
+    private HttpRequest registerRequest(String email) {
+        return json("/api/users", "{\"name\":\"Load Test\",\"email\":\"" + email + "\",\"password\":\"" + PASSWORD + "\","
+                + "\"phones\":[{\"number\":\"1234567\",\"citycode\":\"1\",\"contrycode\":\"57\"}]}");
+    }
+
+    private HttpRequest json(String path, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private CompletableFuture<HttpResponse<String>> send(HttpRequest request) {
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    // Each client's callbacks run one after another, so its own lists need no synchronization
+    private final class Client {
+        private final long deadline;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private final List<Long> latencies = new ArrayList<>();
+        private final Map<String, Integer> statuses = new HashMap<>();
+
+        private Client(long deadline) {
+            this.deadline = deadline;
+        }
+
+        private CompletableFuture<Void> start() {
+            next();
+            return done;
+        }
+
+        private void next() {
+            if (System.nanoTime() >= deadline) {
+                done.complete(null);
+                return;
+            }
+            long start = System.nanoTime();
+            // Async hop so a request that fails synchronously (e.g. connection refused) cannot recurse on the stack
+            send(nextRequest()).whenCompleteAsync((response, error) -> {
+                latencies.add(System.nanoTime() - start);
+                String status = error != null ? error.getClass().getSimpleName() : String.valueOf(response.statusCode());
+                statuses.merge(status, 1, Integer::sum);
+                next();
+            });
+        }
+    }
+
+    private record Result(long[] latencies, Map<String, Integer> statuses, Duration duration) {
+
+        static Result merge(List<Client> clients, Duration duration) {
+            long[] all = clients.stream().flatMap(c -> c.latencies.stream()).mapToLong(Long::longValue).toArray();
+            Arrays.sort(all);
+            Map<String, Integer> statuses = new TreeMap<>();
+            clients.forEach(c -> c.statuses.forEach((k, v) -> statuses.merge(k, v, Integer::sum)));
+            return new Result(all, statuses, duration);
+        }
+
+        String format(String label, String scenario, int clients, Duration duration) {
+            double seconds = duration.toMillis() / 1000.0;
+            return String.format("%-10s %-9s clients=%-5d requests=%-7d rps=%-9.1f p50=%-8.1fms p99=%-8.1fms max=%-8.1fms status=%s",
+                    label, scenario, clients, latencies.length, latencies.length / seconds,
+                    percentile(0.50), percentile(0.99), percentile(1.0), statuses);
+        }
+
+        private double percentile(double p) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.min(latencies.length - 1, Math.ceil(p * latencies.length) - 1);
+            return latencies[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        return options;
+    }
+}
@@ -0,0 +1,104 @@
+package com.nisum.app.benchmark;
+
+import com.nisum.app.application.service.impl.JwtServiceImpl;
+import com.nisum.app.application.service.token.ParsedToken;
+import com.nisum.app.infrastructure.metrics.UserOperationMetrics;
+import com.nisum.app.infrastructure.metrics.UserOperationMetrics.Operation;
+import com.nisum.app.infrastructure.metrics.UserOperationMetrics.Outcome;
+import com.nisum.app.infrastructure.metrics.UserOperationMetrics.Stage;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the stage timers, comparing meters that record nothing with a Prometheus registry that
+ * keeps percentile histograms as configured in application.properties. The cached token parse is
+ * the cheapest instrumented path, so it shows the worst-case relative overhead; login and
+ * registration spend tens of milliseconds in BCrypt, next to which a timer record is noise.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetricsOverheadBenchmark {
+
+    private static final String SECRET = "mySecretKey123456789mySecretKey123456789";
+    private static final long EXPIRATION = 86400000;
+    private static final String EMAIL = "juan@rodriguez.org";
+
+    @Param({"noop", "prometheus"})
+    private String registry;
+
+    private JwtServiceImpl uncachedService;
+    private JwtServiceImpl cachedService;
+    private UserOperationMetrics metrics;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        MeterRegistry meterRegistry = "prometheus".equals(registry) ? histogramRegistry() : new CompositeMeterRegistry();
+        uncachedService = new JwtServiceImpl(SECRET, EXPIRATION, 0, meterRegistry);
+        cachedService = new JwtServiceImpl(SECRET, EXPIRATION, 10_000, meterRegistry);
+        metrics = new UserOperationMetrics(meterRegistry);
+        token = uncachedService.generateToken(EMAIL);
+    }
+
+    @Benchmark
+    public String signToken() {
+        return uncachedService.generateToken(EMAIL);
+    }
+
+    @Benchmark
+    public ParsedToken parseToken() {
+        return uncachedService.parseToken(token);
+    }
+
+    @Benchmark
+    public ParsedToken parseTokenCached() {
+        return cachedService.parseToken(token);
+    }
+
+    // Absolute cost of one stage plus one operation record, around a trivial stage
+    @Benchmark
+    public boolean stageAndOperationTimer() {
+        long start = System.nanoTime();
+        boolean valid = metrics.time(Operation.LOGIN, Stage.VALIDATE, () -> EMAIL.indexOf('@') > 0);
+        metrics.record(Operation.LOGIN, Outcome.SUCCESS, start);
+        return valid;
+    }
+
+    private static MeterRegistry histogramRegistry() {
+        PrometheusMeterRegistry meterRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        meterRegistry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                return DistributionStatisticConfig.builder()
+                        .percentilesHistogram(true)
+                        .minimumExpectedValue((double) TimeUnit.MICROSECONDS.toNanos(1))
+                        .maximumExpectedValue((double) TimeUnit.MILLISECONDS.toNanos(100))
+                        .build()
+                        .merge(config);
+            }
+        });
+        return meterRegistry;
+    }
+}
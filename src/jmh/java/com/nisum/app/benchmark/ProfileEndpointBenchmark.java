@@ -0,0 +1,124 @@
+package com.nisum.app.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nisum.app.UserManagementApiApplication;
+import com.nisum.app.infrastructure.dto.login.LoginRequestDto;
+import com.nisum.app.infrastructure.dto.phone.PhoneDto;
+import com.nisum.app.infrastructure.dto.user.UserRegistrationRequestDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end requests/sec on GET /api/profile/me over loopback HTTP, with and without the
+ * authenticated principal cache (app.security.user-cache.enabled), and with and without the
+ * authentication timers (denied meters are no-ops), to keep their overhead in check. The conditional
+ * variant polls with the profile's ETag and gets 304 from the version check.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(8)
+@Fork(1)
+public class ProfileEndpointBenchmark {
+
+    @Param({"true", "false"})
+    public boolean userCacheEnabled;
+
+    @Param({"true", "false"})
+    public boolean instrumented;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private HttpRequest profileRequest;
+    private HttpRequest conditionalProfileRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = SpringApplication.run(UserManagementApiApplication.class,
+                "--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.nisum.app=WARN",
+                "--logging.level.org.springframework.web=WARN",
+                "--app.security.user-cache.enabled=" + userCacheEnabled,
+                "--management.metrics.enable.auth.token=" + instrumented,
+                "--management.metrics.enable.jwt=" + instrumented,
+                "--management.metrics.enable.spring.data.repository=" + instrumented);
+        int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+        String baseUrl = "http://localhost:" + port;
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        post(baseUrl + "/api/users", objectMapper.writeValueAsString(new UserRegistrationRequestDto(
+                "Juan Rodriguez", "juan@rodriguez.org", "Password123", List.of(new PhoneDto("1234567", "1", "57")))));
+        String loginResponse = post(baseUrl + "/api/login",
+                objectMapper.writeValueAsString(new LoginRequestDto("juan@rodriguez.org", "Password123")));
+        String token = (String) objectMapper.readValue(loginResponse, Map.class).get("token");
+
+        profileRequest = HttpRequest.newBuilder(URI.create(baseUrl + "/api/profile/me"))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+        String etag = httpClient.send(profileRequest, HttpResponse.BodyHandlers.discarding())
+                .headers().firstValue("ETag").orElseThrow();
+        conditionalProfileRequest = HttpRequest.newBuilder(profileRequest, (name, value) -> true)
+                .header("If-None-Match", etag)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getCurrentUserProfile() throws Exception {
+        HttpResponse<Void> response = httpClient.send(profileRequest, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+
+    @Benchmark
+    public int getCurrentUserProfileNotModified() throws Exception {
+        HttpResponse<Void> response = httpClient.send(conditionalProfileRequest, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 304) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+
+    private String post(String url, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString()).body();
+    }
+}
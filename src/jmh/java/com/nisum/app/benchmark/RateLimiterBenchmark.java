@@ -0,0 +1,83 @@
+package com.nisum.app.benchmark;
+
+import com.nisum.app.infrastructure.security.TokenBucketRateLimiter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks per second of the login rate limiter with several threads sharing one table, with the
+ * default capacity and email limits. {@code hotKey}: every thread hammers one email whose bucket is
+ * empty, the credential-stuffing case (read-only rejections). {@code manyKeys}: each thread walks a
+ * million distinct emails, far more than the table holds, so nearly every check writes a bucket
+ * and crowded windows evict. gc.alloc.rate.norm should be about 0 B/op for both.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    private static final int KEYS_PER_THREAD = 1 << 20;
+
+    @State(Scope.Benchmark)
+    public static class Limiter {
+
+        @Param({"65536"})
+        private int capacity;
+
+        private TokenBucketRateLimiter limiter;
+
+        @Setup
+        public void setUp() {
+            limiter = new TokenBucketRateLimiter(capacity, 5, Duration.ofMinutes(1));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Keys {
+
+        private String[] emails;
+        private int next;
+
+        @Setup
+        public void setUp() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            emails = new String[KEYS_PER_THREAD];
+            for (int i = 0; i < emails.length; i++) {
+                emails[i] = "User" + Long.toHexString(random.nextLong()) + "@Example.org";
+            }
+        }
+
+        String nextEmail() {
+            String email = emails[next];
+            next = (next + 1) & (KEYS_PER_THREAD - 1);
+            return email;
+        }
+    }
+
+    @Benchmark
+    public long hotKey(Limiter state) {
+        return state.limiter.tryAcquire("Juan@Rodriguez.org");
+    }
+
+    @Benchmark
+    public long manyKeys(Limiter state, Keys keys) {
+        return state.limiter.tryAcquire(keys.nextEmail());
+    }
+}
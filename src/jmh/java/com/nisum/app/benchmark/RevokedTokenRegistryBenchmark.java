@@ -0,0 +1,88 @@
+package com.nisum.app.benchmark;
+
+import com.nisum.app.application.service.token.ParsedToken;
+import com.nisum.app.application.service.token.TokenCodec;
+import com.nisum.app.infrastructure.security.RevokedTokenRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The deny list check JwtAuthenticationFilter makes on every Bearer request, with {@code revoked}
+ * logouts spread over the default 24 h token lifetime. {@code notRevoked} is the common case of a
+ * live token, {@code revoked} a logged out one; both should stay flat as the list grows and
+ * allocate 0 B/op.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RevokedTokenRegistryBenchmark {
+
+    private static final long LIFETIME = 86_400_000L;
+    private static final int TOKENS = 1 << 12;
+
+    @Param({"1000", "1000000"})
+    private int revoked;
+
+    private ParsedToken[] revokedTokens;
+    private ParsedToken[] liveTokens;
+    private RevokedTokenRegistry registry;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        // Neither the repository nor JDBC is touched without reload, refresh or purge
+        registry = new RevokedTokenRegistry(null, null, LIFETIME, 5_000_000, 1000, new SimpleMeterRegistry());
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long now = System.currentTimeMillis();
+        revokedTokens = new ParsedToken[TOKENS];
+        liveTokens = new ParsedToken[TOKENS];
+        for (int i = 0; i < revoked; i++) {
+            Instant expiresAt = Instant.ofEpochMilli(now + 60_000 + random.nextLong(LIFETIME - 60_000));
+            String tokenId = TokenCodec.newTokenId();
+            registry.revoke(tokenId, expiresAt);
+            if (i < TOKENS) {
+                revokedTokens[i] = token(tokenId, expiresAt);
+            }
+        }
+        for (int i = 0; i < TOKENS; i++) {
+            if (revokedTokens[i] == null) {
+                revokedTokens[i] = revokedTokens[i % revoked];
+            }
+            liveTokens[i] = token(TokenCodec.newTokenId(),
+                    Instant.ofEpochMilli(now + 60_000 + random.nextLong(LIFETIME - 60_000)));
+        }
+    }
+
+    @Benchmark
+    public boolean notRevoked() {
+        next = (next + 1) & (TOKENS - 1);
+        return registry.isRevoked(liveTokens[next]);
+    }
+
+    @Benchmark
+    public boolean revoked() {
+        next = (next + 1) & (TOKENS - 1);
+        return registry.isRevoked(revokedTokens[next]);
+    }
+
+    private static ParsedToken token(String tokenId, Instant expiresAt) {
+        return ParsedToken.builder().subject("juan@rodriguez.org").tokenId(tokenId).expiresAt(expiresAt).build();
+    }
+}
@@ -0,0 +1,106 @@
+package com.nisum.app.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nisum.app.UserManagementApiApplication;
+import com.nisum.app.infrastructure.dto.login.LoginRequestDto;
+import com.nisum.app.infrastructure.dto.user.UserRegistrationRequestDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end latency over loopback HTTP of getting a fresh access token: {@code login} checks the
+ * password (calibrated hashing, default target latency) while {@code refresh} rotates a refresh token
+ * with a SHA-256 lookup. Refresh should be at least 100x cheaper. Rate limiting is off so logins are
+ * not throttled. The long warmup is what the whole web, security and JPA stack takes to be compiled
+ * on a small machine; until then refresh is several times slower.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 10)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TokenRefreshBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private String baseUrl;
+    private HttpRequest loginRequest;
+    private String refreshToken;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = SpringApplication.run(UserManagementApiApplication.class,
+                "--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.nisum.app=WARN",
+                "--logging.level.org.springframework.web=WARN",
+                "--app.security.rate-limit.enabled=false");
+        int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port;
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        send(post("/api/users", objectMapper.writeValueAsString(new UserRegistrationRequestDto(
+                "Juan Rodriguez", "juan@rodriguez.org", "Password123", List.of()))));
+        loginRequest = post("/api/login",
+                objectMapper.writeValueAsString(new LoginRequestDto("juan@rodriguez.org", "Password123")));
+        refreshToken = (String) objectMapper.readValue(send(loginRequest), Map.class).get("refresh_token");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String login() throws Exception {
+        return send(loginRequest);
+    }
+
+    @Benchmark
+    public String refresh() throws Exception {
+        // Every refresh rotates the token: the next call must present the new one
+        String response = send(post("/api/token/refresh",
+                objectMapper.writeValueAsString(Map.of("refresh_token", refreshToken))));
+        refreshToken = (String) objectMapper.readValue(response, Map.class).get("refresh_token");
+        return response;
+    }
+
+    private HttpRequest post(String path, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private String send(HttpRequest request) throws Exception {
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200 && response.statusCode() != 201) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+}
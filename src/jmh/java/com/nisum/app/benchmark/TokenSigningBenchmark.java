@@ -0,0 +1,81 @@
+package com.nisum.app.benchmark;
+
+import com.nisum.app.application.service.token.AsymmetricTokenCodec;
+import com.nisum.app.application.service.token.Hs256TokenCodec;
+import com.nisum.app.application.service.token.ParsedToken;
+import com.nisum.app.application.service.token.TokenCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of signing (login, refresh) and fully verifying (a verified-cache miss) the same token with each
+ * algorithm of the key ring. ES256 and EdDSA buy offline verification by other services with a few tens
+ * of microseconds per token, against about one for HS256.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenSigningBenchmark {
+
+    private static final long LIFETIME = 900_000L;
+
+    @Param({"HS256", "ES256", "EdDSA"})
+    private String algorithm;
+
+    private TokenCodec codec;
+    private UUID userId;
+    private List<String> authorities;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        codec = switch (algorithm) {
+            case "HS256" -> new Hs256TokenCodec("hs-1", "mySecretKey123456789mySecretKey1".getBytes(StandardCharsets.US_ASCII));
+            case "ES256" -> asymmetric("EC", "es-1");
+            default -> asymmetric("Ed25519", "ed-1");
+        };
+        userId = UUID.randomUUID();
+        authorities = List.of("ROLE_USER");
+        token = sign();
+    }
+
+    private static AsymmetricTokenCodec asymmetric(String keyAlgorithm, String keyId) throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance(keyAlgorithm);
+        if ("EC".equals(keyAlgorithm)) {
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+        }
+        KeyPair keyPair = generator.generateKeyPair();
+        return new AsymmetricTokenCodec(keyId, keyPair.getPrivate(), keyPair.getPublic());
+    }
+
+    @Benchmark
+    public String sign() {
+        long now = System.currentTimeMillis();
+        return codec.sign("juan@rodriguez.org", TokenCodec.newTokenId(), userId, 1L, authorities, now, now + LIFETIME);
+    }
+
+    @Benchmark
+    public ParsedToken verify() {
+        return codec.verify(token, System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,48 @@
+package com.nisum.app.benchmark;
+
+import com.nisum.app.domain.factory.UserFactory;
+import com.nisum.app.domain.model.User;
+import com.nisum.app.infrastructure.dto.phone.PhoneDto;
+import com.nisum.app.infrastructure.dto.user.UserRegistrationRequestDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class UserFactoryBenchmark {
+
+    private UserFactory userFactory;
+    private UserRegistrationRequestDto requestDto;
+
+    @Setup
+    public void setUp() {
+        userFactory = new UserFactory(new BCryptPasswordEncoder());
+        requestDto = new UserRegistrationRequestDto(
+                "Juan Rodriguez",
+                "Juan@Rodriguez.org",
+                "Password123",
+                List.of(new PhoneDto("1234567", "1", "57"), new PhoneDto("7654321", "2", "58"))
+        );
+    }
+
+    @Benchmark
+    public User createUser() {
+        return userFactory.createUser(requestDto, "token");
+    }
+}
@@ -0,0 +1,79 @@
+package com.nisum.app.benchmark;
+
+import com.nisum.app.domain.specification.EmailValidationSpecification;
+import com.nisum.app.domain.specification.PasswordValidationSpecification;
+import com.nisum.app.domain.specification.RuleSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationSpecificationBenchmark {
+
+    private static final String EMAIL_REGEX = "^[A-Za-z0-9+_.-]+@(.+)$";
+    private static final String PASSWORD_REGEX = "^(?=.*[a-z])(?=.*[A-Z])(?=.*\\d)[a-zA-Z\\d]{8,}$";
+
+    private EmailValidationSpecification emailSpec;
+    private PasswordValidationSpecification passwordSpec;
+    private RuleSet<String[]> rules;
+    private String[] validCandidate;
+    private String[] invalidCandidate;
+
+    @Setup
+    public void setUp() {
+        emailSpec = new EmailValidationSpecification(EMAIL_REGEX);
+        passwordSpec = new PasswordValidationSpecification(PASSWORD_REGEX);
+        rules = RuleSet.<String[]>builder("benchmark")
+                .rule("email", "format", candidate -> candidate[0], emailSpec)
+                .rule("password", "format", candidate -> candidate[1], passwordSpec)
+                .build();
+        validCandidate = new String[]{"juan.rodriguez+tag@rodriguez.org", "Password123"};
+        invalidCandidate = new String[]{"juan.rodriguez.rodriguez.org", "passwordwithoutdigitsoruppercase"};
+    }
+
+    @Benchmark
+    public boolean validEmail() {
+        return emailSpec.isSatisfiedBy("juan.rodriguez+tag@rodriguez.org");
+    }
+
+    @Benchmark
+    public boolean invalidEmail() {
+        return emailSpec.isSatisfiedBy("juan.rodriguez.rodriguez.org");
+    }
+
+    @Benchmark
+    public boolean validPassword() {
+        return passwordSpec.isSatisfiedBy("Password123");
+    }
+
+    @Benchmark
+    public boolean invalidPassword() {
+        return passwordSpec.isSatisfiedBy("passwordwithoutdigitsoruppercase");
+    }
+
+    // Both rules plus the timing the rule set records for each
+    @Benchmark
+    public List<RuleSet.Violation> ruleSetValid() {
+        return rules.validate(validCandidate);
+    }
+
+    @Benchmark
+    public List<RuleSet.Violation> ruleSetInvalid() {
+        return rules.validate(invalidCandidate);
+    }
+}
@@ -0,0 +1,20 @@
+package com.nisum.app.application.service;
+
+import com.nisum.app.infrastructure.dto.user.BulkRegistrationResponseDto;
+import com.nisum.app.infrastructure.dto.user.UserRegistrationRequestDto;
+
+import java.util.List;
+
+public interface IBulkUserRegistrationService {
+
+    /**
+     * Registers every valid item, one transaction per chunk. Invalid or duplicated items are
+     * reported in the per-item result instead of failing the whole request.
+     */
+    BulkRegistrationResponseDto registerUsers(List<UserRegistrationRequestDto> requests);
+
+    /**
+     * Most users a request may register, so that streamed bodies can be cut short.
+     */
+    int maxItems();
+}
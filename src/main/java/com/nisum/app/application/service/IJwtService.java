@@ -1,12 +1,29 @@
 package com.nisum.app.application.service;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.function.Function;
+
+import com.nisum.app.application.service.token.ParsedToken;
+import com.nisum.app.domain.model.User;
 import io.jsonwebtoken.Claims;
 
 
 public interface IJwtService {
     String generateToken(String email);
+
+    /**
+     * Issues a token that also carries the user id, its authorities and the user's current token
+     * version, enough to authenticate later requests without loading the user.
+     */
+    String generateToken(User user, Collection<String> authorities);
+
+    /**
+     * Verifies the signature and expiry once and returns the resulting claims.
+     * Throws {@link io.jsonwebtoken.JwtException} when the token is invalid or expired.
+     */
+    ParsedToken parseToken(String token);
+
     String extractEmail(String token);
 
     Date extractExpiration(String token);
@@ -16,4 +33,10 @@ public interface IJwtService {
     Boolean isTokenExpired(String token);
 
     Boolean validateToken(String token, String email);
+
+    /**
+     * Like {@link #validateToken(String, String)}, and also rejects tokens issued before the user's
+     * token version was bumped.
+     */
+    Boolean validateToken(String token, User user);
 }
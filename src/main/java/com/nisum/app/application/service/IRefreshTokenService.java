@@ -0,0 +1,27 @@
+package com.nisum.app.application.service;
+
+import com.nisum.app.domain.model.User;
+import com.nisum.app.infrastructure.dto.login.TokenResponseDto;
+
+import java.util.UUID;
+
+public interface IRefreshTokenService {
+
+    /**
+     * Starts a session for the user and returns its first refresh token; only its hash is stored.
+     */
+    String issue(User user);
+
+    /**
+     * Exchanges a refresh token for a new access token and a new refresh token of the same session.
+     * A token presented a second time ends its whole session.
+     */
+    TokenResponseDto refresh(String refreshToken);
+
+    /**
+     * Ends the session the refresh token belongs to; unknown tokens are ignored.
+     */
+    void revokeSession(String refreshToken);
+
+    void revokeAllSessions(UUID userId);
+}
@@ -0,0 +1,17 @@
+package com.nisum.app.application.service;
+
+import java.util.UUID;
+
+public interface ITokenRevocationService {
+
+    /**
+     * Revokes the given token, and ends the session of the refresh token if one is given; the user's
+     * other sessions stay signed in.
+     */
+    void logout(String token, String refreshToken);
+
+    /**
+     * Revokes every token issued to the user so far by bumping its token version, and ends all of its sessions.
+     */
+    void revokeAllTokens(UUID userId);
+}
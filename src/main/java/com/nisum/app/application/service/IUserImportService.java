@@ -0,0 +1,26 @@
+package com.nisum.app.application.service;
+
+import com.nisum.app.infrastructure.dto.user.UserImportReportDto;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+public interface IUserImportService {
+
+    /**
+     * Imports the file in the calling thread, resuming from its checkpoint if a previous run stopped.
+     * Rows that cannot be imported go to the rejected-row report; the import only fails as a whole
+     * on I/O or database errors, and can then be run again.
+     */
+    UserImportReportDto importFile(Path file);
+
+    /**
+     * Starts importing a file of the import directory in the background and returns right away.
+     */
+    UserImportReportDto startImport(String fileName);
+
+    /**
+     * Progress of the running import, or the result of the last one.
+     */
+    Optional<UserImportReportDto> getStatus();
+}
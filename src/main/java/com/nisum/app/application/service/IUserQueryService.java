@@ -0,0 +1,12 @@
+package com.nisum.app.application.service;
+
+import com.nisum.app.infrastructure.dto.user.UserPageResponseDto;
+
+public interface IUserQueryService {
+
+    /**
+     * Returns the users after the cursor (or the first page when it is null), ordered by creation
+     * date. The response carries the cursor of the next page, null on the last one.
+     */
+    UserPageResponseDto listUsers(String cursor, Integer size, boolean includePhones);
+}
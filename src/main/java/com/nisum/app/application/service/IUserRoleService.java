@@ -0,0 +1,12 @@
+package com.nisum.app.application.service;
+
+import java.util.UUID;
+
+public interface IUserRoleService {
+
+    /**
+     * Grants or withdraws ROLE_ADMIN. The user's tokens carry its roles, so all of them are revoked and
+     * the next login issues tokens with the new ones.
+     */
+    void setAdmin(UUID userId, boolean admin);
+}
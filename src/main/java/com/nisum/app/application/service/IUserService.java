@@ -1,5 +1,6 @@
 package com.nisum.app.application.service;
 
+import com.nisum.app.domain.model.UserProfileVersion;
 import com.nisum.app.infrastructure.dto.login.LoginRequestDto;
 import com.nisum.app.infrastructure.dto.user.UserInfoResponseDto;
 import com.nisum.app.infrastructure.dto.user.UserRegistrationRequestDto;
@@ -9,6 +10,12 @@ public interface IUserService {
 
     UserResponseDto registerUser(UserRegistrationRequestDto requestDto);
     UserResponseDto loginUser(LoginRequestDto requestDto);
-    UserInfoResponseDto getUserProfile(String email);
+    UserInfoResponseDto getUserProfile(String email, boolean includePhones);
+
+    /**
+     * What the profile's ETag derives from, without loading the user; last login as getUserProfile
+     * reports it.
+     */
+    UserProfileVersion getUserProfileVersion(String email);
 
 }
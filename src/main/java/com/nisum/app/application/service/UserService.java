@@ -11,7 +11,7 @@ import com.nisum.app.infrastructure.dto.user.UserResponseDto;
 import com.nisum.app.infrastructure.exception.BusinessException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,7 +25,7 @@ public class UserService {
     private final JwtService jwtService;
     private final EmailValidationSpecification emailValidationSpec;
     private final PasswordValidationSpecification passwordValidationSpec;
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final PasswordEncoder passwordEncoder;
 
     @Transactional
     public UserResponseDto registerUser(UserRegistrationRequestDto requestDto) {
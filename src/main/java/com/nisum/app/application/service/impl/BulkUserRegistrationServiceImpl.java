@@ -0,0 +1,273 @@
+package com.nisum.app.application.service.impl;
+
+import com.nisum.app.application.service.IBulkUserRegistrationService;
+import com.nisum.app.application.service.IJwtService;
+import com.nisum.app.domain.factory.UserFactory;
+import com.nisum.app.domain.model.User;
+import com.nisum.app.domain.repository.UserRepository;
+import com.nisum.app.domain.specification.EmailValidationSpecification;
+import com.nisum.app.domain.specification.PasswordValidationSpecification;
+import com.nisum.app.infrastructure.dto.user.BulkRegistrationItemDto;
+import com.nisum.app.infrastructure.dto.user.BulkRegistrationItemDto.Status;
+import com.nisum.app.infrastructure.dto.user.BulkRegistrationResponseDto;
+import com.nisum.app.infrastructure.dto.user.UserRegistrationRequestDto;
+import com.nisum.app.infrastructure.exception.BusinessException;
+import com.nisum.app.infrastructure.exception.HashingCapacityExceededException;
+import com.nisum.app.infrastructure.index.RegisteredEmailIndex;
+import com.nisum.app.infrastructure.security.AuthorityResolver;
+import com.nisum.app.infrastructure.security.PasswordHashingExecutor;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+@Slf4j
+public class BulkUserRegistrationServiceImpl implements IBulkUserRegistrationService {
+
+    private final UserRepository userRepository;
+    private final UserFactory userFactory;
+    private final IJwtService jwtService;
+    private final EmailValidationSpecification emailValidationSpec;
+    private final PasswordValidationSpecification passwordValidationSpec;
+    private final AuthorityResolver authorityResolver;
+    private final RegisteredEmailIndex emailIndex;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxItems;
+
+    public BulkUserRegistrationServiceImpl(UserRepository userRepository,
+                                           UserFactory userFactory,
+                                           IJwtService jwtService,
+                                           EmailValidationSpecification emailValidationSpec,
+                                           PasswordValidationSpecification passwordValidationSpec,
+                                           AuthorityResolver authorityResolver,
+                                           RegisteredEmailIndex emailIndex,
+                                           PasswordHashingExecutor passwordHashingExecutor,
+                                           Validator validator,
+                                           EntityManager entityManager,
+                                           PlatformTransactionManager transactionManager,
+                                           @Value("${app.users.batch.chunk-size:500}") int chunkSize,
+                                           @Value("${app.users.batch.max-items:10000}") int maxItems) {
+        this.userRepository = userRepository;
+        this.userFactory = userFactory;
+        this.jwtService = jwtService;
+        this.emailValidationSpec = emailValidationSpec;
+        this.passwordValidationSpec = passwordValidationSpec;
+        this.authorityResolver = authorityResolver;
+        this.emailIndex = emailIndex;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.validator = validator;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxItems = maxItems;
+    }
+
+    @Override
+    public int maxItems() {
+        return maxItems;
+    }
+
+    @Override
+    public BulkRegistrationResponseDto registerUsers(List<UserRegistrationRequestDto> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new BusinessException("el lote no contiene usuarios");
+        }
+        if (requests.size() > maxItems) {
+            throw new BusinessException("el lote excede el maximo de " + maxItems + " usuarios");
+        }
+        log.info("Attempting bulk registration of {} users in chunks of {}", requests.size(), chunkSize);
+        long start = System.nanoTime();
+
+        BulkRegistrationItemDto[] results = new BulkRegistrationItemDto[requests.size()];
+        Set<String> seenEmails = new HashSet<>();
+        for (int from = 0; from < requests.size(); from += chunkSize) {
+            int to = Math.min(from + chunkSize, requests.size());
+            registerChunk(requests, from, to, seenEmails, results);
+        }
+
+        int created = (int) Arrays.stream(results).filter(r -> r.getStatus() == Status.CREATED).count();
+        log.info("Bulk registration finished: {} created, {} rejected in {} ms",
+                created, results.length - created, (System.nanoTime() - start) / 1_000_000);
+        return BulkRegistrationResponseDto.builder()
+                .total(results.length)
+                .created(created)
+                .rejected(results.length - created)
+                .results(Arrays.asList(results))
+                .build();
+    }
+
+    private void registerChunk(List<UserRegistrationRequestDto> requests, int from, int to,
+                               Set<String> seenEmails, BulkRegistrationItemDto[] results) {
+        // Cheap checks first, so BCrypt only runs for items that will actually be inserted
+        Map<String, Integer> candidates = new LinkedHashMap<>();
+        for (int i = from; i < to; i++) {
+            UserRegistrationRequestDto request = requests.get(i);
+            String error = validate(request);
+            if (error == null && !seenEmails.add(request.getEmail().toLowerCase())) {
+                error = "correo duplicado en el lote";
+            }
+            if (error != null) {
+                results[i] = rejected(i, request, error);
+            } else {
+                candidates.put(request.getEmail().toLowerCase(), i);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        // One IN query per chunk instead of an existsByEmail round trip per user, and only for the
+        // emails the index cannot rule out
+        List<String> possiblyRegistered = candidates.keySet().stream().filter(emailIndex::mightContain).toList();
+        if (!possiblyRegistered.isEmpty()) {
+            for (String existing : userRepository.findExistingEmails(possiblyRegistered)) {
+                Integer index = candidates.remove(existing);
+                results[index] = rejected(index, requests.get(index), "este correo ya existe");
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        List<User> users;
+        try {
+            users = createUsers(requests, new ArrayList<>(candidates.values()));
+        } catch (HashingCapacityExceededException e) {
+            // Nothing registered yet: the whole request gets 503 and Retry-After
+            if (from == 0) {
+                throw e;
+            }
+            log.warn("Bulk registration chunk [{}, {}) refused: password hashing queue full", from, to);
+            for (Integer index : candidates.values()) {
+                results[index] = rejected(index, requests.get(index), e.getMessage());
+            }
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                userRepository.saveAll(users);
+                // Flush the JDBC batches now and drop the chunk from the persistence context, which
+                // otherwise keeps growing for the whole request under open-in-view
+                entityManager.flush();
+                entityManager.clear();
+            });
+        } catch (DataAccessException e) {
+            // Typically a concurrent registration of one of the emails after the IN check; the
+            // whole chunk was rolled back, so report every item in it as not registered
+            log.error("Bulk registration chunk [{}, {}) rolled back: {}", from, to, e.getMessage());
+            for (Integer index : candidates.values()) {
+                results[index] = rejected(index, requests.get(index), "no se pudo registrar el usuario, reintente");
+            }
+            return;
+        }
+
+        users.forEach(user -> emailIndex.add(user.getEmail()));
+        int position = 0;
+        for (Integer index : candidates.values()) {
+            User user = users.get(position++);
+            results[index] = BulkRegistrationItemDto.builder()
+                    .index(index)
+                    .email(user.getEmail())
+                    .status(Status.CREATED)
+                    .id(user.getId())
+                    .token(user.getToken())
+                    .build();
+        }
+    }
+
+    // Hashing and signing dominate the cost of a registration and are independent per user. They run on
+    // the bounded hashing executor, shared with login and registration, one slice per hashing thread
+    private List<User> createUsers(List<UserRegistrationRequestDto> requests, List<Integer> indexes) {
+        int slices = Math.min(passwordHashingExecutor.parallelism(), indexes.size());
+        List<CompletableFuture<List<User>>> futures = new ArrayList<>(slices);
+        // Set once the chunk is given up, so slices already running stop hashing at the next user
+        AtomicBoolean abandoned = new AtomicBoolean();
+        try {
+            for (int slice = 0; slice < slices; slice++) {
+                List<Integer> sliceIndexes = indexes.subList(indexes.size() * slice / slices,
+                        indexes.size() * (slice + 1) / slices);
+                futures.add(passwordHashingExecutor.submit(() -> sliceIndexes.stream()
+                        .takeWhile(index -> !abandoned.get())
+                        .map(index -> createUser(requests.get(index)))
+                        .toList()));
+            }
+        } catch (HashingCapacityExceededException e) {
+            // A later slice was refused: the chunk is rejected, so the slices already queued must not
+            // keep the hashing threads busy for users that will never be saved
+            abandon(futures, abandoned);
+            throw e;
+        }
+        List<User> users = new ArrayList<>(indexes.size());
+        try {
+            for (CompletableFuture<List<User>> future : futures) {
+                users.addAll(future.join());
+            }
+        } catch (CompletionException e) {
+            abandon(futures, abandoned);
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        return users;
+    }
+
+    // A cancelled future whose task has not started yet never runs it; the flag stops the ones running
+    private static void abandon(List<CompletableFuture<List<User>>> futures, AtomicBoolean abandoned) {
+        abandoned.set(true);
+        futures.forEach(future -> future.cancel(false));
+    }
+
+    private User createUser(UserRegistrationRequestDto request) {
+        User user = userFactory.createUser(request);
+        user.setToken(jwtService.generateToken(user, authorityResolver.resolve(user)));
+        return user;
+    }
+
+    private String validate(UserRegistrationRequestDto request) {
+        if (request == null) {
+            return "el usuario es requerido";
+        }
+        Set<ConstraintViolation<UserRegistrationRequestDto>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            Map<String, String> errors = new LinkedHashMap<>();
+            violations.forEach(v -> errors.put(v.getPropertyPath().toString(), v.getMessage()));
+            return "Validacion fallida: " + errors;
+        }
+        if (!emailValidationSpec.isSatisfiedBy(request.getEmail())) {
+            return emailValidationSpec.getErrorMessage();
+        }
+        if (!passwordValidationSpec.isSatisfiedBy(request.getPassword())) {
+            return passwordValidationSpec.getErrorMessage();
+        }
+        return null;
+    }
+
+    private static BulkRegistrationItemDto rejected(int index, UserRegistrationRequestDto request, String message) {
+        return BulkRegistrationItemDto.builder()
+                .index(index)
+                .email(request != null ? request.getEmail() : null)
+                .status(Status.REJECTED)
+                .mensaje(message)
+                .build();
+    }
+}
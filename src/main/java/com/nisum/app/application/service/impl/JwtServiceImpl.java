@@ -1,57 +1,185 @@
 package com.nisum.app.application.service.impl;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.nisum.app.application.service.IJwtService;
+import com.nisum.app.application.service.token.ParsedToken;
+import com.nisum.app.application.service.token.TokenCodec;
+import com.nisum.app.application.service.token.TokenKeyRing;
+import com.nisum.app.domain.model.User;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.impl.DefaultClaims;
+import io.jsonwebtoken.impl.TextCodec;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.Date;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 @Service
 public class JwtServiceImpl implements IJwtService {
 
-    private final String secretKey;
+    // Cloned per digest rather than held in a ThreadLocal: under virtual threads every request runs on a
+    // fresh thread, so a ThreadLocal would fall back to a provider lookup each time
+    private static final MessageDigest SHA_256 = newSha256();
+    private static final ObjectReader CLAIMS_READER = new ObjectMapper().readerFor(Map.class);
+
+    private final Supplier<TokenKeyRing> keyRing;
     private final long jwtExpiration;
+    private final Cache<ByteBuffer, VerifiedToken> verifiedTokens;
+    private final Timer signTimer;
+    private final Timer verifiedValid;
+    private final Timer verifiedExpired;
+    private final Timer verifiedInvalid;
+
+    public JwtServiceImpl(String secret, long jwtExpiration) {
+        this(secret, jwtExpiration, 0);
+    }
+
+    public JwtServiceImpl(String secret, long jwtExpiration, long verifiedCacheMaxSize) {
+        // Meters of an empty composite registry record nothing
+        this(secret, jwtExpiration, verifiedCacheMaxSize, new CompositeMeterRegistry());
+    }
 
-    public JwtServiceImpl(@Value("${app.jwt.secret}") String secret,
-                          @Value("${app.jwt.expiration}") long jwtExpiration) {
-        this.secretKey = secret;
+    public JwtServiceImpl(String secret, long jwtExpiration, long verifiedCacheMaxSize, MeterRegistry meterRegistry) {
+        // Same key bytes jjwt derives from a String secret, decoded once instead of on every sign/verify
+        this(fixed(TokenKeyRing.of(TextCodec.BASE64.decode(secret))), jwtExpiration, verifiedCacheMaxSize,
+                meterRegistry);
+    }
+
+    /**
+     * @param keyRing the current keys, read on every sign and verify so that a rotation applies at once
+     */
+    @Autowired
+    public JwtServiceImpl(Supplier<TokenKeyRing> keyRing,
+                          @Value("${app.jwt.expiration}") long jwtExpiration,
+                          @Value("${app.jwt.verified-cache.max-size:0}") long verifiedCacheMaxSize,
+                          MeterRegistry meterRegistry) {
+        this.keyRing = keyRing;
         this.jwtExpiration = jwtExpiration;
+        this.verifiedTokens = verifiedCacheMaxSize > 0
+                ? Caffeine.newBuilder()
+                        .maximumSize(verifiedCacheMaxSize)
+                        .expireAfter(new ExpireAtTokenExpiry())
+                        .recordStats()
+                        .build()
+                : null;
+        if (verifiedTokens != null) {
+            // Hits only show up in cache.gets: a timer on a sub-microsecond lookup costs a sizable share of it
+            CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "verifiedTokens");
+        }
+        this.signTimer = Timer.builder("jwt.sign")
+                .description("Time to build and sign a token")
+                .register(meterRegistry);
+        this.verifiedValid = verifyTimer(meterRegistry, "valid");
+        this.verifiedExpired = verifyTimer(meterRegistry, "expired");
+        this.verifiedInvalid = verifyTimer(meterRegistry, "invalid");
+    }
+
+    private static Supplier<TokenKeyRing> fixed(TokenKeyRing keyRing) {
+        return () -> keyRing;
+    }
+
+    private static Timer verifyTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("jwt.verify")
+                .description("Time to verify a token signature and read its claims")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
     }
 
     @Override
     public String generateToken(String email) {
-        Map<String, Object> claims = new HashMap<>();
-        claims.put("email", email);
-        return createToken(claims, email);
+        return createToken(email, null, null, List.of());
+    }
+
+    @Override
+    public String generateToken(User user, Collection<String> authorities) {
+        return createToken(user.getEmail(), user.getId(), user.getTokenVersion(), authorities);
+    }
+
+    private String createToken(String subject, UUID userId, Long tokenVersion, Collection<String> authorities) {
+        long start = System.nanoTime();
+        long now = System.currentTimeMillis();
+        String token = keyRing.get().signer().sign(subject, TokenCodec.newTokenId(), userId, tokenVersion,
+                authorities, now, now + jwtExpiration);
+        signTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return token;
+    }
+
+    @Override
+    public ParsedToken parseToken(String token) {
+        TokenKeyRing ring = keyRing.get();
+        if (verifiedTokens == null) {
+            return timedVerify(ring, token);
+        }
+
+        // An entry only counts for the key ring that verified it: once a reload drops the token's key, the
+        // token must fail like it would without the cache
+        ByteBuffer key = digest(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(key);
+        if (cached != null && cached.keyRing() == ring && !cached.token().isExpired(Instant.now())) {
+            return cached.token();
+        }
+
+        // A miss (or an entry that outlived exp by a few ms) goes through full verification, which throws if expired
+        ParsedToken parsed = timedVerify(ring, token);
+        verifiedTokens.put(key, new VerifiedToken(parsed, ring));
+        return parsed;
     }
 
-    private String createToken(Map<String, Object> claims, String subject) {
-        Date now = new Date();
-        Date expiration = new Date(now.getTime() + jwtExpiration);
+    private ParsedToken timedVerify(TokenKeyRing ring, String token) {
+        long start = System.nanoTime();
+        Timer timer = verifiedInvalid;
+        try {
+            ParsedToken parsed = ring.verify(token, System.currentTimeMillis());
+            timer = verifiedValid;
+            return parsed;
+        } catch (ExpiredJwtException e) {
+            timer = verifiedExpired;
+            throw e;
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
 
-        return Jwts.builder()
-                .setClaims(claims)
-                .setSubject(subject)
-                .setIssuedAt(now)
-                .setExpiration(expiration)
-                .signWith(SignatureAlgorithm.HS256, secretKey)
-                .compact();
+    private ParsedToken verify(String token) {
+        return keyRing.get().verify(token, System.currentTimeMillis());
     }
 
     @Override
     public String extractEmail(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return parseToken(token).getSubject();
     }
 
     @Override
     public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        Instant expiresAt = parseToken(token).getExpiresAt();
+        return expiresAt != null ? Date.from(expiresAt) : null;
     }
 
     @Override
@@ -60,21 +188,85 @@ public class JwtServiceImpl implements IJwtService {
         return claimsResolver.apply(claims);
     }
 
+    // Arbitrary claim access, off the request path: verified by the key ring (jjwt 0.9.1 knows no EdDSA),
+    // then the payload is read whole into jjwt's Claims
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .setSigningKey(secretKey)
-                .parseClaimsJws(token)
-                .getBody();
+        verify(token);
+        String payload = token.substring(token.indexOf('.') + 1, token.lastIndexOf('.'));
+        try {
+            Map<String, Object> claims = CLAIMS_READER.readValue(Base64.getUrlDecoder().decode(payload));
+            return new DefaultClaims(claims);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new MalformedJwtException("Unable to read JWT claims", e);
+        }
     }
 
     @Override
     public Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+        return parseToken(token).isExpired(Instant.now());
     }
 
     @Override
     public Boolean validateToken(String token, String email) {
-        final String tokenEmail = extractEmail(token);
-        return (tokenEmail.equals(email) && !isTokenExpired(token));
+        try {
+            ParsedToken parsedToken = parseToken(token);
+            return parsedToken.getSubject().equals(email) && !parsedToken.isExpired(Instant.now());
+        } catch (JwtException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public Boolean validateToken(String token, User user) {
+        try {
+            ParsedToken parsedToken = parseToken(token);
+            return parsedToken.getSubject().equals(user.getEmail())
+                    && !parsedToken.isExpired(Instant.now())
+                    && parsedToken.matchesTokenVersion(user.getTokenVersion());
+        } catch (JwtException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static ByteBuffer digest(String token) {
+        try {
+            MessageDigest sha256 = (MessageDigest) SHA_256.clone();
+            return ByteBuffer.wrap(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (CloneNotSupportedException e) {
+            return ByteBuffer.wrap(newSha256().digest(token.getBytes(StandardCharsets.US_ASCII)));
+        }
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record VerifiedToken(ParsedToken token, TokenKeyRing keyRing) {
+    }
+
+    private static final class ExpireAtTokenExpiry implements Expiry<ByteBuffer, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, VerifiedToken value, long currentTime) {
+            Instant expiresAt = value.token().getExpiresAt();
+            if (expiresAt == null) {
+                return Long.MAX_VALUE;
+            }
+            return Math.max(0, Duration.between(Instant.now(), expiresAt).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
@@ -0,0 +1,181 @@
+package com.nisum.app.application.service.impl;
+
+import com.nisum.app.application.service.IJwtService;
+import com.nisum.app.application.service.IRefreshTokenService;
+import com.nisum.app.domain.model.RefreshToken;
+import com.nisum.app.domain.model.User;
+import com.nisum.app.domain.repository.RefreshTokenRepository;
+import com.nisum.app.domain.repository.UserRepository;
+import com.nisum.app.infrastructure.dto.login.TokenResponseDto;
+import com.nisum.app.infrastructure.exception.InvalidRefreshTokenException;
+import com.nisum.app.infrastructure.metrics.UserOperationMetrics;
+import com.nisum.app.infrastructure.metrics.UserOperationMetrics.Operation;
+import com.nisum.app.infrastructure.metrics.UserOperationMetrics.Outcome;
+import com.nisum.app.infrastructure.metrics.UserOperationMetrics.Stage;
+import com.nisum.app.infrastructure.security.AuthorityResolver;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Refresh tokens are 256 random bits, so a plain SHA-256 is enough to store them: unlike passwords
+ * they cannot be guessed, and a refresh costs a hash and a primary key lookup instead of a BCrypt
+ * check. Every refresh rotates the token; the old one is kept, marked used, until it expires so that
+ * presenting it again is detected as reuse and ends the session.
+ */
+@Service
+@Slf4j
+public class RefreshTokenServiceImpl implements IRefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+    // Base64URL of 32 bytes is 43 chars; anything much longer is not ours and is not hashed
+    private static final int MAX_TOKEN_LENGTH = 64;
+    private static final String INVALID_TOKEN_MESSAGE = "refresh token invalido o expirado";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final IJwtService jwtService;
+    private final AuthorityResolver authorityResolver;
+    private final UserOperationMetrics metrics;
+    private final Duration refreshTokenLifetime;
+    private final long accessTokenLifetimeSeconds;
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenServiceImpl(RefreshTokenRepository refreshTokenRepository,
+                                   UserRepository userRepository,
+                                   IJwtService jwtService,
+                                   AuthorityResolver authorityResolver,
+                                   UserOperationMetrics metrics,
+                                   @Value("${app.jwt.refresh-token.expiration:P14D}") Duration refreshTokenLifetime,
+                                   @Value("${app.jwt.expiration}") long accessTokenLifetimeMillis) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.jwtService = jwtService;
+        this.authorityResolver = authorityResolver;
+        this.metrics = metrics;
+        this.refreshTokenLifetime = refreshTokenLifetime;
+        this.accessTokenLifetimeSeconds = accessTokenLifetimeMillis / 1000;
+    }
+
+    @Override
+    public String issue(User user) {
+        return issue(user, UUID.randomUUID());
+    }
+
+    @Override
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public TokenResponseDto refresh(String refreshToken) {
+        long start = System.nanoTime();
+        Outcome outcome = Outcome.ERROR;
+        try {
+            TokenResponseDto response = doRefresh(refreshToken);
+            outcome = Outcome.SUCCESS;
+            return response;
+        } catch (InvalidRefreshTokenException e) {
+            outcome = Outcome.BAD_CREDENTIALS;
+            throw e;
+        } finally {
+            metrics.record(Operation.REFRESH, outcome, start);
+        }
+    }
+
+    private TokenResponseDto doRefresh(String refreshToken) {
+        LocalDateTime now = LocalDateTime.now();
+        String tokenHash = hash(refreshToken);
+        RefreshToken current = metrics.time(Operation.REFRESH, Stage.LOOKUP,
+                        () -> tokenHash != null ? refreshTokenRepository.findById(tokenHash) : Optional.<RefreshToken>empty())
+                .filter(token -> token.getExpiresAt().isAfter(now))
+                .orElseThrow(() -> new InvalidRefreshTokenException(INVALID_TOKEN_MESSAGE));
+
+        // Conditional update, so that of two concurrent refreshes with the same token only one wins
+        if (refreshTokenRepository.markUsed(tokenHash, now) == 0) {
+            // Rotated before: a retried refresh cannot be told from a stolen token, the session ends either way
+            refreshTokenRepository.deleteByFamilyId(current.getFamilyId());
+            log.warn("Refresh token reused, session ended for user: {}", current.getUserId());
+            throw new InvalidRefreshTokenException(INVALID_TOKEN_MESSAGE);
+        }
+
+        User user = metrics.time(Operation.REFRESH, Stage.LOOKUP, () -> userRepository.findById(current.getUserId()))
+                .filter(candidate -> !Boolean.FALSE.equals(candidate.getIsActive())
+                        && current.getTokenVersion().equals(candidate.getTokenVersion()))
+                .orElse(null);
+        if (user == null) {
+            // Deactivated, deleted or all of its tokens revoked since the session started
+            refreshTokenRepository.deleteByFamilyId(current.getFamilyId());
+            throw new InvalidRefreshTokenException(INVALID_TOKEN_MESSAGE);
+        }
+
+        String accessToken = metrics.time(Operation.REFRESH, Stage.TOKEN,
+                () -> jwtService.generateToken(user, authorityResolver.resolve(user)));
+        String nextRefreshToken = metrics.time(Operation.REFRESH, Stage.SAVE, () -> issue(user, current.getFamilyId()));
+        log.debug("Refreshed tokens for user: {}", user.getEmail());
+        return TokenResponseDto.builder()
+                .token(accessToken)
+                .refreshToken(nextRefreshToken)
+                .expiresIn(accessTokenLifetimeSeconds)
+                .build();
+    }
+
+    @Override
+    @Transactional
+    public void revokeSession(String refreshToken) {
+        String tokenHash = hash(refreshToken);
+        if (tokenHash != null) {
+            refreshTokenRepository.findById(tokenHash)
+                    .ifPresent(token -> refreshTokenRepository.deleteByFamilyId(token.getFamilyId()));
+        }
+    }
+
+    @Override
+    @Transactional
+    public void revokeAllSessions(UUID userId) {
+        refreshTokenRepository.deleteByUserId(userId);
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.refresh-token.purge-interval:PT1H}")
+    public void purgeExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        log.debug("Purged {} expired refresh tokens", deleted);
+    }
+
+    private String issue(User user, UUID familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String refreshToken = ENCODER.encodeToString(bytes);
+        LocalDateTime now = LocalDateTime.now();
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(hash(refreshToken))
+                .familyId(familyId)
+                .userId(user.getId())
+                .tokenVersion(user.getTokenVersion())
+                .created(now)
+                .expiresAt(now.plus(refreshTokenLifetime))
+                .build());
+        return refreshToken;
+    }
+
+    private static String hash(String refreshToken) {
+        if (refreshToken == null || refreshToken.length() > MAX_TOKEN_LENGTH) {
+            return null;
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return ENCODER.encodeToString(digest.digest(refreshToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
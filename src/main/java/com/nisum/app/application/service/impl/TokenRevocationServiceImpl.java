@@ -0,0 +1,86 @@
+package com.nisum.app.application.service.impl;
+
+import com.nisum.app.application.service.IJwtService;
+import com.nisum.app.application.service.IRefreshTokenService;
+import com.nisum.app.application.service.ITokenRevocationService;
+import com.nisum.app.application.service.token.ParsedToken;
+import com.nisum.app.domain.model.RevokedToken;
+import com.nisum.app.domain.model.User;
+import com.nisum.app.domain.repository.RevokedTokenRepository;
+import com.nisum.app.domain.repository.UserRepository;
+import com.nisum.app.infrastructure.exception.BusinessException;
+import com.nisum.app.infrastructure.security.RevokedTokenRegistry;
+import com.nisum.app.infrastructure.security.TokenVersionRegistry;
+import com.nisum.app.infrastructure.security.UserPrincipalCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TokenRevocationServiceImpl implements ITokenRevocationService {
+
+    private final IJwtService jwtService;
+    private final UserRepository userRepository;
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final RevokedTokenRegistry revokedTokens;
+    private final IRefreshTokenService refreshTokenService;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final UserPrincipalCache principalCache;
+
+    @Override
+    @Transactional
+    public void logout(String token, String refreshToken) {
+        ParsedToken parsedToken = jwtService.parseToken(token);
+        User user = userRepository.findByEmail(parsedToken.getSubject().toLowerCase())
+                .orElseThrow(() -> new BusinessException("Usuario no encontrado"));
+        if (refreshToken != null) {
+            refreshTokenService.revokeSession(refreshToken);
+        }
+
+        // Tokens without a jti or exp cannot be listed, nor can any token once the list is full:
+        // the user's tokens are then revoked all at once
+        if (parsedToken.getTokenId() == null || parsedToken.getExpiresAt() == null
+                || !revokedTokens.revoke(parsedToken.getTokenId(), parsedToken.getExpiresAt())) {
+            log.warn("Token of user {} could not be revoked alone, revoking all of its tokens", user.getEmail());
+            bumpTokenVersion(user);
+            return;
+        }
+        revokedTokenRepository.save(RevokedToken.builder()
+                .tokenId(parsedToken.getTokenId())
+                .userId(user.getId())
+                .expiresAt(LocalDateTime.ofInstant(parsedToken.getExpiresAt(), ZoneId.systemDefault()))
+                .revokedAt(LocalDateTime.now())
+                .build());
+        // Login hands back the stored token while it is valid, which this one no longer is
+        if (token.equals(user.getToken())) {
+            user.updateToken(null);
+        }
+        log.info("Token revoked for user: {}", user.getEmail());
+    }
+
+    @Override
+    @Transactional
+    public void revokeAllTokens(UUID userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new BusinessException("Usuario no encontrado"));
+        bumpTokenVersion(user);
+        log.info("All tokens revoked for user: {}", user.getEmail());
+    }
+
+    private void bumpTokenVersion(User user) {
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        user.updateToken(null);
+        userRepository.save(user);
+        refreshTokenService.revokeAllSessions(user.getId());
+        // Other instances pick the new version up on their next refresh, this one right away
+        principalCache.invalidate(user.getEmail());
+        tokenVersionRegistry.record(user.getId(), user.getTokenVersion(), !Boolean.FALSE.equals(user.getIsActive()));
+    }
+}
@@ -0,0 +1,323 @@
+package com.nisum.app.application.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nisum.app.application.service.IUserImportService;
+import com.nisum.app.domain.factory.UserFactory;
+import com.nisum.app.domain.model.User;
+import com.nisum.app.domain.specification.EmailValidationSpecification;
+import com.nisum.app.infrastructure.dto.user.UserImportRecordDto;
+import com.nisum.app.infrastructure.dto.user.UserImportReportDto;
+import com.nisum.app.infrastructure.dto.user.UserImportReportDto.Status;
+import com.nisum.app.infrastructure.exception.BusinessException;
+import com.nisum.app.infrastructure.importer.ImportCheckpoint;
+import com.nisum.app.infrastructure.importer.ImportRow;
+import com.nisum.app.infrastructure.importer.RejectedRowReport;
+import com.nisum.app.infrastructure.importer.UserImportReader;
+import com.nisum.app.infrastructure.index.RegisteredEmailIndex;
+import com.nisum.app.infrastructure.security.CalibratedPasswordEncoder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+@Slf4j
+public class UserImportServiceImpl implements IUserImportService {
+
+    // Keeps the IN list of the existing-email check well below driver parameter limits
+    private static final int EXISTING_EMAILS_QUERY_SIZE = 1000;
+
+    private final UserFactory userFactory;
+    private final EmailValidationSpecification emailValidationSpec;
+    private final Validator validator;
+    private final RegisteredEmailIndex emailIndex;
+    private final CalibratedPasswordEncoder passwordEncoder;
+    private final SessionFactory sessionFactory;
+    private final ObjectMapper objectMapper;
+    private final Path importDirectory;
+    private final int commitInterval;
+    private final int batchSize;
+    private final Counter insertedRows;
+    private final Counter rejectedRows;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "user-import");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile UserImportReportDto lastReport;
+
+    public UserImportServiceImpl(UserFactory userFactory,
+                                 EmailValidationSpecification emailValidationSpec,
+                                 Validator validator,
+                                 RegisteredEmailIndex emailIndex,
+                                 CalibratedPasswordEncoder passwordEncoder,
+                                 EntityManagerFactory entityManagerFactory,
+                                 ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.users.import.directory:imports}") Path importDirectory,
+                                 @Value("${app.users.import.commit-interval:5000}") int commitInterval,
+                                 @Value("${app.users.import.batch-size:500}") int batchSize) {
+        this.userFactory = userFactory;
+        this.emailValidationSpec = emailValidationSpec;
+        this.validator = validator;
+        this.emailIndex = emailIndex;
+        this.passwordEncoder = passwordEncoder;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.objectMapper = objectMapper;
+        this.importDirectory = importDirectory.toAbsolutePath().normalize();
+        this.commitInterval = commitInterval;
+        this.batchSize = batchSize;
+        this.insertedRows = Counter.builder("users.import.rows").tag("result", "inserted")
+                .description("Rows inserted by user imports")
+                .register(meterRegistry);
+        this.rejectedRows = Counter.builder("users.import.rows").tag("result", "rejected")
+                .description("Rows rejected by user imports")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public UserImportReportDto importFile(Path file) {
+        if (!running.compareAndSet(false, true)) {
+            throw new BusinessException("ya hay una importacion en curso");
+        }
+        try {
+            return runImport(file);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    @Override
+    public UserImportReportDto startImport(String fileName) {
+        Path file = importDirectory.resolve(fileName).normalize();
+        if (!file.startsWith(importDirectory)) {
+            throw new BusinessException("el archivo debe estar en el directorio de importacion");
+        }
+        if (!Files.isRegularFile(file)) {
+            throw new BusinessException("el archivo " + fileName + " no existe");
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new BusinessException("ya hay una importacion en curso");
+        }
+        lastReport = UserImportReportDto.builder().file(file.toString()).status(Status.RUNNING).build();
+        executor.execute(() -> {
+            try {
+                runImport(file);
+            } finally {
+                running.set(false);
+            }
+        });
+        return lastReport;
+    }
+
+    @Override
+    public Optional<UserImportReportDto> getStatus() {
+        return Optional.ofNullable(lastReport);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // The import stops after its current chunk; the checkpoint lets the next run continue
+        executor.shutdownNow();
+    }
+
+    private UserImportReportDto runImport(Path file) {
+        long start = System.nanoTime();
+        UserImportReportDto report = UserImportReportDto.builder()
+                .file(file.toString())
+                .status(Status.RUNNING)
+                .rejectedReport(RejectedRowReport.pathFor(file).toString())
+                .build();
+        long rowsThisRun = 0;
+        try {
+            Optional<ImportCheckpoint> saved = ImportCheckpoint.load(file);
+            if (saved.isPresent() && !saved.get().matches(file)) {
+                throw new BusinessException("el archivo cambio desde el ultimo checkpoint; elimine "
+                        + ImportCheckpoint.pathFor(file).getFileName() + " para importarlo desde el inicio");
+            }
+            ImportCheckpoint checkpoint = saved.orElse(ImportCheckpoint.start(file));
+            report.setResumedFromLine(checkpoint.getLine());
+            lastReport = report;
+            if (saved.isPresent()) {
+                log.info("Resuming import of {} after line {}", file, checkpoint.getLine());
+            }
+
+            try (UserImportReader reader = UserImportReader.open(file, objectMapper);
+                 RejectedRowReport rejections = RejectedRowReport.open(file, checkpoint.getReportBytes(), objectMapper)) {
+                reader.skipTo(checkpoint.getLine());
+                List<ImportRow> chunk = new ArrayList<>(commitInterval);
+                while (!Thread.currentThread().isInterrupted()) {
+                    chunk.clear();
+                    ImportRow row;
+                    while (chunk.size() < commitInterval && (row = reader.next()) != null) {
+                        chunk.add(row);
+                    }
+                    if (chunk.isEmpty()) {
+                        break;
+                    }
+                    int inserted = importChunk(chunk, rejections);
+                    int rejected = chunk.size() - inserted;
+                    // Rejections first, then the checkpoint that covers them
+                    checkpoint = checkpoint.toBuilder()
+                            .line(reader.line())
+                            .inserted(checkpoint.getInserted() + inserted)
+                            .rejected(checkpoint.getRejected() + rejected)
+                            .reportBytes(rejections.flush())
+                            .build();
+                    checkpoint.save(file);
+                    insertedRows.increment(inserted);
+                    rejectedRows.increment(rejected);
+                    rowsThisRun += chunk.size();
+                    report = progress(report, checkpoint, rowsThisRun, start);
+                    lastReport = report;
+                    log.info("Import of {}: line {}, {} inserted, {} rejected, {} rows/s", file.getFileName(),
+                            checkpoint.getLine(), checkpoint.getInserted(), checkpoint.getRejected(),
+                            Math.round(report.getRowsPerSecond()));
+                }
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new IllegalStateException("importacion interrumpida");
+                }
+            }
+            ImportCheckpoint.delete(file);
+            report = progress(report, checkpoint, rowsThisRun, start).toBuilder().status(Status.COMPLETED).build();
+            log.info("Import of {} completed: {} inserted, {} rejected, {} rows/s", file,
+                    report.getInserted(), report.getRejected(), Math.round(report.getRowsPerSecond()));
+        } catch (IOException | RuntimeException e) {
+            // The checkpoint still points at the last committed chunk, running the import again resumes there
+            log.error("Import of {} failed after {} rows: {}", file, rowsThisRun, e.getMessage());
+            report = report.toBuilder()
+                    .status(Status.FAILED)
+                    .elapsedMs((System.nanoTime() - start) / 1_000_000)
+                    .error(e.getMessage())
+                    .build();
+        }
+        lastReport = report;
+        return report;
+    }
+
+    /**
+     * Validates the rows and inserts the valid ones in one transaction; returns how many were
+     * inserted, every other row is written to the report.
+     */
+    private int importChunk(List<ImportRow> chunk, RejectedRowReport rejections) throws IOException {
+        Map<String, ImportRow> candidates = new LinkedHashMap<>();
+        Set<String> seenEmails = new HashSet<>();
+        for (ImportRow row : chunk) {
+            String error = row.error() != null ? row.error() : validate(row.record());
+            String email = row.record() != null && row.record().getEmail() != null
+                    ? row.record().getEmail().toLowerCase() : null;
+            if (error == null && !seenEmails.add(email)) {
+                error = "correo repetido en el archivo";
+            }
+            if (error != null) {
+                rejections.reject(row.line(), email, error);
+            } else {
+                candidates.put(email, row);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+
+        List<User> users = new ArrayList<>(candidates.size());
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            // No persistence context to grow, and inserts are sent in JDBC batches per table
+            session.setJdbcBatchSize(batchSize);
+            Transaction transaction = session.beginTransaction();
+            try {
+                // Also catches duplicates across chunks and a chunk replayed after a crash between its
+                // commit and its checkpoint: those rows are reported as existing
+                for (String existing : findExistingEmails(session, candidates.keySet())) {
+                    ImportRow row = candidates.remove(existing);
+                    rejections.reject(row.line(), existing, "este correo ya existe");
+                }
+                for (ImportRow row : candidates.values()) {
+                    users.add(toUser(row.record()));
+                }
+                // All users before any phone, so each table gets one statement batched throughout
+                users.forEach(session::insert);
+                users.forEach(user -> user.getPhones().forEach(session::insert));
+                transaction.commit();
+            } catch (RuntimeException e) {
+                if (transaction.isActive()) {
+                    transaction.rollback();
+                }
+                throw e;
+            }
+        }
+        users.forEach(user -> emailIndex.add(user.getEmail()));
+        return users.size();
+    }
+
+    private List<String> findExistingEmails(StatelessSession session, Set<String> emails) {
+        List<String> possiblyRegistered = emails.stream().filter(emailIndex::mightContain).toList();
+        List<String> existing = new ArrayList<>();
+        for (int from = 0; from < possiblyRegistered.size(); from += EXISTING_EMAILS_QUERY_SIZE) {
+            List<String> slice = possiblyRegistered.subList(from,
+                    Math.min(from + EXISTING_EMAILS_QUERY_SIZE, possiblyRegistered.size()));
+            existing.addAll(session.createQuery("select u.email from User u where u.email in :emails", String.class)
+                    .setParameter("emails", slice)
+                    .getResultList());
+        }
+        return existing;
+    }
+
+    private User toUser(UserImportRecordDto record) {
+        User user = userFactory.createUserWithEncodedPassword(record);
+        if (record.getIsActive() != null) {
+            user.setIsActive(record.getIsActive());
+        }
+        return user;
+    }
+
+    private String validate(UserImportRecordDto record) {
+        Set<ConstraintViolation<UserImportRecordDto>> violations = validator.validate(record);
+        if (!violations.isEmpty()) {
+            Map<String, String> errors = new LinkedHashMap<>();
+            violations.forEach(v -> errors.put(v.getPropertyPath().toString(), v.getMessage()));
+            return "Validacion fallida: " + errors;
+        }
+        if (!emailValidationSpec.isSatisfiedBy(record.getEmail())) {
+            return emailValidationSpec.getErrorMessage();
+        }
+        if (!passwordEncoder.isEncoded(record.getPassword())) {
+            return "el password debe ser un hash BCrypt o con prefijo {bcrypt}, {pbkdf2} o {argon2}";
+        }
+        return null;
+    }
+
+    private static UserImportReportDto progress(UserImportReportDto report, ImportCheckpoint checkpoint,
+                                                long rowsThisRun, long start) {
+        long elapsedNanos = System.nanoTime() - start;
+        return report.toBuilder()
+                .linesRead(checkpoint.getLine())
+                .inserted(checkpoint.getInserted())
+                .rejected(checkpoint.getRejected())
+                .elapsedMs(elapsedNanos / 1_000_000)
+                .rowsPerSecond(elapsedNanos > 0 ? rowsThisRun * 1_000_000_000.0 / elapsedNanos : 0)
+                .build();
+    }
+}
@@ -0,0 +1,96 @@
+package com.nisum.app.application.service.impl;
+
+import com.nisum.app.application.service.IUserQueryService;
+import com.nisum.app.application.service.pagination.UserCursor;
+import com.nisum.app.domain.model.User;
+import com.nisum.app.domain.repository.UserRepository;
+import com.nisum.app.infrastructure.dto.phone.PhoneDto;
+import com.nisum.app.infrastructure.dto.user.UserPageResponseDto;
+import com.nisum.app.infrastructure.dto.user.UserSummaryDto;
+import com.nisum.app.infrastructure.exception.BusinessException;
+import com.nisum.app.infrastructure.persistence.LastLoginWriteBehindBuffer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+public class UserQueryServiceImpl implements IUserQueryService {
+
+    private final UserRepository userRepository;
+    private final LastLoginWriteBehindBuffer lastLoginBuffer;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public UserQueryServiceImpl(UserRepository userRepository,
+                                LastLoginWriteBehindBuffer lastLoginBuffer,
+                                @Value("${app.users.page.default-size:20}") int defaultPageSize,
+                                @Value("${app.users.page.max-size:100}") int maxPageSize) {
+        this.userRepository = userRepository;
+        this.lastLoginBuffer = lastLoginBuffer;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public UserPageResponseDto listUsers(String cursor, Integer size, boolean includePhones) {
+        int pageSize = size != null ? size : defaultPageSize;
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new BusinessException("el tamaño de pagina debe estar entre 1 y " + maxPageSize);
+        }
+
+        // One extra row tells whether there is a next page without a count query
+        Limit limit = Limit.of(pageSize + 1);
+        List<User> users;
+        if (cursor == null || cursor.isBlank()) {
+            users = userRepository.findFirstPage(limit);
+        } else {
+            UserCursor after = UserCursor.decode(cursor);
+            users = userRepository.findPageAfter(after.getCreated(), after.getId(), limit);
+        }
+
+        boolean hasNext = users.size() > pageSize;
+        List<User> page = hasNext ? users.subList(0, pageSize) : users;
+        // Phones are loaded lazily here, for the whole page at once through batch fetching
+        List<UserSummaryDto> summaries = page.stream()
+                .map(user -> toSummary(user, includePhones))
+                .toList();
+
+        return UserPageResponseDto.builder()
+                .users(summaries)
+                .size(summaries.size())
+                .nextCursor(hasNext ? UserCursor.after(page.get(pageSize - 1)).encode() : null)
+                .build();
+    }
+
+    private UserSummaryDto toSummary(User user, boolean includePhones) {
+        LocalDateTime pendingLastLogin = lastLoginBuffer.pendingLastLogin(user.getId());
+        LocalDateTime lastLogin = user.getLastLogin();
+        if (pendingLastLogin != null && (lastLogin == null || pendingLastLogin.isAfter(lastLogin))) {
+            lastLogin = pendingLastLogin;
+        }
+        return UserSummaryDto.builder()
+                .id(user.getId())
+                .name(user.getName())
+                .email(user.getEmail())
+                .created(user.getCreated())
+                .modified(user.getModified())
+                .lastLogin(lastLogin)
+                .isActive(user.getIsActive())
+                .phones(includePhones ? toPhoneDtos(user) : null)
+                .build();
+    }
+
+    private List<PhoneDto> toPhoneDtos(User user) {
+        if (user.getPhones() == null) {
+            return List.of();
+        }
+        return user.getPhones().stream()
+                .map(phone -> new PhoneDto(phone.getNumber(), phone.getCitycode(), phone.getContrycode()))
+                .toList();
+    }
+}
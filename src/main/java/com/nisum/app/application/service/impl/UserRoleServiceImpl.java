@@ -0,0 +1,37 @@
+package com.nisum.app.application.service.impl;
+
+import com.nisum.app.application.service.ITokenRevocationService;
+import com.nisum.app.application.service.IUserRoleService;
+import com.nisum.app.domain.model.User;
+import com.nisum.app.domain.repository.UserRepository;
+import com.nisum.app.infrastructure.exception.BusinessException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserRoleServiceImpl implements IUserRoleService {
+
+    private final UserRepository userRepository;
+    private final ITokenRevocationService tokenRevocationService;
+
+    @Override
+    @Transactional
+    public void setAdmin(UUID userId, boolean admin) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new BusinessException("Usuario no encontrado"));
+        if (admin == Boolean.TRUE.equals(user.getIsAdmin())) {
+            return;
+        }
+        user.setIsAdmin(admin);
+        userRepository.save(user);
+        // Also drops the cached principal, whose authorities are the old ones
+        tokenRevocationService.revokeAllTokens(userId);
+        log.info("Admin role {} for user: {}", admin ? "granted" : "withdrawn", user.getEmail());
+    }
+}
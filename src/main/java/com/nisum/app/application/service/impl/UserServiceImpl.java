@@ -1,46 +1,131 @@
 package com.nisum.app.application.service.impl;
 
 import com.nisum.app.application.service.IJwtService;
+import com.nisum.app.application.service.IRefreshTokenService;
 import com.nisum.app.application.service.IUserService;
 import com.nisum.app.domain.factory.UserFactory;
 import com.nisum.app.domain.model.User;
+import com.nisum.app.domain.model.UserProfileVersion;
 import com.nisum.app.domain.repository.UserRepository;
 import com.nisum.app.domain.specification.EmailValidationSpecification;
 import com.nisum.app.domain.specification.PasswordValidationSpecification;
+import com.nisum.app.domain.specification.RuleSet;
+import com.nisum.app.domain.specification.ValidationCost;
+import com.nisum.app.domain.specification.ValidationSpecification;
 import com.nisum.app.infrastructure.dto.login.LoginRequestDto;
+import com.nisum.app.infrastructure.dto.phone.PhoneDto;
 import com.nisum.app.infrastructure.dto.user.UserInfoResponseDto;
 import com.nisum.app.infrastructure.dto.user.UserRegistrationRequestDto;
 import com.nisum.app.infrastructure.dto.user.UserResponseDto;
 import com.nisum.app.infrastructure.exception.BusinessException;
-import lombok.RequiredArgsConstructor;
+import com.nisum.app.infrastructure.index.RegisteredEmailIndex;
+import com.nisum.app.infrastructure.metrics.UserOperationMetrics;
+import com.nisum.app.infrastructure.metrics.UserOperationMetrics.Operation;
+import com.nisum.app.infrastructure.metrics.UserOperationMetrics.Outcome;
+import com.nisum.app.infrastructure.metrics.UserOperationMetrics.Stage;
+import com.nisum.app.infrastructure.persistence.LastLoginWriteBehindBuffer;
+import com.nisum.app.infrastructure.security.AuthorityResolver;
+import com.nisum.app.infrastructure.security.UserPrincipalCache;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class UserServiceImpl implements IUserService {
 
+    private static final String DUPLICATE_EMAIL_MESSAGE = "este correo ya existe";
+
     private final UserRepository userRepository;
     private final UserFactory userFactory;
     private final IJwtService jwtService;
+    private final IRefreshTokenService refreshTokenService;
     private final EmailValidationSpecification emailValidationSpec;
     private final PasswordValidationSpecification passwordValidationSpec;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordEncoder passwordEncoder;
+    private final UserPrincipalCache principalCache;
+    private final AuthorityResolver authorityResolver;
+    private final LastLoginWriteBehindBuffer lastLoginBuffer;
+    private final RegisteredEmailIndex emailIndex;
+    private final UserOperationMetrics metrics;
+    private final RuleSet<UserRegistrationRequestDto> registrationRules;
+
+    public UserServiceImpl(UserRepository userRepository,
+                           UserFactory userFactory,
+                           IJwtService jwtService,
+                           IRefreshTokenService refreshTokenService,
+                           EmailValidationSpecification emailValidationSpec,
+                           PasswordValidationSpecification passwordValidationSpec,
+                           PasswordEncoder passwordEncoder,
+                           UserPrincipalCache principalCache,
+                           AuthorityResolver authorityResolver,
+                           LastLoginWriteBehindBuffer lastLoginBuffer,
+                           RegisteredEmailIndex emailIndex,
+                           UserOperationMetrics metrics) {
+        this.userRepository = userRepository;
+        this.userFactory = userFactory;
+        this.jwtService = jwtService;
+        this.refreshTokenService = refreshTokenService;
+        this.emailValidationSpec = emailValidationSpec;
+        this.passwordValidationSpec = passwordValidationSpec;
+        this.passwordEncoder = passwordEncoder;
+        this.principalCache = principalCache;
+        this.authorityResolver = authorityResolver;
+        this.lastLoginBuffer = lastLoginBuffer;
+        this.emailIndex = emailIndex;
+        this.metrics = metrics;
+        // The availability check only queries the database for a request the format rules accepted
+        this.registrationRules = RuleSet.<UserRegistrationRequestDto>builder("registration")
+                .rule("email", "format", UserRegistrationRequestDto::getEmail, emailValidationSpec)
+                .rule("password", "format", UserRegistrationRequestDto::getPassword, passwordValidationSpec)
+                .rule("email", "available", UserRegistrationRequestDto::getEmail, ValidationSpecification.of(
+                        this::isEmailAvailable, DUPLICATE_EMAIL_MESSAGE, ValidationCost.DATABASE))
+                .build();
+        metrics.register(registrationRules);
+    }
 
     @Override
     @Transactional
     public UserResponseDto registerUser(UserRegistrationRequestDto requestDto) {
         log.info("Attempting to register user with email: {}", requestDto.getEmail());
 
-        validateUserRegistration(requestDto);
+        long start = System.nanoTime();
+        Outcome outcome = Outcome.ERROR;
+        try {
+            UserResponseDto response = doRegisterUser(requestDto);
+            outcome = Outcome.SUCCESS;
+            return response;
+        } catch (BusinessException e) {
+            outcome = DUPLICATE_EMAIL_MESSAGE.equals(e.getMessage()) ? Outcome.DUPLICATE_EMAIL : Outcome.INVALID_REQUEST;
+            throw e;
+        } finally {
+            metrics.record(Operation.REGISTER, outcome, start);
+        }
+    }
+
+    private UserResponseDto doRegisterUser(UserRegistrationRequestDto requestDto) {
+        metrics.time(Operation.REGISTER, Stage.VALIDATE, () -> validateUserRegistration(requestDto));
 
-        String token = jwtService.generateToken(requestDto.getEmail());
-        User user = userFactory.createUser(requestDto, token);
+        User user = metrics.time(Operation.REGISTER, Stage.HASH_PASSWORD, () -> userFactory.createUser(requestDto));
+        user.setToken(metrics.time(Operation.REGISTER, Stage.TOKEN,
+                () -> jwtService.generateToken(user, authorityResolver.resolve(user))));
 
-        User savedUser = userRepository.save(user);
+        User savedUser = metrics.time(Operation.REGISTER, Stage.SAVE, () -> {
+            try {
+                return userRepository.saveAndFlush(user);
+            } catch (DataIntegrityViolationException e) {
+                // A concurrent registration of the same email won the race after our existence check
+                throw new BusinessException(DUPLICATE_EMAIL_MESSAGE);
+            }
+        });
+        emailIndex.add(savedUser.getEmail());
         log.info("User registered successfully with ID: {}", savedUser.getId());
 
         return buildUserResponse(savedUser);
@@ -51,57 +136,122 @@ public class UserServiceImpl implements IUserService {
     public UserResponseDto loginUser(LoginRequestDto requestDto) {
         log.info("Attempting login for email: {}", requestDto.getEmail());
 
-        if (!emailValidationSpec.isSatisfiedBy(requestDto.getEmail())) {
+        long start = System.nanoTime();
+        Outcome outcome = Outcome.ERROR;
+        try {
+            UserResponseDto response = doLoginUser(requestDto);
+            outcome = Outcome.SUCCESS;
+            return response;
+        } catch (BusinessException e) {
+            outcome = Outcome.BAD_CREDENTIALS;
+            throw e;
+        } finally {
+            metrics.record(Operation.LOGIN, outcome, start);
+        }
+    }
+
+    private UserResponseDto doLoginUser(LoginRequestDto requestDto) {
+        // Never-registered emails (most credential-stuffing traffic) are rejected without a lookup by email;
+        // the index first picks up registrations committed on other instances
+        boolean mightBeRegistered = metrics.time(Operation.LOGIN, Stage.VALIDATE,
+                () -> emailValidationSpec.isSatisfiedBy(requestDto.getEmail())
+                        && emailIndex.mightContainCurrent(requestDto.getEmail()));
+        if (!mightBeRegistered) {
             throw new BusinessException("Credenciales inválidas");
         }
 
-        User user = userRepository.findByEmail(requestDto.getEmail().toLowerCase())
-                .orElseThrow(() -> new BusinessException("Credenciales inválidas"));
+        User user = metrics.time(Operation.LOGIN, Stage.LOOKUP,
+                () -> userRepository.findByEmail(requestDto.getEmail().toLowerCase()))
+                .orElseThrow(() -> {
+                    emailIndex.recordFalsePositive();
+                    return new BusinessException("Credenciales inválidas");
+                });
 
-        if (!passwordEncoder.matches(requestDto.getPassword(), user.getPassword())) {
+        boolean passwordMatches = metrics.time(Operation.LOGIN, Stage.VERIFY_PASSWORD,
+                () -> passwordEncoder.matches(requestDto.getPassword(), user.getPassword()));
+        if (!passwordMatches) {
             throw new BusinessException("Credenciales inválidas");
         }
+        // Hashes from an older algorithm or cost are replaced while the raw password is at hand; the
+        // managed entity is written on commit, also when the token is reused below
+        if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+            user.updatePassword(metrics.time(Operation.LOGIN, Stage.REHASH_PASSWORD,
+                    () -> passwordEncoder.encode(requestDto.getPassword())));
+            log.debug("Rehashed outdated password hash for user: {}", user.getEmail());
+        }
 
-        // Reuse existing token if still valid, otherwise generate a new one
+        // Reuse existing token if still valid: the entity is left untouched and only the last login is
+        // buffered, to be written in a later batch. A new token is saved right away, last login included.
         String existingToken = user.getToken();
-        String tokenToReturn;
-        if (existingToken != null && jwtService.validateToken(existingToken, user.getEmail())) {
-            tokenToReturn = existingToken;
+        if (existingToken != null && metrics.time(Operation.LOGIN, Stage.TOKEN,
+                () -> jwtService.validateToken(existingToken, user))) {
+            LocalDateTime lastLogin = LocalDateTime.now();
+            lastLoginBuffer.record(user.getId(), lastLogin);
             log.debug("Reusing existing valid token for user: {}", user.getEmail());
-        } else {
-            tokenToReturn = jwtService.generateToken(user.getEmail());
-            user.updateToken(tokenToReturn);
-            log.debug("Generated new token for user: {}", user.getEmail());
+            log.info("User logged in successfully: {}", user.getEmail());
+            UserResponseDto response = buildUserResponse(user);
+            response.setLastLogin(lastLogin);
+            response.setRefreshToken(issueRefreshToken(user));
+            return response;
         }
+
+        user.updateToken(metrics.time(Operation.LOGIN, Stage.TOKEN,
+                () -> jwtService.generateToken(user, authorityResolver.resolve(user))));
         user.updateLastLogin();
-        User updatedUser = userRepository.save(user);
+        log.debug("Generated new token for user: {}", user.getEmail());
+        User updatedUser = metrics.time(Operation.LOGIN, Stage.SAVE, () -> userRepository.save(user));
+        principalCache.invalidate(updatedUser.getEmail());
         log.info("User logged in successfully: {}", updatedUser.getEmail());
-        return buildUserResponse(updatedUser);
+        UserResponseDto response = buildUserResponse(updatedUser);
+        response.setRefreshToken(issueRefreshToken(updatedUser));
+        return response;
+    }
+
+    // Every login starts a new session, also when the access token is reused
+    private String issueRefreshToken(User user) {
+        return metrics.time(Operation.LOGIN, Stage.TOKEN, () -> refreshTokenService.issue(user));
     }
 
     private void validateUserRegistration(UserRegistrationRequestDto requestDto) {
-        if (!emailValidationSpec.isSatisfiedBy(requestDto.getEmail())) {
-            throw new BusinessException(emailValidationSpec.getErrorMessage());
+        List<RuleSet.Violation> violations = registrationRules.validate(requestDto);
+        if (!violations.isEmpty()) {
+            throw new BusinessException(violations.stream()
+                    .map(RuleSet.Violation::message)
+                    .collect(Collectors.joining("; ")));
         }
+    }
 
-        if (!passwordValidationSpec.isSatisfiedBy(requestDto.getPassword())) {
-            throw new BusinessException(passwordValidationSpec.getErrorMessage());
+    private boolean isEmailAvailable(String email) {
+        if (!emailIndex.mightContain(email)) {
+            return true;
         }
-
-        if (userRepository.existsByEmail(requestDto.getEmail().toLowerCase())) {
-            throw new BusinessException("este correo ya existe");
+        if (userRepository.existsByEmail(email.toLowerCase())) {
+            return false;
         }
+        emailIndex.recordFalsePositive();
+        return true;
     }
 
     @Override
-    public UserInfoResponseDto getUserProfile(String email) {
+    public UserInfoResponseDto getUserProfile(String email, boolean includePhones) {
         log.info("Retrieving profile for user with email: {}", email);
 
-        User user = userRepository.findByEmail(email.toLowerCase())
+        String normalizedEmail = email.toLowerCase();
+        User user = (includePhones ? userRepository.findWithPhonesByEmail(normalizedEmail) : userRepository.findByEmail(normalizedEmail))
                 .orElseThrow(() -> new BusinessException("Usuario no encontrado"));
 
         log.info("Profile retrieved successfully for user: {}", email);
-        return buildUserInfoResponse(user);
+        return buildUserInfoResponse(user, includePhones);
+    }
+
+    @Override
+    public UserProfileVersion getUserProfileVersion(String email) {
+        UserProfileVersion version = userRepository.findProfileVersionByEmail(email.toLowerCase())
+                .orElseThrow(() -> new BusinessException("Usuario no encontrado"));
+        LocalDateTime lastLogin = effectiveLastLogin(version.getId(), version.getLastLogin());
+        return lastLogin == version.getLastLogin()
+                ? version
+                : new UserProfileVersion(version.getId(), version.getCreated(), version.getModified(), lastLogin);
     }
 
     private UserResponseDto buildUserResponse(User user) {
@@ -115,19 +265,31 @@ public class UserServiceImpl implements IUserService {
                 .build();
     }
 
-    private UserInfoResponseDto buildUserInfoResponse(User user) {
+    private UserInfoResponseDto buildUserInfoResponse(User user, boolean includePhones) {
         UserInfoResponseDto dto = new UserInfoResponseDto();
         dto.setId(user.getId());
         dto.setCreated(user.getCreated());
         dto.setModified(user.getModified());
-        dto.setLastLogin(user.getLastLogin());
+        dto.setLastLogin(effectiveLastLogin(user.getId(), user.getLastLogin()));
         dto.setToken(user.getToken());
         dto.setIsActive(user.getIsActive());
         dto.setName(user.getName());
         dto.setEmail(user.getEmail());
+        if (includePhones) {
+            dto.setPhones(user.getPhones().stream()
+                    .map(phone -> new PhoneDto(phone.getNumber(), phone.getCitycode(), phone.getContrycode()))
+                    .toList());
+        }
         return dto;
     }
 
+    // A login that reused the token may not be written yet
+    private LocalDateTime effectiveLastLogin(UUID userId, LocalDateTime stored) {
+        LocalDateTime pendingLastLogin = lastLoginBuffer.pendingLastLogin(userId);
+        boolean pendingIsNewer = pendingLastLogin != null && (stored == null || pendingLastLogin.isAfter(stored));
+        return pendingIsNewer ? pendingLastLogin : stored;
+    }
+
 
 }
 
@@ -0,0 +1,47 @@
+package com.nisum.app.application.service.pagination;
+
+import com.nisum.app.domain.model.User;
+import com.nisum.app.infrastructure.exception.BusinessException;
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position after the last user of a page, in listing order (created, id). Clients get it as an
+ * opaque URL-safe string and send it back unchanged to get the next page.
+ */
+@Value
+public class UserCursor {
+
+    private static final char SEPARATOR = '|';
+
+    LocalDateTime created;
+    UUID id;
+
+    public static UserCursor after(User user) {
+        return new UserCursor(user.getCreated(), user.getId());
+    }
+
+    public String encode() {
+        String raw = created.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static UserCursor decode(String value) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("missing separator");
+            }
+            return new UserCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BusinessException("cursor invalido");
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.nisum.app.application.service.token;
+
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.SignatureException;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.EdECPublicKey;
+import java.security.spec.NamedParameterSpec;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * ES256 (ECDSA on P-256) or EdDSA (Ed25519) {@link TokenCodec}: tokens signed with the private key verify
+ * with the public one alone, which {@link #jwk()} publishes, so other services need no shared secret.
+ * Without the private key the codec only verifies.
+ * <p>
+ * A {@link Signature} is obtained per call: the provider lookup is a microsecond against the tens of
+ * microseconds of the curve arithmetic, and it keeps the codec free of per-thread state.
+ */
+public final class AsymmetricTokenCodec extends TokenCodec {
+
+    public static final String ES256 = "ES256";
+    public static final String EDDSA = "EdDSA";
+
+    // Both algorithms sign with 64 bytes: R || S for ES256 (JWS, not DER), R || s for Ed25519
+    private static final int SIGNATURE_BYTES = 64;
+    private static final int SIGNATURE_CHARS = Base64Url.encodedLength(SIGNATURE_BYTES);
+    private static final int P256_COORDINATE_BYTES = 32;
+    private static final int ED25519_KEY_BYTES = 32;
+
+    private final PrivateKey privateKey;
+    private final PublicKey publicKey;
+    private final String signatureAlgorithm;
+    private final Map<String, Object> jwk;
+
+    /**
+     * @param privateKey null for a codec that only verifies
+     * @throws IllegalArgumentException if the key is neither P-256 nor Ed25519
+     */
+    public AsymmetricTokenCodec(String keyId, PrivateKey privateKey, PublicKey publicKey) {
+        super(algorithmOf(publicKey), keyId);
+        this.privateKey = privateKey;
+        this.publicKey = publicKey;
+        this.signatureAlgorithm = ES256.equals(algorithm()) ? "SHA256withECDSAinP1363Format" : "Ed25519";
+        this.jwk = toJwk(keyId, algorithm(), publicKey);
+    }
+
+    private static String algorithmOf(PublicKey publicKey) {
+        if (publicKey instanceof ECPublicKey ec && ec.getParams().getCurve().getField().getFieldSize() == 256
+                && ec.getParams().getOrder().bitLength() == 256) {
+            return ES256;
+        }
+        if (publicKey instanceof EdECPublicKey ed && "Ed25519".equals(((NamedParameterSpec) ed.getParams()).getName())) {
+            return EDDSA;
+        }
+        throw new IllegalArgumentException("Only P-256 and Ed25519 keys are supported, not " + publicKey.getAlgorithm());
+    }
+
+    public boolean canSign() {
+        return privateKey != null;
+    }
+
+    /**
+     * The public key as a JSON Web Key (RFC 7517, and RFC 8037 for Ed25519).
+     */
+    public Map<String, Object> jwk() {
+        return jwk;
+    }
+
+    @Override
+    public String sign(String subject, String tokenId, UUID userId, Long tokenVersion,
+                       Collection<String> authorities, long issuedAtMillis, long expiresAtMillis) {
+        if (privateKey == null) {
+            throw new IllegalStateException("Key " + keyId() + " only verifies");
+        }
+        byte[] json = new byte[claimsCapacity(subject, tokenId, authorities)];
+        int p = writeClaims(json, subject, tokenId, userId, tokenVersion, authorities, issuedAtMillis, expiresAtMillis);
+        byte[] token = new byte[headerBytes.length + Base64Url.encodedLength(p) + SIGNATURE_CHARS + 2];
+        System.arraycopy(headerBytes, 0, token, 0, headerBytes.length);
+        int t = headerBytes.length;
+        token[t++] = '.';
+        t = Base64Url.encode(json, 0, p, token, t);
+        byte[] signature;
+        try {
+            Signature signer = Signature.getInstance(signatureAlgorithm);
+            signer.initSign(privateKey);
+            signer.update(token, 0, t);
+            signature = signer.sign();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(signatureAlgorithm + " signing failed", e);
+        }
+        token[t++] = '.';
+        t = Base64Url.encode(signature, 0, signature.length, token, t);
+        return new String(token, 0, t, StandardCharsets.ISO_8859_1);
+    }
+
+    @Override
+    public ParsedToken verify(String token, long nowMillis) {
+        int length = token.length();
+        int firstDot = token.indexOf('.');
+        int secondDot = checkShape(token, firstDot);
+        byte[] signature = new byte[SIGNATURE_BYTES];
+        if (length - secondDot - 1 != SIGNATURE_CHARS
+                || Base64Url.decode(token, secondDot + 1, length, signature) != SIGNATURE_BYTES) {
+            throw new SignatureException(SIGNATURE_MISMATCH);
+        }
+        byte[] signed = new byte[secondDot];
+        for (int i = 0; i < secondDot; i++) {
+            char c = token.charAt(i);
+            if (c > 0x7F) {
+                throw new MalformedJwtException("JWT contains non-ASCII characters");
+            }
+            signed[i] = (byte) c;
+        }
+        boolean valid;
+        try {
+            Signature verifier = Signature.getInstance(signatureAlgorithm);
+            verifier.initVerify(publicKey);
+            verifier.update(signed);
+            valid = verifier.verify(signature);
+        } catch (java.security.SignatureException e) {
+            valid = false;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(signatureAlgorithm + " verification failed", e);
+        }
+        if (!valid) {
+            throw new SignatureException(SIGNATURE_MISMATCH);
+        }
+
+        if (!isKnownHeader(token, firstDot)) {
+            checkHeader(token, firstDot, new byte[Base64Url.decodedLength(firstDot)]);
+        }
+        byte[] json = new byte[Base64Url.decodedLength(secondDot - firstDot - 1)];
+        int jsonLength = Base64Url.decode(token, firstDot + 1, secondDot, json);
+        if (jsonLength < 0) {
+            throw new MalformedJwtException("JWT payload is not Base64URL");
+        }
+        return readClaims(json, jsonLength, nowMillis);
+    }
+
+    private static Map<String, Object> toJwk(String keyId, String algorithm, PublicKey publicKey) {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        if (publicKey instanceof ECPublicKey ec) {
+            jwk.put("kty", "EC");
+            jwk.put("crv", "P-256");
+            jwk.put("x", unsigned(ec.getW().getAffineX(), P256_COORDINATE_BYTES));
+            jwk.put("y", unsigned(ec.getW().getAffineY(), P256_COORDINATE_BYTES));
+        } else {
+            // The raw key is the tail of the X.509 SubjectPublicKeyInfo encoding
+            byte[] encoded = publicKey.getEncoded();
+            jwk.put("kty", "OKP");
+            jwk.put("crv", "Ed25519");
+            jwk.put("x", base64Url(Arrays.copyOfRange(encoded, encoded.length - ED25519_KEY_BYTES, encoded.length)));
+        }
+        jwk.put("use", "sig");
+        jwk.put("alg", algorithm);
+        if (keyId != null) {
+            jwk.put("kid", keyId);
+        }
+        return Collections.unmodifiableMap(jwk);
+    }
+
+    private static String unsigned(BigInteger value, int bytes) {
+        byte[] magnitude = value.toByteArray();
+        byte[] padded = new byte[bytes];
+        int copy = Math.min(magnitude.length, bytes);
+        System.arraycopy(magnitude, magnitude.length - copy, padded, bytes - copy, copy);
+        return base64Url(padded);
+    }
+
+    private static String base64Url(byte[] bytes) {
+        byte[] encoded = new byte[Base64Url.encodedLength(bytes.length)];
+        Base64Url.encode(bytes, 0, bytes.length, encoded, 0);
+        return new String(encoded, StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,108 @@
+package com.nisum.app.application.service.token;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Unpadded Base64URL (RFC 4648 section 5) on caller-provided arrays. {@link java.util.Base64} only
+ * decodes whole arrays, which would mean copying each token segment out of the token first.
+ */
+final class Base64Url {
+
+    private static final byte[] ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".getBytes(StandardCharsets.US_ASCII);
+    private static final int[] VALUES = new int[128];
+
+    static {
+        Arrays.fill(VALUES, -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            VALUES[ALPHABET[i]] = i;
+        }
+    }
+
+    private Base64Url() {
+    }
+
+    static int encodedLength(int bytes) {
+        return (bytes * 4 + 2) / 3;
+    }
+
+    /**
+     * Upper bound of the bytes decoded from {@code chars} characters.
+     */
+    static int decodedLength(int chars) {
+        return chars * 3 / 4;
+    }
+
+    /**
+     * Encodes {@code src[off, off + len)} into {@code dst} from {@code dstOff}; returns the offset after the last char.
+     */
+    static int encode(byte[] src, int off, int len, byte[] dst, int dstOff) {
+        int i = off;
+        int end = off + len;
+        int d = dstOff;
+        while (end - i >= 3) {
+            int bits = (src[i] & 0xFF) << 16 | (src[i + 1] & 0xFF) << 8 | src[i + 2] & 0xFF;
+            dst[d++] = ALPHABET[bits >>> 18];
+            dst[d++] = ALPHABET[bits >>> 12 & 0x3F];
+            dst[d++] = ALPHABET[bits >>> 6 & 0x3F];
+            dst[d++] = ALPHABET[bits & 0x3F];
+            i += 3;
+        }
+        if (end - i == 1) {
+            int bits = (src[i] & 0xFF) << 16;
+            dst[d++] = ALPHABET[bits >>> 18];
+            dst[d++] = ALPHABET[bits >>> 12 & 0x3F];
+        } else if (end - i == 2) {
+            int bits = (src[i] & 0xFF) << 16 | (src[i + 1] & 0xFF) << 8;
+            dst[d++] = ALPHABET[bits >>> 18];
+            dst[d++] = ALPHABET[bits >>> 12 & 0x3F];
+            dst[d++] = ALPHABET[bits >>> 6 & 0x3F];
+        }
+        return d;
+    }
+
+    /**
+     * Decodes {@code src[start, end)} into {@code dst}, which must hold {@link #decodedLength} bytes.
+     *
+     * @return the number of bytes decoded, or -1 if the range is not unpadded Base64URL
+     */
+    static int decode(CharSequence src, int start, int end, byte[] dst) {
+        if ((end - start) % 4 == 1) {
+            return -1;
+        }
+        int i = start;
+        int d = 0;
+        while (end - i >= 4) {
+            // An invalid char is -1, whose shifted bits make the whole group negative
+            int bits = value(src.charAt(i)) << 18 | value(src.charAt(i + 1)) << 12
+                    | value(src.charAt(i + 2)) << 6 | value(src.charAt(i + 3));
+            if (bits < 0) {
+                return -1;
+            }
+            dst[d++] = (byte) (bits >> 16);
+            dst[d++] = (byte) (bits >> 8);
+            dst[d++] = (byte) bits;
+            i += 4;
+        }
+        if (end - i == 2) {
+            int bits = value(src.charAt(i)) << 18 | value(src.charAt(i + 1)) << 12;
+            if (bits < 0) {
+                return -1;
+            }
+            dst[d++] = (byte) (bits >> 16);
+        } else if (end - i == 3) {
+            int bits = value(src.charAt(i)) << 18 | value(src.charAt(i + 1)) << 12 | value(src.charAt(i + 2)) << 6;
+            if (bits < 0) {
+                return -1;
+            }
+            dst[d++] = (byte) (bits >> 16);
+            dst[d++] = (byte) (bits >> 8);
+        }
+        return d;
+    }
+
+    private static int value(char c) {
+        return c < 128 ? VALUES[c] : -1;
+    }
+}
@@ -0,0 +1,190 @@
+package com.nisum.app.application.service.token;
+
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.SignatureException;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * HS256 {@link TokenCodec}. Tokens issued by jjwt before this codec (header {@code {"alg":"HS256"}}, an
+ * extra {@code email} claim) still verify with a codec without key id.
+ * <p>
+ * The {@link Mac} is keyed once per pooled instance, and Base64URL is read and written directly between the
+ * token and reusable buffers; a verification allocates little more than the returned {@link ParsedToken}.
+ */
+public final class Hs256TokenCodec extends TokenCodec {
+
+    public static final String ALGORITHM = "HS256";
+
+    private static final String JJWT_HEADER = encodeSegment("{\"alg\":\"HS256\"}");
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+    private static final int SIGNATURE_BYTES = 32;
+    private static final int SIGNATURE_CHARS = Base64Url.encodedLength(SIGNATURE_BYTES);
+
+    private final SecretKeySpec key;
+    private final AtomicReferenceArray<Scratch> pool;
+
+    public Hs256TokenCodec(byte[] key) {
+        this(null, key);
+    }
+
+    /**
+     * @param keyId written as the {@code kid} header of every token signed; null for none
+     */
+    public Hs256TokenCodec(String keyId, byte[] key) {
+        super(ALGORITHM, keyId);
+        this.key = new SecretKeySpec(key, MAC_ALGORITHM);
+        this.pool = new AtomicReferenceArray<>(2 * Runtime.getRuntime().availableProcessors());
+        for (int i = 0; i < pool.length(); i++) {
+            pool.set(i, new Scratch(newMac()));
+        }
+    }
+
+    @Override
+    public String sign(String subject, String tokenId, UUID userId, Long tokenVersion,
+                       Collection<String> authorities, long issuedAtMillis, long expiresAtMillis) {
+        Scratch scratch = borrow();
+        try {
+            byte[] json = scratch.json(claimsCapacity(subject, tokenId, authorities));
+            int p = writeClaims(json, subject, tokenId, userId, tokenVersion, authorities,
+                    issuedAtMillis, expiresAtMillis);
+
+            byte[] token = scratch.buffer(headerBytes.length + Base64Url.encodedLength(p) + SIGNATURE_CHARS + 2);
+            System.arraycopy(headerBytes, 0, token, 0, headerBytes.length);
+            int t = headerBytes.length;
+            token[t++] = '.';
+            t = Base64Url.encode(json, 0, p, token, t);
+            scratch.mac.update(token, 0, t);
+            scratch.mac.doFinal(scratch.signature, 0);
+            token[t++] = '.';
+            t = Base64Url.encode(scratch.signature, 0, SIGNATURE_BYTES, token, t);
+            return new String(token, 0, t, StandardCharsets.ISO_8859_1);
+        } catch (ShortBufferException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            release(scratch);
+        }
+    }
+
+    @Override
+    public ParsedToken verify(String token, long nowMillis) {
+        int length = token.length();
+        int firstDot = token.indexOf('.');
+        int secondDot = checkShape(token, firstDot);
+        if (length - secondDot - 1 != SIGNATURE_CHARS) {
+            throw new SignatureException(SIGNATURE_MISMATCH);
+        }
+
+        Scratch scratch = borrow();
+        try {
+            byte[] signed = scratch.buffer(secondDot);
+            for (int i = 0; i < secondDot; i++) {
+                char c = token.charAt(i);
+                if (c > 0x7F) {
+                    throw new MalformedJwtException("JWT contains non-ASCII characters");
+                }
+                signed[i] = (byte) c;
+            }
+            scratch.mac.update(signed, 0, secondDot);
+            scratch.mac.doFinal(scratch.expected, 0);
+            if (Base64Url.decode(token, secondDot + 1, length, scratch.signature) != SIGNATURE_BYTES
+                    || !MessageDigest.isEqual(scratch.expected, scratch.signature)) {
+                throw new SignatureException(SIGNATURE_MISMATCH);
+            }
+
+            if (!isKnownHeader(token, firstDot)) {
+                checkHeader(token, firstDot, scratch.json(Base64Url.decodedLength(firstDot)));
+            }
+            byte[] json = scratch.json(Base64Url.decodedLength(secondDot - firstDot - 1));
+            int jsonLength = Base64Url.decode(token, firstDot + 1, secondDot, json);
+            if (jsonLength < 0) {
+                throw new MalformedJwtException("JWT payload is not Base64URL");
+            }
+            return readClaims(json, jsonLength, nowMillis);
+        } catch (ShortBufferException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            release(scratch);
+        }
+    }
+
+    @Override
+    boolean isKnownHeader(String token, int firstDot) {
+        return super.isKnownHeader(token, firstDot)
+                || (keyId() == null && firstDot == JJWT_HEADER.length() && token.startsWith(JJWT_HEADER));
+    }
+
+    // Lock-free pool without ThreadLocal: virtual threads would each start with an empty one
+    private Scratch borrow() {
+        int size = pool.length();
+        int start = ThreadLocalRandom.current().nextInt(size);
+        for (int i = 0; i < size; i++) {
+            int index = (start + i) % size;
+            Scratch scratch = pool.get(index);
+            if (scratch != null && pool.compareAndSet(index, scratch, null)) {
+                return scratch;
+            }
+        }
+        // More concurrent callers than pooled instances; the extra one is dropped on release if there is no room
+        return new Scratch(newMac());
+    }
+
+    private void release(Scratch scratch) {
+        int size = pool.length();
+        int start = ThreadLocalRandom.current().nextInt(size);
+        for (int i = 0; i < size; i++) {
+            if (pool.compareAndSet((start + i) % size, null, scratch)) {
+                return;
+            }
+        }
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+
+    /**
+     * A keyed Mac and the buffers of one sign or verify, grown to the largest token seen.
+     */
+    private static final class Scratch {
+
+        private final Mac mac;
+        private final byte[] signature = new byte[SIGNATURE_BYTES];
+        private final byte[] expected = new byte[SIGNATURE_BYTES];
+        private byte[] buffer = new byte[512];
+        private byte[] json = new byte[384];
+
+        private Scratch(Mac mac) {
+            this.mac = mac;
+        }
+
+        byte[] buffer(int capacity) {
+            if (buffer.length < capacity) {
+                buffer = new byte[capacity];
+            }
+            return buffer;
+        }
+
+        byte[] json(int capacity) {
+            if (json.length < capacity) {
+                json = new byte[capacity];
+            }
+            return json;
+        }
+    }
+}
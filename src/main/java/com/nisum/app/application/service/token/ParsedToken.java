@@ -0,0 +1,35 @@
+package com.nisum.app.application.service.token;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Value
+@Builder
+public class ParsedToken {
+
+    String subject;
+    // The "jti" claim, by which a single token can be revoked; null on tokens issued before it existed
+    String tokenId;
+    Instant issuedAt;
+    Instant expiresAt;
+
+    // Present on tokens issued through generateToken(User, ...); null on older tokens
+    UUID userId;
+    Long tokenVersion;
+
+    @Builder.Default
+    List<String> authorities = List.of();
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !expiresAt.isAfter(now);
+    }
+
+    // Tokens issued before versioning carry no "ver" claim and count as version 0
+    public boolean matchesTokenVersion(long currentVersion) {
+        return (tokenVersion != null ? tokenVersion : 0L) == currentVersion;
+    }
+}
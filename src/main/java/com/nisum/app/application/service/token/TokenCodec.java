@@ -0,0 +1,395 @@
+package com.nisum.app.application.service.token;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.PrematureJwtException;
+import io.jsonwebtoken.UnsupportedJwtException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Signs and verifies the application's compact JWTs with one key: header {@code {"alg":...,"typ":"JWT"}}, plus
+ * {@code "kid"} for a key of a {@link TokenKeyRing}, and the claims {@code sub}, {@code jti}, {@code uid},
+ * {@code ver}, {@code roles}, {@code iat} and {@code exp}, so any standard JWT library verifies them with the
+ * same key. Subclasses supply the signature; the header is encoded once per key and the claims are written
+ * and read here, directly between JSON bytes and the caller's buffers. Failures throw the jjwt exceptions
+ * callers already handle.
+ */
+public abstract class TokenCodec {
+
+    // Our tokens are a few hundred chars; anything this long is not one of them
+    static final int MAX_TOKEN_LENGTH = 8192;
+    static final String SIGNATURE_MISMATCH = "JWT signature does not match locally computed signature";
+    // Written into the header verbatim, so restricted to chars that need no JSON escaping
+    private static final Pattern KEY_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private final String algorithm;
+    private final String keyId;
+    private final String header;
+    final byte[] headerBytes;
+
+    /**
+     * @param algorithm the JWS {@code alg}, the only one this codec accepts
+     * @param keyId     written as the {@code kid} header of every token signed; null for none
+     */
+    TokenCodec(String algorithm, String keyId) {
+        if (keyId != null && !KEY_ID.matcher(keyId).matches()) {
+            throw new IllegalArgumentException("Key id must be 1 to 64 of [A-Za-z0-9._-]: " + keyId);
+        }
+        this.algorithm = algorithm;
+        this.keyId = keyId;
+        this.header = encodeSegment("{\"alg\":\"" + algorithm + "\",\"typ\":\"JWT\""
+                + (keyId != null ? ",\"kid\":\"" + keyId + "\"" : "") + "}");
+        this.headerBytes = header.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * A random 128-bit token id in Base64URL (22 chars). Ids only need to be unique, not unpredictable:
+     * the signature already keeps them from being forged.
+     */
+    public static String newTokenId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        byte[] bytes = new byte[16];
+        random.nextBytes(bytes);
+        byte[] encoded = new byte[Base64Url.encodedLength(bytes.length)];
+        Base64Url.encode(bytes, 0, bytes.length, encoded, 0);
+        return new String(encoded, StandardCharsets.ISO_8859_1);
+    }
+
+    public String algorithm() {
+        return algorithm;
+    }
+
+    public String keyId() {
+        return keyId;
+    }
+
+    /**
+     * @param tokenId        omitted from the token when null, like {@code userId} and {@code tokenVersion}
+     * @param issuedAtMillis {@code iat} and {@code exp} are stored in whole seconds, as JWT requires
+     */
+    public abstract String sign(String subject, String tokenId, UUID userId, Long tokenVersion,
+                                Collection<String> authorities, long issuedAtMillis, long expiresAtMillis);
+
+    /**
+     * Checks the signature, then the expiry and not-before times against {@code nowMillis}.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, forged, expired or not yet valid
+     */
+    public abstract ParsedToken verify(String token, long nowMillis);
+
+    /**
+     * Whether the token's header is the one this codec writes.
+     *
+     * @param firstDot index of the token's first '.'
+     */
+    boolean isKnownHeader(String token, int firstDot) {
+        return firstDot == header.length() && token.startsWith(header);
+    }
+
+    /**
+     * The {@code kid} of a header this codec did not write, or null if it has none.
+     */
+    static String readKeyId(String token, int firstDot) {
+        byte[] json = new byte[Base64Url.decodedLength(firstDot)];
+        int length = Base64Url.decode(token, 0, firstDot, json);
+        if (length < 0) {
+            throw new MalformedJwtException("JWT header is not Base64URL");
+        }
+        try (JsonParser parser = JSON.createParser(json, 0, length)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new MalformedJwtException("JWT header is not a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("kid".equals(name) && value == JsonToken.VALUE_STRING) {
+                    return parser.getText();
+                }
+                parser.skipChildren();
+            }
+            return null;
+        } catch (IOException e) {
+            throw new MalformedJwtException("Unable to read JWT header", e);
+        }
+    }
+
+    // Another issuer's header: only our algorithm without critical extensions is understood
+    void checkHeader(String token, int firstDot, byte[] json) {
+        int length = Base64Url.decode(token, 0, firstDot, json);
+        if (length < 0) {
+            throw new MalformedJwtException("JWT header is not Base64URL");
+        }
+        String headerAlgorithm = null;
+        try (JsonParser parser = JSON.createParser(json, 0, length)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new MalformedJwtException("JWT header is not a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("crit".equals(name)) {
+                    throw new UnsupportedJwtException("JWT critical header parameters are not supported");
+                }
+                if ("alg".equals(name) && value == JsonToken.VALUE_STRING) {
+                    headerAlgorithm = parser.getText();
+                }
+                parser.skipChildren();
+            }
+        } catch (IOException e) {
+            throw new MalformedJwtException("Unable to read JWT header", e);
+        }
+        if (!algorithm.equals(headerAlgorithm)) {
+            throw new UnsupportedJwtException("JWT algorithm " + headerAlgorithm + " is not supported");
+        }
+    }
+
+    /**
+     * Index of the token's second '.', after checking that it has exactly two within the length limit.
+     */
+    static int checkShape(String token, int firstDot) {
+        int secondDot = firstDot < 0 ? -1 : token.indexOf('.', firstDot + 1);
+        if (token.length() > MAX_TOKEN_LENGTH || secondDot < 0 || token.indexOf('.', secondDot + 1) >= 0) {
+            throw new MalformedJwtException("JWT strings must contain exactly 2 period characters and at most "
+                    + MAX_TOKEN_LENGTH + " chars");
+        }
+        return secondDot;
+    }
+
+    static ParsedToken readClaims(byte[] json, int length, long nowMillis) {
+        String subject = null;
+        String tokenId = null;
+        Instant issuedAt = null;
+        Instant expiresAt = null;
+        Instant notBefore = null;
+        UUID userId = null;
+        Long tokenVersion = null;
+        List<String> authorities = List.of();
+        try (JsonParser parser = JSON.createParser(json, 0, length)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new MalformedJwtException("JWT payload is not a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (name) {
+                    case "sub" -> subject = value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                    case "jti" -> tokenId = value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                    case "iat" -> issuedAt = numericDate(parser, value);
+                    case "exp" -> expiresAt = numericDate(parser, value);
+                    case "nbf" -> notBefore = numericDate(parser, value);
+                    case "uid" -> userId = value == JsonToken.VALUE_STRING ? UUID.fromString(parser.getText()) : null;
+                    case "ver" -> tokenVersion = value == JsonToken.VALUE_NUMBER_INT ? parser.getLongValue() : null;
+                    case "roles" -> authorities = readStrings(parser, value);
+                    default -> parser.skipChildren();
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            throw new MalformedJwtException("Unable to read JWT claims", e);
+        }
+
+        if (expiresAt != null && nowMillis >= expiresAt.toEpochMilli()) {
+            throw new ExpiredJwtException(null, null,
+                    "JWT expired at " + expiresAt + ". Current time: " + Instant.ofEpochMilli(nowMillis));
+        }
+        if (notBefore != null && nowMillis < notBefore.toEpochMilli()) {
+            throw new PrematureJwtException(null, null, "JWT must not be accepted before " + notBefore);
+        }
+        return ParsedToken.builder()
+                .subject(subject)
+                .tokenId(tokenId)
+                .issuedAt(issuedAt)
+                .expiresAt(expiresAt)
+                .userId(userId)
+                .tokenVersion(tokenVersion)
+                .authorities(authorities)
+                .build();
+    }
+
+    private static Instant numericDate(JsonParser parser, JsonToken value) throws IOException {
+        return switch (value) {
+            case VALUE_NUMBER_INT -> Instant.ofEpochSecond(parser.getLongValue());
+            case VALUE_NUMBER_FLOAT -> Instant.ofEpochMilli((long) (parser.getDoubleValue() * 1000));
+            default -> throw new MalformedJwtException("JWT date claims must be numbers");
+        };
+    }
+
+    private static List<String> readStrings(JsonParser parser, JsonToken value) throws IOException {
+        if (value != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return List.of();
+        }
+        List<String> values = new ArrayList<>(2);
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            values.add(parser.getValueAsString());
+        }
+        return values;
+    }
+
+    static int claimsCapacity(String subject, String tokenId, Collection<String> authorities) {
+        // Up to 6 bytes per char (\\u00XX) in strings, 20 digits per number, 36 chars per UUID
+        int capacity = 192 + 6 * subject.length() + (tokenId != null ? 8 + 6 * tokenId.length() : 0);
+        for (String authority : authorities) {
+            capacity += 3 + 6 * authority.length();
+        }
+        return capacity;
+    }
+
+    /**
+     * Writes the claims JSON into {@code json}, sized by {@link #claimsCapacity}.
+     *
+     * @return the length written
+     */
+    static int writeClaims(byte[] json, String subject, String tokenId, UUID userId, Long tokenVersion,
+                           Collection<String> authorities, long issuedAtMillis, long expiresAtMillis) {
+        int p = 0;
+        json[p++] = '{';
+        p = writeName(json, p, "sub");
+        p = writeString(json, p, subject);
+        if (tokenId != null) {
+            json[p++] = ',';
+            p = writeName(json, p, "jti");
+            p = writeString(json, p, tokenId);
+        }
+        if (userId != null) {
+            json[p++] = ',';
+            p = writeName(json, p, "uid");
+            p = writeUuid(json, p, userId);
+        }
+        if (tokenVersion != null) {
+            json[p++] = ',';
+            p = writeName(json, p, "ver");
+            p = writeLong(json, p, tokenVersion);
+        }
+        if (!authorities.isEmpty()) {
+            json[p++] = ',';
+            p = writeName(json, p, "roles");
+            json[p++] = '[';
+            for (String authority : authorities) {
+                if (json[p - 1] != '[') {
+                    json[p++] = ',';
+                }
+                p = writeString(json, p, authority);
+            }
+            json[p++] = ']';
+        }
+        json[p++] = ',';
+        p = writeName(json, p, "iat");
+        p = writeLong(json, p, Math.floorDiv(issuedAtMillis, 1000));
+        json[p++] = ',';
+        p = writeName(json, p, "exp");
+        p = writeLong(json, p, Math.floorDiv(expiresAtMillis, 1000));
+        json[p++] = '}';
+        return p;
+    }
+
+    private static int writeName(byte[] json, int p, String name) {
+        json[p++] = '"';
+        for (int i = 0; i < name.length(); i++) {
+            json[p++] = (byte) name.charAt(i);
+        }
+        json[p++] = '"';
+        json[p++] = ':';
+        return p;
+    }
+
+    private static int writeString(byte[] json, int p, String value) {
+        json[p++] = '"';
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json[p++] = '\\';
+                json[p++] = (byte) c;
+            } else if (c < 0x20) {
+                json[p++] = '\\';
+                json[p++] = 'u';
+                json[p++] = '0';
+                json[p++] = '0';
+                json[p++] = HEX[c >>> 4];
+                json[p++] = HEX[c & 0xF];
+            } else if (c < 0x80) {
+                json[p++] = (byte) c;
+            } else if (c < 0x800) {
+                json[p++] = (byte) (0xC0 | c >>> 6);
+                json[p++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                json[p++] = (byte) (0xF0 | codePoint >>> 18);
+                json[p++] = (byte) (0x80 | codePoint >>> 12 & 0x3F);
+                json[p++] = (byte) (0x80 | codePoint >>> 6 & 0x3F);
+                json[p++] = (byte) (0x80 | codePoint & 0x3F);
+            } else {
+                json[p++] = (byte) (0xE0 | c >>> 12);
+                json[p++] = (byte) (0x80 | c >>> 6 & 0x3F);
+                json[p++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+        json[p++] = '"';
+        return p;
+    }
+
+    private static int writeLong(byte[] json, int p, long value) {
+        if (value < 0) {
+            json[p++] = '-';
+            if (value == Long.MIN_VALUE) {
+                throw new IllegalArgumentException("Numeric claim out of range");
+            }
+            value = -value;
+        }
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        for (int i = p + digits - 1; i >= p; i--) {
+            json[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return p + digits;
+    }
+
+    private static int writeUuid(byte[] json, int p, UUID uuid) {
+        long msb = uuid.getMostSignificantBits();
+        long lsb = uuid.getLeastSignificantBits();
+        json[p++] = '"';
+        p = writeHex(json, p, msb >>> 32, 8);
+        json[p++] = '-';
+        p = writeHex(json, p, msb >>> 16, 4);
+        json[p++] = '-';
+        p = writeHex(json, p, msb, 4);
+        json[p++] = '-';
+        p = writeHex(json, p, lsb >>> 48, 4);
+        json[p++] = '-';
+        p = writeHex(json, p, lsb, 12);
+        json[p++] = '"';
+        return p;
+    }
+
+    private static int writeHex(byte[] json, int p, long value, int digits) {
+        for (int i = p + digits - 1; i >= p; i--) {
+            json[i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+        return p + digits;
+    }
+
+    static String encodeSegment(String json) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        byte[] encoded = new byte[Base64Url.encodedLength(bytes.length)];
+        Base64Url.encode(bytes, 0, bytes.length, encoded, 0);
+        return new String(encoded, StandardCharsets.US_ASCII);
+    }
+}
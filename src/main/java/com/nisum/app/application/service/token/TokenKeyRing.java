@@ -0,0 +1,109 @@
+package com.nisum.app.application.service.token;
+
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.SignatureException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The keys tokens are signed and verified with: one signing key and every key whose tokens may still be
+ * in use, each with its own ready {@link TokenCodec}, HS256 or asymmetric. A token is routed to its key by
+ * comparing its header segment with the few precomputed ones, so picking the key costs a string comparison
+ * per key and no decoding; only headers written by another issuer are decoded for their {@code kid}. The
+ * header's {@code alg} must be the routed key's, so a token cannot pick how it is verified. Tokens without
+ * {@code kid} go to the key that has none, if any. Immutable: rotation swaps in a new ring.
+ */
+public final class TokenKeyRing {
+
+    private final TokenCodec signer;
+    private final TokenCodec[] verifiers;
+    private final Map<String, TokenCodec> byKeyId = new HashMap<>();
+    private final TokenCodec withoutKeyId;
+
+    /**
+     * @param verifiers the keys accepted besides {@code signer}, most used first
+     */
+    public TokenKeyRing(TokenCodec signer, Collection<? extends TokenCodec> verifiers) {
+        List<TokenCodec> all = new ArrayList<>(verifiers.size() + 1);
+        all.add(signer);
+        verifiers.stream().filter(verifier -> verifier != signer).forEach(all::add);
+        TokenCodec unnamed = null;
+        for (TokenCodec verifier : all) {
+            if (verifier.keyId() == null) {
+                if (unnamed != null) {
+                    throw new IllegalArgumentException("Only one key may have no key id");
+                }
+                unnamed = verifier;
+            } else if (byKeyId.put(verifier.keyId(), verifier) != null) {
+                throw new IllegalArgumentException("Duplicate key id " + verifier.keyId());
+            }
+        }
+        this.signer = signer;
+        this.verifiers = all.toArray(TokenCodec[]::new);
+        this.withoutKeyId = unnamed;
+    }
+
+    public static TokenKeyRing of(byte[] key) {
+        return new TokenKeyRing(new Hs256TokenCodec(key), List.of());
+    }
+
+    public TokenCodec signer() {
+        return signer;
+    }
+
+    /**
+     * Verifies the token with the key its header names; see {@link TokenCodec#verify}.
+     *
+     * @throws SignatureException if the token names a key not in this ring
+     */
+    public ParsedToken verify(String token, long nowMillis) {
+        return verifierFor(token).verify(token, nowMillis);
+    }
+
+    /**
+     * The keys accepted besides the signer's.
+     */
+    public List<TokenCodec> verifiers() {
+        return Arrays.asList(verifiers).subList(1, verifiers.length);
+    }
+
+    /**
+     * The public keys of the ring as JSON Web Keys, signer first; HS256 keys are secret and never listed.
+     */
+    public List<Map<String, Object>> publicKeys() {
+        List<Map<String, Object>> keys = new ArrayList<>();
+        for (TokenCodec verifier : verifiers) {
+            if (verifier instanceof AsymmetricTokenCodec asymmetric) {
+                keys.add(asymmetric.jwk());
+            }
+        }
+        return keys;
+    }
+
+    private TokenCodec verifierFor(String token) {
+        int firstDot = token.indexOf('.');
+        if (firstDot < 0) {
+            throw new MalformedJwtException("JWT strings must contain exactly 2 period characters");
+        }
+        for (TokenCodec verifier : verifiers) {
+            if (verifier.isKnownHeader(token, firstDot)) {
+                return verifier;
+            }
+        }
+        String keyId = TokenCodec.readKeyId(token, firstDot);
+        TokenCodec verifier = keyId == null ? withoutKeyId : byKeyId.get(keyId);
+        if (verifier == null) {
+            throw unknownKey(keyId);
+        }
+        return verifier;
+    }
+
+    private static SignatureException unknownKey(String keyId) {
+        return new SignatureException(keyId == null ? "JWT has no key id" : "JWT signed with unknown key " + keyId);
+    }
+}
@@ -5,25 +5,47 @@ import com.nisum.app.domain.model.Phone;
 import com.nisum.app.domain.model.User;
 import com.nisum.app.infrastructure.dto.phone.PhoneDto;
 import com.nisum.app.infrastructure.dto.user.UserRegistrationRequestDto;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Component
 public class UserFactory {
 
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordEncoder passwordEncoder;
 
-    public UserFactory() {
-        this.passwordEncoder = new BCryptPasswordEncoder();
+    public UserFactory(PasswordEncoder passwordEncoder) {
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    public User createUser(UserRegistrationRequestDto requestDto) {
+        return createUser(requestDto, null);
     }
 
     public User createUser(UserRegistrationRequestDto requestDto, String token) {
         String encodedPassword = passwordEncoder.encode(requestDto.getPassword());
+        return buildUser(requestDto, encodedPassword, token);
+    }
+
+    /**
+     * For users migrated from another system: the request password is already a hash the password
+     * encoder can match (bare BCrypt or {id}-prefixed) and is stored as is. {@code created} is set here
+     * because bulk imports insert through a stateless session, which skips the entity callbacks;
+     * {@code lastLogin}, which the callback would also set, stays empty until the user first logs in.
+     */
+    public User createUserWithEncodedPassword(UserRegistrationRequestDto requestDto) {
+        User user = buildUser(requestDto, requestDto.getPassword(), null);
+        user.setCreated(LocalDateTime.now());
+        return user;
+    }
 
+    private User buildUser(UserRegistrationRequestDto requestDto, String encodedPassword, String token) {
         User user = User.builder()
+                .id(UUID.randomUUID())
                 .name(requestDto.getName())
                 .email(requestDto.getEmail().toLowerCase())
                 .password(encodedPassword)
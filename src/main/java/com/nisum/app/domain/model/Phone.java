@@ -4,15 +4,21 @@ import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
-@Table(name = "phones")
+@Table(name = "phones", indexes = {
+        // Loading the phones of a page of users by user_id
+        @Index(name = "idx_phones_user_id", columnList = "user_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Phone {
 
+    // IDENTITY would force Hibernate to insert phones one by one to read back each key; a pooled
+    // sequence keeps them in JDBC batches
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "phones_seq")
+    @SequenceGenerator(name = "phones_seq", sequenceName = "phones_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "number", nullable = false)
@@ -0,0 +1,74 @@
+package com.nisum.app.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+        // Ending a whole session on reuse and all of a user's sessions on revocation
+        @Index(name = "idx_refresh_tokens_family_id", columnList = "family_id"),
+        @Index(name = "idx_refresh_tokens_user_id", columnList = "user_id"),
+        // Purge of the expired rows
+        @Index(name = "idx_refresh_tokens_expires_at", columnList = "expires_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RefreshToken implements Persistable<String> {
+
+    // SHA-256 of the opaque token, Base64URL; the token itself is never stored
+    @Id
+    @Column(name = "token_hash", length = 43)
+    private String tokenHash;
+
+    // One login session: every token rotated from the one issued at login shares it
+    @Column(name = "family_id", nullable = false, columnDefinition = "UUID")
+    private UUID familyId;
+
+    @Column(name = "user_id", nullable = false, columnDefinition = "UUID")
+    private UUID userId;
+
+    // The user's token version at issue time: revoking all of a user's tokens ends its sessions too
+    @Column(name = "token_version", nullable = false)
+    private Long tokenVersion;
+
+    @Column(name = "created", nullable = false)
+    private LocalDateTime created;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    // Set when the token is rotated; presenting it again means it was stolen
+    @Column(name = "used_at")
+    private LocalDateTime usedAt;
+
+    // Rows are only ever inserted through save(); with an assigned id it would otherwise SELECT first
+    @Transient
+    @Builder.Default
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean persisted = false;
+
+    @Override
+    public String getId() {
+        return tokenHash;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostPersist
+    @PostLoad
+    protected void markPersisted() {
+        persisted = true;
+    }
+}
@@ -2,18 +2,24 @@ package com.nisum.app.domain.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.springframework.data.domain.Persistable;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        // Listing order and keyset pagination cursor
+        @Index(name = "idx_users_created_id", columnList = "created, id"),
+        // Incremental token state refreshes (with created, see UserRepository.findTokenStatesChangedSince)
+        @Index(name = "idx_users_modified", columnList = "modified")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class User {
+public class User implements Persistable<UUID> {
 
     @Id
     @Column(name = "id", columnDefinition = "UUID")
@@ -37,16 +43,46 @@ public class User {
     @Column(name = "last_login")
     private LocalDateTime lastLogin;
 
-    @Column(name = "token")
+    @Column(name = "token", length = 1024)
     private String token;
 
     @Column(name = "is_active", nullable = false)
     @Builder.Default
     private Boolean isActive = true;
 
+    @Column(name = "token_version", nullable = false)
+    @Builder.Default
+    private Long tokenVersion = 0L;
+
+    // Granted by an administrator or the startup provisioning, never by registration
+    @Column(name = "is_admin", nullable = false)
+    @Builder.Default
+    private Boolean isAdmin = false;
+
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Phone> phones;
 
+    // The id is assigned by UserFactory (it is embedded in the token before the first save), so
+    // Spring Data cannot infer newness from a null id; without this save() would merge (SELECT + INSERT)
+    @Transient
+    @Builder.Default
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean persisted = false;
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostPersist
+    @PostLoad
+    protected void markPersisted() {
+        persisted = true;
+    }
+
     @PrePersist
     protected void onCreate() {
         if (id == null) {
@@ -67,6 +103,11 @@ public class User {
         this.modified = LocalDateTime.now();
     }
 
+    public void updatePassword(String encodedPassword) {
+        this.password = encodedPassword;
+        this.modified = LocalDateTime.now();
+    }
+
     public void updateToken(String newToken) {
         this.token = newToken;
         this.modified = LocalDateTime.now();
@@ -0,0 +1,20 @@
+package com.nisum.app.domain.model;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The columns a profile response changes with: every entity update sets modified, and last_login is also
+ * written on its own by the write-behind buffer. Read without loading the user, to answer conditional
+ * profile requests.
+ */
+@Value
+public class UserProfileVersion {
+
+    UUID id;
+    LocalDateTime created;
+    LocalDateTime modified;
+    LocalDateTime lastLogin;
+}
@@ -0,0 +1,13 @@
+package com.nisum.app.domain.model;
+
+import lombok.Value;
+
+import java.util.UUID;
+
+@Value
+public class UserTokenState {
+
+    UUID id;
+    Long tokenVersion;
+    Boolean isActive;
+}
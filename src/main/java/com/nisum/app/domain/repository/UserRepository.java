@@ -1,9 +1,18 @@
 package com.nisum.app.domain.repository;
 
 import com.nisum.app.domain.model.User;
+import com.nisum.app.domain.model.UserProfileVersion;
+import com.nisum.app.domain.model.UserTokenState;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -12,5 +21,37 @@ public interface UserRepository extends JpaRepository<User, UUID> {
 
     Optional<User> findByEmail(String email);
 
+    // User and phones in one LEFT JOIN instead of a second query when phones is first touched
+    @EntityGraph(attributePaths = "phones")
+    Optional<User> findWithPhonesByEmail(String email);
+
     boolean existsByEmail(String email);
+
+    @Query("select new com.nisum.app.domain.model.UserProfileVersion(u.id, u.created, u.modified, u.lastLogin) " +
+            "from User u where u.email = :email")
+    Optional<UserProfileVersion> findProfileVersionByEmail(@Param("email") String email);
+
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("select new com.nisum.app.domain.model.UserTokenState(u.id, u.tokenVersion, u.isActive) from User u " +
+            "where u.tokenVersion > 0 or u.isActive = false")
+    List<UserTokenState> findNonDefaultTokenStates();
+
+    // Two index ranges (idx_users_modified, idx_users_created_id) instead of an OR no single index can serve
+    @Query("select new com.nisum.app.domain.model.UserTokenState(u.id, u.tokenVersion, u.isActive) from User u " +
+            "where u.modified >= :since " +
+            "union " +
+            "select new com.nisum.app.domain.model.UserTokenState(u.id, u.tokenVersion, u.isActive) from User u " +
+            "where u.created >= :since")
+    List<UserTokenState> findTokenStatesChangedSince(@Param("since") LocalDateTime since);
+
+    // Keyset pagination in (created, id) order, served by idx_users_created_id. The "created >= :created"
+    // conjunct bounds the index range scan, so a page costs the same at any depth (no OFFSET to skip)
+    @Query("select u from User u order by u.created, u.id")
+    List<User> findFirstPage(Limit limit);
+
+    @Query("select u from User u where u.created >= :created and (u.created > :created or u.id > :id) " +
+            "order by u.created, u.id")
+    List<User> findPageAfter(@Param("created") LocalDateTime created, @Param("id") UUID id, Limit limit);
 }
@@ -3,24 +3,13 @@ package com.nisum.app.domain.specification;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.util.regex.Pattern;
-
 @Component
-public class EmailValidationSpecification implements ValidationSpecification<String> {
+public class EmailValidationSpecification extends RegexSpecification {
 
-    private final Pattern emailPattern;
+    // RFC 5321 limit of a forward path
+    static final int MAX_LENGTH = 254;
 
     public EmailValidationSpecification(@Value("${app.email.regex}") String emailRegex) {
-        this.emailPattern = Pattern.compile(emailRegex);
-    }
-
-    @Override
-    public boolean isSatisfiedBy(String email) {
-        return email != null && emailPattern.matcher(email).matches();
-    }
-
-    @Override
-    public String getErrorMessage() {
-        return "formato invalido de email";
+        super(emailRegex, MAX_LENGTH, "formato invalido de email");
     }
 }
@@ -3,24 +3,14 @@ package com.nisum.app.domain.specification;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.util.regex.Pattern;
-
 @Component
-public class PasswordValidationSpecification implements ValidationSpecification<String> {
+public class PasswordValidationSpecification extends RegexSpecification {
 
-    private final Pattern passwordPattern;
+    // Far above any real password; BCrypt only reads the first 72 bytes anyway
+    static final int MAX_LENGTH = 128;
 
     public PasswordValidationSpecification(@Value("${app.password.regex}") String passwordRegex) {
-        this.passwordPattern = Pattern.compile(passwordRegex);
-    }
-
-    @Override
-    public boolean isSatisfiedBy(String password) {
-        return password != null && passwordPattern.matcher(password).matches();
-    }
-
-    @Override
-    public String getErrorMessage() {
-        return "el password debe contener al menos 8 caracteres, incluyendo mayusculas, letras minisculas y numeros";
+        super(passwordRegex,
+                MAX_LENGTH, "el password debe contener al menos 8 caracteres, incluyendo mayusculas, letras minisculas y numeros");
     }
 }
@@ -0,0 +1,85 @@
+package com.nisum.app.domain.specification;
+
+import java.util.regex.Pattern;
+
+/**
+ * A regular expression check that cannot be turned into a denial of service. Input longer than
+ * {@code maxLength} fails before the matcher runs, and the matcher reads the input through a
+ * {@link CharSequence} that allows {@value #STEPS_PER_CHAR} reads per char: a pattern that backtracks
+ * more than that fails the candidate instead of running in super-linear time.
+ */
+public class RegexSpecification implements ValidationSpecification<String> {
+
+    // Generous for the lookahead patterns in use, which read each char a handful of times
+    static final int STEPS_PER_CHAR = 64;
+    private static final int MIN_STEPS = 1024;
+
+    private final Pattern pattern;
+    private final int maxLength;
+    private final String errorMessage;
+
+    public RegexSpecification(String regex, int maxLength, String errorMessage) {
+        this.pattern = Pattern.compile(regex);
+        this.maxLength = maxLength;
+        this.errorMessage = errorMessage;
+    }
+
+    @Override
+    public boolean isSatisfiedBy(String candidate) {
+        if (candidate == null || candidate.length() > maxLength) {
+            return false;
+        }
+        try {
+            return pattern.matcher(new BoundedCharSequence(candidate,
+                    Math.max(MIN_STEPS, (long) STEPS_PER_CHAR * candidate.length()))).matches();
+        } catch (StepBudgetExceededException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    private static final class BoundedCharSequence implements CharSequence {
+
+        private final String value;
+        private long remainingSteps;
+
+        BoundedCharSequence(String value, long steps) {
+            this.value = value;
+            this.remainingSteps = steps;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (--remainingSteps < 0) {
+                throw new StepBudgetExceededException();
+            }
+            return value.charAt(index);
+        }
+
+        @Override
+        public int length() {
+            return value.length();
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return value.subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return value;
+        }
+    }
+
+    private static final class StepBudgetExceededException extends RuntimeException {
+
+        StepBudgetExceededException() {
+            super(null, null, false, false);
+        }
+    }
+}
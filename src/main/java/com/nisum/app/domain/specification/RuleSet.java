@@ -0,0 +1,184 @@
+package com.nisum.app.domain.specification;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Validates a candidate against named rules, each a {@link ValidationSpecification} on one of its fields,
+ * and reports every violated field in one pass. A field stops at its first failed rule; rules run by
+ * {@link ValidationCost} tier, then by their measured mean time, so the cheap checks most likely to
+ * reject a candidate come first. Database rules run last, and only for a candidate no in-memory rule
+ * rejected. The order is computed on the first validation and recomputed every
+ * {@value #REORDER_EVERY} validations from the timings, which {@link #rules()} exposes for tuning.
+ */
+public final class RuleSet<T> {
+
+    static final int REORDER_EVERY = 1024;
+
+    private final String name;
+    private final List<Rule<T, ?>> declared;
+    private final AtomicLong validations = new AtomicLong();
+    private volatile List<Rule<T, ?>> ordered;
+
+    private RuleSet(String name, List<Rule<T, ?>> declared) {
+        this.name = name;
+        this.declared = List.copyOf(declared);
+    }
+
+    public static <T> Builder<T> builder(String name) {
+        return new Builder<>(name);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * The rules in declaration order, with the time spent in each so far.
+     */
+    public List<? extends RuleStatistics> rules() {
+        return declared;
+    }
+
+    /**
+     * @return the violations, one per failed field in evaluation order; empty if the candidate is valid
+     */
+    public List<Violation> validate(T candidate) {
+        List<Rule<T, ?>> rules = ordered;
+        if (rules == null || validations.incrementAndGet() % REORDER_EVERY == 0) {
+            rules = reorder();
+        }
+        List<Violation> violations = List.of();
+        for (Rule<T, ?> rule : rules) {
+            if (!violations.isEmpty() && (rule.cost() == ValidationCost.DATABASE || failed(violations, rule.field))) {
+                continue;
+            }
+            String message = rule.check(candidate);
+            if (message != null) {
+                if (violations.isEmpty()) {
+                    violations = new ArrayList<>(2);
+                }
+                violations.add(new Violation(rule.field, message));
+            }
+        }
+        return violations;
+    }
+
+    private List<Rule<T, ?>> reorder() {
+        // Stable: rules not measured yet keep their declaration order within a tier
+        List<Rule<T, ?>> rules = new ArrayList<>(declared);
+        rules.sort(Comparator.<Rule<T, ?>, ValidationCost>comparing(Rule::cost)
+                .thenComparingDouble(Rule::meanNanos));
+        List<Rule<T, ?>> reordered = List.copyOf(rules);
+        ordered = reordered;
+        return reordered;
+    }
+
+    private static boolean failed(List<Violation> violations, String field) {
+        for (Violation violation : violations) {
+            if (violation.field().equals(field)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public record Violation(String field, String message) {
+    }
+
+    /**
+     * Live timings of one rule.
+     */
+    public interface RuleStatistics {
+
+        /**
+         * {@code field.rule}, e.g. {@code email.format}.
+         */
+        String name();
+
+        long count();
+
+        double totalNanos();
+    }
+
+    private static final class Rule<T, V> implements RuleStatistics {
+
+        private final String field;
+        private final String name;
+        private final Function<T, V> getter;
+        private final ValidationSpecification<? super V> specification;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+
+        Rule(String field, String rule, Function<T, V> getter, ValidationSpecification<? super V> specification) {
+            this.field = field;
+            this.name = field + "." + rule;
+            this.getter = getter;
+            this.specification = specification;
+        }
+
+        String check(T candidate) {
+            V value = getter.apply(candidate);
+            long start = System.nanoTime();
+            boolean satisfied = specification.isSatisfiedBy(value);
+            totalNanos.add(System.nanoTime() - start);
+            count.increment();
+            return satisfied ? null : specification.getErrorMessage();
+        }
+
+        // Read when ordering rather than when declared: specifications may be configured afterwards
+        ValidationCost cost() {
+            return Objects.requireNonNullElse(specification.getCost(), ValidationCost.IN_MEMORY);
+        }
+
+        double meanNanos() {
+            long n = count.sum();
+            return n == 0 ? 0 : totalNanos.sum() / (double) n;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public long count() {
+            return count.sum();
+        }
+
+        @Override
+        public double totalNanos() {
+            return totalNanos.sum();
+        }
+    }
+
+    public static final class Builder<T> {
+
+        private final String name;
+        private final List<Rule<T, ?>> rules = new ArrayList<>();
+
+        private Builder(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Adds a rule on one field; rules of the same field form its rule set.
+         *
+         * @param rule the rule's name within the field, for timings
+         */
+        public <V> Builder<T> rule(String field, String rule, Function<T, V> getter,
+                                   ValidationSpecification<? super V> specification) {
+            rules.add(new Rule<>(field, rule, getter, specification));
+            return this;
+        }
+
+        public RuleSet<T> build() {
+            return new RuleSet<>(name, rules);
+        }
+    }
+}
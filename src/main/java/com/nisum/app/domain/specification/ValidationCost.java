@@ -0,0 +1,10 @@
+package com.nisum.app.domain.specification;
+
+/**
+ * How expensive a specification is to evaluate. A {@link RuleSet} runs every in-memory rule before any
+ * database one, whatever their measured times, and skips the database ones once a rule has failed.
+ */
+public enum ValidationCost {
+    IN_MEMORY,
+    DATABASE
+}
@@ -1,7 +1,91 @@
 package com.nisum.app.domain.specification;
 
+import java.util.function.Predicate;
+
+/**
+ * A single check on a candidate, composable with {@link #and}, {@link #or} and {@link #not}. Composites
+ * evaluate their cheaper side first and short-circuit.
+ */
 public interface ValidationSpecification<T> {
     boolean isSatisfiedBy(T candidate);
     String getErrorMessage();
-}
 
+    default ValidationCost getCost() {
+        return ValidationCost.IN_MEMORY;
+    }
+
+    static <T> ValidationSpecification<T> of(Predicate<T> predicate, String errorMessage, ValidationCost cost) {
+        return new ValidationSpecification<>() {
+            @Override
+            public boolean isSatisfiedBy(T candidate) {
+                return predicate.test(candidate);
+            }
+
+            @Override
+            public String getErrorMessage() {
+                return errorMessage;
+            }
+
+            @Override
+            public ValidationCost getCost() {
+                return cost;
+            }
+        };
+    }
+
+    /**
+     * Satisfied when both are; reports this one's message. Rules that need their own message go into a
+     * {@link RuleSet} separately instead.
+     */
+    default ValidationSpecification<T> and(ValidationSpecification<T> other) {
+        ValidationSpecification<T> first = cheaperFirst(this, other);
+        ValidationSpecification<T> second = first == this ? other : this;
+        return composite(candidate -> first.isSatisfiedBy(candidate) && second.isSatisfiedBy(candidate), other);
+    }
+
+    /**
+     * Satisfied when either is; reports this one's message.
+     */
+    default ValidationSpecification<T> or(ValidationSpecification<T> other) {
+        ValidationSpecification<T> first = cheaperFirst(this, other);
+        ValidationSpecification<T> second = first == this ? other : this;
+        return composite(candidate -> first.isSatisfiedBy(candidate) || second.isSatisfiedBy(candidate), other);
+    }
+
+    /**
+     * Satisfied when this one is not.
+     */
+    default ValidationSpecification<T> not(String errorMessage) {
+        return of(candidate -> !isSatisfiedBy(candidate), errorMessage, getCost());
+    }
+
+    // The message is read when a violation is reported, not when composing
+    private ValidationSpecification<T> composite(Predicate<T> predicate, ValidationSpecification<T> other) {
+        ValidationSpecification<T> self = this;
+        ValidationCost cost = max(getCost(), other.getCost());
+        return new ValidationSpecification<>() {
+            @Override
+            public boolean isSatisfiedBy(T candidate) {
+                return predicate.test(candidate);
+            }
+
+            @Override
+            public String getErrorMessage() {
+                return self.getErrorMessage();
+            }
+
+            @Override
+            public ValidationCost getCost() {
+                return cost;
+            }
+        };
+    }
+
+    private static <T> ValidationSpecification<T> cheaperFirst(ValidationSpecification<T> a, ValidationSpecification<T> b) {
+        return b.getCost().compareTo(a.getCost()) < 0 ? b : a;
+    }
+
+    private static ValidationCost max(ValidationCost a, ValidationCost b) {
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+}
@@ -0,0 +1,88 @@
+package com.nisum.app.infrastructure.config;
+
+import com.nisum.app.domain.model.Phone;
+import com.nisum.app.domain.model.RefreshToken;
+import com.nisum.app.domain.model.RevokedToken;
+import com.nisum.app.domain.model.User;
+import com.nisum.app.domain.model.UserProfileVersion;
+import com.nisum.app.domain.model.UserTokenState;
+import com.nisum.app.infrastructure.dto.error.ErrorResponseDto;
+import com.nisum.app.infrastructure.dto.login.LoginRequestDto;
+import com.nisum.app.infrastructure.dto.login.RefreshTokenRequestDto;
+import com.nisum.app.infrastructure.dto.login.TokenResponseDto;
+import com.nisum.app.infrastructure.dto.phone.PhoneDto;
+import com.nisum.app.infrastructure.dto.user.BulkRegistrationItemDto;
+import com.nisum.app.infrastructure.dto.user.BulkRegistrationResponseDto;
+import com.nisum.app.infrastructure.dto.user.UserImportRecordDto;
+import com.nisum.app.infrastructure.dto.user.UserImportReportDto;
+import com.nisum.app.infrastructure.dto.user.UserInfoResponseDto;
+import com.nisum.app.infrastructure.dto.user.UserPageResponseDto;
+import com.nisum.app.infrastructure.dto.user.UserRegistrationRequestDto;
+import com.nisum.app.infrastructure.dto.user.UserResponseDto;
+import com.nisum.app.infrastructure.dto.user.UserSummaryDto;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Reflection hints for the AOT-processed jar and the native image (mvn -Paot / -Pnative). Spring derives
+ * most of them from the beans, the controller signatures and the JPA managed types; these cover what it
+ * cannot see: DTOs read or written with the ObjectMapper directly (bulk registration, imports, the
+ * pre-serialized error bodies) and jjwt 0.9.1, which loads some classes by name.
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.ApplicationRuntimeHints.class)
+public class NativeHintsConfig {
+
+    static class ApplicationRuntimeHints implements RuntimeHintsRegistrar {
+
+        private static final Class<?>[] DTOS = {
+                ErrorResponseDto.class,
+                LoginRequestDto.class,
+                RefreshTokenRequestDto.class,
+                TokenResponseDto.class,
+                PhoneDto.class,
+                BulkRegistrationItemDto.class,
+                BulkRegistrationResponseDto.class,
+                UserImportRecordDto.class,
+                UserImportReportDto.class,
+                UserInfoResponseDto.class,
+                UserPageResponseDto.class,
+                UserRegistrationRequestDto.class,
+                UserResponseDto.class,
+                UserSummaryDto.class
+        };
+
+        // With the constructor projections Hibernate instantiates for the token version map and profile ETags
+        private static final Class<?>[] ENTITIES = {
+                User.class, Phone.class, RefreshToken.class, RevokedToken.class, UserTokenState.class,
+                UserProfileVersion.class
+        };
+
+        // jjwt 0.9.1 hands its header and claims maps to Jackson, which introspects their classes, and
+        // registers Bouncy Castle (on the classpath for Argon2) through Class.forName
+        private static final String[] JJWT_TYPES = {
+                "io.jsonwebtoken.impl.DefaultClaims",
+                "io.jsonwebtoken.impl.DefaultHeader",
+                "io.jsonwebtoken.impl.DefaultJwsHeader",
+                "org.bouncycastle.jce.provider.BouncyCastleProvider"
+        };
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), DTOS);
+            for (Class<?> entity : ENTITIES) {
+                hints.reflection().registerType(entity, MemberCategory.DECLARED_FIELDS,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS);
+            }
+            for (String type : JJWT_TYPES) {
+                hints.reflection().registerType(TypeReference.of(type),
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.nisum.app.infrastructure.controller;
+
+import com.nisum.app.application.service.ITokenRevocationService;
+import com.nisum.app.application.service.IUserImportService;
+import com.nisum.app.application.service.IUserRoleService;
+import com.nisum.app.infrastructure.dto.user.UserImportReportDto;
+import com.nisum.app.infrastructure.persistence.UserNdjsonExporter;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/admin/users")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "User Administration", description = "Administrative user operations")
+@SecurityRequirement(name = "bearerAuth")
+public class AdminUserController {
+
+    private final UserNdjsonExporter userExporter;
+    private final IUserImportService userImportService;
+    private final ITokenRevocationService tokenRevocationService;
+    private final IUserRoleService userRoleService;
+
+    @GetMapping("/export")
+    @Operation(summary = "Export users",
+            description = "Streams every user with its phones as NDJSON, one user per line; gzip=true compresses it. "
+                    + "Password hashes are left out unless includePasswords=true, needed only to re-import the dump")
+    public void exportUsers(@RequestParam(defaultValue = "false") boolean gzip,
+                            @RequestParam(defaultValue = "false") boolean includePasswords,
+                            HttpServletResponse response) throws IOException {
+        log.info("Received user export request (gzip={}, includePasswords={})", gzip, includePasswords);
+        // Written on the request thread: a StreamingResponseBody would be cut by the async request timeout
+        String fileName = gzip ? "users.ndjson.gz" : "users.ndjson";
+        response.setContentType(gzip ? "application/gzip" : MediaType.APPLICATION_NDJSON_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+        userExporter.export(response.getOutputStream(), gzip, includePasswords);
+    }
+
+    @PostMapping(value = "/import", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Import users",
+            description = "Starts importing an NDJSON or CSV file (optionally .gz) of the import directory whose passwords are BCrypt hashes; resumes from its checkpoint")
+    public ResponseEntity<UserImportReportDto> importUsers(@RequestParam String file) {
+        log.info("Received user import request for file: {}", file);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(userImportService.startImport(file));
+    }
+
+    @GetMapping(value = "/import", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Import status", description = "Progress of the running import or result of the last one")
+    public ResponseEntity<UserImportReportDto> importStatus() {
+        return userImportService.getStatus()
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/{id}/revoke-tokens")
+    @Operation(summary = "Revoke user tokens", description = "Revokes every token issued to the user so far")
+    public ResponseEntity<Void> revokeTokens(@PathVariable UUID id) {
+        log.info("Received token revocation request for user: {}", id);
+        tokenRevocationService.revokeAllTokens(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PutMapping("/{id}/admin")
+    @Operation(summary = "Grant admin role", description = "Grants ROLE_ADMIN to the user and revokes its current tokens")
+    public ResponseEntity<Void> grantAdmin(@PathVariable UUID id) {
+        log.info("Received admin role grant request for user: {}", id);
+        userRoleService.setAdmin(id, true);
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/{id}/admin")
+    @Operation(summary = "Withdraw admin role", description = "Withdraws ROLE_ADMIN from the user and revokes its current tokens")
+    public ResponseEntity<Void> withdrawAdmin(@PathVariable UUID id) {
+        log.info("Received admin role withdrawal request for user: {}", id);
+        userRoleService.setAdmin(id, false);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,29 @@
+package com.nisum.app.infrastructure.controller;
+
+/**
+ * If-None-Match evaluation for the controllers that answer 304 themselves, before building the body.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * Weak comparison, as RFC 9110 specifies for If-None-Match: {@code W/"x"} matches {@code "x"}.
+     *
+     * @param ifNoneMatch the header value, may be null
+     * @param etag a strong, quoted entity tag
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
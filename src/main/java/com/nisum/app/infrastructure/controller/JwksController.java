@@ -0,0 +1,82 @@
+package com.nisum.app.infrastructure.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nisum.app.application.service.token.TokenKeyRing;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Publishes the public keys tokens are signed with, so other services verify ES256/EdDSA tokens without
+ * calling this API. The body and its ETag are built once per key ring, and the response may be cached
+ * by clients and proxies for max-age, which must stay below app.jwt.keystore.activation-delay so that a
+ * new key is fetched before any token is signed with it.
+ */
+@RestController
+@Tag(name = "Keys", description = "Public keys to verify tokens")
+public class JwksController {
+
+    private final Supplier<TokenKeyRing> keyRing;
+    private final ObjectMapper objectMapper;
+    private final CacheControl cacheControl;
+    private volatile Jwks jwks;
+
+    public JwksController(Supplier<TokenKeyRing> keyRing,
+                          ObjectMapper objectMapper,
+                          @Value("${app.jwt.jwks.max-age:PT2M}") Duration maxAge) {
+        this.keyRing = keyRing;
+        this.objectMapper = objectMapper;
+        // stale-if-error: consumers keep verifying with the keys they have while this API is down
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic().staleIfError(Duration.ofDays(1));
+    }
+
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "JSON Web Key Set", description = "ES256/EdDSA public keys of the signing key ring (RFC 7517); HS256 keys are never published")
+    public ResponseEntity<byte[]> jwks(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Jwks current = current();
+        if (ETags.matches(ifNoneMatch, current.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current.etag()).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(current.etag())
+                .cacheControl(cacheControl)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(current.body());
+    }
+
+    private Jwks current() {
+        TokenKeyRing ring = keyRing.get();
+        Jwks current = jwks;
+        if (current == null || current.ring() != ring) {
+            try {
+                byte[] body = objectMapper.writeValueAsBytes(Map.of("keys", ring.publicKeys()));
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+                String etag = "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 22) + "\"";
+                current = new Jwks(ring, body, etag);
+            } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+                throw new IllegalStateException("Unable to build the JWKS", e);
+            }
+            jwks = current;
+        }
+        return current;
+    }
+
+    private record Jwks(TokenKeyRing ring, byte[] body, String etag) {
+    }
+}
@@ -1,6 +1,7 @@
 package com.nisum.app.infrastructure.controller;
 
 import com.nisum.app.application.service.IUserService;
+import com.nisum.app.domain.model.UserProfileVersion;
 import com.nisum.app.infrastructure.dto.user.UserInfoResponseDto;
 import com.nisum.app.infrastructure.dto.user.UserResponseDto;
 import io.swagger.v3.oas.annotations.Operation;
@@ -12,13 +13,27 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.security.Principal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
 
+/**
+ * The profile carries a strong ETag built from the user id, modified (created until the first update) and
+ * the last login, the columns every change to the response touches, plus the includePhones variant.
+ * Clients polling with If-None-Match get 304 from a projection of those columns, without loading the user
+ * or writing a body. Responses are private to the user and revalidated on every use.
+ */
 @RestController
 @RequestMapping("/api/profile")
 @RequiredArgsConstructor
@@ -27,12 +42,14 @@ import java.security.Principal;
 @SecurityRequirement(name = "bearerAuth")
 public class ProfileController {
 
+    private static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
     private final IUserService userService;
 
     @GetMapping("/me")
     @Operation(
             summary = "Get current user profile",
-            description = "Retrieves the profile information of the currently authenticated user"
+            description = "Retrieves the profile information of the currently authenticated user; includePhones=true adds the phones, loaded in the same query"
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -43,6 +60,11 @@ public class ProfileController {
                             schema = @Schema(implementation = UserInfoResponseDto.class)
                     )
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Profile unchanged since the ETag sent in If-None-Match",
+                    content = @Content
+            ),
             @ApiResponse(
                     responseCode = "401",
                     description = "Unauthorized - Invalid or missing JWT token",
@@ -54,12 +76,42 @@ public class ProfileController {
                     content = @Content
             )
     })
-    public ResponseEntity<UserInfoResponseDto> getCurrentUserProfile(Principal principal) {
+    public ResponseEntity<UserInfoResponseDto> getCurrentUserProfile(Principal principal,
+                                                                     @RequestParam(defaultValue = "false") boolean includePhones,
+                                                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         String userEmail = principal.getName();
+        if (ifNoneMatch != null) {
+            UserProfileVersion version = userService.getUserProfileVersion(userEmail);
+            String etag = etag(version.getId(), version.getCreated(), version.getModified(), version.getLastLogin(), includePhones);
+            if (ETags.matches(ifNoneMatch, etag)) {
+                log.debug("Profile not modified for user: {}", userEmail);
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CACHE_CONTROL).build();
+            }
+        }
         log.info("Retrieving profile for user: {}", userEmail);
 
-        UserInfoResponseDto userProfile = userService.getUserProfile(userEmail);
+        UserInfoResponseDto userProfile = userService.getUserProfile(userEmail, includePhones);
         log.info("Profile retrieved successfully for user: {}", userEmail);
-        return ResponseEntity.ok(userProfile);
+        // From the response itself: a change between the version check and the load still gets its own tag
+        String etag = etag(userProfile.getId(), userProfile.getCreated(), userProfile.getModified(),
+                userProfile.getLastLogin(), includePhones);
+        return ResponseEntity.ok().eTag(etag).cacheControl(CACHE_CONTROL).body(userProfile);
+    }
+
+    private static String etag(UUID id, LocalDateTime created, LocalDateTime modified, LocalDateTime lastLogin,
+                               boolean includePhones) {
+        StringBuilder etag = new StringBuilder(72).append('"').append(id)
+                .append('-').append(stamp(modified != null ? modified : created))
+                .append('-').append(stamp(lastLogin));
+        if (includePhones) {
+            etag.append("-p");
+        }
+        return etag.append('"').toString();
+    }
+
+    private static String stamp(LocalDateTime time) {
+        return time == null
+                ? "0"
+                : Long.toString(time.toEpochSecond(ZoneOffset.UTC), 36) + "." + Integer.toString(time.getNano(), 36);
     }
 }
@@ -1,22 +1,46 @@
 package com.nisum.app.infrastructure.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nisum.app.application.service.IBulkUserRegistrationService;
+import com.nisum.app.application.service.IRefreshTokenService;
+import com.nisum.app.application.service.ITokenRevocationService;
+import com.nisum.app.application.service.IUserQueryService;
 import com.nisum.app.application.service.IUserService;
 import com.nisum.app.infrastructure.dto.login.LoginRequestDto;
+import com.nisum.app.infrastructure.dto.login.RefreshTokenRequestDto;
+import com.nisum.app.infrastructure.dto.login.TokenResponseDto;
+import com.nisum.app.infrastructure.dto.user.BulkRegistrationResponseDto;
+import com.nisum.app.infrastructure.dto.user.UserPageResponseDto;
 import com.nisum.app.infrastructure.dto.user.UserRegistrationRequestDto;
 import com.nisum.app.infrastructure.dto.user.UserResponseDto;
+import com.nisum.app.infrastructure.exception.BusinessException;
+import com.nisum.app.infrastructure.security.PasswordHashingExecutor;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api")
 @RequiredArgsConstructor
@@ -25,24 +49,96 @@ import org.springframework.web.bind.annotation.RestController;
 public class UserController {
 
     private final IUserService userService;
+    private final IBulkUserRegistrationService bulkRegistrationService;
+    private final IUserQueryService userQueryService;
+    private final ITokenRevocationService tokenRevocationService;
+    private final IRefreshTokenService refreshTokenService;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final ObjectMapper objectMapper;
 
     @PostMapping(value = "/users",
             consumes = MediaType.APPLICATION_JSON_VALUE,
             produces = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "Register a new user", description = "Creates a new user account with the provided information")
-    public ResponseEntity<UserResponseDto> registerUser(@Valid @RequestBody UserRegistrationRequestDto requestDto) {
+    public CompletableFuture<ResponseEntity<UserResponseDto>> registerUser(@Valid @RequestBody UserRegistrationRequestDto requestDto) {
         log.info("Received user registration request for email: {}", requestDto.getEmail());
-        UserResponseDto response = userService.registerUser(requestDto);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        // BCrypt runs on the hashing executor; the servlet thread is released right away
+        return passwordHashingExecutor.submit(() -> userService.registerUser(requestDto))
+                .thenApply(response -> ResponseEntity.status(HttpStatus.CREATED).body(response));
+    }
+
+    @GetMapping(value = "/users", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "List users",
+            description = "Lists users by creation date; pass the returned nextCursor to get the following page (admin only)")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<UserPageResponseDto> listUsers(@RequestParam(required = false) String cursor,
+                                                         @RequestParam(required = false) Integer size,
+                                                         @RequestParam(defaultValue = "false") boolean includePhones) {
+        return ResponseEntity.ok(userQueryService.listUsers(cursor, size, includePhones));
+    }
+
+    @PostMapping(value = "/users/batch",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Register users in bulk", description = "Registers a JSON array of users and returns a result per item (admin only)")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<BulkRegistrationResponseDto> registerUsers(@RequestBody List<UserRegistrationRequestDto> requestDtos) {
+        log.info("Received bulk registration request with {} users", requestDtos.size());
+        return ResponseEntity.ok(bulkRegistrationService.registerUsers(requestDtos));
+    }
+
+    @PostMapping(value = "/users/batch",
+            consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Register users in bulk (NDJSON)", description = "Registers one user per line and returns a result per item (admin only)")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<BulkRegistrationResponseDto> registerUsersNdjson(InputStream body) throws IOException {
+        int maxItems = bulkRegistrationService.maxItems();
+        List<UserRegistrationRequestDto> requestDtos = new ArrayList<>();
+        try (MappingIterator<UserRegistrationRequestDto> lines =
+                     objectMapper.readerFor(UserRegistrationRequestDto.class).readValues(body)) {
+            // Stop reading at the first user over the cap instead of buffering the whole body
+            while (lines.hasNextValue()) {
+                if (requestDtos.size() == maxItems) {
+                    throw new BusinessException("el lote excede el maximo de " + maxItems + " usuarios");
+                }
+                requestDtos.add(lines.nextValue());
+            }
+        } catch (JsonProcessingException e) {
+            String line = e.getLocation() != null ? String.valueOf(e.getLocation().getLineNr()) : "?";
+            throw new BusinessException("NDJSON invalido en la linea " + line);
+        }
+        log.info("Received bulk registration request with {} users (NDJSON)", requestDtos.size());
+        return ResponseEntity.ok(bulkRegistrationService.registerUsers(requestDtos));
     }
 
     @PostMapping(value = "/login",
             consumes = MediaType.APPLICATION_JSON_VALUE,
             produces = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "User login", description = "Authenticates a user and returns a JWT token")
-    public ResponseEntity<UserResponseDto> loginUser(@Valid @RequestBody LoginRequestDto requestDto) {
+    public CompletableFuture<ResponseEntity<UserResponseDto>> loginUser(@Valid @RequestBody LoginRequestDto requestDto) {
         log.info("Received login request for email: {}", requestDto.getEmail());
-        UserResponseDto response = userService.loginUser(requestDto);
-        return ResponseEntity.ok(response);
+        return passwordHashingExecutor.submit(() -> userService.loginUser(requestDto))
+                .thenApply(ResponseEntity::ok);
+    }
+
+    @PostMapping(value = "/token/refresh",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Refresh token", description = "Exchanges a refresh token for a new JWT token and a new refresh token; the old one can't be used again")
+    public ResponseEntity<TokenResponseDto> refreshToken(@Valid @RequestBody RefreshTokenRequestDto requestDto) {
+        // No password hashing involved: runs on the servlet thread
+        return ResponseEntity.ok(refreshTokenService.refresh(requestDto.getRefreshToken()));
+    }
+
+    @PostMapping("/logout")
+    @Operation(summary = "User logout", description = "Revokes the JWT token of the request and, if given, ends the session of the refresh token; the user's other tokens stay valid")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<Void> logoutUser(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization,
+                                           @RequestBody(required = false) RefreshTokenRequestDto requestDto) {
+        // Only reached with a valid Bearer token, the authentication filter vouches for the header
+        tokenRevocationService.logout(authorization.substring("Bearer ".length()),
+                requestDto != null ? requestDto.getRefreshToken() : null);
+        return ResponseEntity.noContent().build();
     }
 }
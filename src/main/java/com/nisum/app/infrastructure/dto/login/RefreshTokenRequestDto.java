@@ -0,0 +1,17 @@
+package com.nisum.app.infrastructure.dto.login;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshTokenRequestDto {
+
+    @NotBlank(message = "refresh_token es requerido")
+    @JsonProperty("refresh_token")
+    private String refreshToken;
+}
@@ -0,0 +1,23 @@
+package com.nisum.app.infrastructure.dto.login;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TokenResponseDto {
+
+    private String token;
+
+    @JsonProperty("refresh_token")
+    private String refreshToken;
+
+    // Seconds until the access token expires
+    @JsonProperty("expires_in")
+    private long expiresIn;
+}
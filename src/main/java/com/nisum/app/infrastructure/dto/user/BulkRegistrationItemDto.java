@@ -0,0 +1,32 @@
+package com.nisum.app.infrastructure.dto.user;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkRegistrationItemDto {
+
+    public enum Status { CREATED, REJECTED }
+
+    // Position of the item in the request, so callers can correlate results without relying on email
+    private int index;
+
+    private String email;
+
+    private Status status;
+
+    private UUID id;
+
+    private String token;
+
+    private String mensaje;
+}
@@ -0,0 +1,23 @@
+package com.nisum.app.infrastructure.dto.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkRegistrationResponseDto {
+
+    private int total;
+
+    private int created;
+
+    private int rejected;
+
+    private List<BulkRegistrationItemDto> results;
+}
@@ -0,0 +1,19 @@
+package com.nisum.app.infrastructure.dto.user;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * A user read from an import file. The password is an existing BCrypt hash; other fields of the
+ * line (e.g. id or created from an export) are ignored.
+ */
+@Getter
+@Setter
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class UserImportRecordDto extends UserRegistrationRequestDto {
+
+    @JsonProperty("isactive")
+    private Boolean isActive;
+}
@@ -0,0 +1,40 @@
+package com.nisum.app.infrastructure.dto.user;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserImportReportDto {
+
+    public enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+
+    private String file;
+
+    private Status status;
+
+    // Last line already committed when this run started (0 for a fresh import)
+    private long resumedFromLine;
+
+    private long linesRead;
+
+    private long inserted;
+
+    private long rejected;
+
+    private double rowsPerSecond;
+
+    private long elapsedMs;
+
+    private String rejectedReport;
+
+    private String error;
+}
@@ -1,8 +1,12 @@
 package com.nisum.app.infrastructure.dto.user;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.nisum.app.infrastructure.dto.phone.PhoneDto;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.util.List;
+
 @Getter
 @Setter
 public class UserInfoResponseDto extends UserResponseDto{
@@ -10,4 +14,8 @@ public class UserInfoResponseDto extends UserResponseDto{
     private String name;
     private String email;
 
+    // Only when the profile is requested with includePhones=true
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<PhoneDto> phones;
+
 }
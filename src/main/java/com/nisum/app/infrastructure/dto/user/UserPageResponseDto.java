@@ -0,0 +1,22 @@
+package com.nisum.app.infrastructure.dto.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserPageResponseDto {
+
+    private List<UserSummaryDto> users;
+
+    private int size;
+
+    // Null on the last page
+    private String nextCursor;
+}
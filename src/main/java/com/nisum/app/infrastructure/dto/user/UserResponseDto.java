@@ -1,5 +1,6 @@
 package com.nisum.app.infrastructure.dto.user;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -25,6 +26,11 @@ public class UserResponseDto {
 
     private String token;
 
+    // Only on login
+    @JsonProperty("refresh_token")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String refreshToken;
+
     @JsonProperty("isactive")
     private Boolean isActive;
 }
@@ -0,0 +1,40 @@
+package com.nisum.app.infrastructure.dto.user;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.nisum.app.infrastructure.dto.phone.PhoneDto;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserSummaryDto {
+
+    private UUID id;
+
+    private String name;
+
+    private String email;
+
+    private LocalDateTime created;
+
+    private LocalDateTime modified;
+
+    @JsonProperty("last_login")
+    private LocalDateTime lastLogin;
+
+    @JsonProperty("isactive")
+    private Boolean isActive;
+
+    // Only when the listing is requested with includePhones=true
+    private List<PhoneDto> phones;
+}
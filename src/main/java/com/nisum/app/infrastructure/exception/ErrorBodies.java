@@ -0,0 +1,48 @@
+package com.nisum.app.infrastructure.exception;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nisum.app.infrastructure.dto.error.ErrorResponseDto;
+import org.springframework.http.MediaType;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serialized {@link ErrorResponseDto} bodies. Nearly every rejection carries a constant message (failed
+ * login, duplicate email, rate limit, expired refresh token), so the bodies are kept per message and
+ * written as bytes; under a credential-stuffing burst the 4xx responses cost no serialization. The
+ * cache is bounded, and messages carrying request data (a line number, a file name) are rarely repeated
+ * enough to stay in it.
+ */
+public final class ErrorBodies {
+
+    public static final MediaType CONTENT_TYPE = new MediaType(MediaType.APPLICATION_JSON, StandardCharsets.UTF_8);
+
+    private static final ObjectWriter WRITER = new ObjectMapper().writerFor(ErrorResponseDto.class);
+
+    private final Cache<String, byte[]> bodies;
+
+    public ErrorBodies(long maximumSize) {
+        this.bodies = Caffeine.newBuilder().maximumSize(maximumSize).build();
+    }
+
+    /**
+     * The body for a message, serialized once while it stays in the cache. Callers must not modify it.
+     */
+    public byte[] get(String message) {
+        return message == null ? serialize(null) : bodies.get(message, ErrorBodies::serialize);
+    }
+
+    public static byte[] serialize(String message) {
+        try {
+            return WRITER.writeValueAsBytes(new ErrorResponseDto(message));
+        } catch (JsonProcessingException e) {
+            // A single string field
+            throw new UncheckedIOException(e);
+        }
+    }
+}
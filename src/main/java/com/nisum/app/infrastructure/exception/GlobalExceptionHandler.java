@@ -1,7 +1,7 @@
 package com.nisum.app.infrastructure.exception;
 
-import com.nisum.app.infrastructure.dto.error.ErrorResponseDto;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -12,19 +12,45 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Maps exceptions to {@code {"mensaje": ...}} responses, written from pre-serialized {@link ErrorBodies}.
+ */
 @RestControllerAdvice
 @Slf4j
 public class GlobalExceptionHandler {
 
+    private static final int MAX_CACHED_BODIES = 256;
+    private static final byte[] INTERNAL_ERROR_BODY = ErrorBodies.serialize("Internal server error");
+
+    private final ErrorBodies errorBodies = new ErrorBodies(MAX_CACHED_BODIES);
+
     @ExceptionHandler(BusinessException.class)
-    public ResponseEntity<ErrorResponseDto> handleBusinessException(BusinessException ex) {
+    public ResponseEntity<byte[]> handleBusinessException(BusinessException ex) {
         log.error("Business exception occurred: {}", ex.getMessage());
-        ErrorResponseDto errorResponse = new ErrorResponseDto(ex.getMessage());
-        return ResponseEntity.badRequest().body(errorResponse);
+        return ResponseEntity.badRequest()
+                .contentType(ErrorBodies.CONTENT_TYPE)
+                .body(errorBodies.get(ex.getMessage()));
+    }
+
+    @ExceptionHandler(HashingCapacityExceededException.class)
+    public ResponseEntity<byte[]> handleHashingCapacityExceeded(HashingCapacityExceededException ex) {
+        log.warn("Password hashing queue full, request rejected");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .contentType(ErrorBodies.CONTENT_TYPE)
+                .body(errorBodies.get(ex.getMessage()));
+    }
+
+    @ExceptionHandler(InvalidRefreshTokenException.class)
+    public ResponseEntity<byte[]> handleInvalidRefreshToken(InvalidRefreshTokenException ex) {
+        log.warn("Refresh token rejected");
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .contentType(ErrorBodies.CONTENT_TYPE)
+                .body(errorBodies.get(ex.getMessage()));
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
-    public ResponseEntity<ErrorResponseDto> handleValidationExceptions(MethodArgumentNotValidException ex) {
+    public ResponseEntity<byte[]> handleValidationExceptions(MethodArgumentNotValidException ex) {
         Map<String, String> errors = new HashMap<>();
         ex.getBindingResult().getAllErrors().forEach((error) -> {
             String fieldName = ((FieldError) error).getField();
@@ -34,14 +60,17 @@ public class GlobalExceptionHandler {
 
         String message = "Validacion fallida: " + errors.toString();
         log.error(" exception occurred: {}", message);
-        ErrorResponseDto errorResponse = new ErrorResponseDto(message);
-        return ResponseEntity.badRequest().body(errorResponse);
+        // Depends on the request: not worth a cache entry
+        return ResponseEntity.badRequest()
+                .contentType(ErrorBodies.CONTENT_TYPE)
+                .body(ErrorBodies.serialize(message));
     }
 
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<ErrorResponseDto> handleGenericException(Exception ex) {
+    public ResponseEntity<byte[]> handleGenericException(Exception ex) {
         log.error("Unexpected exception occurred: {}", ex.getMessage(), ex);
-        ErrorResponseDto errorResponse = new ErrorResponseDto("Internal server error");
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .contentType(ErrorBodies.CONTENT_TYPE)
+                .body(INTERNAL_ERROR_BODY);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,8 @@
+package com.nisum.app.infrastructure.exception;
+
+public class InvalidRefreshTokenException extends RuntimeException {
+
+    public InvalidRefreshTokenException(String message) {
+        super(message);
+    }
+}
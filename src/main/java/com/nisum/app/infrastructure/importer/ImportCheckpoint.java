@@ -0,0 +1,91 @@
+package com.nisum.app.infrastructure.importer;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * Progress of an import, saved next to the file ({@code <file>.checkpoint}) after every commit. A
+ * restarted import skips the committed lines and truncates the rejected-row report back to the
+ * length it had at that commit, so neither rows nor rejections are counted twice.
+ */
+@Value
+@Builder(toBuilder = true)
+public class ImportCheckpoint {
+
+    // Identify the file the checkpoint belongs to, so a replaced file is not resumed by line number
+    long fileSize;
+    long fileModified;
+
+    long line;
+    long inserted;
+    long rejected;
+    long reportBytes;
+
+    public static ImportCheckpoint start(Path file) throws IOException {
+        return ImportCheckpoint.builder()
+                .fileSize(Files.size(file))
+                .fileModified(Files.getLastModifiedTime(file).toMillis())
+                .build();
+    }
+
+    public static Optional<ImportCheckpoint> load(Path file) throws IOException {
+        Path path = pathFor(file);
+        if (!Files.exists(path)) {
+            return Optional.empty();
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        return Optional.of(ImportCheckpoint.builder()
+                .fileSize(Long.parseLong(properties.getProperty("file-size")))
+                .fileModified(Long.parseLong(properties.getProperty("file-modified")))
+                .line(Long.parseLong(properties.getProperty("line")))
+                .inserted(Long.parseLong(properties.getProperty("inserted")))
+                .rejected(Long.parseLong(properties.getProperty("rejected")))
+                .reportBytes(Long.parseLong(properties.getProperty("report-bytes")))
+                .build());
+    }
+
+    public boolean matches(Path file) throws IOException {
+        return fileSize == Files.size(file) && fileModified == Files.getLastModifiedTime(file).toMillis();
+    }
+
+    /**
+     * Writes a temporary file and renames it over the previous checkpoint, so a crash leaves either
+     * the old or the new checkpoint, never a partial one.
+     */
+    public void save(Path file) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("file-size", String.valueOf(fileSize));
+        properties.setProperty("file-modified", String.valueOf(fileModified));
+        properties.setProperty("line", String.valueOf(line));
+        properties.setProperty("inserted", String.valueOf(inserted));
+        properties.setProperty("rejected", String.valueOf(rejected));
+        properties.setProperty("report-bytes", String.valueOf(reportBytes));
+        Path path = pathFor(file);
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            properties.store(writer, "user import checkpoint");
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static void delete(Path file) throws IOException {
+        Files.deleteIfExists(pathFor(file));
+    }
+
+    public static Path pathFor(Path file) {
+        return file.resolveSibling(file.getFileName() + ".checkpoint");
+    }
+}
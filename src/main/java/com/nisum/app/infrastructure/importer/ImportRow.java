@@ -0,0 +1,17 @@
+package com.nisum.app.infrastructure.importer;
+
+import com.nisum.app.infrastructure.dto.user.UserImportRecordDto;
+
+/**
+ * One line of an import file: the parsed record, or the reason it could not be parsed.
+ */
+public record ImportRow(long line, UserImportRecordDto record, String error) {
+
+    static ImportRow parsed(long line, UserImportRecordDto record) {
+        return new ImportRow(line, record, null);
+    }
+
+    static ImportRow malformed(long line, String error) {
+        return new ImportRow(line, null, error);
+    }
+}
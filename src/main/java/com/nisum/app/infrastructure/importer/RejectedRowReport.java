@@ -0,0 +1,74 @@
+package com.nisum.app.infrastructure.importer;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * NDJSON report of the rows an import did not insert ({@code <file>.rejected.ndjson}), one line per
+ * row with its line number, email and reason.
+ */
+public class RejectedRowReport implements Closeable {
+
+    private final FileChannel channel;
+    private final OutputStream out;
+    private final ObjectWriter writer;
+
+    private RejectedRowReport(FileChannel channel, ObjectMapper objectMapper) {
+        this.channel = channel;
+        this.out = new BufferedOutputStream(Channels.newOutputStream(channel));
+        // Straight into the buffer, which stays open and flushes on checkpoints only
+        this.writer = objectMapper.writerFor(Map.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Opens the report keeping its first {@code keepBytes} bytes: 0 starts a new report, a
+     * checkpoint's report length drops the rejections of the chunk that was not committed.
+     */
+    public static RejectedRowReport open(Path file, long keepBytes, ObjectMapper objectMapper) throws IOException {
+        FileChannel channel = FileChannel.open(pathFor(file), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        channel.truncate(keepBytes);
+        channel.position(Math.min(keepBytes, channel.size()));
+        return new RejectedRowReport(channel, objectMapper);
+    }
+
+    public void reject(long line, String email, String reason) throws IOException {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("line", line);
+        entry.put("email", email);
+        entry.put("mensaje", reason);
+        writer.writeValue(out, entry);
+        out.write('\n');
+    }
+
+    /**
+     * Writes out buffered rejections and returns the report length, to be stored in the checkpoint.
+     */
+    public long flush() throws IOException {
+        out.flush();
+        return channel.position();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    public static Path pathFor(Path file) {
+        return file.resolveSibling(file.getFileName() + ".rejected.ndjson");
+    }
+}
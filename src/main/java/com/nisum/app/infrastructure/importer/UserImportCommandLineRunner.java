@@ -0,0 +1,49 @@
+package com.nisum.app.infrastructure.importer;
+
+import com.nisum.app.application.service.IUserImportService;
+import com.nisum.app.infrastructure.dto.user.UserImportReportDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * Command line import: started with {@code --app.users.import.file=<path>}, imports the file into the
+ * configured datasource and exits with 0 when it completed or 1 when it failed (run it again to
+ * resume). Usually combined with {@code --spring.main.web-application-type=none}. The property is checked
+ * when the app runs rather than as a bean condition, which AOT processing would fix at build time.
+ */
+@Component
+@Slf4j
+public class UserImportCommandLineRunner implements ApplicationRunner {
+
+    private final IUserImportService importService;
+    private final ConfigurableApplicationContext context;
+    private final String file;
+
+    public UserImportCommandLineRunner(IUserImportService importService,
+                                       ConfigurableApplicationContext context,
+                                       @Value("${app.users.import.file:}") String file) {
+        this.importService = importService;
+        this.context = context;
+        this.file = file;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (file.isBlank()) {
+            return;
+        }
+        UserImportReportDto report = importService.importFile(Path.of(file));
+        log.info("Import {}: {} lines, {} inserted, {} rejected in {} ms ({} rows/s), rejected rows in {}",
+                report.getStatus(), report.getLinesRead(), report.getInserted(), report.getRejected(),
+                report.getElapsedMs(), Math.round(report.getRowsPerSecond()), report.getRejectedReport());
+        int exitCode = report.getStatus() == UserImportReportDto.Status.COMPLETED ? 0 : 1;
+        System.exit(SpringApplication.exit(context, () -> exitCode));
+    }
+}
@@ -0,0 +1,148 @@
+package com.nisum.app.infrastructure.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.nisum.app.infrastructure.dto.phone.PhoneDto;
+import com.nisum.app.infrastructure.dto.user.UserImportRecordDto;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads an import file one line at a time, so a malformed line is reported and skipped instead of
+ * aborting the import. The format comes from the extension: .ndjson/.jsonl (one JSON user per line,
+ * e.g. an export) or .csv (header line with name,email,password and optional isactive and phones,
+ * phones as number:citycode:contrycode separated by ';'). A trailing .gz is decompressed.
+ */
+public class UserImportReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final BufferedReader reader;
+    private final ObjectReader jsonReader;
+    private final ObjectReader csvReader;
+    private long line;
+
+    private UserImportReader(BufferedReader reader, ObjectReader jsonReader, ObjectReader csvReader, long line) {
+        this.reader = reader;
+        this.jsonReader = jsonReader;
+        this.csvReader = csvReader;
+        this.line = line;
+    }
+
+    public static UserImportReader open(Path file, ObjectMapper objectMapper) throws IOException {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        boolean gzip = name.endsWith(".gz");
+        if (gzip) {
+            name = name.substring(0, name.length() - 3);
+        }
+        boolean csv = name.endsWith(".csv");
+        if (!csv && !name.endsWith(".ndjson") && !name.endsWith(".jsonl")) {
+            throw new IllegalArgumentException("formato de archivo no soportado: " + file.getFileName());
+        }
+
+        InputStream in = Files.newInputStream(file);
+        if (gzip) {
+            in = new GZIPInputStream(in, BUFFER_SIZE);
+        }
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), BUFFER_SIZE);
+        if (!csv) {
+            ObjectReader jsonReader = objectMapper.readerFor(UserImportRecordDto.class)
+                    .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+            return new UserImportReader(reader, jsonReader, null, 0);
+        }
+
+        String header = reader.readLine();
+        if (header == null) {
+            reader.close();
+            throw new IllegalArgumentException("el archivo CSV no tiene encabezado");
+        }
+        CsvSchema.Builder schema = CsvSchema.builder();
+        Arrays.stream(header.split(",")).map(column -> column.trim().toLowerCase(Locale.ROOT)).forEach(schema::addColumn);
+        ObjectReader csvReader = new CsvMapper().readerFor(Map.class).with(schema.build());
+        return new UserImportReader(reader, null, csvReader, 1);
+    }
+
+    /**
+     * Skips lines up to and including the given one, e.g. those committed before a restart.
+     */
+    public void skipTo(long lastLine) throws IOException {
+        while (line < lastLine && reader.readLine() != null) {
+            line++;
+        }
+    }
+
+    /**
+     * The next non-blank line, or null at the end of the file.
+     */
+    public ImportRow next() throws IOException {
+        String text;
+        do {
+            text = reader.readLine();
+            if (text == null) {
+                return null;
+            }
+            line++;
+        } while (text.isBlank());
+
+        try {
+            return ImportRow.parsed(line, jsonReader != null ? jsonReader.readValue(text) : parseCsv(text));
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            return ImportRow.malformed(line, (jsonReader != null ? "JSON" : "CSV") + " invalido");
+        }
+    }
+
+    public long line() {
+        return line;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private UserImportRecordDto parseCsv(String text) throws IOException {
+        Map<String, String> columns = csvReader.readValue(text);
+        UserImportRecordDto record = new UserImportRecordDto();
+        record.setName(columns.get("name"));
+        record.setEmail(columns.get("email"));
+        record.setPassword(columns.get("password"));
+        String active = columns.get("isactive");
+        if (active != null && !active.isBlank()) {
+            record.setIsActive(Boolean.parseBoolean(active.trim()));
+        }
+        record.setPhones(parsePhones(columns.get("phones")));
+        return record;
+    }
+
+    private static List<PhoneDto> parsePhones(String value) {
+        List<PhoneDto> phones = new ArrayList<>();
+        if (value == null || value.isBlank()) {
+            return phones;
+        }
+        for (String phone : value.split(";")) {
+            String[] parts = phone.trim().split(":");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("telefono invalido: " + phone);
+            }
+            phones.add(new PhoneDto(parts[0], parts[1], parts[2]));
+        }
+        return phones;
+    }
+}
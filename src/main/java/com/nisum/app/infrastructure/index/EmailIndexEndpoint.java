@@ -0,0 +1,31 @@
+package com.nisum.app.infrastructure.index;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * GET /actuator/emailindex reports size and false-positive rates, POST rebuilds the index online.
+ */
+@Component
+@Endpoint(id = "emailindex")
+@RequiredArgsConstructor
+public class EmailIndexEndpoint {
+
+    private final RegisteredEmailIndex emailIndex;
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        return emailIndex.stats();
+    }
+
+    @WriteOperation
+    public Map<String, Object> rebuild() {
+        emailIndex.rebuild();
+        return emailIndex.stats();
+    }
+}
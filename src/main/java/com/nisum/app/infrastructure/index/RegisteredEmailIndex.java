@@ -0,0 +1,290 @@
+package com.nisum.app.infrastructure.index;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bloom filter of registered (lowercase) emails. A negative answer means the email was never
+ * registered, so registration can skip existsByEmail and login can reject without findByEmail.
+ * A positive answer still goes to the database.
+ * <p>
+ * Each instance keeps its own filter: registrations on other instances reach it through a periodic
+ * incremental refresh of the rows created since the last one. Until the first build finishes, and
+ * when disabled, every email "might" be registered.
+ */
+@Component
+@Slf4j
+public class RegisteredEmailIndex {
+
+    private static final String SELECT_EMAILS = "select email from users";
+    // A range of idx_users_created_id
+    private static final String SELECT_EMAILS_CREATED_SINCE = "select email from users where created >= ?";
+    // Overlap between refreshes so rows written with a slightly skewed clock or committed late are not missed
+    private static final Duration REFRESH_OVERLAP = Duration.ofSeconds(5);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final long expectedInsertions;
+    private final double fpp;
+    private final int fetchSize;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    // Serializes the incremental refreshes; a login waiting on it reuses the refresh it waited for
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private final AtomicLong syncsStarted = new AtomicLong();
+    // Number of the latest sync (build or refresh) that completed, and when it started
+    private volatile long lastSync;
+    private volatile LocalDateTime lastSyncStartedAt;
+    private final Counter negatives;
+    private final Counter positives;
+    private final Counter falsePositives;
+    private volatile ScalableBloomFilter current;
+    // Filter being built by a rebuild; registrations committed meanwhile are added to it too
+    private volatile ScalableBloomFilter building;
+
+    public RegisteredEmailIndex(JdbcTemplate jdbcTemplate,
+                                @Value("${app.security.email-index.enabled:true}") boolean enabled,
+                                @Value("${app.security.email-index.expected-insertions:100000}") long expectedInsertions,
+                                @Value("${app.security.email-index.fpp:0.01}") double fpp,
+                                @Value("${app.security.email-index.fetch-size:1000}") int fetchSize,
+                                MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.expectedInsertions = expectedInsertions;
+        this.fpp = fpp;
+        this.fetchSize = fetchSize;
+        this.negatives = Counter.builder("email.index.checks").tag("result", "negative")
+                .description("Lookups answered by the email index without touching the database")
+                .register(meterRegistry);
+        this.positives = Counter.builder("email.index.checks").tag("result", "positive")
+                .description("Lookups the email index passed on to the database")
+                .register(meterRegistry);
+        this.falsePositives = Counter.builder("email.index.false.positives")
+                .description("Positive answers the database then found unregistered")
+                .register(meterRegistry);
+        Gauge.builder("email.index.expected.fpp", this, index -> index.current != null ? index.current.expectedFpp() : 0)
+                .description("False-positive probability of the index for its current size")
+                .register(meterRegistry);
+        Gauge.builder("email.index.size", this, index -> index.current != null ? index.current.approximateCount() : 0)
+                .description("Emails added to the index")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Streams the users table into a fresh filter and swaps it in. The old filter keeps answering
+     * until the swap, so this can run while the application serves traffic.
+     */
+    public void rebuild() {
+        if (!enabled || !rebuildLock.tryLock()) {
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            long sync = syncsStarted.incrementAndGet();
+            LocalDateTime startedAt = LocalDateTime.now();
+            ScalableBloomFilter fresh = new ScalableBloomFilter(expectedInsertions, fpp);
+            building = fresh;
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(SELECT_EMAILS,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                return statement;
+            }, (ResultSet rs) -> {
+                fresh.put(normalize(rs.getString(1)));
+            });
+            current = fresh;
+            synced(sync, startedAt);
+            log.info("Email index built with {} emails in {} ms, expected fpp {}",
+                    fresh.approximateCount(), (System.nanoTime() - start) / 1_000_000, fresh.expectedFpp());
+        } catch (DataAccessException e) {
+            // Keep serving with the previous filter (or pass-through before the first build)
+            log.error("Email index rebuild failed: {}", e.getMessage());
+        } finally {
+            building = null;
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Adds the rows created since the last build or refresh (minus an overlap), i.e. registrations
+     * committed on other instances.
+     */
+    @Scheduled(fixedDelayString = "${app.security.email-index.refresh-interval:PT30S}")
+    public void refresh() {
+        if (!enabled || current == null) {
+            return;
+        }
+        refreshLock.lock();
+        try {
+            refreshNow();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    public boolean mightContain(String email) {
+        ScalableBloomFilter filter = current;
+        if (!enabled || filter == null) {
+            return true;
+        }
+        boolean result = filter.mightContain(normalize(email));
+        (result ? positives : negatives).increment();
+        return result;
+    }
+
+    /**
+     * For lookups that must not miss a registration made on another instance, such as login: a
+     * negative answer only stands after a refresh that started after this call. Concurrent callers
+     * share that refresh, so a burst of unknown emails costs one range query per round instead of
+     * one lookup per email. If the refresh fails the email "might" be registered.
+     */
+    public boolean mightContainCurrent(String email) {
+        ScalableBloomFilter filter = current;
+        if (!enabled || filter == null) {
+            return true;
+        }
+        String normalized = normalize(email);
+        if (!filter.mightContain(normalized)) {
+            long calledAfter = syncsStarted.get();
+            refreshLock.lock();
+            try {
+                if (lastSync <= calledAfter && !refreshNow()) {
+                    positives.increment();
+                    return true;
+                }
+            } finally {
+                refreshLock.unlock();
+            }
+            if (!current.mightContain(normalized)) {
+                negatives.increment();
+                return false;
+            }
+        }
+        positives.increment();
+        return true;
+    }
+
+    /**
+     * Adds a registered email. Inside a transaction the add is deferred until commit: a rebuild
+     * that starts after this point is then guaranteed to read the row itself.
+     */
+    public void add(String email) {
+        if (!enabled) {
+            return;
+        }
+        String normalized = normalize(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    addNow(normalized);
+                }
+            });
+        } else {
+            addNow(normalized);
+        }
+    }
+
+    public void recordFalsePositive() {
+        falsePositives.increment();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        ScalableBloomFilter filter = current;
+        stats.put("enabled", enabled);
+        stats.put("ready", filter != null);
+        stats.put("rebuilding", building != null);
+        if (filter != null) {
+            stats.put("emails", filter.approximateCount());
+            stats.put("stages", filter.stageCount());
+            stats.put("bits", filter.bitSize());
+            stats.put("targetFpp", filter.targetFpp());
+            stats.put("expectedFpp", filter.expectedFpp());
+        }
+        // Negatives are always true negatives, so FP / (FP + TN) is the observed false-positive rate
+        double unregisteredChecks = falsePositives.count() + negatives.count();
+        stats.put("negativeChecks", (long) negatives.count());
+        stats.put("positiveChecks", (long) positives.count());
+        stats.put("falsePositives", (long) falsePositives.count());
+        stats.put("observedFpp", unregisteredChecks > 0 ? falsePositives.count() / unregisteredChecks : 0.0);
+        return stats;
+    }
+
+    // Called holding refreshLock
+    private boolean refreshNow() {
+        LocalDateTime since = lastSyncStartedAt;
+        if (since == null) {
+            return false;
+        }
+        long sync = syncsStarted.incrementAndGet();
+        LocalDateTime startedAt = LocalDateTime.now();
+        try {
+            int[] added = {0};
+            jdbcTemplate.query(SELECT_EMAILS_CREATED_SINCE,
+                    statement -> statement.setTimestamp(1, Timestamp.valueOf(since.minus(REFRESH_OVERLAP))),
+                    (ResultSet rs) -> {
+                        addNow(normalize(rs.getString(1)));
+                        added[0]++;
+                    });
+            synced(sync, startedAt);
+            log.debug("Email index refreshed, {} emails created since {}", added[0], since);
+            return true;
+        } catch (DataAccessException e) {
+            log.error("Email index refresh failed: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private synchronized void synced(long sync, LocalDateTime startedAt) {
+        // A refresh may finish before a longer rebuild that started earlier; what it read also went into
+        // the filter being built, so the latest-started sync wins
+        if (sync > lastSync) {
+            lastSync = sync;
+            lastSyncStartedAt = startedAt;
+        }
+    }
+
+    private void addNow(String normalized) {
+        ScalableBloomFilter next = building;
+        ScalableBloomFilter filter = current;
+        if (filter != null) {
+            filter.put(normalized);
+        }
+        if (next != null) {
+            next.put(normalized);
+        }
+    }
+
+    private static String normalize(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
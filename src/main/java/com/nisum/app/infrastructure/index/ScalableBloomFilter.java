@@ -0,0 +1,179 @@
+package com.nisum.app.infrastructure.index;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread-safe scalable Bloom filter (Almeida et al.): when the current stage reaches its capacity a
+ * new one is added with twice the capacity and half the false-positive rate, so the compound rate
+ * stays below the configured target however many elements are added.
+ */
+public class ScalableBloomFilter {
+
+    private static final int GROWTH_FACTOR = 2;
+    private static final double TIGHTENING_RATIO = 0.5;
+
+    private final double targetFpp;
+    private final ReentrantLock growLock = new ReentrantLock();
+    private volatile Stage[] stages;
+
+    public ScalableBloomFilter(long initialCapacity, double targetFpp) {
+        if (initialCapacity <= 0 || targetFpp <= 0 || targetFpp >= 1) {
+            throw new IllegalArgumentException("initialCapacity must be > 0 and targetFpp in (0, 1)");
+        }
+        this.targetFpp = targetFpp;
+        // Stage i gets fpp0 * r^i; with fpp0 = p * (1 - r) the sum over all stages stays below p
+        this.stages = new Stage[]{new Stage(initialCapacity, targetFpp * (1 - TIGHTENING_RATIO))};
+    }
+
+    public void put(String value) {
+        long[] hashes = hash(value);
+        Stage[] current = stages;
+        for (Stage stage : current) {
+            if (stage.mightContain(hashes)) {
+                return;
+            }
+        }
+        Stage last = current[current.length - 1];
+        if (last.count.get() >= last.capacity) {
+            last = grow(last);
+        }
+        last.put(hashes);
+    }
+
+    public boolean mightContain(String value) {
+        long[] hashes = hash(value);
+        for (Stage stage : stages) {
+            if (stage.mightContain(hashes)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * False-positive probability for the elements added so far: 1 - prod(1 - fpp of each stage).
+     */
+    public double expectedFpp() {
+        double allNegative = 1.0;
+        for (Stage stage : stages) {
+            allNegative *= 1.0 - stage.currentFpp();
+        }
+        return 1.0 - allNegative;
+    }
+
+    public double targetFpp() {
+        return targetFpp;
+    }
+
+    public long approximateCount() {
+        return Arrays.stream(stages).mapToLong(stage -> stage.count.get()).sum();
+    }
+
+    public long bitSize() {
+        return Arrays.stream(stages).mapToLong(stage -> stage.numBits).sum();
+    }
+
+    public int stageCount() {
+        return stages.length;
+    }
+
+    private Stage grow(Stage full) {
+        growLock.lock();
+        try {
+            Stage[] current = stages;
+            Stage last = current[current.length - 1];
+            if (last != full) {
+                return last;
+            }
+            Stage next = new Stage(full.capacity * GROWTH_FACTOR, full.fpp * TIGHTENING_RATIO);
+            Stage[] grown = Arrays.copyOf(current, current.length + 1);
+            grown[current.length] = next;
+            stages = grown;
+            return next;
+        } finally {
+            growLock.unlock();
+        }
+    }
+
+    // Two independent 64-bit hashes of the UTF-8 bytes, combined by double hashing in each stage
+    private static long[] hash(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        long h1 = 0x9E3779B97F4A7C15L;
+        long h2 = 0xC2B2AE3D27D4EB4FL;
+        for (byte b : bytes) {
+            h1 = (h1 ^ (b & 0xFF)) * 0x100000001B3L;
+            h2 = (h2 + (b & 0xFF)) * 0xFF51AFD7ED558CCDL;
+            h2 ^= h2 >>> 29;
+        }
+        return new long[]{fmix64(h1 ^ bytes.length), fmix64(h2) | 1L};
+    }
+
+    private static long fmix64(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static final class Stage {
+        private final long capacity;
+        private final double fpp;
+        private final long numBits;
+        private final int numHashes;
+        private final AtomicLongArray bits;
+        private final AtomicLong count = new AtomicLong();
+
+        private Stage(long capacity, double fpp) {
+            this.capacity = capacity;
+            this.fpp = fpp;
+            double ln2 = Math.log(2);
+            long words = Math.max(1, (long) Math.ceil(-capacity * Math.log(fpp) / (ln2 * ln2) / 64));
+            if (words > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Bloom filter stage too large: capacity " + capacity);
+            }
+            this.bits = new AtomicLongArray((int) words);
+            this.numBits = words * 64;
+            this.numHashes = Math.max(1, (int) Math.round((double) numBits / capacity * ln2));
+        }
+
+        private void put(long[] hashes) {
+            for (int i = 0; i < numHashes; i++) {
+                long index = bitIndex(hashes, i);
+                int word = (int) (index >>> 6);
+                long mask = 1L << index;
+                long current;
+                do {
+                    current = bits.get(word);
+                    if ((current & mask) != 0) {
+                        break;
+                    }
+                } while (!bits.compareAndSet(word, current, current | mask));
+            }
+            count.incrementAndGet();
+        }
+
+        private boolean mightContain(long[] hashes) {
+            for (int i = 0; i < numHashes; i++) {
+                long index = bitIndex(hashes, i);
+                if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private long bitIndex(long[] hashes, int i) {
+            return Math.floorMod(hashes[0] + i * hashes[1], numBits);
+        }
+
+        private double currentFpp() {
+            return Math.pow(1 - Math.exp(-numHashes * (double) count.get() / numBits), numHashes);
+        }
+    }
+}
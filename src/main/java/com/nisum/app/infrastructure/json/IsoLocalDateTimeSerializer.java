@@ -0,0 +1,86 @@
+package com.nisum.app.infrastructure.json;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Writes a {@link LocalDateTime} exactly as {@code DateTimeFormatter.ISO_LOCAL_DATE_TIME} does (seconds
+ * always, the fraction without trailing zeros), but from its fields into a char array handed to the
+ * generator, without the formatter's StringBuilder and the intermediate String. Years that ISO writes
+ * with a sign or more than four digits, timestamps ({@code WRITE_DATES_AS_TIMESTAMPS}) and properties
+ * with {@code @JsonFormat} go through Jackson's {@link LocalDateTimeSerializer}.
+ */
+public final class IsoLocalDateTimeSerializer extends StdSerializer<LocalDateTime> implements ContextualSerializer {
+
+    public static final IsoLocalDateTimeSerializer INSTANCE = new IsoLocalDateTimeSerializer();
+
+    // yyyy-MM-ddTHH:mm:ss.nnnnnnnnn
+    private static final int MAX_LENGTH = 29;
+    private static final int SECONDS_END = 19;
+
+    private IsoLocalDateTimeSerializer() {
+        super(LocalDateTime.class);
+    }
+
+    @Override
+    public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property)
+            throws JsonMappingException {
+        JsonFormat.Value format = findFormatOverrides(provider, property, handledType());
+        return format == null || format.equals(JsonFormat.Value.empty())
+                ? this
+                : LocalDateTimeSerializer.INSTANCE.createContextual(provider, property);
+    }
+
+    @Override
+    public void serialize(LocalDateTime value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        int year = value.getYear();
+        if (year < 0 || year > 9999 || provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)) {
+            LocalDateTimeSerializer.INSTANCE.serialize(value, generator, provider);
+            return;
+        }
+        char[] text = new char[MAX_LENGTH];
+        writeDigits(text, 0, year, 4);
+        text[4] = '-';
+        writeDigits(text, 5, value.getMonthValue(), 2);
+        text[7] = '-';
+        writeDigits(text, 8, value.getDayOfMonth(), 2);
+        text[10] = 'T';
+        writeDigits(text, 11, value.getHour(), 2);
+        text[13] = ':';
+        writeDigits(text, 14, value.getMinute(), 2);
+        text[16] = ':';
+        writeDigits(text, 17, value.getSecond(), 2);
+        int length = SECONDS_END;
+        int nano = value.getNano();
+        if (nano != 0) {
+            int digits = 9;
+            while (nano % 10 == 0) {
+                nano /= 10;
+                digits--;
+            }
+            text[SECONDS_END] = '.';
+            writeDigits(text, SECONDS_END + 1, nano, digits);
+            length = SECONDS_END + 1 + digits;
+        }
+        generator.writeString(text, 0, length);
+    }
+
+    // Zero-padded to width
+    private static void writeDigits(char[] text, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            text[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.nisum.app.infrastructure.metrics;
+
+import com.nisum.app.domain.specification.RuleSet;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Timers for registration, login and token refresh: {@code users.operation} for the whole call, tagged with its
+ * outcome, and {@code users.operation.stage} for each step inside it. Every possible combination is
+ * registered up front, so the hot path only does an enum lookup and a record. {@code users.validation.rule}
+ * reads the timings a {@link RuleSet} keeps anyway to order its rules.
+ */
+@Component
+public class UserOperationMetrics {
+
+    public enum Stage { VALIDATE, LOOKUP, HASH_PASSWORD, VERIFY_PASSWORD, REHASH_PASSWORD, TOKEN, SAVE }
+
+    public enum Outcome { SUCCESS, INVALID_REQUEST, DUPLICATE_EMAIL, BAD_CREDENTIALS, ERROR }
+
+    // Only the stages and outcomes an operation can have are registered, so no series stays empty forever
+    public enum Operation {
+        // The email lookup is a rule of the validation stage
+        REGISTER(EnumSet.of(Stage.VALIDATE, Stage.HASH_PASSWORD, Stage.TOKEN, Stage.SAVE),
+                EnumSet.of(Outcome.SUCCESS, Outcome.INVALID_REQUEST, Outcome.DUPLICATE_EMAIL, Outcome.ERROR)),
+        LOGIN(EnumSet.of(Stage.VALIDATE, Stage.LOOKUP, Stage.VERIFY_PASSWORD, Stage.REHASH_PASSWORD, Stage.TOKEN,
+                Stage.SAVE),
+                EnumSet.of(Outcome.SUCCESS, Outcome.BAD_CREDENTIALS, Outcome.ERROR)),
+        REFRESH(EnumSet.of(Stage.LOOKUP, Stage.TOKEN, Stage.SAVE),
+                EnumSet.of(Outcome.SUCCESS, Outcome.BAD_CREDENTIALS, Outcome.ERROR));
+
+        private final Set<Stage> stages;
+        private final Set<Outcome> outcomes;
+
+        Operation(Set<Stage> stages, Set<Outcome> outcomes) {
+            this.stages = stages;
+            this.outcomes = outcomes;
+        }
+    }
+
+    private final Map<Operation, Map<Stage, Timer>> stageTimers = new EnumMap<>(Operation.class);
+    private final Map<Operation, Map<Outcome, Timer>> operationTimers = new EnumMap<>(Operation.class);
+    private final MeterRegistry meterRegistry;
+
+    public UserOperationMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        for (Operation operation : Operation.values()) {
+            Map<Stage, Timer> stages = new EnumMap<>(Stage.class);
+            for (Stage stage : operation.stages) {
+                stages.put(stage, Timer.builder("users.operation.stage")
+                        .description("Time spent in one stage of a registration, login or token refresh")
+                        .tag("operation", tagValue(operation))
+                        .tag("stage", tagValue(stage))
+                        .register(meterRegistry));
+            }
+            stageTimers.put(operation, stages);
+
+            Map<Outcome, Timer> outcomes = new EnumMap<>(Outcome.class);
+            for (Outcome outcome : operation.outcomes) {
+                outcomes.put(outcome, Timer.builder("users.operation")
+                        .description("Registrations, logins and token refreshes by outcome")
+                        .tag("operation", tagValue(operation))
+                        .tag("outcome", tagValue(outcome))
+                        .register(meterRegistry));
+            }
+            operationTimers.put(operation, outcomes);
+        }
+    }
+
+    public <T> T time(Operation operation, Stage stage, Supplier<T> work) {
+        return stageTimers.get(operation).get(stage).record(work);
+    }
+
+    public void time(Operation operation, Stage stage, Runnable work) {
+        stageTimers.get(operation).get(stage).record(work);
+    }
+
+    /**
+     * Records a finished operation started at {@code startNanos} ({@link System#nanoTime()}).
+     */
+    public void record(Operation operation, Outcome outcome, long startNanos) {
+        operationTimers.get(operation).get(outcome).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Publishes the time spent in each rule of {@code rules}, tagged with the rule set and {@code field.rule}.
+     */
+    public void register(RuleSet<?> rules) {
+        for (RuleSet.RuleStatistics rule : rules.rules()) {
+            FunctionTimer.builder("users.validation.rule", rule, RuleSet.RuleStatistics::count,
+                            RuleSet.RuleStatistics::totalNanos, TimeUnit.NANOSECONDS)
+                    .description("Time spent in one validation rule")
+                    .tag("rules", rules.name())
+                    .tag("rule", rule.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    private static String tagValue(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+}
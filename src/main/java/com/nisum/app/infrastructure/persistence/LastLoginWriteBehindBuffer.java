@@ -0,0 +1,167 @@
+package com.nisum.app.infrastructure.persistence;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Buffers last-login timestamps in memory, keeping only the latest one per user, and writes them
+ * in batched UPDATEs every flush interval or as soon as max-pending users are waiting. Logins that
+ * reuse the stored token therefore cost no row write of their own. Batches are always written on the
+ * scheduler, never on the login's thread: there the batch would join the login's transaction, and a
+ * rolled-back login would take the other users' drained entries with it.
+ * <p>
+ * Only last_login goes through here. Token changes are still saved synchronously, and modified
+ * is left alone: it tracks real data changes, and TokenVersionRegistry uses it for incremental
+ * refreshes.
+ */
+@Component
+@Slf4j
+public class LastLoginWriteBehindBuffer {
+
+    // The guard keeps a late flush from overwriting a newer value written through the entity
+    private static final String UPDATE_SQL =
+            "update users set last_login = ? where id = ? and (last_login is null or last_login < ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TaskScheduler taskScheduler;
+    private final boolean enabled;
+    private final int maxPending;
+    private final Map<UUID, PendingLogin> pending = new ConcurrentHashMap<>();
+    // A lock, not synchronized: flushes do JDBC and may run on virtual threads
+    private final ReentrantLock flushLock = new ReentrantLock();
+    // At most one early flush queued on the scheduler however many logins find the buffer full
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final Timer flushLag;
+    private final DistributionSummary batchSize;
+
+    public LastLoginWriteBehindBuffer(JdbcTemplate jdbcTemplate,
+                                      TaskScheduler taskScheduler,
+                                      @Value("${app.users.last-login.write-behind.enabled:true}") boolean enabled,
+                                      @Value("${app.users.last-login.write-behind.max-pending:1000}") int maxPending,
+                                      MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.taskScheduler = taskScheduler;
+        this.enabled = enabled;
+        this.maxPending = maxPending;
+        Gauge.builder("last.login.pending", pending, Map::size)
+                .description("Users whose last login is buffered and not yet written")
+                .register(meterRegistry);
+        this.flushLag = Timer.builder("last.login.flush.lag")
+                .description("Age of the oldest buffered last login when its batch was written")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("last.login.flush.batch.size")
+                .description("Rows per last-login flush")
+                .register(meterRegistry);
+    }
+
+    public void record(UUID userId, LocalDateTime lastLogin) {
+        if (!enabled) {
+            // Write-through of this user alone, part of the caller's transaction like its other writes
+            Timestamp timestamp = Timestamp.valueOf(lastLogin);
+            jdbcTemplate.batchUpdate(UPDATE_SQL, List.<Object[]>of(new Object[]{timestamp, userId, timestamp}));
+            return;
+        }
+        pending.merge(userId, new PendingLogin(lastLogin, System.nanoTime()), PendingLogin::coalesce);
+        if (pending.size() >= maxPending && flushRequested.compareAndSet(false, true)) {
+            taskScheduler.schedule(() -> {
+                flushRequested.set(false);
+                flush();
+            }, Instant.now());
+        }
+    }
+
+    /**
+     * The buffered value not yet visible in the database, if any, so reads can stay consistent
+     * with what the login response returned.
+     */
+    public LocalDateTime pendingLastLogin(UUID userId) {
+        PendingLogin entry = pending.get(userId);
+        return entry != null ? entry.lastLogin() : null;
+    }
+
+    @Scheduled(fixedDelayString = "${app.users.last-login.write-behind.flush-interval:PT1S}")
+    public void flush() {
+        // Callers that find a flush already running just leave their entry for it or the next one
+        if (pending.isEmpty() || !flushLock.tryLock()) {
+            return;
+        }
+        try {
+            writePending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void drain() {
+        flushLock.lock();
+        try {
+            writePending();
+        } finally {
+            flushLock.unlock();
+        }
+        if (!pending.isEmpty()) {
+            log.warn("Shutting down with {} unwritten last login updates", pending.size());
+        }
+    }
+
+    private void writePending() {
+        List<Object[]> rows = new ArrayList<>(pending.size());
+        List<Map.Entry<UUID, PendingLogin>> drained = new ArrayList<>(pending.size());
+        long oldest = Long.MAX_VALUE;
+        for (UUID userId : new ArrayList<>(pending.keySet())) {
+            PendingLogin entry = pending.remove(userId);
+            if (entry == null) {
+                continue;
+            }
+            Timestamp lastLogin = Timestamp.valueOf(entry.lastLogin());
+            rows.add(new Object[]{lastLogin, userId, lastLogin});
+            drained.add(Map.entry(userId, entry));
+            oldest = Math.min(oldest, entry.recordedAt());
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, rows);
+        } catch (RuntimeException e) {
+            // Put the entries back (newer logins recorded meanwhile win) and retry on the next flush
+            drained.forEach(d -> pending.merge(d.getKey(), d.getValue(), PendingLogin::coalesce));
+            log.error("Last login flush of {} users failed, will retry: {}", rows.size(), e.getMessage());
+            return;
+        }
+        batchSize.record(rows.size());
+        flushLag.record(System.nanoTime() - oldest, TimeUnit.NANOSECONDS);
+        log.debug("Flushed last login for {} users", rows.size());
+    }
+
+    private record PendingLogin(LocalDateTime lastLogin, long recordedAt) {
+
+        // Latest timestamp wins, the lag is measured from the first unflushed login
+        static PendingLogin coalesce(PendingLogin current, PendingLogin next) {
+            LocalDateTime latest = next.lastLogin.isAfter(current.lastLogin) ? next.lastLogin : current.lastLogin;
+            return new PendingLogin(latest, Math.min(current.recordedAt, next.recordedAt));
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.nisum.app.infrastructure.persistence;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes every user with its phones as one NDJSON line, straight from a forward-only JDBC cursor to
+ * the given stream. Only the current row and the generator buffer are held in memory, so heap use
+ * does not depend on the table size. Password hashes are left out unless asked for: only a dump meant to be
+ * re-imported needs them, since an import requires every user's hash.
+ */
+@Component
+@Slf4j
+public class UserNdjsonExporter {
+
+    static final String EXPORT_SQL = exportSql(false);
+    static final String EXPORT_SQL_WITH_PASSWORDS = exportSql(true);
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int fetchSize;
+
+    public UserNdjsonExporter(JdbcTemplate jdbcTemplate,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.users.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        // Some drivers (PostgreSQL) only honour the fetch size outside auto-commit
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Streams the export and returns the number of users written; password hashes only with
+     * includePasswords. The target stream is flushed but not closed.
+     */
+    public long export(OutputStream out, boolean gzip, boolean includePasswords) throws IOException {
+        long start = System.nanoTime();
+        GZIPOutputStream compressed = gzip ? new GZIPOutputStream(out, GZIP_BUFFER_SIZE) : null;
+        UserRowWriter writer;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(compressed != null ? compressed : out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Lines end with '\n' themselves; the default separator would prefix each one with a space
+            generator.setRootValueSeparator(null);
+            writer = new UserRowWriter(generator, includePasswords);
+            String sql = includePasswords ? EXPORT_SQL_WITH_PASSWORDS : EXPORT_SQL;
+            try {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                    PreparedStatement statement = connection.prepareStatement(sql,
+                            ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    statement.setFetchSize(fetchSize);
+                    return statement;
+                }, writer));
+            } catch (UncheckedIOException e) {
+                // The client went away or the stream failed; the cursor is already closed
+                throw e.getCause();
+            }
+            writer.finish();
+        }
+        if (compressed != null) {
+            compressed.finish();
+        }
+        out.flush();
+        log.info("Exported {} users ({} phones) in {} ms",
+                writer.users, writer.phones, (System.nanoTime() - start) / 1_000_000);
+        return writer.users;
+    }
+
+    // Rows of the same user come out consecutively; (created, id) is the listing index order. Without
+    // passwords the hash is not even read, a null keeps the column positions
+    private static String exportSql(boolean includePasswords) {
+        return "select u.id, u.name, u.email, " + (includePasswords ? "u.password" : "null") + ", u.created, "
+                + "u.modified, u.last_login, u.is_active, p.number, p.city_code, p.country_code "
+                + "from users u left join phones p on p.user_id = u.id "
+                + "order by u.created, u.id";
+    }
+
+    /**
+     * Turns the joined rows into one JSON object per user: the user fields on its first row, then a
+     * phone per row. Nothing is buffered beyond the generator, a user is written as its rows arrive.
+     */
+    static final class UserRowWriter implements RowCallbackHandler {
+
+        private final JsonGenerator generator;
+        private final boolean includePasswords;
+        private String currentId;
+        private long users;
+        private long phones;
+
+        UserRowWriter(JsonGenerator generator, boolean includePasswords) {
+            this.generator = generator;
+            this.includePasswords = includePasswords;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            try {
+                String id = rs.getString(1);
+                if (!id.equals(currentId)) {
+                    endUser();
+                    startUser(rs, id);
+                }
+                String number = rs.getString(9);
+                if (number != null) {
+                    generator.writeStartObject();
+                    generator.writeStringField("number", number);
+                    generator.writeStringField("citycode", rs.getString(10));
+                    generator.writeStringField("contrycode", rs.getString(11));
+                    generator.writeEndObject();
+                    phones++;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void finish() throws IOException {
+            endUser();
+            generator.flush();
+        }
+
+        private void startUser(ResultSet rs, String id) throws SQLException, IOException {
+            currentId = id;
+            users++;
+            generator.writeStartObject();
+            generator.writeStringField("id", id);
+            generator.writeStringField("name", rs.getString(2));
+            generator.writeStringField("email", rs.getString(3));
+            if (includePasswords) {
+                generator.writeStringField("password", rs.getString(4));
+            }
+            writeTimestamp("created", rs.getTimestamp(5));
+            writeTimestamp("modified", rs.getTimestamp(6));
+            writeTimestamp("last_login", rs.getTimestamp(7));
+            generator.writeBooleanField("isactive", rs.getBoolean(8));
+            generator.writeArrayFieldStart("phones");
+        }
+
+        private void endUser() throws IOException {
+            if (currentId == null) {
+                return;
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        private void writeTimestamp(String field, Timestamp value) throws IOException {
+            if (value != null) {
+                generator.writeStringField(field, value.toLocalDateTime().toString());
+            }
+        }
+    }
+}
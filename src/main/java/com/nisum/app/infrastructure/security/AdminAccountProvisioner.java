@@ -0,0 +1,63 @@
+package com.nisum.app.infrastructure.security;
+
+import com.nisum.app.domain.model.User;
+import com.nisum.app.domain.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Creates the first administrator at startup from {@code app.security.bootstrap-admin.email} and
+ * {@code .password-hash} (a hash the password encoder matches, as in imports). An existing account with
+ * that email is never promoted: whoever registered it first would become admin. Further administrators are
+ * granted through {@code PUT /api/admin/users/{id}/admin}.
+ */
+@Component
+@Slf4j
+public class AdminAccountProvisioner implements ApplicationRunner {
+
+    private final UserRepository userRepository;
+    private final String email;
+    private final String passwordHash;
+
+    public AdminAccountProvisioner(UserRepository userRepository,
+                                   @Value("${app.security.bootstrap-admin.email:}") String email,
+                                   @Value("${app.security.bootstrap-admin.password-hash:}") String passwordHash) {
+        this.userRepository = userRepository;
+        this.email = email.trim().toLowerCase(Locale.ROOT);
+        this.passwordHash = passwordHash.trim();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (email.isEmpty()) {
+            return;
+        }
+        if (passwordHash.isEmpty()) {
+            log.warn("Bootstrap admin {} not created: app.security.bootstrap-admin.password-hash is empty", email);
+            return;
+        }
+        userRepository.findByEmail(email).ifPresentOrElse(existing -> {
+            if (!Boolean.TRUE.equals(existing.getIsAdmin())) {
+                log.warn("Bootstrap admin {} not created: the email belongs to an existing account, which is not promoted", email);
+            }
+        }, () -> {
+            userRepository.save(User.builder()
+                    .id(UUID.randomUUID())
+                    .name("Administrador")
+                    .email(email)
+                    .password(passwordHash)
+                    .isActive(true)
+                    .isAdmin(true)
+                    .phones(List.of())
+                    .build());
+            log.info("Bootstrap admin {} created", email);
+        });
+    }
+}
@@ -0,0 +1,24 @@
+package com.nisum.app.infrastructure.security;
+
+import com.nisum.app.domain.model.User;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Authorities of a user, from the roles stored on it: an email alone grants nothing, since anyone may
+ * register any address that is still free.
+ */
+@Component
+public class AuthorityResolver {
+
+    public static final String ROLE_USER = "ROLE_USER";
+    public static final String ROLE_ADMIN = "ROLE_ADMIN";
+
+    public List<String> resolve(User user) {
+        if (Boolean.TRUE.equals(user.getIsAdmin())) {
+            return List.of(ROLE_USER, ROLE_ADMIN);
+        }
+        return List.of(ROLE_USER);
+    }
+}
@@ -0,0 +1,181 @@
+package com.nisum.app.infrastructure.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * The application's only password encoder. New hashes use the configured algorithm and are stored
+ * with an {@code {id}} prefix ({@code {bcrypt}}, {@code {pbkdf2}}, {@code {argon2}}); hashes of the
+ * other algorithms, and unprefixed BCrypt hashes from before the prefix, still match.
+ * <p>
+ * With a target latency, the work factor is calibrated at startup so that one hash takes about that
+ * long on this hardware, never below the configured minimum. {@link #upgradeEncoding} reports hashes
+ * made with another algorithm, without prefix, or with a lower BCrypt/Argon2 cost, so login can
+ * rehash them. PBKDF2 hashes do not record their iterations and are only upgraded across algorithms.
+ */
+@Component
+@Slf4j
+public class CalibratedPasswordEncoder implements PasswordEncoder {
+
+    public static final String BCRYPT = "bcrypt";
+    public static final String PBKDF2 = "pbkdf2";
+    public static final String ARGON2 = "argon2";
+
+    private static final Pattern BCRYPT_HASH = Pattern.compile("^\\$2[aby]?\\$\\d{2}\\$[./A-Za-z0-9]{53}$");
+    private static final int BCRYPT_MAX_STRENGTH = 31;
+    private static final int PBKDF2_PROBE_ITERATIONS = 20_000;
+    private static final int PBKDF2_GRANULARITY = 10_000;
+    private static final int ARGON2_PROBE_ITERATIONS = 2;
+    private static final int ARGON2_SALT_LENGTH = 16;
+    private static final int ARGON2_HASH_LENGTH = 32;
+    private static final int PBKDF2_SALT_LENGTH = 16;
+    private static final String PROBE_PASSWORD = "Calibration123";
+
+    private final String algorithm;
+    private final StripedSecureRandom saltSource;
+    private final int bcryptStrength;
+    private final int pbkdf2Iterations;
+    private final int argon2Iterations;
+    private final int argon2MemoryKib;
+    private final DelegatingPasswordEncoder delegate;
+
+    public CalibratedPasswordEncoder(@Value("${app.security.password.algorithm:bcrypt}") String algorithm,
+                                     @Value("${app.security.password.target-latency:PT0S}") Duration targetLatency,
+                                     @Value("${app.security.password.bcrypt.strength:10}") int bcryptStrength,
+                                     @Value("${app.security.password.pbkdf2.iterations:310000}") int pbkdf2Iterations,
+                                     @Value("${app.security.password.argon2.iterations:2}") int argon2Iterations,
+                                     @Value("${app.security.password.argon2.memory-kib:19456}") int argon2MemoryKib) {
+        if (!Set.of(BCRYPT, PBKDF2, ARGON2).contains(algorithm)) {
+            throw new IllegalArgumentException("Unsupported password algorithm " + algorithm);
+        }
+        this.algorithm = algorithm;
+        this.saltSource = new StripedSecureRandom(2 * Runtime.getRuntime().availableProcessors());
+        this.argon2MemoryKib = argon2MemoryKib;
+        long targetNanos = targetLatency.toNanos();
+        // The configured costs are the floor: calibration only raises the cost of the algorithm in use
+        boolean calibrate = targetNanos > 0;
+        this.bcryptStrength = calibrate && BCRYPT.equals(algorithm)
+                ? calibrateBcrypt(bcryptStrength, targetNanos) : bcryptStrength;
+        this.pbkdf2Iterations = calibrate && PBKDF2.equals(algorithm)
+                ? PasswordCostCalibrator.calibrateLinear(this::pbkdf2Nanos, PBKDF2_PROBE_ITERATIONS,
+                        pbkdf2Iterations, PBKDF2_GRANULARITY, targetNanos)
+                : pbkdf2Iterations;
+        this.argon2Iterations = calibrate && ARGON2.equals(algorithm)
+                ? PasswordCostCalibrator.calibrateLinear(this::argon2Nanos, ARGON2_PROBE_ITERATIONS,
+                        argon2Iterations, 1, targetNanos)
+                : argon2Iterations;
+
+        this.delegate = new DelegatingPasswordEncoder(algorithm, Map.of(
+                BCRYPT, bcrypt(this.bcryptStrength),
+                PBKDF2, pbkdf2(this.pbkdf2Iterations),
+                ARGON2, argon2(this.argon2Iterations)));
+        this.delegate.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder(
+                BCryptPasswordEncoder.BCryptVersion.$2A, this.bcryptStrength, saltSource));
+        log.info("Password hashing with {} ({}), target latency {}", algorithm, parameters(), targetLatency);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return delegate.matches(rawPassword, encodedPassword);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Whether a value already looks like a hash this encoder can match: a supported {@code {id}}
+     * prefix followed by a hash, or a bare BCrypt hash.
+     */
+    public boolean isEncoded(String value) {
+        if (value == null) {
+            return false;
+        }
+        if (BCRYPT_HASH.matcher(value).matches()) {
+            return true;
+        }
+        int end = value.indexOf('}');
+        if (!value.startsWith("{") || end < 0 || end == value.length() - 1) {
+            return false;
+        }
+        String id = value.substring(1, end);
+        String hash = value.substring(end + 1);
+        return switch (id) {
+            case BCRYPT -> BCRYPT_HASH.matcher(hash).matches();
+            case PBKDF2 -> hash.matches("[0-9a-f]+");
+            case ARGON2 -> hash.startsWith("$argon2");
+            default -> false;
+        };
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public String parameters() {
+        return switch (algorithm) {
+            case BCRYPT -> "strength=" + bcryptStrength;
+            case PBKDF2 -> "iterations=" + pbkdf2Iterations;
+            default -> "iterations=" + argon2Iterations + ", memoryKib=" + argon2MemoryKib;
+        };
+    }
+
+    private int calibrateBcrypt(int minStrength, long targetNanos) {
+        // Warm up the JIT first, or the early probes run interpreted and understate what the CPU can do
+        BCryptPasswordEncoder warmup = bcrypt(4);
+        for (int i = 0; i < 20; i++) {
+            warmup.encode(PROBE_PASSWORD);
+        }
+        return PasswordCostCalibrator.calibrateExponential(this::bcryptNanos, minStrength, BCRYPT_MAX_STRENGTH,
+                targetNanos);
+    }
+
+    private long bcryptNanos(int strength) {
+        return timeEncode(bcrypt(strength));
+    }
+
+    private long pbkdf2Nanos(int iterations) {
+        return timeEncode(pbkdf2(iterations));
+    }
+
+    private long argon2Nanos(int iterations) {
+        return timeEncode(argon2(iterations));
+    }
+
+    private BCryptPasswordEncoder bcrypt(int strength) {
+        return new BCryptPasswordEncoder(BCryptPasswordEncoder.BCryptVersion.$2A, strength, saltSource);
+    }
+
+    // Spring's PBKDF2 and Argon2 encoders draw their salts from their own generator, which cannot be replaced
+    private static Pbkdf2PasswordEncoder pbkdf2(int iterations) {
+        return new Pbkdf2PasswordEncoder("", PBKDF2_SALT_LENGTH, iterations,
+                Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
+    }
+
+    private Argon2PasswordEncoder argon2(int iterations) {
+        return new Argon2PasswordEncoder(ARGON2_SALT_LENGTH, ARGON2_HASH_LENGTH, 1, argon2MemoryKib, iterations);
+    }
+
+    private static long timeEncode(PasswordEncoder encoder) {
+        long start = System.nanoTime();
+        encoder.encode(PROBE_PASSWORD);
+        return System.nanoTime() - start;
+    }
+}
@@ -12,41 +12,56 @@ import org.springframework.stereotype.Service;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final UserPrincipalCache principalCache;
+    private final AuthorityResolver authorityResolver;
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("usuario no encontrado, con email: " + email));
-
-        return new CustomUserPrincipal(user);
+        return principalCache.get(email, normalizedEmail -> userRepository.findByEmail(normalizedEmail)
+                .map(user -> new CustomUserPrincipal(user, authorityResolver.resolve(user)))
+                .orElseThrow(() -> new UsernameNotFoundException("usuario no encontrado, con email: " + email)));
     }
 
+    // Immutable snapshot: it is cached across requests, so it must not hold the entity or its lazy phones proxy
     public static class CustomUserPrincipal implements UserDetails {
-        private final User user;
-
-        public CustomUserPrincipal(User user) {
-            this.user = user;
+        private final UUID id;
+        private final String email;
+        private final String password;
+        private final boolean active;
+        private final long tokenVersion;
+        private final List<GrantedAuthority> authorities;
+
+        public CustomUserPrincipal(User user, List<String> authorities) {
+            this.id = user.getId();
+            this.email = user.getEmail();
+            this.password = user.getPassword();
+            this.active = !Boolean.FALSE.equals(user.getIsActive());
+            this.tokenVersion = user.getTokenVersion() != null ? user.getTokenVersion() : 0L;
+            this.authorities = authorities.stream()
+                    .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                    .toList();
         }
 
         @Override
         public Collection<? extends GrantedAuthority> getAuthorities() {
-            return List.of(new SimpleGrantedAuthority("ROLE_USER"));
+            return authorities;
         }
 
         @Override
         public String getPassword() {
-            return user.getPassword();
+            return password;
         }
 
         @Override
         public String getUsername() {
-            return user.getEmail();
+            return email;
         }
 
         @Override
@@ -66,11 +81,15 @@ public class CustomUserDetailsService implements UserDetailsService {
 
         @Override
         public boolean isEnabled() {
-            return true;
+            return active;
+        }
+
+        public UUID getId() {
+            return id;
         }
 
-        public User getUser() {
-            return user;
+        public long getTokenVersion() {
+            return tokenVersion;
         }
     }
 }
@@ -1,11 +1,15 @@
 package com.nisum.app.infrastructure.security;
 
 import com.nisum.app.application.service.IJwtService;
+import com.nisum.app.application.service.token.ParsedToken;
+import com.nisum.app.infrastructure.security.CustomUserDetailsService.CustomUserPrincipal;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -16,14 +20,38 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
 
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final IJwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final RevokedTokenRegistry revokedTokens;
+    private final Timer authenticated;
+    private final Timer rejected;
+    private final Timer expired;
+    private final Timer invalid;
+    private final Timer skipped;
+
+    public JwtAuthenticationFilter(IJwtService jwtService,
+                                   UserDetailsService userDetailsService,
+                                   TokenVersionRegistry tokenVersionRegistry,
+                                   RevokedTokenRegistry revokedTokens,
+                                   MeterRegistry meterRegistry) {
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+        this.tokenVersionRegistry = tokenVersionRegistry;
+        this.revokedTokens = revokedTokens;
+        this.authenticated = authenticationTimer(meterRegistry, "authenticated");
+        this.rejected = authenticationTimer(meterRegistry, "rejected");
+        this.expired = authenticationTimer(meterRegistry, "expired");
+        this.invalid = authenticationTimer(meterRegistry, "invalid");
+        this.skipped = authenticationTimer(meterRegistry, "skipped");
+    }
 
     @Override
     protected void doFilterInternal(
@@ -42,13 +70,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         jwt = authHeader.substring(7);
+        long start = System.nanoTime();
+        Timer outcome = skipped;
         try {
-            userEmail = jwtService.extractEmail(jwt);
+            // Single verification per request; the parsed claims are reused below
+            ParsedToken parsedToken = jwtService.parseToken(jwt);
+            userEmail = parsedToken.getSubject();
 
-            if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-
-                if (jwtService.validateToken(jwt, userEmail)) {
+            if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null
+                    && !parsedToken.isExpired(Instant.now())) {
+                UserDetails userDetails = resolvePrincipal(parsedToken, userEmail);
+                outcome = userDetails != null ? authenticated : rejected;
+                if (userDetails != null) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
                             null,
@@ -59,10 +92,50 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     log.debug("User {} authenticated successfully", userEmail);
                 }
             }
+        } catch (ExpiredJwtException e) {
+            outcome = expired;
+            log.error("JWT authentication failed: {}", e.getMessage());
         } catch (Exception e) {
+            outcome = invalid;
             log.error("JWT authentication failed: {}", e.getMessage());
+        } finally {
+            // Only the authentication work, the rest of the chain is in http.server.requests
+            outcome.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         }
 
         filterChain.doFilter(request, response);
     }
+
+    private UserDetails resolvePrincipal(ParsedToken parsedToken, String userEmail) {
+        if (revokedTokens.isRevoked(parsedToken)) {
+            log.debug("Rejected logged out token for user {}", userEmail);
+            return null;
+        }
+        // Stateless mode: trust the verified claims, only the in-memory version map is consulted
+        if (tokenVersionRegistry.isEnabled() && parsedToken.getUserId() != null && parsedToken.getTokenVersion() != null) {
+            if (!tokenVersionRegistry.isCurrent(parsedToken.getUserId(), parsedToken.getTokenVersion())) {
+                log.debug("Rejected revoked token for user {}", userEmail);
+                return null;
+            }
+            return new TokenUserPrincipal(parsedToken.getUserId(), userEmail, parsedToken.getAuthorities());
+        }
+
+        UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+        if (!userDetails.isEnabled()) {
+            return null;
+        }
+        if (userDetails instanceof CustomUserPrincipal principal
+                && !parsedToken.matchesTokenVersion(principal.getTokenVersion())) {
+            log.debug("Rejected revoked token for user {}", userEmail);
+            return null;
+        }
+        return userDetails;
+    }
+
+    private static Timer authenticationTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("auth.token")
+                .description("Bearer token authentication by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
 }
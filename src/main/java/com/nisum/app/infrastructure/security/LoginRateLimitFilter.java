@@ -0,0 +1,243 @@
+package com.nisum.app.infrastructure.security;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nisum.app.infrastructure.exception.ErrorBodies;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Throttles login and registration before any database or password hashing work: one token bucket per
+ * client IP and one per email (read from the JSON body, which is buffered whole and then replayed to the
+ * controller; these bodies are small, so larger ones get 413 rather than a pass on the email limit).
+ * Bulk registration only counts against the IP: its body holds many emails. Empty buckets get 429 with
+ * Retry-After. Runs ahead of the security filter chain.
+ * <p>
+ * The client IP is {@link HttpServletRequest#getRemoteAddr()}; behind a proxy, set
+ * {@code server.forward-headers-strategy} so that it is the address from X-Forwarded-For.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@Slf4j
+public class LoginRateLimitFilter extends OncePerRequestFilter {
+
+    static final String RATE_LIMITED_MESSAGE = "demasiados intentos, intente nuevamente más tarde";
+    private static final byte[] RATE_LIMITED_BODY = ErrorBodies.serialize(RATE_LIMITED_MESSAGE);
+    private static final String BATCH_PATH = "/api/users/batch";
+    private static final Set<String> PATHS = Set.of("/api/login", "/api/users", BATCH_PATH);
+
+    private final boolean enabled;
+    private final int maxBodySize;
+    private final byte[] bodyTooLargeBody;
+    private final TokenBucketRateLimiter ipLimiter;
+    private final TokenBucketRateLimiter emailLimiter;
+    private final ObjectMapper objectMapper;
+    private final Counter ipRejections;
+    private final Counter emailRejections;
+
+    public LoginRateLimitFilter(@Value("${app.security.rate-limit.enabled:true}") boolean enabled,
+                                @Value("${app.security.rate-limit.capacity:65536}") int capacity,
+                                @Value("${app.security.rate-limit.ip.burst:30}") int ipBurst,
+                                @Value("${app.security.rate-limit.ip.period:PT1M}") Duration ipPeriod,
+                                @Value("${app.security.rate-limit.email.burst:5}") int emailBurst,
+                                @Value("${app.security.rate-limit.email.period:PT1M}") Duration emailPeriod,
+                                @Value("${app.security.rate-limit.max-body-size:16384}") int maxBodySize,
+                                ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxBodySize = maxBodySize;
+        this.bodyTooLargeBody = ErrorBodies.serialize("el cuerpo de la solicitud excede el maximo de " + maxBodySize + " bytes");
+        this.ipLimiter = new TokenBucketRateLimiter(capacity, ipBurst, ipPeriod);
+        this.emailLimiter = new TokenBucketRateLimiter(capacity, emailBurst, emailPeriod);
+        this.objectMapper = objectMapper;
+        this.ipRejections = rejections(meterRegistry, "ip");
+        this.emailRejections = rejections(meterRegistry, "email");
+        evictions(meterRegistry, "ip", ipLimiter);
+        evictions(meterRegistry, "email", emailLimiter);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !"POST".equals(request.getMethod()) || !PATHS.contains(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        // The IP first: rejecting a flood from one client does not even read the body
+        long retryAfterMillis = ipLimiter.tryAcquire(request.getRemoteAddr());
+        if (retryAfterMillis > 0) {
+            reject(response, ipRejections, retryAfterMillis);
+            return;
+        }
+        if (BATCH_PATH.equals(request.getServletPath())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // Bounded before reading, and again while reading for bodies without Content-Length
+        byte[] body = request.getContentLengthLong() > maxBodySize
+                ? null
+                : request.getInputStream().readNBytes(maxBodySize + 1);
+        if (body == null || body.length > maxBodySize) {
+            write(response, HttpStatus.PAYLOAD_TOO_LARGE, bodyTooLargeBody);
+            return;
+        }
+        String email = readEmail(body);
+        if (email != null) {
+            retryAfterMillis = emailLimiter.tryAcquire(email);
+            if (retryAfterMillis > 0) {
+                log.debug("Rate limited attempts for {}", email);
+                reject(response, emailRejections, retryAfterMillis);
+                return;
+            }
+        }
+        filterChain.doFilter(new ReplayedBodyRequest(request, body), response);
+    }
+
+    /**
+     * The top-level "email" string of a JSON object, or null if there is none. With the field repeated
+     * it is the last one, the value Jackson binds. Malformed bodies are left for the controller to reject.
+     */
+    private String readEmail(byte[] body) {
+        String email = null;
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                boolean isEmail = "email".equals(parser.currentName());
+                JsonToken value = parser.nextToken();
+                if (isEmail) {
+                    email = value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                }
+                parser.skipChildren();
+            }
+        } catch (IOException e) {
+            // Not JSON
+            return null;
+        }
+        return email;
+    }
+
+    private void reject(HttpServletResponse response, Counter counter, long retryAfterMillis) throws IOException {
+        counter.increment();
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf((retryAfterMillis + 999) / 1000));
+        write(response, HttpStatus.TOO_MANY_REQUESTS, RATE_LIMITED_BODY);
+    }
+
+    private static void write(HttpServletResponse response, HttpStatus status, byte[] body) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static Counter rejections(MeterRegistry meterRegistry, String limit) {
+        return Counter.builder("rate.limit.rejections")
+                .description("Login and registration requests rejected with 429")
+                .tag("limit", limit)
+                .register(meterRegistry);
+    }
+
+    private static void evictions(MeterRegistry meterRegistry, String limit, TokenBucketRateLimiter limiter) {
+        FunctionCounter.builder("rate.limit.evictions", limiter, TokenBucketRateLimiter::evictions)
+                .description("Token buckets dropped before refilling because the table was crowded")
+                .tag("limit", limit)
+                .register(meterRegistry);
+    }
+
+    /**
+     * The request with the buffered body to read again.
+     */
+    private static final class ReplayedBodyRequest extends HttpServletRequestWrapper {
+
+        private final ServletInputStream body;
+
+        ReplayedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = new ReplayedInputStream(new ByteArrayInputStream(body));
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            return body;
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(body, charset));
+        }
+    }
+
+    private static final class ReplayedInputStream extends ServletInputStream {
+
+        private final InputStream delegate;
+        private boolean finished;
+
+        ReplayedInputStream(InputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = delegate.read();
+            finished = b < 0;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = delegate.read(b, off, len);
+            finished = n < 0;
+            return n;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            throw new UnsupportedOperationException("Non-blocking reads are not supported");
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.nisum.app.infrastructure.security;
+
+import java.util.function.IntToLongFunction;
+
+/**
+ * Picks the work factor of a password hash from timings taken on the current hardware. Each probe is
+ * run twice and the faster run is kept, so a GC pause or a busy neighbour does not lower the cost.
+ */
+final class PasswordCostCalibrator {
+
+    private PasswordCostCalibrator() {
+    }
+
+    /**
+     * For costs where each step doubles the work (BCrypt's log2 rounds): the highest cost from
+     * {@code minCost} up whose hash fits in the target, or {@code minCost} if none does.
+     */
+    static int calibrateExponential(IntToLongFunction hashNanos, int minCost, int maxCost, long targetNanos) {
+        int cost = minCost;
+        while (cost < maxCost && fastest(hashNanos, cost + 1) <= targetNanos) {
+            cost++;
+        }
+        return cost;
+    }
+
+    /**
+     * For costs the work grows linearly with (PBKDF2 and Argon2 iterations): scales one probe to the
+     * target, rounded down to {@code granularity}, never below {@code minCost}.
+     */
+    static int calibrateLinear(IntToLongFunction hashNanos, int probeCost, int minCost, int granularity,
+                               long targetNanos) {
+        long probeNanos = Math.max(1, fastest(hashNanos, probeCost));
+        long scaled = (long) ((double) probeCost * targetNanos / probeNanos);
+        long rounded = scaled / granularity * granularity;
+        return (int) Math.max(minCost, Math.min(Integer.MAX_VALUE, rounded));
+    }
+
+    private static long fastest(IntToLongFunction hashNanos, int cost) {
+        return Math.min(hashNanos.applyAsLong(cost), hashNanos.applyAsLong(cost));
+    }
+}
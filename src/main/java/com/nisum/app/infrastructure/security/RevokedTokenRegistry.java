@@ -0,0 +1,306 @@
+package com.nisum.app.infrastructure.security;
+
+import com.nisum.app.application.service.token.ParsedToken;
+import com.nisum.app.domain.model.RevokedToken;
+import com.nisum.app.domain.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory deny list of revoked token ids, checked on every Bearer request without a DB round trip.
+ * Ids are filed by the token's expiry into one bucket per slice of the token lifetime, each an
+ * open-addressed set of 64-bit id hashes that is read without locks. A bucket whose tokens have all
+ * expired is dropped whole, so only the revocations of the last token lifetime are held, and never
+ * more than max-entries: past that {@link #revoke} refuses and the caller revokes all of the user's
+ * tokens instead. Loaded from revoked_tokens at startup and refreshed from it for revocations made
+ * by other instances.
+ */
+@Component
+@Slf4j
+public class RevokedTokenRegistry {
+
+    private static final int BUCKETS_PER_LIFETIME = 24;
+    private static final long MIN_BUCKET_MILLIS = 60_000;
+    // Overlap between refreshes so rows written with a slightly skewed clock are not missed
+    private static final Duration REFRESH_OVERLAP = Duration.ofSeconds(5);
+    private static final String SELECT_UNEXPIRED =
+            "select token_id, expires_at from revoked_tokens where expires_at > ?";
+
+    private final RevokedTokenRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+    private final long maxEntries;
+    private final int fetchSize;
+    private final LongSupplier clock;
+    private final long bucketMillis;
+    private final AtomicReferenceArray<Bucket> ring;
+    // Tokens expiring past the ring (e.g. issued under a longer app.jwt.expiration) or never: id hash -> exp
+    private final Map<Long, Long> overflow = new ConcurrentHashMap<>();
+    private final AtomicLong entries = new AtomicLong();
+    private volatile LocalDateTime lastRefresh;
+
+    @Autowired
+    public RevokedTokenRegistry(RevokedTokenRepository repository,
+                                JdbcTemplate jdbcTemplate,
+                                @Value("${app.jwt.expiration}") long tokenLifetimeMillis,
+                                @Value("${app.security.revocation.max-entries:5000000}") long maxEntries,
+                                @Value("${app.security.revocation.fetch-size:1000}") int fetchSize,
+                                MeterRegistry meterRegistry) {
+        this(repository, jdbcTemplate, tokenLifetimeMillis, maxEntries, fetchSize, meterRegistry,
+                System::currentTimeMillis);
+    }
+
+    RevokedTokenRegistry(RevokedTokenRepository repository, JdbcTemplate jdbcTemplate, long tokenLifetimeMillis,
+                         long maxEntries, int fetchSize, MeterRegistry meterRegistry, LongSupplier clock) {
+        this.repository = repository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxEntries = maxEntries;
+        this.fetchSize = fetchSize;
+        this.clock = clock;
+        this.bucketMillis = Math.max(MIN_BUCKET_MILLIS, tokenLifetimeMillis / BUCKETS_PER_LIFETIME);
+        // A token expires at most one lifetime ahead, so live buckets never share a slot
+        this.ring = new AtomicReferenceArray<>((int) (tokenLifetimeMillis / bucketMillis) + 3);
+        Gauge.builder("revoked.tokens", entries, AtomicLong::get)
+                .description("Revoked token ids held in memory until their tokens expire")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void reload() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long start = System.nanoTime();
+        for (int i = 0; i < ring.length(); i++) {
+            ring.set(i, null);
+        }
+        overflow.clear();
+        entries.set(0);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_UNEXPIRED,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            statement.setTimestamp(1, new Timestamp(clock.getAsLong()));
+            return statement;
+        }, (ResultSet rs) -> {
+            add(key(rs.getString(1)), rs.getTimestamp(2).getTime());
+        });
+        lastRefresh = startedAt;
+        log.info("Revoked token registry loaded with {} entries in {} ms",
+                entries.get(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.revocation.refresh-interval:PT30S}")
+    public void refresh() {
+        if (lastRefresh == null) {
+            return;
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        List<RevokedToken> revoked = repository.findByRevokedAtGreaterThanEqualAndExpiresAtAfter(
+                lastRefresh.minus(REFRESH_OVERLAP), startedAt);
+        revoked.forEach(token -> add(key(token.getTokenId()), toEpochMilli(token.getExpiresAt())));
+        lastRefresh = startedAt;
+        log.debug("Revoked token registry refreshed, {} recent revocations", revoked.size());
+    }
+
+    /**
+     * Drops the buckets and rows of tokens that have expired since the last purge.
+     */
+    @Scheduled(fixedDelayString = "${app.security.revocation.purge-interval:PT10M}")
+    public void purge() {
+        long now = clock.getAsLong();
+        long currentEpoch = now / bucketMillis;
+        for (int i = 0; i < ring.length(); i++) {
+            Bucket bucket = ring.get(i);
+            if (bucket != null && bucket.epoch < currentEpoch && ring.compareAndSet(i, bucket, null)) {
+                entries.addAndGet(-bucket.size());
+            }
+        }
+        Iterator<Map.Entry<Long, Long>> iterator = overflow.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getValue() <= now) {
+                iterator.remove();
+                entries.decrementAndGet();
+            }
+        }
+        int deleted = repository.deleteExpired(LocalDateTime.now());
+        log.debug("Revoked token registry purged, {} expired rows deleted, {} entries left", deleted, entries.get());
+    }
+
+    /**
+     * Adds a token id to the in-memory list; persisting it is up to the caller.
+     *
+     * @param expiresAt the token's exp, or null for a token that never expires
+     * @return false if the list is at max-entries and the id was not added
+     */
+    public boolean revoke(String tokenId, Instant expiresAt) {
+        return add(key(tokenId), expiresAt != null ? expiresAt.toEpochMilli() : Long.MAX_VALUE);
+    }
+
+    public boolean isRevoked(ParsedToken token) {
+        if (token.getTokenId() == null || entries.get() == 0) {
+            return false;
+        }
+        long key = key(token.getTokenId());
+        Instant expiresAt = token.getExpiresAt();
+        if (expiresAt != null) {
+            long epoch = expiresAt.toEpochMilli() / bucketMillis;
+            Bucket bucket = ring.get(slot(epoch));
+            if (bucket != null && bucket.epoch == epoch && bucket.contains(key)) {
+                return true;
+            }
+        }
+        return !overflow.isEmpty() && overflow.containsKey(key);
+    }
+
+    public long size() {
+        return entries.get();
+    }
+
+    private boolean add(long key, long expiresAtMillis) {
+        long now = clock.getAsLong();
+        if (expiresAtMillis <= now) {
+            // Already unusable
+            return true;
+        }
+        if (entries.get() >= maxEntries) {
+            return false;
+        }
+        long epoch = expiresAtMillis / bucketMillis;
+        if (epoch - now / bucketMillis >= ring.length() - 2) {
+            if (overflow.putIfAbsent(key, expiresAtMillis) == null) {
+                entries.incrementAndGet();
+            }
+            return true;
+        }
+        if (bucketFor(epoch).add(key)) {
+            entries.incrementAndGet();
+        }
+        return true;
+    }
+
+    private Bucket bucketFor(long epoch) {
+        int slot = slot(epoch);
+        while (true) {
+            Bucket current = ring.get(slot);
+            if (current != null && current.epoch == epoch) {
+                return current;
+            }
+            // Any other bucket in the slot is a full ring older: all of its tokens have expired
+            Bucket fresh = new Bucket(epoch);
+            if (ring.compareAndSet(slot, current, fresh)) {
+                if (current != null) {
+                    entries.addAndGet(-current.size());
+                }
+                return fresh;
+            }
+        }
+    }
+
+    private int slot(long epoch) {
+        return (int) Math.floorMod(epoch, (long) ring.length());
+    }
+
+    private static long toEpochMilli(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    // 0 marks an empty slot in the buckets, so no id may hash to it
+    static long key(String tokenId) {
+        long h = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < tokenId.length(); i++) {
+            h = (h ^ tokenId.charAt(i)) * 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h != 0 ? h : 1;
+    }
+
+    /**
+     * The revoked ids of the tokens expiring in one slice of time. Readers probe the table without
+     * locking; writers are serialized, and a resize publishes a complete copy before adding to it.
+     */
+    private static final class Bucket {
+
+        private final long epoch;
+        private volatile AtomicLongArray table = new AtomicLongArray(16);
+        private int size;
+
+        private Bucket(long epoch) {
+            this.epoch = epoch;
+        }
+
+        boolean contains(long key) {
+            AtomicLongArray current = table;
+            int mask = current.length() - 1;
+            for (int i = spread(key) & mask; ; i = (i + 1) & mask) {
+                long value = current.get(i);
+                if (value == key) {
+                    return true;
+                }
+                if (value == 0) {
+                    return false;
+                }
+            }
+        }
+
+        synchronized boolean add(long key) {
+            if (contains(key)) {
+                return false;
+            }
+            if ((size + 1) * 2 > table.length()) {
+                AtomicLongArray grown = new AtomicLongArray(table.length() * 2);
+                for (int i = 0; i < table.length(); i++) {
+                    long value = table.get(i);
+                    if (value != 0) {
+                        insert(grown, value);
+                    }
+                }
+                table = grown;
+            }
+            insert(table, key);
+            size++;
+            return true;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        private static void insert(AtomicLongArray table, long key) {
+            int mask = table.length() - 1;
+            int i = spread(key) & mask;
+            while (table.get(i) != 0) {
+                i = (i + 1) & mask;
+            }
+            table.set(i, key);
+        }
+
+        private static int spread(long key) {
+            return (int) (key ^ key >>> 32);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.nisum.app.infrastructure.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * GET /actuator/jwtkeys lists the signing keys and their state, POST reloads the keystore file now.
+ */
+@Component
+@Endpoint(id = "jwtkeys")
+@RequiredArgsConstructor
+public class SigningKeyEndpoint {
+
+    private final SigningKeyRegistry signingKeys;
+
+    @ReadOperation
+    public List<Map<String, Object>> keys() {
+        return signingKeys.status();
+    }
+
+    @WriteOperation
+    public List<Map<String, Object>> reload() {
+        signingKeys.reload();
+        return signingKeys.status();
+    }
+}
@@ -0,0 +1,273 @@
+package com.nisum.app.infrastructure.security;
+
+import com.nisum.app.application.service.token.AsymmetricTokenCodec;
+import com.nisum.app.application.service.token.Hs256TokenCodec;
+import com.nisum.app.application.service.token.TokenCodec;
+import com.nisum.app.application.service.token.TokenKeyRing;
+import io.jsonwebtoken.impl.TextCodec;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * The JWT signing keys: the keys of a keystore file, each named by its alias as {@code kid}, and the
+ * kid-less app.jwt.secret. A keystore key is an HS256 secret key or a P-256 (ES256) or Ed25519 (EdDSA)
+ * key pair, whose public key is published at /.well-known/jwks.json. Of the keystore keys, the newest one
+ * added at least activation-delay ago signs, so that every instance (and every JWKS consumer) has a key
+ * before any token is signed with it. Newer keys already verify; an older key keeps verifying until the
+ * tokens it signed have expired, i.e. a token lifetime (plus the activation delay, for instances that
+ * switched late) after its successor took over. A key is rotated by adding a new one to the file, which is
+ * reloaded when it changes, and removing the old one whenever convenient afterwards. Without a keystore,
+ * app.jwt.secret alone signs and verifies.
+ */
+@Component
+@Slf4j
+public class SigningKeyRegistry implements Supplier<TokenKeyRing> {
+
+    // HS256 keys must be at least as long as the hash (RFC 7518, section 3.2)
+    private static final int MIN_KEY_BYTES = 32;
+
+    private final Hs256TokenCodec secretKey;
+    private final Path keystorePath;
+    private final String keystoreType;
+    private final char[] keystorePassword;
+    private final long activationDelayMillis;
+    private final long tokenLifetimeMillis;
+    private final LongSupplier clock;
+    private List<StoredKey> storedKeys = List.of();
+    private FileVersion loadedVersion;
+    private volatile TokenKeyRing keyRing;
+    private volatile List<Map<String, Object>> status = List.of();
+
+    @Autowired
+    public SigningKeyRegistry(@Value("${app.jwt.secret:}") String secret,
+                              @Value("${app.jwt.keystore.path:}") String keystorePath,
+                              @Value("${app.jwt.keystore.type:PKCS12}") String keystoreType,
+                              @Value("${app.jwt.keystore.password:}") String keystorePassword,
+                              @Value("${app.jwt.keystore.activation-delay:PT5M}") Duration activationDelay,
+                              @Value("${app.jwt.expiration}") long tokenLifetimeMillis) {
+        this(secret, keystorePath, keystoreType, keystorePassword, activationDelay, tokenLifetimeMillis,
+                System::currentTimeMillis);
+    }
+
+    SigningKeyRegistry(String secret, String keystorePath, String keystoreType, String keystorePassword,
+                       Duration activationDelay, long tokenLifetimeMillis, LongSupplier clock) {
+        // Same key bytes jjwt derives from a String secret
+        this.secretKey = secret.isBlank() ? null : new Hs256TokenCodec(TextCodec.BASE64.decode(secret));
+        this.keystorePath = keystorePath.isBlank() ? null : Path.of(keystorePath);
+        this.keystoreType = keystoreType;
+        this.keystorePassword = keystorePassword.toCharArray();
+        this.activationDelayMillis = activationDelay.toMillis();
+        this.tokenLifetimeMillis = tokenLifetimeMillis;
+        this.clock = clock;
+        if (this.secretKey == null && this.keystorePath == null) {
+            throw new IllegalStateException("Set app.jwt.secret or app.jwt.keystore.path");
+        }
+    }
+
+    @Override
+    public TokenKeyRing get() {
+        return keyRing;
+    }
+
+    /**
+     * Reads the keystore file again, even if it looks unchanged.
+     *
+     * @throws IllegalStateException if the file cannot be read or leaves no key to sign with; the
+     *                               current keys stay in use
+     */
+    @PostConstruct
+    public synchronized void reload() {
+        FileVersion version = keystorePath != null ? FileVersion.of(keystorePath) : null;
+        List<StoredKey> keys = keystorePath != null ? load() : List.of();
+        select(keys);
+        storedKeys = keys;
+        loadedVersion = version;
+    }
+
+    /**
+     * Reloads the keystore file if it changed and moves signing to a newly activated key.
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.keystore.reload-interval:PT1M}")
+    public synchronized void refresh() {
+        if (keyRing == null) {
+            return;
+        }
+        try {
+            if (keystorePath != null && !FileVersion.of(keystorePath).equals(loadedVersion)) {
+                reload();
+            } else {
+                select(storedKeys);
+            }
+        } catch (IllegalStateException e) {
+            log.error("JWT keystore not reloaded, keeping keys {}: {}", keyIds(), e.getMessage());
+        }
+    }
+
+    /**
+     * The keys and what each is used for, without key material.
+     */
+    public List<Map<String, Object>> status() {
+        return status;
+    }
+
+    private List<StoredKey> load() {
+        KeyStore keyStore;
+        try (InputStream in = Files.newInputStream(keystorePath)) {
+            keyStore = KeyStore.getInstance(keystoreType);
+            keyStore.load(in, keystorePassword);
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to read JWT keystore " + keystorePath, e);
+        }
+        List<StoredKey> keys = new ArrayList<>();
+        try {
+            for (String alias : Collections.list(keyStore.aliases())) {
+                TokenCodec codec = keyStore.isKeyEntry(alias) ? codec(keyStore, alias) : null;
+                if (codec != null) {
+                    keys.add(new StoredKey(codec, keyStore.getCreationDate(alias).toInstant()));
+                }
+            }
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to read JWT keystore " + keystorePath + ": " + e.getMessage(), e);
+        }
+        keys.sort(Comparator.comparing(StoredKey::createdAt).thenComparing(key -> key.codec().keyId()));
+        return keys;
+    }
+
+    private TokenCodec codec(KeyStore keyStore, String alias) throws GeneralSecurityException {
+        Key key = keyStore.getKey(alias, keystorePassword);
+        try {
+            if (key instanceof SecretKey && key.getEncoded() != null && key.getEncoded().length >= MIN_KEY_BYTES) {
+                return new Hs256TokenCodec(alias, key.getEncoded());
+            }
+            if (key instanceof PrivateKey privateKey && keyStore.getCertificate(alias) != null) {
+                return new AsymmetricTokenCodec(alias, privateKey, keyStore.getCertificate(alias).getPublicKey());
+            }
+        } catch (IllegalArgumentException e) {
+            log.warn("JWT keystore entry {} skipped: {}", alias, e.getMessage());
+            return null;
+        }
+        log.warn("JWT keystore entry {} skipped: neither a secret key of at least {} bytes nor a P-256 or Ed25519 "
+                + "key pair", alias, MIN_KEY_BYTES);
+        return null;
+    }
+
+    private void select(List<StoredKey> loaded) {
+        long now = clock.getAsLong();
+        int signing = -1;
+        for (int i = 0; i < loaded.size(); i++) {
+            if (loaded.get(i).createdAt().toEpochMilli() + activationDelayMillis <= now) {
+                signing = i;
+            }
+        }
+        if (signing < 0 && !loaded.isEmpty()) {
+            // First keys ever: no instance signs with an older one, so there is nothing to wait for
+            signing = 0;
+        }
+
+        TokenCodec signer = signing >= 0 ? loaded.get(signing).codec() : secretKey;
+        if (signer == null) {
+            throw new IllegalStateException("JWT keystore " + keystorePath + " has no usable key");
+        }
+        List<TokenCodec> verifiers = new ArrayList<>();
+        List<Map<String, Object>> keys = new ArrayList<>();
+        // Newest first: after the signer, the keys most tokens in flight were signed with
+        for (int i = loaded.size() - 1; i >= 0; i--) {
+            StoredKey key = loaded.get(i);
+            Map<String, Object> keyStatus = new LinkedHashMap<>();
+            keyStatus.put("kid", key.codec().keyId());
+            keyStatus.put("alg", key.codec().algorithm());
+            keyStatus.put("created", key.createdAt());
+            if (i > signing) {
+                keyStatus.put("state", "pending");
+                keyStatus.put("activates", Instant.ofEpochMilli(key.createdAt().toEpochMilli() + activationDelayMillis));
+                verifiers.add(key.codec());
+            } else if (i == signing) {
+                keyStatus.put("state", "signing");
+            } else {
+                long retiresAt = loaded.get(i + 1).createdAt().toEpochMilli()
+                        + 2 * activationDelayMillis + tokenLifetimeMillis;
+                keyStatus.put("state", retiresAt > now ? "verifying" : "retired");
+                keyStatus.put("retires", Instant.ofEpochMilli(retiresAt));
+                if (retiresAt > now) {
+                    verifiers.add(key.codec());
+                }
+            }
+            keys.add(keyStatus);
+        }
+        if (secretKey != null) {
+            verifiers.add(secretKey);
+            Map<String, Object> secretStatus = new LinkedHashMap<>();
+            secretStatus.put("kid", null);
+            secretStatus.put("alg", secretKey.algorithm());
+            secretStatus.put("state", signer == secretKey ? "signing" : "verifying");
+            keys.add(secretStatus);
+        }
+
+        TokenKeyRing previous = keyRing;
+        if (previous == null || previous.signer() != signer || !sameVerifiers(previous, verifiers)) {
+            keyRing = new TokenKeyRing(signer, verifiers);
+            log.info("JWT keys: signing with {}, verifying {}", describe(signer), keyIds());
+        }
+        status = List.copyOf(keys);
+    }
+
+    private boolean sameVerifiers(TokenKeyRing ring, List<TokenCodec> verifiers) {
+        return ring.verifiers().equals(verifiers.stream().filter(verifier -> verifier != ring.signer()).toList());
+    }
+
+    private List<String> keyIds() {
+        TokenKeyRing current = keyRing;
+        if (current == null) {
+            return List.of();
+        }
+        List<String> ids = new ArrayList<>();
+        ids.add(describe(current.signer()));
+        current.verifiers().forEach(verifier -> ids.add(describe(verifier)));
+        return ids;
+    }
+
+    private static String describe(TokenCodec codec) {
+        return codec.keyId() != null ? codec.keyId() : "app.jwt.secret";
+    }
+
+    private record StoredKey(TokenCodec codec, Instant createdAt) {
+    }
+
+    // Modification time and size: a rewritten keystore changes at least one of them
+    private record FileVersion(Instant modified, long size) {
+
+        static FileVersion of(Path path) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                return new FileVersion(attributes.lastModifiedTime().toInstant(), attributes.size());
+            } catch (IOException e) {
+                throw new IllegalStateException("Unable to read JWT keystore " + path, e);
+            }
+        }
+    }
+}
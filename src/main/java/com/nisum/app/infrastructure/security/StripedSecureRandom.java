@@ -0,0 +1,39 @@
+package com.nisum.app.infrastructure.security;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Salt source for concurrent hashing: a few independent DRBG instances, one picked at random per
+ * call, so threads hashing at the same time rarely wait on the same lock. The default NativePRNG
+ * serializes nextBytes of every instance on a single static lock.
+ */
+public class StripedSecureRandom extends SecureRandom {
+
+    private final SecureRandom[] stripes;
+
+    public StripedSecureRandom(int stripes) {
+        this.stripes = new SecureRandom[Math.max(1, stripes)];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = newDrbg();
+        }
+    }
+
+    @Override
+    public void nextBytes(byte[] bytes) {
+        stripes[ThreadLocalRandom.current().nextInt(stripes.length)].nextBytes(bytes);
+    }
+
+    int stripeCount() {
+        return stripes.length;
+    }
+
+    private static SecureRandom newDrbg() {
+        try {
+            return SecureRandom.getInstance("DRBG");
+        } catch (NoSuchAlgorithmException e) {
+            return new SecureRandom();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.nisum.app.infrastructure.security;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Fixed-size, lock-free table of token buckets. Each bucket is a single long updated by CAS: 24 bits
+ * of key fingerprint and 40 bits of GCRA theoretical arrival time, the instant (ms since the limiter
+ * started) at which the bucket is full again. A request is allowed while that instant, pushed back by
+ * one refill interval, stays within {@code burst} intervals of now. Rejections only read.
+ * <p>
+ * A bucket that is full again carries no state, so its slot is free for any key and the table evicts
+ * itself. Only when all slots of a key's probe window hold partly drained buckets is the one closest
+ * to full replaced, which lets that key start over: the price of bounded memory under a flood of keys.
+ * Keys are hashed with a random per-instance seed, so colliding keys cannot be picked from outside.
+ */
+public class TokenBucketRateLimiter {
+
+    private static final int PROBES = 4;
+    private static final int TAT_BITS = 40;
+    private static final long TAT_MASK = (1L << TAT_BITS) - 1;
+
+    private final AtomicLongArray slots;
+    private final int mask;
+    private final long intervalMillis;
+    private final long limitMillis;
+    private final long seed = ThreadLocalRandom.current().nextLong();
+    private final LongSupplier nanoClock;
+    private final long origin;
+    private final LongAdder evictions = new LongAdder();
+
+    public TokenBucketRateLimiter(int capacity, int burst, Duration refillPeriod) {
+        this(capacity, burst, refillPeriod, System::nanoTime);
+    }
+
+    /**
+     * @param capacity     buckets in the table, rounded up to a power of two
+     * @param burst        requests a key can make at once
+     * @param refillPeriod time for an empty bucket to refill completely
+     */
+    TokenBucketRateLimiter(int capacity, int burst, Duration refillPeriod, LongSupplier nanoClock) {
+        if (capacity <= 0 || burst <= 0 || refillPeriod.toMillis() < burst) {
+            throw new IllegalArgumentException("capacity and burst must be > 0 and refillPeriod at least burst ms");
+        }
+        int size = Integer.highestOneBit(Math.max(PROBES, capacity) - 1) << 1;
+        this.slots = new AtomicLongArray(size);
+        this.mask = size - 1;
+        this.intervalMillis = refillPeriod.toMillis() / burst;
+        this.limitMillis = intervalMillis * burst;
+        this.nanoClock = nanoClock;
+        this.origin = nanoClock.getAsLong();
+    }
+
+    /**
+     * Takes a token from the key's bucket. Letters are compared ignoring case.
+     *
+     * @return 0 if the request is allowed, otherwise the milliseconds until a token is available
+     */
+    public long tryAcquire(CharSequence key) {
+        long hash = hash(key);
+        long fingerprint = (hash >>> TAT_BITS) | 1;
+        int base = (int) hash & mask;
+        long now = (nanoClock.getAsLong() - origin) / 1_000_000;
+        while (true) {
+            int own = -1;
+            int free = -1;
+            int oldest = -1;
+            long ownValue = 0;
+            long freeValue = 0;
+            long oldestValue = 0;
+            for (int i = 0; i < PROBES; i++) {
+                int slot = (base + i) & mask;
+                long value = slots.get(slot);
+                if (value != 0 && value >>> TAT_BITS == fingerprint) {
+                    own = slot;
+                    ownValue = value;
+                    break;
+                }
+                if (free < 0 && (value & TAT_MASK) <= now) {
+                    free = slot;
+                    freeValue = value;
+                } else if (oldest < 0 || (value & TAT_MASK) < (oldestValue & TAT_MASK)) {
+                    oldest = slot;
+                    oldestValue = value;
+                }
+            }
+
+            int slot;
+            long expected;
+            long tat;
+            if (own >= 0) {
+                slot = own;
+                expected = ownValue;
+                tat = Math.max(ownValue & TAT_MASK, now);
+            } else {
+                slot = free >= 0 ? free : oldest;
+                expected = free >= 0 ? freeValue : oldestValue;
+                tat = now;
+            }
+            long next = tat + intervalMillis;
+            if (next - now > limitMillis) {
+                return next - now - limitMillis;
+            }
+            if (slots.compareAndSet(slot, expected, fingerprint << TAT_BITS | next)) {
+                if (own < 0 && free < 0) {
+                    evictions.increment();
+                }
+                return 0;
+            }
+            // Another thread changed the slot between the read and the CAS: look again
+        }
+    }
+
+    /**
+     * Buckets replaced before they were full again, because their probe window was crowded.
+     */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    private long hash(CharSequence key) {
+        long h = seed;
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                c += 'a' - 'A';
+            } else if (c > 0x7F) {
+                c = Character.toLowerCase(c);
+            }
+            h = (h ^ c) * 0x100000001B3L;
+            h ^= h >>> 29;
+        }
+        h ^= key.length();
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
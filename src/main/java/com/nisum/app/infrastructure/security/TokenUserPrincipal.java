@@ -0,0 +1,44 @@
+package com.nisum.app.infrastructure.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+// Principal built from verified token claims only (stateless principal mode), no user row behind it
+public class TokenUserPrincipal implements UserDetails {
+
+    private final UUID id;
+    private final String email;
+    private final List<GrantedAuthority> authorities;
+
+    public TokenUserPrincipal(UUID id, String email, List<String> authorities) {
+        this.id = id;
+        this.email = email;
+        this.authorities = authorities.stream()
+                .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                .toList();
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+}
@@ -0,0 +1,91 @@
+package com.nisum.app.infrastructure.security;
+
+import com.nisum.app.domain.model.UserTokenState;
+import com.nisum.app.domain.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory view of each user's token version and active flag, used by the stateless principal
+ * mode to reject revoked or deactivated users without a DB round trip. Only users that differ from
+ * the defaults (version 0, active) are kept, so the map stays small.
+ */
+@Component
+@Slf4j
+public class TokenVersionRegistry {
+
+    private static final long INACTIVE = -1L;
+    // Overlap between refreshes so rows written with a slightly skewed clock are not missed
+    private static final Duration REFRESH_OVERLAP = Duration.ofSeconds(5);
+
+    private final UserRepository userRepository;
+    private final boolean enabled;
+    private final Map<UUID, Long> versions = new ConcurrentHashMap<>();
+    private volatile LocalDateTime lastRefresh;
+
+    public TokenVersionRegistry(UserRepository userRepository,
+                                @Value("${app.security.stateless-principal.enabled:false}") boolean enabled) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    public void reload() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        versions.clear();
+        userRepository.findNonDefaultTokenStates().forEach(this::apply);
+        lastRefresh = startedAt;
+        log.info("Token version registry loaded with {} non-default entries", versions.size());
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.stateless-principal.refresh-interval:PT30S}")
+    public void refresh() {
+        if (!enabled || lastRefresh == null) {
+            return;
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        List<UserTokenState> changed = userRepository.findTokenStatesChangedSince(lastRefresh.minus(REFRESH_OVERLAP));
+        changed.forEach(this::apply);
+        lastRefresh = startedAt;
+        log.debug("Token version registry refreshed, {} changed users", changed.size());
+    }
+
+    public boolean isCurrent(UUID userId, long tokenVersion) {
+        Long current = versions.get(userId);
+        if (current == null) {
+            return tokenVersion == 0L;
+        }
+        return current != INACTIVE && current == tokenVersion;
+    }
+
+    public void record(UUID userId, long tokenVersion, boolean active) {
+        if (!active) {
+            versions.put(userId, INACTIVE);
+        } else if (tokenVersion == 0L) {
+            versions.remove(userId);
+        } else {
+            versions.put(userId, tokenVersion);
+        }
+    }
+
+    private void apply(UserTokenState state) {
+        record(state.getId(), state.getTokenVersion(), !Boolean.FALSE.equals(state.getIsActive()));
+    }
+}
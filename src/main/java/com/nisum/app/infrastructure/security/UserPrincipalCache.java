@@ -0,0 +1,97 @@
+package com.nisum.app.infrastructure.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.nisum.app.infrastructure.security.CustomUserDetailsService.CustomUserPrincipal;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+@Component
+@Slf4j
+public class UserPrincipalCache {
+
+    // Invalidations per key stripe, to drop loads that an invalidation overtook
+    private static final int GENERATION_STRIPES = 64;
+
+    private final boolean enabled;
+    private final Cache<String, CustomUserPrincipal> cache;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    public UserPrincipalCache(@Value("${app.security.user-cache.enabled:true}") boolean enabled,
+                              @Value("${app.security.user-cache.max-size:10000}") long maxSize,
+                              @Value("${app.security.user-cache.ttl:PT5M}") Duration ttl,
+                              MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userPrincipals");
+        log.info("User principal cache enabled={} maxSize={} ttl={}", enabled, maxSize, ttl);
+    }
+
+    public static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public CustomUserPrincipal get(String email, Function<String, CustomUserPrincipal> loader) {
+        String key = normalize(email);
+        if (!enabled) {
+            return loader.apply(key);
+        }
+        // Not cache.get(key, loader): that runs the JDBC lookup inside ConcurrentHashMap.compute, i.e. under a
+        // monitor, which pins the carrier when requests run on virtual threads. The load runs outside the map
+        // and is only stored if no invalidation of its stripe happened meanwhile: a principal loaded before a
+        // token-version bump, a deactivation or a login must not be cached after it. Two concurrent misses for
+        // the same email may both load; the first stored principal wins.
+        CustomUserPrincipal cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        int stripe = stripe(key);
+        long generation = generations.get(stripe);
+        CustomUserPrincipal loaded = loader.apply(key);
+        CustomUserPrincipal stored = cache.asMap().compute(key, (k, current) -> current != null
+                ? current
+                : generations.get(stripe) == generation ? loaded : null);
+        return stored != null ? stored : loaded;
+    }
+
+    public void invalidate(String email) {
+        if (email != null) {
+            String key = normalize(email);
+            // Before removing the entry, so a load in flight sees it when it tries to store
+            generations.incrementAndGet(stripe(key));
+            cache.invalidate(key);
+        }
+    }
+
+    public void invalidateAll() {
+        for (int stripe = 0; stripe < GENERATION_STRIPES; stripe++) {
+            generations.incrementAndGet(stripe);
+        }
+        cache.invalidateAll();
+    }
+
+    private static int stripe(String key) {
+        return key.hashCode() & (GENERATION_STRIPES - 1);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+}
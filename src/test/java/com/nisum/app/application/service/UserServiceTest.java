@@ -15,6 +15,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
@@ -45,13 +46,15 @@ class UserServiceTest {
     @Mock
     private PasswordValidationSpecification passwordValidationSpec;
 
+    @Spy
+    private BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+
     @InjectMocks
     private UserService userService;
 
     private UserRegistrationRequestDto validRegistrationRequest;
     private LoginRequestDto validLoginRequest;
     private User mockUser;
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
 
     @BeforeEach
     void setUp() {
@@ -0,0 +1,260 @@
+package com.nisum.app.application.service.impl;
+
+import com.nisum.app.application.service.IJwtService;
+import com.nisum.app.domain.factory.UserFactory;
+import com.nisum.app.domain.model.User;
+import com.nisum.app.domain.repository.UserRepository;
+import com.nisum.app.domain.specification.EmailValidationSpecification;
+import com.nisum.app.domain.specification.PasswordValidationSpecification;
+import com.nisum.app.infrastructure.dto.phone.PhoneDto;
+import com.nisum.app.infrastructure.dto.user.BulkRegistrationItemDto.Status;
+import com.nisum.app.infrastructure.dto.user.BulkRegistrationResponseDto;
+import com.nisum.app.infrastructure.dto.user.UserRegistrationRequestDto;
+import com.nisum.app.infrastructure.exception.BusinessException;
+import com.nisum.app.infrastructure.exception.HashingCapacityExceededException;
+import com.nisum.app.infrastructure.index.RegisteredEmailIndex;
+import com.nisum.app.infrastructure.security.AuthorityResolver;
+import com.nisum.app.infrastructure.security.PasswordHashingExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkUserRegistrationServiceImplTest {
+
+    private static ValidatorFactory validatorFactory;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private IJwtService jwtService;
+
+    @Mock
+    private RegisteredEmailIndex emailIndex;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PasswordHashingExecutor hashingExecutor;
+
+    private BulkUserRegistrationServiceImpl bulkService;
+
+    @BeforeAll
+    static void initValidator() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+    }
+
+    @AfterAll
+    static void closeValidator() {
+        validatorFactory.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        hashingExecutor = new PasswordHashingExecutor(2, 10, Duration.ofSeconds(1), new SimpleMeterRegistry());
+        bulkService = newService(hashingExecutor);
+        lenient().when(jwtService.generateToken(any(User.class), anyCollection())).thenReturn("token");
+        lenient().when(emailIndex.mightContain(anyString())).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hashingExecutor.shutdown();
+    }
+
+    private BulkUserRegistrationServiceImpl newService(PasswordHashingExecutor executor) {
+        return new BulkUserRegistrationServiceImpl(
+                userRepository,
+                new UserFactory(new BCryptPasswordEncoder(4)),
+                jwtService,
+                new EmailValidationSpecification("^[A-Za-z0-9+_.-]+@(.+)$"),
+                new PasswordValidationSpecification("^(?=.*[a-z])(?=.*[A-Z])(?=.*\\d)[a-zA-Z\\d]{8,}$"),
+                new AuthorityResolver(),
+                emailIndex,
+                executor,
+                validatorFactory.getValidator(),
+                entityManager,
+                transactionManager,
+                2,
+                10);
+    }
+
+    @Test
+    void registerUsers_ShouldInsertValidItemsAndReportRejectedOnes() {
+        // Arrange
+        List<UserRegistrationRequestDto> requests = List.of(
+                request("uno@example.com", "Password123"),
+                request("invalido", "Password123"),
+                request("dos@example.com", "corta"),
+                request("UNO@example.com", "Password123"),
+                request("existe@example.com", "Password123"));
+        when(userRepository.findExistingEmails(anyCollection()))
+                .thenAnswer(inv -> inv.<Collection<String>>getArgument(0).contains("existe@example.com")
+                        ? List.of("existe@example.com") : List.of());
+
+        // Act
+        BulkRegistrationResponseDto response = bulkService.registerUsers(requests);
+
+        // Assert
+        assertEquals(5, response.getTotal());
+        assertEquals(1, response.getCreated());
+        assertEquals(4, response.getRejected());
+        assertEquals(Status.CREATED, response.getResults().get(0).getStatus());
+        assertNotNull(response.getResults().get(0).getId());
+        assertEquals("token", response.getResults().get(0).getToken());
+        assertEquals(Status.REJECTED, response.getResults().get(1).getStatus());
+        assertEquals(Status.REJECTED, response.getResults().get(2).getStatus());
+        assertEquals("correo duplicado en el lote", response.getResults().get(3).getMensaje());
+        assertEquals("este correo ya existe", response.getResults().get(4).getMensaje());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i, response.getResults().get(i).getIndex());
+        }
+    }
+
+    @Test
+    void registerUsers_ShouldQueryAndSaveOncePerChunk() {
+        // Arrange
+        List<UserRegistrationRequestDto> requests = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            requests.add(request("user" + i + "@example.com", "Password123"));
+        }
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(List.of());
+
+        // Act
+        BulkRegistrationResponseDto response = bulkService.registerUsers(requests);
+
+        // Assert
+        assertEquals(5, response.getCreated());
+        verify(userRepository, times(3)).findExistingEmails(anyCollection());
+        verify(userRepository, times(3)).saveAll(anyList());
+        verify(userRepository, never()).existsByEmail(anyString());
+        verify(entityManager, times(3)).clear();
+    }
+
+    @Test
+    void registerUsers_WhenChunkFailsToPersist_ShouldRejectOnlyThatChunk() {
+        // Arrange
+        List<UserRegistrationRequestDto> requests = List.of(
+                request("a@example.com", "Password123"),
+                request("b@example.com", "Password123"),
+                request("c@example.com", "Password123"));
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(List.of());
+        when(userRepository.saveAll(anyList()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"))
+                .thenReturn(List.of());
+
+        // Act
+        BulkRegistrationResponseDto response = bulkService.registerUsers(requests);
+
+        // Assert
+        assertEquals(Status.REJECTED, response.getResults().get(0).getStatus());
+        assertEquals(Status.REJECTED, response.getResults().get(1).getStatus());
+        assertEquals(Status.CREATED, response.getResults().get(2).getStatus());
+    }
+
+    @Test
+    void registerUsers_WithEmailsUnknownToIndex_ShouldSkipExistenceQueryAndIndexNewUsers() {
+        // Arrange
+        when(emailIndex.mightContain(anyString())).thenReturn(false);
+
+        // Act
+        BulkRegistrationResponseDto response = bulkService.registerUsers(List.of(
+                request("uno@example.com", "Password123"),
+                request("dos@example.com", "Password123")));
+
+        // Assert
+        assertEquals(2, response.getCreated());
+        verify(userRepository, never()).findExistingEmails(anyCollection());
+        verify(emailIndex).add("uno@example.com");
+        verify(emailIndex).add("dos@example.com");
+    }
+
+    @Test
+    void registerUsers_WithTooManyItems_ShouldThrowBusinessException() {
+        // Arrange
+        List<UserRegistrationRequestDto> requests = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            requests.add(request("user" + i + "@example.com", "Password123"));
+        }
+
+        // Act & Assert
+        assertThrows(BusinessException.class, () -> bulkService.registerUsers(requests));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void registerUsers_WhenHashingQueueIsFull_ShouldRefuseTheRequestBeforeHashing() {
+        // Arrange
+        PasswordHashingExecutor saturated = mock(PasswordHashingExecutor.class);
+        when(saturated.parallelism()).thenReturn(2);
+        when(saturated.submit(any())).thenThrow(new HashingCapacityExceededException("servicio ocupado", 1));
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(List.of());
+
+        // Act & Assert
+        assertThrows(HashingCapacityExceededException.class, () -> newService(saturated).registerUsers(List.of(
+                request("uno@example.com", "Password123"),
+                request("dos@example.com", "Password123"))));
+        verify(userRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void registerUsers_WhenALaterSliceIsRefused_ShouldCancelTheSlicesAlreadySubmitted() {
+        // Arrange
+        PasswordHashingExecutor partlySaturated = mock(PasswordHashingExecutor.class);
+        List<Supplier<List<User>>> submitted = new ArrayList<>();
+        CompletableFuture<List<User>> firstSlice = new CompletableFuture<>();
+        when(partlySaturated.parallelism()).thenReturn(2);
+        when(partlySaturated.submit(any()))
+                .thenAnswer(inv -> {
+                    submitted.add(inv.getArgument(0));
+                    return firstSlice;
+                })
+                .thenThrow(new HashingCapacityExceededException("servicio ocupado", 1));
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(List.of());
+
+        // Act
+        assertThrows(HashingCapacityExceededException.class, () -> newService(partlySaturated).registerUsers(List.of(
+                request("uno@example.com", "Password123"),
+                request("dos@example.com", "Password123"))));
+        // The first slice got a thread only after the refusal
+        List<User> hashedLate = submitted.get(0).get();
+
+        // Assert
+        assertTrue(firstSlice.isCancelled());
+        assertTrue(hashedLate.isEmpty());
+        verifyNoInteractions(jwtService);
+        verify(userRepository, never()).saveAll(anyList());
+    }
+
+    private static UserRegistrationRequestDto request(String email, String password) {
+        return new UserRegistrationRequestDto("Juan Rodriguez", email, password,
+                List.of(new PhoneDto("1234567", "1", "57")));
+    }
+}
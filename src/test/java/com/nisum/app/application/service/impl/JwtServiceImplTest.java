@@ -1,9 +1,22 @@
 package com.nisum.app.application.service.impl;
 
+import com.nisum.app.application.service.token.Hs256TokenCodec;
+import com.nisum.app.application.service.token.ParsedToken;
+import com.nisum.app.application.service.token.TokenKeyRing;
+import com.nisum.app.domain.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -105,4 +118,163 @@ class JwtServiceImplTest {
         // Assert
         assertNotEquals(token1, token2);
     }
+
+    @Test
+    void parseToken_WithValidToken_ShouldReturnSubjectAndTimestamps() {
+        // Arrange
+        String token = jwtService.generateToken(testEmail);
+
+        // Act
+        ParsedToken parsedToken = jwtService.parseToken(token);
+
+        // Assert
+        assertEquals(testEmail, parsedToken.getSubject());
+        assertNotNull(parsedToken.getIssuedAt());
+        assertTrue(parsedToken.getExpiresAt().isAfter(Instant.now()));
+        assertFalse(parsedToken.isExpired(Instant.now()));
+    }
+
+    @Test
+    void parseToken_WithTamperedSignature_ShouldThrowJwtException() {
+        // Arrange
+        String token = jwtService.generateToken(testEmail);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        // Act & Assert
+        assertThrows(JwtException.class, () -> jwtService.parseToken(tampered));
+    }
+
+    @Test
+    void parseToken_WithExpiredToken_ShouldThrowExpiredJwtException() {
+        // Arrange
+        JwtServiceImpl expiringService = new JwtServiceImpl(testSecret, -1000, 100);
+        String token = expiringService.generateToken(testEmail);
+
+        // Act & Assert
+        assertThrows(ExpiredJwtException.class, () -> expiringService.parseToken(token));
+        assertFalse(expiringService.validateToken(token, testEmail));
+    }
+
+    @Test
+    void parseToken_WithVerifiedCacheEnabled_ShouldReturnCachedInstance() {
+        // Arrange
+        JwtServiceImpl cachingService = new JwtServiceImpl(testSecret, testExpiration, 100);
+        String token = cachingService.generateToken(testEmail);
+
+        // Act
+        ParsedToken first = cachingService.parseToken(token);
+        ParsedToken second = cachingService.parseToken(token);
+
+        // Assert
+        assertSame(first, second);
+    }
+
+    @Test
+    void parseToken_ShouldTimeFullVerificationsAndCountCacheHits() {
+        // Arrange
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        JwtServiceImpl cachingService = new JwtServiceImpl(testSecret, testExpiration, 100, meterRegistry);
+        String token = cachingService.generateToken(testEmail);
+
+        // Act
+        cachingService.parseToken(token);
+        cachingService.parseToken(token);
+        assertThrows(JwtException.class, () -> cachingService.parseToken(token + "x"));
+
+        // Assert
+        assertEquals(1, meterRegistry.get("jwt.sign").timer().count());
+        assertEquals(1, verifications(meterRegistry, "valid"));
+        assertEquals(1, verifications(meterRegistry, "invalid"));
+        assertEquals(0, verifications(meterRegistry, "expired"));
+        assertEquals(1, meterRegistry.get("cache.gets").tags("cache", "verifiedTokens", "result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void parseToken_AfterKeyRotation_ShouldSignWithTheNewKeyAndStillVerifyTheOld() {
+        // Arrange
+        Hs256TokenCodec oldKey = new Hs256TokenCodec("k1", "a".repeat(32).getBytes(StandardCharsets.US_ASCII));
+        Hs256TokenCodec newKey = new Hs256TokenCodec("k2", "b".repeat(32).getBytes(StandardCharsets.US_ASCII));
+        AtomicReference<TokenKeyRing> keyRing = new AtomicReference<>(new TokenKeyRing(oldKey, List.of()));
+        JwtServiceImpl rotatingService = new JwtServiceImpl(keyRing::get, testExpiration, 0, new SimpleMeterRegistry());
+        String before = rotatingService.generateToken(testEmail);
+
+        // Act
+        keyRing.set(new TokenKeyRing(newKey, List.of(oldKey)));
+        String after = rotatingService.generateToken(testEmail);
+
+        // Assert
+        assertEquals(testEmail, rotatingService.extractEmail(before));
+        assertEquals(testEmail, rotatingService.extractClaim(before, Claims::getSubject));
+        assertEquals(testEmail, newKey.verify(after, System.currentTimeMillis()).getSubject());
+        keyRing.set(new TokenKeyRing(newKey, List.of()));
+        assertThrows(JwtException.class, () -> rotatingService.parseToken(before));
+        assertThrows(JwtException.class, () -> rotatingService.extractClaim(before, Claims::getSubject));
+    }
+
+    @Test
+    void parseToken_WithVerifiedCacheAfterTheTokensKeyIsDropped_ShouldRejectTheCachedToken() {
+        // Arrange
+        Hs256TokenCodec oldKey = new Hs256TokenCodec("k1", "a".repeat(32).getBytes(StandardCharsets.US_ASCII));
+        Hs256TokenCodec newKey = new Hs256TokenCodec("k2", "b".repeat(32).getBytes(StandardCharsets.US_ASCII));
+        AtomicReference<TokenKeyRing> keyRing = new AtomicReference<>(new TokenKeyRing(oldKey, List.of()));
+        JwtServiceImpl cachingService = new JwtServiceImpl(keyRing::get, testExpiration, 100, new SimpleMeterRegistry());
+        String token = cachingService.generateToken(testEmail);
+        cachingService.parseToken(token);
+
+        // Act
+        keyRing.set(new TokenKeyRing(newKey, List.of()));
+
+        // Assert
+        assertThrows(JwtException.class, () -> cachingService.parseToken(token));
+    }
+
+    @Test
+    void validateToken_WithMalformedToken_ShouldReturnFalse() {
+        // Act
+        Boolean isValid = jwtService.validateToken("not-a-jwt", testEmail);
+
+        // Assert
+        assertFalse(isValid);
+    }
+
+    @Test
+    void generateToken_WithUser_ShouldEmbedUserIdVersionAndAuthorities() {
+        // Arrange
+        User user = User.builder()
+                .id(UUID.randomUUID())
+                .email(testEmail)
+                .tokenVersion(3L)
+                .build();
+
+        // Act
+        ParsedToken parsedToken = jwtService.parseToken(jwtService.generateToken(user, List.of("ROLE_USER")));
+
+        // Assert
+        assertEquals(testEmail, parsedToken.getSubject());
+        assertEquals(user.getId(), parsedToken.getUserId());
+        assertEquals(3L, parsedToken.getTokenVersion());
+        assertEquals(List.of("ROLE_USER"), parsedToken.getAuthorities());
+    }
+
+    @Test
+    void validateToken_WithUserWhoseTokenVersionChanged_ShouldReturnFalse() {
+        // Arrange
+        User user = User.builder()
+                .id(UUID.randomUUID())
+                .email(testEmail)
+                .tokenVersion(0L)
+                .build();
+        String token = jwtService.generateToken(user, List.of("ROLE_USER"));
+
+        // Act
+        user.setTokenVersion(1L);
+
+        // Assert
+        assertFalse(jwtService.validateToken(token, user));
+    }
+
+    private static long verifications(SimpleMeterRegistry meterRegistry, String outcome) {
+        return meterRegistry.get("jwt.verify").tags("outcome", outcome).timer().count();
+    }
 }
@@ -0,0 +1,156 @@
+package com.nisum.app.application.service.impl;
+
+import com.nisum.app.application.service.IJwtService;
+import com.nisum.app.domain.model.RefreshToken;
+import com.nisum.app.domain.model.User;
+import com.nisum.app.domain.repository.RefreshTokenRepository;
+import com.nisum.app.domain.repository.UserRepository;
+import com.nisum.app.infrastructure.dto.login.TokenResponseDto;
+import com.nisum.app.infrastructure.exception.InvalidRefreshTokenException;
+import com.nisum.app.infrastructure.metrics.UserOperationMetrics;
+import com.nisum.app.infrastructure.security.AuthorityResolver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceImplTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private IJwtService jwtService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private RefreshTokenServiceImpl refreshTokenService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenService = new RefreshTokenServiceImpl(refreshTokenRepository, userRepository, jwtService,
+                new AuthorityResolver(), new UserOperationMetrics(meterRegistry), Duration.ofDays(14), 900_000L);
+        user = User.builder()
+                .id(UUID.randomUUID())
+                .email("juan@rodriguez.org")
+                .tokenVersion(1L)
+                .isActive(true)
+                .build();
+    }
+
+    @Test
+    void issue_ShouldStoreOnlyTheHashOfARandomToken() {
+        // Act
+        String first = refreshTokenService.issue(user);
+        String second = refreshTokenService.issue(user);
+
+        // Assert
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository, times(2)).save(saved.capture());
+        RefreshToken stored = saved.getAllValues().get(0);
+        assertEquals(43, first.length());
+        assertNotEquals(first, second);
+        assertEquals(43, stored.getTokenHash().length());
+        assertNotEquals(first, stored.getTokenHash());
+        assertEquals(user.getId(), stored.getUserId());
+        assertEquals(1L, stored.getTokenVersion());
+        assertNull(stored.getUsedAt());
+        // Each login is its own session
+        assertNotEquals(stored.getFamilyId(), saved.getAllValues().get(1).getFamilyId());
+    }
+
+    @Test
+    void refresh_ShouldRotateTheTokenWithinItsSession() {
+        // Arrange
+        String refreshToken = refreshTokenService.issue(user);
+        RefreshToken stored = captureSaved();
+        when(refreshTokenRepository.findById(stored.getTokenHash())).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.markUsed(eq(stored.getTokenHash()), any(LocalDateTime.class))).thenReturn(1);
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(jwtService.generateToken(user, List.of("ROLE_USER"))).thenReturn("new-jwt");
+
+        // Act
+        TokenResponseDto response = refreshTokenService.refresh(refreshToken);
+
+        // Assert
+        assertEquals("new-jwt", response.getToken());
+        assertEquals(900, response.getExpiresIn());
+        assertNotEquals(refreshToken, response.getRefreshToken());
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository, times(2)).save(saved.capture());
+        assertEquals(stored.getFamilyId(), saved.getAllValues().get(1).getFamilyId());
+        assertEquals(1, meterRegistry.get("users.operation")
+                .tags("operation", "refresh", "outcome", "success").timer().count());
+    }
+
+    @Test
+    void refresh_WithRotatedToken_ShouldEndTheSession() {
+        // Arrange: markUsed finds the token already used
+        String refreshToken = refreshTokenService.issue(user);
+        RefreshToken stored = captureSaved();
+        when(refreshTokenRepository.findById(stored.getTokenHash())).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.markUsed(eq(stored.getTokenHash()), any(LocalDateTime.class))).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.refresh(refreshToken));
+        verify(refreshTokenRepository).deleteByFamilyId(stored.getFamilyId());
+        verifyNoInteractions(jwtService);
+        assertEquals(1, meterRegistry.get("users.operation")
+                .tags("operation", "refresh", "outcome", "bad_credentials").timer().count());
+    }
+
+    @Test
+    void refresh_AfterAllTokensWereRevoked_ShouldEndTheSession() {
+        // Arrange
+        String refreshToken = refreshTokenService.issue(user);
+        RefreshToken stored = captureSaved();
+        user.setTokenVersion(2L);
+        when(refreshTokenRepository.findById(stored.getTokenHash())).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.markUsed(eq(stored.getTokenHash()), any(LocalDateTime.class))).thenReturn(1);
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+
+        // Act & Assert
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.refresh(refreshToken));
+        verify(refreshTokenRepository).deleteByFamilyId(stored.getFamilyId());
+        verifyNoInteractions(jwtService);
+    }
+
+    @Test
+    void refresh_WithUnknownExpiredOrOversizedToken_ShouldThrow() {
+        // Arrange
+        String refreshToken = refreshTokenService.issue(user);
+        RefreshToken stored = captureSaved();
+        stored.setExpiresAt(LocalDateTime.now().minusSeconds(1));
+        when(refreshTokenRepository.findById(stored.getTokenHash())).thenReturn(Optional.of(stored));
+
+        // Act & Assert
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.refresh(refreshToken));
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.refresh("unknown"));
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.refresh("x".repeat(1000)));
+        verify(refreshTokenRepository, never()).markUsed(anyString(), any());
+    }
+
+    private RefreshToken captureSaved() {
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(saved.capture());
+        return saved.getValue();
+    }
+}
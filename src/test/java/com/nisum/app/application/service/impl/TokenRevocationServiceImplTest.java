@@ -0,0 +1,142 @@
+package com.nisum.app.application.service.impl;
+
+import com.nisum.app.application.service.IJwtService;
+import com.nisum.app.application.service.IRefreshTokenService;
+import com.nisum.app.application.service.token.ParsedToken;
+import com.nisum.app.domain.model.RevokedToken;
+import com.nisum.app.domain.model.User;
+import com.nisum.app.domain.repository.RevokedTokenRepository;
+import com.nisum.app.domain.repository.UserRepository;
+import com.nisum.app.infrastructure.exception.BusinessException;
+import com.nisum.app.infrastructure.security.RevokedTokenRegistry;
+import com.nisum.app.infrastructure.security.TokenVersionRegistry;
+import com.nisum.app.infrastructure.security.UserPrincipalCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceImplTest {
+
+    private static final String TOKEN = "header.payload.signature";
+
+    @Mock
+    private IJwtService jwtService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Mock
+    private RevokedTokenRegistry revokedTokens;
+
+    @Mock
+    private IRefreshTokenService refreshTokenService;
+
+    @Mock
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Mock
+    private UserPrincipalCache principalCache;
+
+    @InjectMocks
+    private TokenRevocationServiceImpl revocationService;
+
+    private User user;
+    private final Instant expiresAt = Instant.now().plusSeconds(3600);
+
+    @BeforeEach
+    void setUp() {
+        user = User.builder()
+                .id(UUID.randomUUID())
+                .email("juan@rodriguez.org")
+                .token(TOKEN)
+                .tokenVersion(2L)
+                .build();
+    }
+
+    @Test
+    void logout_ShouldListTheTokenEndItsSessionAndKeepTheUsersOtherTokens() {
+        // Arrange
+        when(jwtService.parseToken(TOKEN)).thenReturn(parsed("jti-1"));
+        when(userRepository.findByEmail("juan@rodriguez.org")).thenReturn(Optional.of(user));
+        when(revokedTokens.revoke("jti-1", expiresAt)).thenReturn(true);
+
+        // Act
+        revocationService.logout(TOKEN, "refresh-token");
+
+        // Assert
+        verify(refreshTokenService).revokeSession("refresh-token");
+        verify(refreshTokenService, never()).revokeAllSessions(any());
+        ArgumentCaptor<RevokedToken> saved = ArgumentCaptor.forClass(RevokedToken.class);
+        verify(revokedTokenRepository).save(saved.capture());
+        assertEquals("jti-1", saved.getValue().getTokenId());
+        assertEquals(user.getId(), saved.getValue().getUserId());
+        assertNull(user.getToken());
+        assertEquals(2L, user.getTokenVersion());
+        verifyNoInteractions(tokenVersionRegistry);
+    }
+
+    @Test
+    void logout_WhenTheListIsFullOrTheTokenHasNoId_ShouldRevokeAllTokens() {
+        // Arrange
+        when(jwtService.parseToken(TOKEN)).thenReturn(parsed("jti-1"), parsed(null));
+        when(userRepository.findByEmail("juan@rodriguez.org")).thenReturn(Optional.of(user));
+        when(revokedTokens.revoke("jti-1", expiresAt)).thenReturn(false);
+
+        // Act
+        revocationService.logout(TOKEN, null);
+        revocationService.logout(TOKEN, null);
+
+        // Assert
+        assertEquals(4L, user.getTokenVersion());
+        verify(revokedTokenRepository, never()).save(any());
+        verify(tokenVersionRegistry).record(user.getId(), 4L, true);
+        verify(principalCache, times(2)).invalidate("juan@rodriguez.org");
+    }
+
+    @Test
+    void revokeAllTokens_ShouldBumpTokenVersion() {
+        // Arrange
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+
+        // Act
+        revocationService.revokeAllTokens(user.getId());
+
+        // Assert
+        assertEquals(3L, user.getTokenVersion());
+        assertNull(user.getToken());
+        verify(userRepository).save(user);
+        verify(refreshTokenService).revokeAllSessions(user.getId());
+        verify(principalCache).invalidate("juan@rodriguez.org");
+        verify(tokenVersionRegistry).record(user.getId(), 3L, true);
+    }
+
+    @Test
+    void revokeAllTokens_WithUnknownUser_ShouldThrowBusinessException() {
+        UUID unknown = UUID.randomUUID();
+        when(userRepository.findById(unknown)).thenReturn(Optional.empty());
+
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> revocationService.revokeAllTokens(unknown));
+        assertEquals("Usuario no encontrado", exception.getMessage());
+    }
+
+    private ParsedToken parsed(String tokenId) {
+        return ParsedToken.builder().subject("juan@rodriguez.org").tokenId(tokenId).expiresAt(expiresAt).build();
+    }
+}
@@ -0,0 +1,265 @@
+package com.nisum.app.application.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nisum.app.domain.factory.UserFactory;
+import com.nisum.app.domain.model.Phone;
+import com.nisum.app.domain.model.User;
+import com.nisum.app.domain.specification.EmailValidationSpecification;
+import com.nisum.app.infrastructure.dto.user.UserImportReportDto;
+import com.nisum.app.infrastructure.dto.user.UserImportReportDto.Status;
+import com.nisum.app.infrastructure.exception.BusinessException;
+import com.nisum.app.infrastructure.importer.ImportCheckpoint;
+import com.nisum.app.infrastructure.importer.RejectedRowReport;
+import com.nisum.app.infrastructure.index.RegisteredEmailIndex;
+import com.nisum.app.infrastructure.security.CalibratedPasswordEncoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.hibernate.query.Query;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class UserImportServiceImplTest {
+
+    private static final String HASH = "$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy";
+
+    private static ValidatorFactory validatorFactory;
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private SessionFactory sessionFactory;
+
+    @Mock
+    private StatelessSession session;
+
+    @Mock
+    private Transaction transaction;
+
+    @Mock
+    private Query<String> existingEmailsQuery;
+
+    @Mock
+    private RegisteredEmailIndex emailIndex;
+
+    private final List<Object> inserted = new ArrayList<>();
+    private UserImportServiceImpl importService;
+
+    @BeforeAll
+    static void initValidator() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+    }
+
+    @AfterAll
+    static void closeValidator() {
+        validatorFactory.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.openStatelessSession()).thenReturn(session);
+        when(session.beginTransaction()).thenReturn(transaction);
+        when(session.createQuery(anyString(), eq(String.class))).thenReturn(existingEmailsQuery);
+        when(existingEmailsQuery.setParameter(eq("emails"), any())).thenReturn(existingEmailsQuery);
+        when(existingEmailsQuery.getResultList()).thenReturn(List.of());
+        when(session.insert(any())).thenAnswer(invocation -> inserted.add(invocation.getArgument(0)));
+        when(emailIndex.mightContain(anyString())).thenReturn(true);
+
+        importService = new UserImportServiceImpl(
+                new UserFactory(new BCryptPasswordEncoder(4)),
+                new EmailValidationSpecification("^[A-Za-z0-9+_.-]+@(.+)$"),
+                validatorFactory.getValidator(),
+                emailIndex,
+                new CalibratedPasswordEncoder("bcrypt", Duration.ZERO, 4, 1000, 1, 1024),
+                entityManagerFactory,
+                new ObjectMapper(),
+                new SimpleMeterRegistry(),
+                directory,
+                2,
+                100);
+    }
+
+    @Test
+    void importFile_ShouldInsertValidRowsAndReportRejectedOnes() throws IOException {
+        // Arrange
+        Path file = write("users.ndjson",
+                user("uno@example.com"),
+                "{not json",
+                "{\"name\":\"Plano\",\"email\":\"plano@example.com\",\"password\":\"Password123\",\"phones\":[]}",
+                "",
+                user("UNO@example.com"),
+                user("dos@example.com"));
+        when(existingEmailsQuery.getResultList()).thenReturn(List.of(), List.of("uno@example.com"), List.of("dos@example.com"));
+
+        // Act
+        UserImportReportDto report = importService.importFile(file);
+
+        // Assert
+        assertEquals(Status.COMPLETED, report.getStatus());
+        assertEquals(6, report.getLinesRead());
+        assertEquals(1, report.getInserted());
+        assertEquals(4, report.getRejected());
+        User user = (User) inserted.get(0);
+        assertEquals("uno@example.com", user.getEmail());
+        assertEquals(HASH, user.getPassword());
+        assertNotNull(user.getCreated());
+        assertInstanceOf(Phone.class, inserted.get(1));
+        List<String> rejections = Files.readAllLines(RejectedRowReport.pathFor(file));
+        assertEquals(4, rejections.size());
+        assertTrue(rejections.get(0).contains("\"line\":2") && rejections.get(0).contains("JSON invalido"));
+        assertTrue(rejections.get(1).contains("hash BCrypt"));
+        assertTrue(rejections.get(2).contains("\"line\":5") && rejections.get(2).contains("este correo ya existe"));
+        assertTrue(rejections.get(3).contains("\"line\":6") && rejections.get(3).contains("este correo ya existe"));
+        assertFalse(Files.exists(ImportCheckpoint.pathFor(file)));
+        verify(session, times(3)).setJdbcBatchSize(100);
+        verify(transaction, times(3)).commit();
+        verify(emailIndex).add("uno@example.com");
+    }
+
+    @Test
+    void importFile_ShouldAcceptHashesWithAlgorithmPrefix() throws IOException {
+        // Arrange
+        Path file = write("users.ndjson", user("uno@example.com").replace(HASH, "{bcrypt}" + HASH));
+
+        // Act
+        UserImportReportDto report = importService.importFile(file);
+
+        // Assert
+        assertEquals(1, report.getInserted());
+        assertEquals("{bcrypt}" + HASH, ((User) inserted.get(0)).getPassword());
+    }
+
+    @Test
+    void importFile_ShouldInsertAllUsersOfAChunkBeforeTheirPhones() throws IOException {
+        // Arrange
+        Path file = write("users.ndjson", user("uno@example.com"), user("dos@example.com"));
+
+        // Act
+        importService.importFile(file);
+
+        // Assert
+        assertEquals(List.of(User.class, User.class, Phone.class, Phone.class),
+                inserted.stream().map(Object::getClass).collect(Collectors.toList()));
+        InOrder inOrder = inOrder(session, transaction);
+        inOrder.verify(session, times(4)).insert(any());
+        inOrder.verify(transaction).commit();
+    }
+
+    @Test
+    void importFile_WhenCommitFails_ShouldKeepCheckpointOfLastCommittedChunkAndResumeThere() throws IOException {
+        // Arrange
+        Path file = write("users.ndjson", IntStream.range(0, 5)
+                .mapToObj(i -> i == 1 ? "{bad" : user("user" + i + "@example.com"))
+                .toArray(String[]::new));
+        doNothing().doThrow(new IllegalStateException("connection lost")).when(transaction).commit();
+        when(transaction.isActive()).thenReturn(true);
+
+        // Act
+        UserImportReportDto failed = importService.importFile(file);
+
+        // Assert
+        assertEquals(Status.FAILED, failed.getStatus());
+        assertEquals("connection lost", failed.getError());
+        verify(transaction).rollback();
+        ImportCheckpoint checkpoint = ImportCheckpoint.load(file).orElseThrow();
+        assertEquals(2, checkpoint.getLine());
+        assertEquals(1, checkpoint.getInserted());
+        assertEquals(1, checkpoint.getRejected());
+
+        // Act: run again with a working database
+        doNothing().when(transaction).commit();
+        inserted.clear();
+        UserImportReportDto resumed = importService.importFile(file);
+
+        // Assert
+        assertEquals(Status.COMPLETED, resumed.getStatus());
+        assertEquals(2, resumed.getResumedFromLine());
+        assertEquals(4, resumed.getInserted());
+        assertEquals(1, resumed.getRejected());
+        assertEquals(List.of("user2@example.com", "user3@example.com", "user4@example.com"),
+                inserted.stream().filter(User.class::isInstance).map(u -> ((User) u).getEmail()).toList());
+        assertEquals(1, Files.readAllLines(RejectedRowReport.pathFor(file)).size());
+    }
+
+    @Test
+    void importFile_WithChangedFileSinceCheckpoint_ShouldFail() throws IOException {
+        // Arrange
+        Path file = write("users.ndjson", user("uno@example.com"));
+        ImportCheckpoint.builder().fileSize(1).fileModified(1).line(1).build().save(file);
+
+        // Act
+        UserImportReportDto report = importService.importFile(file);
+
+        // Assert
+        assertEquals(Status.FAILED, report.getStatus());
+        assertTrue(report.getError().startsWith("el archivo cambio"));
+        verifyNoInteractions(sessionFactory);
+    }
+
+    @Test
+    void importFile_WithCsv_ShouldParsePhonesAndActiveFlag() throws IOException {
+        // Arrange
+        Path file = write("users.csv",
+                "name,email,password,isactive,phones",
+                "\"Ana, P\",ana@example.com," + HASH + ",false,111:1:57;222:2:57");
+
+        // Act
+        UserImportReportDto report = importService.importFile(file);
+
+        // Assert
+        assertEquals(1, report.getInserted());
+        User user = (User) inserted.get(0);
+        assertEquals("Ana, P", user.getName());
+        assertFalse(user.getIsActive());
+        assertEquals("222", ((Phone) inserted.get(2)).getNumber());
+    }
+
+    @Test
+    void startImport_WithPathOutsideImportDirectory_ShouldThrowBusinessException() {
+        assertThrows(BusinessException.class, () -> importService.startImport("../secret.ndjson"));
+        assertThrows(BusinessException.class, () -> importService.startImport("missing.ndjson"));
+    }
+
+    private Path write(String name, String... lines) throws IOException {
+        return Files.write(directory.resolve(name), List.of(lines));
+    }
+
+    private static String user(String email) {
+        return "{\"id\":\"ignored\",\"name\":\"Usuario\",\"email\":\"" + email + "\",\"password\":\"" + HASH + "\","
+                + "\"phones\":[{\"number\":\"1234567\",\"citycode\":\"1\",\"contrycode\":\"57\"}]}";
+    }
+}
@@ -0,0 +1,125 @@
+package com.nisum.app.application.service.impl;
+
+import com.nisum.app.application.service.pagination.UserCursor;
+import com.nisum.app.domain.model.Phone;
+import com.nisum.app.domain.model.User;
+import com.nisum.app.domain.repository.UserRepository;
+import com.nisum.app.infrastructure.dto.user.UserPageResponseDto;
+import com.nisum.app.infrastructure.exception.BusinessException;
+import com.nisum.app.infrastructure.persistence.LastLoginWriteBehindBuffer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserQueryServiceImplTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private LastLoginWriteBehindBuffer lastLoginBuffer;
+
+    private UserQueryServiceImpl queryService;
+
+    @BeforeEach
+    void setUp() {
+        queryService = new UserQueryServiceImpl(userRepository, lastLoginBuffer, 2, 5);
+    }
+
+    @Test
+    void listUsers_FirstPageWithMoreRows_ShouldReturnCursorOfLastUser() {
+        // Arrange
+        List<User> users = users(3);
+        when(userRepository.findFirstPage(Limit.of(3))).thenReturn(users);
+
+        // Act
+        UserPageResponseDto page = queryService.listUsers(null, null, false);
+
+        // Assert
+        assertEquals(2, page.getSize());
+        assertEquals(users.get(1).getId(), page.getUsers().get(1).getId());
+        assertNull(page.getUsers().get(0).getPhones());
+        UserCursor cursor = UserCursor.decode(page.getNextCursor());
+        assertEquals(users.get(1).getCreated(), cursor.getCreated());
+        assertEquals(users.get(1).getId(), cursor.getId());
+    }
+
+    @Test
+    void listUsers_WithCursor_ShouldQueryAfterItAndEndOnLastPage() {
+        // Arrange
+        User last = users(1).get(0);
+        String cursor = UserCursor.after(last).encode();
+        when(userRepository.findPageAfter(last.getCreated(), last.getId(), Limit.of(6))).thenReturn(users(1));
+
+        // Act
+        UserPageResponseDto page = queryService.listUsers(cursor, 5, true);
+
+        // Assert
+        assertEquals(1, page.getSize());
+        assertNull(page.getNextCursor());
+        assertEquals("1234567", page.getUsers().get(0).getPhones().get(0).getNumber());
+        verify(userRepository, never()).findFirstPage(any());
+    }
+
+    @Test
+    void listUsers_WithPendingLastLogin_ShouldReturnNewerValue() {
+        // Arrange
+        User user = users(1).get(0);
+        LocalDateTime pending = BASE.plusDays(1);
+        when(userRepository.findFirstPage(any())).thenReturn(List.of(user));
+        when(lastLoginBuffer.pendingLastLogin(user.getId())).thenReturn(pending);
+
+        // Act
+        UserPageResponseDto page = queryService.listUsers(null, 1, false);
+
+        // Assert
+        assertEquals(pending, page.getUsers().get(0).getLastLogin());
+    }
+
+    @Test
+    void listUsers_WithSizeOutOfRange_ShouldThrowBusinessException() {
+        assertThrows(BusinessException.class, () -> queryService.listUsers(null, 0, false));
+        assertThrows(BusinessException.class, () -> queryService.listUsers(null, 6, false));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void listUsers_WithMalformedCursor_ShouldThrowBusinessException() {
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> queryService.listUsers("not-a-cursor", null, false));
+
+        assertEquals("cursor invalido", exception.getMessage());
+    }
+
+    private static List<User> users(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> {
+                    User user = User.builder()
+                            .id(UUID.randomUUID())
+                            .name("Usuario " + i)
+                            .email("usuario" + i + "@example.com")
+                            .password("encoded")
+                            .created(BASE.plusSeconds(i))
+                            .lastLogin(BASE)
+                            .build();
+                    user.setPhones(List.of(Phone.builder().number("1234567").citycode("1").contrycode("57").user(user).build()));
+                    return user;
+                })
+                .toList();
+    }
+}
@@ -0,0 +1,81 @@
+package com.nisum.app.application.service.impl;
+
+import com.nisum.app.application.service.ITokenRevocationService;
+import com.nisum.app.domain.model.User;
+import com.nisum.app.domain.repository.UserRepository;
+import com.nisum.app.infrastructure.exception.BusinessException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserRoleServiceImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ITokenRevocationService tokenRevocationService;
+
+    @InjectMocks
+    private UserRoleServiceImpl userRoleService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = User.builder()
+                .id(UUID.randomUUID())
+                .email("juan@rodriguez.org")
+                .build();
+    }
+
+    @Test
+    void setAdmin_ShouldStoreTheRoleAndRevokeTheUsersTokens() {
+        // Arrange
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+
+        // Act
+        userRoleService.setAdmin(user.getId(), true);
+
+        // Assert
+        assertTrue(user.getIsAdmin());
+        verify(userRepository).save(user);
+        verify(tokenRevocationService).revokeAllTokens(user.getId());
+    }
+
+    @Test
+    void setAdmin_WhenTheRoleIsUnchanged_ShouldKeepTheUsersTokens() {
+        // Arrange
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+
+        // Act
+        userRoleService.setAdmin(user.getId(), false);
+
+        // Assert
+        assertFalse(user.getIsAdmin());
+        verify(userRepository, never()).save(any());
+        verifyNoInteractions(tokenRevocationService);
+    }
+
+    @Test
+    void setAdmin_WithUnknownUser_ShouldThrowBusinessException() {
+        // Arrange
+        UUID unknown = UUID.randomUUID();
+        when(userRepository.findById(unknown)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(BusinessException.class, () -> userRoleService.setAdmin(unknown, true));
+        verifyNoInteractions(tokenRevocationService);
+    }
+}
@@ -1,23 +1,39 @@
 package com.nisum.app.application.service.impl;
 
 import com.nisum.app.application.service.IJwtService;
+import com.nisum.app.application.service.IRefreshTokenService;
 import com.nisum.app.domain.factory.UserFactory;
+import com.nisum.app.domain.model.Phone;
 import com.nisum.app.domain.model.User;
+import com.nisum.app.domain.model.UserProfileVersion;
 import com.nisum.app.domain.repository.UserRepository;
 import com.nisum.app.domain.specification.EmailValidationSpecification;
 import com.nisum.app.domain.specification.PasswordValidationSpecification;
 import com.nisum.app.infrastructure.dto.login.LoginRequestDto;
 import com.nisum.app.infrastructure.dto.phone.PhoneDto;
+import com.nisum.app.infrastructure.dto.user.UserInfoResponseDto;
 import com.nisum.app.infrastructure.dto.user.UserRegistrationRequestDto;
 import com.nisum.app.infrastructure.dto.user.UserResponseDto;
 import com.nisum.app.infrastructure.exception.BusinessException;
+import com.nisum.app.infrastructure.index.RegisteredEmailIndex;
+import com.nisum.app.infrastructure.metrics.UserOperationMetrics;
+import com.nisum.app.infrastructure.persistence.LastLoginWriteBehindBuffer;
+import com.nisum.app.infrastructure.security.AuthorityResolver;
+import com.nisum.app.infrastructure.security.UserPrincipalCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -40,6 +56,9 @@ class UserServiceImplTest {
     @Mock
     private IJwtService jwtService;
 
+    @Mock
+    private IRefreshTokenService refreshTokenService;
+
     @Mock
     private EmailValidationSpecification emailValidationSpec;
 
@@ -47,7 +66,24 @@ class UserServiceImplTest {
     private PasswordValidationSpecification passwordValidationSpec;
 
     @Mock
-    private BCryptPasswordEncoder passwordEncoder;
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private UserPrincipalCache principalCache;
+
+    @Mock
+    private AuthorityResolver authorityResolver;
+
+    @Mock
+    private LastLoginWriteBehindBuffer lastLoginBuffer;
+
+    @Mock
+    private RegisteredEmailIndex emailIndex;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private UserOperationMetrics metrics = new UserOperationMetrics(meterRegistry);
 
     @InjectMocks
     private UserServiceImpl userService;
@@ -79,6 +115,9 @@ class UserServiceImplTest {
                 .modified(LocalDateTime.now())
                 .lastLogin(LocalDateTime.now())
                 .build();
+
+        lenient().when(emailIndex.mightContain(anyString())).thenReturn(true);
+        lenient().when(emailIndex.mightContainCurrent(anyString())).thenReturn(true);
     }
 
     @Test
@@ -87,9 +126,10 @@ class UserServiceImplTest {
         when(emailValidationSpec.isSatisfiedBy(anyString())).thenReturn(true);
         when(passwordValidationSpec.isSatisfiedBy(anyString())).thenReturn(true);
         when(userRepository.existsByEmail(anyString())).thenReturn(false);
-        when(jwtService.generateToken(anyString())).thenReturn("mock-jwt-token");
-        when(userFactory.createUser(any(UserRegistrationRequestDto.class), anyString())).thenReturn(mockUser);
-        when(userRepository.save(any(User.class))).thenReturn(mockUser);
+        when(authorityResolver.resolve(any(User.class))).thenReturn(List.of("ROLE_USER"));
+        when(jwtService.generateToken(any(User.class), anyCollection())).thenReturn("mock-jwt-token");
+        when(userFactory.createUser(any(UserRegistrationRequestDto.class))).thenReturn(mockUser);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(mockUser);
 
         // Act
         UserResponseDto result = userService.registerUser(validRegistrationRequest);
@@ -101,8 +141,17 @@ class UserServiceImplTest {
         assertEquals(mockUser.getIsActive(), result.getIsActive());
 
         verify(userRepository).existsByEmail("juan@rodriguez.org");
-        verify(userRepository).save(any(User.class));
-        verify(jwtService).generateToken("juan@rodriguez.org");
+        verify(userRepository).saveAndFlush(any(User.class));
+        verify(jwtService).generateToken(mockUser, List.of("ROLE_USER"));
+        assertEquals(1, operationCount("register", "success"));
+        for (String stage : List.of("validate", "hash_password", "token", "save")) {
+            assertEquals(1, meterRegistry.get("users.operation.stage")
+                    .tags("operation", "register", "stage", stage).timer().count(), stage);
+        }
+        for (String rule : List.of("email.format", "password.format", "email.available")) {
+            assertEquals(1, meterRegistry.get("users.validation.rule")
+                    .tags("rules", "registration", "rule", rule).functionTimer().count(), rule);
+        }
     }
 
     @Test
@@ -118,7 +167,8 @@ class UserServiceImplTest {
 
         assertEquals("este correo ya existe", exception.getMessage());
         verify(userRepository).existsByEmail("juan@rodriguez.org");
-        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository, never()).saveAndFlush(any(User.class));
+        assertEquals(1, operationCount("register", "duplicate_email"));
     }
 
     @Test
@@ -126,13 +176,15 @@ class UserServiceImplTest {
         // Arrange
         when(emailValidationSpec.isSatisfiedBy(anyString())).thenReturn(false);
         when(emailValidationSpec.getErrorMessage()).thenReturn("Email format is invalid");
+        when(passwordValidationSpec.isSatisfiedBy(anyString())).thenReturn(true);
 
         // Act & Assert
         BusinessException exception = assertThrows(BusinessException.class,
                 () -> userService.registerUser(validRegistrationRequest));
 
         assertEquals("Email format is invalid", exception.getMessage());
-        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository, never()).saveAndFlush(any(User.class));
+        assertEquals(1, operationCount("register", "invalid_request"));
     }
 
     @Test
@@ -147,7 +199,24 @@ class UserServiceImplTest {
                 () -> userService.registerUser(validRegistrationRequest));
 
         assertEquals("Password format is invalid", exception.getMessage());
-        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository, never()).saveAndFlush(any(User.class));
+    }
+
+    @Test
+    void registerUser_WithInvalidEmailAndPassword_ShouldReportBothWithoutQueryingTheDatabase() {
+        // Arrange
+        when(emailValidationSpec.isSatisfiedBy(anyString())).thenReturn(false);
+        when(emailValidationSpec.getErrorMessage()).thenReturn("Email format is invalid");
+        when(passwordValidationSpec.isSatisfiedBy(anyString())).thenReturn(false);
+        when(passwordValidationSpec.getErrorMessage()).thenReturn("Password format is invalid");
+
+        // Act & Assert
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> userService.registerUser(validRegistrationRequest));
+
+        assertEquals("Email format is invalid; Password format is invalid", exception.getMessage());
+        verify(userRepository, never()).existsByEmail(anyString());
+        assertEquals(1, operationCount("register", "invalid_request"));
     }
 
     @Test
@@ -156,8 +225,10 @@ class UserServiceImplTest {
         when(emailValidationSpec.isSatisfiedBy(anyString())).thenReturn(true);
         when(userRepository.findByEmail(anyString())).thenReturn(Optional.of(mockUser));
         when(passwordEncoder.matches(anyString(), anyString())).thenReturn(true);
-        when(jwtService.generateToken(anyString())).thenReturn("new-jwt-token");
+        when(authorityResolver.resolve(any(User.class))).thenReturn(List.of("ROLE_USER"));
+        when(jwtService.generateToken(any(User.class), anyCollection())).thenReturn("new-jwt-token");
         when(userRepository.save(any(User.class))).thenReturn(mockUser);
+        when(refreshTokenService.issue(mockUser)).thenReturn("refresh-token");
 
         // Act
         UserResponseDto result = userService.loginUser(validLoginRequest);
@@ -165,11 +236,85 @@ class UserServiceImplTest {
         // Assert
         assertNotNull(result);
         assertEquals(mockUser.getId(), result.getId());
+        assertEquals("refresh-token", result.getRefreshToken());
 
         verify(userRepository).findByEmail("juan@rodriguez.org");
         verify(userRepository).save(any(User.class));
-        verify(jwtService).generateToken("juan@rodriguez.org");
+        verify(jwtService).generateToken(mockUser, List.of("ROLE_USER"));
         verify(passwordEncoder).matches("Password123", "encodedPassword");
+        verify(principalCache).invalidate("juan@rodriguez.org");
+    }
+
+    @Test
+    void loginUser_WhenAnotherInstanceRegisteredTheUser_ShouldReadItPastTheIndex() {
+        // Arrange: this instance's index is built, then the user is inserted behind its back
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        try {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+            jdbcTemplate.execute("create table users (email varchar(255), created timestamp)");
+            RegisteredEmailIndex realIndex = new RegisteredEmailIndex(jdbcTemplate, true, 1_000, 0.01, 100, meterRegistry);
+            realIndex.rebuild();
+            jdbcTemplate.update("insert into users (email, created) values (?, ?)", "juan@rodriguez.org", LocalDateTime.now());
+            UserServiceImpl service = new UserServiceImpl(userRepository, userFactory, jwtService, refreshTokenService,
+                    emailValidationSpec, passwordValidationSpec, passwordEncoder, principalCache, authorityResolver,
+                    lastLoginBuffer, realIndex, metrics);
+            when(emailValidationSpec.isSatisfiedBy(anyString())).thenReturn(true);
+            when(userRepository.findByEmail("juan@rodriguez.org")).thenReturn(Optional.of(mockUser));
+            when(passwordEncoder.matches("Password123", "encodedPassword")).thenReturn(true);
+            when(authorityResolver.resolve(any(User.class))).thenReturn(List.of("ROLE_USER"));
+            when(jwtService.generateToken(any(User.class), anyCollection())).thenReturn("new-jwt-token");
+            when(userRepository.save(any(User.class))).thenReturn(mockUser);
+
+            // Act
+            UserResponseDto result = service.loginUser(validLoginRequest);
+
+            // Assert
+            assertEquals(mockUser.getId(), result.getId());
+            assertFalse(realIndex.mightContain("maria@rodriguez.org"));
+        } finally {
+            database.shutdown();
+        }
+    }
+
+    @Test
+    void loginUser_WithReusableToken_ShouldNotGenerateNewToken() {
+        // Arrange
+        when(emailValidationSpec.isSatisfiedBy(anyString())).thenReturn(true);
+        when(userRepository.findByEmail(anyString())).thenReturn(Optional.of(mockUser));
+        when(passwordEncoder.matches(anyString(), anyString())).thenReturn(true);
+        when(jwtService.validateToken("mock-jwt-token", mockUser)).thenReturn(true);
+        when(refreshTokenService.issue(mockUser)).thenReturn("refresh-token");
+
+        // Act
+        UserResponseDto result = userService.loginUser(validLoginRequest);
+
+        // Assert
+        assertEquals("mock-jwt-token", result.getToken());
+        assertEquals("refresh-token", result.getRefreshToken());
+        verify(jwtService, never()).generateToken(any(User.class), anyCollection());
+        verify(userRepository, never()).save(any(User.class));
+        verify(lastLoginBuffer).record(mockUser.getId(), result.getLastLogin());
+        verify(passwordEncoder, never()).encode(anyString());
+    }
+
+    @Test
+    void loginUser_WithOutdatedPasswordHash_ShouldRehashPassword() {
+        // Arrange
+        String outdatedHash = mockUser.getPassword();
+        when(emailValidationSpec.isSatisfiedBy(anyString())).thenReturn(true);
+        when(userRepository.findByEmail(anyString())).thenReturn(Optional.of(mockUser));
+        when(passwordEncoder.matches("Password123", outdatedHash)).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding(outdatedHash)).thenReturn(true);
+        when(passwordEncoder.encode("Password123")).thenReturn("{bcrypt}rehashed");
+        when(jwtService.validateToken("mock-jwt-token", mockUser)).thenReturn(true);
+
+        // Act
+        userService.loginUser(validLoginRequest);
+
+        // Assert
+        assertEquals("{bcrypt}rehashed", mockUser.getPassword());
+        assertEquals(1, meterRegistry.get("users.operation.stage")
+                .tags("operation", "login", "stage", "rehash_password").timer().count());
     }
 
     @Test
@@ -197,6 +342,57 @@ class UserServiceImplTest {
 
         assertEquals("Credenciales inválidas", exception.getMessage());
         verify(userRepository).findByEmail("juan@rodriguez.org");
+        verify(emailIndex).recordFalsePositive();
+    }
+
+    @Test
+    void loginUser_WithEmailUnknownToIndex_ShouldRejectWithoutQuery() {
+        // Arrange
+        when(emailValidationSpec.isSatisfiedBy(anyString())).thenReturn(true);
+        when(emailIndex.mightContainCurrent("juan@rodriguez.org")).thenReturn(false);
+
+        // Act & Assert
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> userService.loginUser(validLoginRequest));
+
+        assertEquals("Credenciales inválidas", exception.getMessage());
+        verify(userRepository, never()).findByEmail(anyString());
+        verify(passwordEncoder, never()).matches(anyString(), anyString());
+    }
+
+    @Test
+    void registerUser_WithEmailUnknownToIndex_ShouldSkipExistsQueryAndIndexUser() {
+        // Arrange
+        when(emailValidationSpec.isSatisfiedBy(anyString())).thenReturn(true);
+        when(passwordValidationSpec.isSatisfiedBy(anyString())).thenReturn(true);
+        when(emailIndex.mightContain("juan@rodriguez.org")).thenReturn(false);
+        when(userFactory.createUser(any(UserRegistrationRequestDto.class))).thenReturn(mockUser);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(mockUser);
+
+        // Act
+        userService.registerUser(validRegistrationRequest);
+
+        // Assert
+        verify(userRepository, never()).existsByEmail(anyString());
+        verify(emailIndex).add("juan@rodriguez.org");
+    }
+
+    @Test
+    void registerUser_WhenConcurrentRegistrationWins_ShouldThrowBusinessException() {
+        // Arrange
+        when(emailValidationSpec.isSatisfiedBy(anyString())).thenReturn(true);
+        when(passwordValidationSpec.isSatisfiedBy(anyString())).thenReturn(true);
+        when(userRepository.existsByEmail(anyString())).thenReturn(false);
+        when(userFactory.createUser(any(UserRegistrationRequestDto.class))).thenReturn(mockUser);
+        when(userRepository.saveAndFlush(any(User.class)))
+                .thenThrow(new DataIntegrityViolationException("unique constraint"));
+
+        // Act & Assert
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> userService.registerUser(validRegistrationRequest));
+
+        assertEquals("este correo ya existe", exception.getMessage());
+        verify(emailIndex, never()).add(anyString());
     }
 
     @Test
@@ -213,5 +409,67 @@ class UserServiceImplTest {
         assertEquals("Credenciales inválidas", exception.getMessage());
         verify(userRepository).findByEmail("juan@rodriguez.org");
         verify(userRepository, never()).save(any(User.class));
+        assertEquals(1, operationCount("login", "bad_credentials"));
+        assertEquals(1, meterRegistry.get("users.operation.stage")
+                .tags("operation", "login", "stage", "verify_password").timer().count());
+    }
+
+    @Test
+    void getUserProfile_WithIncludePhones_ShouldUseEntityGraphQueryAndMapPhones() {
+        // Arrange
+        mockUser.setPhones(List.of(Phone.builder().number("1234567").citycode("1").contrycode("57").user(mockUser).build()));
+        when(userRepository.findWithPhonesByEmail("juan@rodriguez.org")).thenReturn(Optional.of(mockUser));
+
+        // Act
+        UserInfoResponseDto result = userService.getUserProfile("Juan@Rodriguez.org", true);
+
+        // Assert
+        assertEquals(1, result.getPhones().size());
+        assertEquals("57", result.getPhones().get(0).getContrycode());
+        verify(userRepository, never()).findByEmail(anyString());
+    }
+
+    @Test
+    void getUserProfile_WithoutPhones_ShouldNotLoadThem() {
+        // Arrange
+        when(userRepository.findByEmail("juan@rodriguez.org")).thenReturn(Optional.of(mockUser));
+
+        // Act
+        UserInfoResponseDto result = userService.getUserProfile("juan@rodriguez.org", false);
+
+        // Assert
+        assertNull(result.getPhones());
+        verify(userRepository, never()).findWithPhonesByEmail(anyString());
+    }
+
+    @Test
+    void getUserProfileVersion_WithBufferedLogin_ShouldReportThePendingLastLogin() {
+        // Arrange
+        LocalDateTime stored = LocalDateTime.of(2025, 8, 1, 10, 0);
+        LocalDateTime pending = stored.plusMinutes(30);
+        UUID id = mockUser.getId();
+        when(userRepository.findProfileVersionByEmail("juan@rodriguez.org"))
+                .thenReturn(Optional.of(new UserProfileVersion(id, stored, null, stored)));
+        when(lastLoginBuffer.pendingLastLogin(id)).thenReturn(pending);
+
+        // Act
+        UserProfileVersion version = userService.getUserProfileVersion("Juan@Rodriguez.org");
+
+        // Assert
+        assertEquals(pending, version.getLastLogin());
+        verify(userRepository, never()).findByEmail(anyString());
+    }
+
+    @Test
+    void getUserProfileVersion_WhenUserMissing_ShouldThrowBusinessException() {
+        // Arrange
+        when(userRepository.findProfileVersionByEmail("nobody@rodriguez.org")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(BusinessException.class, () -> userService.getUserProfileVersion("nobody@rodriguez.org"));
+    }
+
+    private long operationCount(String operation, String outcome) {
+        return meterRegistry.get("users.operation").tags("operation", operation, "outcome", outcome).timer().count();
     }
 }
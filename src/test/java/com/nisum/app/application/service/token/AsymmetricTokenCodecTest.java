@@ -0,0 +1,134 @@
+package com.nisum.app.application.service.token;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureException;
+import io.jsonwebtoken.UnsupportedJwtException;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsymmetricTokenCodecTest {
+
+    private static final long NOW = System.currentTimeMillis() / 1000 * 1000;
+    private static final long HOUR = 3_600_000L;
+
+    private static final KeyPair P256 = generate("EC", "secp256r1");
+    private static final KeyPair ED25519 = generate("Ed25519", null);
+
+    @Test
+    void sign_WithP256Key_ShouldProduceES256TokenThatJjwtVerifies() {
+        // Arrange
+        AsymmetricTokenCodec codec = new AsymmetricTokenCodec("es-1", P256.getPrivate(), P256.getPublic());
+        UUID userId = UUID.randomUUID();
+
+        // Act
+        String token = codec.sign("juan@rodriguez.org", "t0k3n-1d", userId, 7L, List.of("ROLE_USER"), NOW, NOW + HOUR);
+        Claims claims = Jwts.parser().setSigningKey(P256.getPublic()).parseClaimsJws(token).getBody();
+
+        // Assert
+        assertEquals("ES256", codec.algorithm());
+        assertEquals("juan@rodriguez.org", claims.getSubject());
+        assertEquals(userId.toString(), claims.get("uid"));
+        assertEquals(userId, codec.verify(token, NOW).getUserId());
+    }
+
+    @Test
+    void verify_WithEd25519Key_ShouldNeedOnlyThePublicKey() {
+        // Arrange
+        AsymmetricTokenCodec signer = new AsymmetricTokenCodec("ed-1", ED25519.getPrivate(), ED25519.getPublic());
+        AsymmetricTokenCodec verifier = new AsymmetricTokenCodec("ed-1", null, ED25519.getPublic());
+        String token = signer.sign("juan@rodriguez.org", null, null, 2L, List.of("ROLE_USER"), NOW, NOW + HOUR);
+
+        // Act
+        ParsedToken parsed = verifier.verify(token, NOW);
+
+        // Assert
+        assertEquals("EdDSA", verifier.algorithm());
+        assertEquals("juan@rodriguez.org", parsed.getSubject());
+        assertEquals(2L, parsed.getTokenVersion());
+        assertFalse(verifier.canSign());
+        assertThrows(IllegalStateException.class,
+                () -> verifier.sign("juan@rodriguez.org", null, null, null, List.of(), NOW, NOW + HOUR));
+    }
+
+    @Test
+    void verify_WithTamperedTokenOrAnotherAlgorithm_ShouldThrow() throws Exception {
+        // Arrange
+        AsymmetricTokenCodec codec = new AsymmetricTokenCodec("es-1", P256.getPrivate(), P256.getPublic());
+        String token = codec.sign("juan@rodriguez.org", null, null, null, List.of(), NOW, NOW + HOUR);
+        String[] parts = token.split("\\.");
+        String forged = codec.sign("admin@rodriguez.org", null, null, null, List.of(), NOW, NOW + HOUR).split("\\.")[1];
+        // The public key used as an HMAC secret, the classic algorithm confusion
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String hmacInput = encoder.encodeToString("{\"alg\":\"HS256\",\"kid\":\"es-1\"}".getBytes(StandardCharsets.UTF_8))
+                + "." + parts[1];
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(P256.getPublic().getEncoded(), "HmacSHA256"));
+        String confused = hmacInput + "." + encoder.encodeToString(mac.doFinal(hmacInput.getBytes(StandardCharsets.US_ASCII)));
+
+        // Act & Assert
+        assertThrows(SignatureException.class, () -> codec.verify(parts[0] + "." + forged + "." + parts[2], NOW));
+        assertThrows(SignatureException.class, () -> codec.verify(confused, NOW));
+        assertThrows(SignatureException.class, () -> codec.verify(token + "x", NOW));
+        // A genuine ES256 signature under a header that declares another algorithm
+        assertThrows(UnsupportedJwtException.class, () -> new AsymmetricTokenCodec("es-1", null, P256.getPublic())
+                .verify(signedWithHeader(codec, "{\"alg\":\"none\",\"kid\":\"es-1\"}"), NOW));
+    }
+
+    @Test
+    void jwk_ShouldPublishThePublicKeyOnly() {
+        // Arrange
+        AsymmetricTokenCodec es256 = new AsymmetricTokenCodec("es-1", P256.getPrivate(), P256.getPublic());
+        AsymmetricTokenCodec eddsa = new AsymmetricTokenCodec("ed-1", ED25519.getPrivate(), ED25519.getPublic());
+
+        // Assert
+        assertEquals("EC", es256.jwk().get("kty"));
+        assertEquals("P-256", es256.jwk().get("crv"));
+        assertEquals(43, ((String) es256.jwk().get("x")).length());
+        assertEquals(43, ((String) es256.jwk().get("y")).length());
+        assertEquals("es-1", es256.jwk().get("kid"));
+        assertEquals("ES256", es256.jwk().get("alg"));
+        assertEquals("OKP", eddsa.jwk().get("kty"));
+        assertEquals("Ed25519", eddsa.jwk().get("crv"));
+        assertEquals(43, ((String) eddsa.jwk().get("x")).length());
+        assertFalse(es256.jwk().containsKey("d"));
+        assertThrows(IllegalArgumentException.class, () -> {
+            KeyPair p384 = generate("EC", "secp384r1");
+            new AsymmetricTokenCodec("es-384", p384.getPrivate(), p384.getPublic());
+        });
+    }
+
+    // Signs the token's payload again under another header, with the codec's own key
+    private static String signedWithHeader(AsymmetricTokenCodec codec, String header) throws Exception {
+        String payload = codec.sign("juan@rodriguez.org", null, null, null, List.of(), NOW, NOW + HOUR).split("\\.")[1];
+        String signingInput = Base64.getUrlEncoder().withoutPadding().encodeToString(header.getBytes(StandardCharsets.UTF_8))
+                + "." + payload;
+        java.security.Signature signature = java.security.Signature.getInstance("SHA256withECDSAinP1363Format");
+        signature.initSign(P256.getPrivate());
+        signature.update(signingInput.getBytes(StandardCharsets.US_ASCII));
+        return signingInput + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(signature.sign());
+    }
+
+    private static KeyPair generate(String algorithm, String curve) {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance(algorithm);
+            if (curve != null) {
+                generator.initialize(new ECGenParameterSpec(curve));
+            }
+            return generator.generateKeyPair();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
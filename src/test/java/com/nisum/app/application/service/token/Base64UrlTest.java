@@ -0,0 +1,44 @@
+package com.nisum.app.application.service.token;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Base64UrlTest {
+
+    @Test
+    void encodeAndDecode_ShouldMatchJdkUnpaddedUrlCodec() {
+        Random random = new Random(42);
+        for (int length = 0; length < 100; length++) {
+            // Arrange
+            byte[] bytes = new byte[length];
+            random.nextBytes(bytes);
+            String expected = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+            // Act
+            byte[] encoded = new byte[Base64Url.encodedLength(length) + 2];
+            int end = Base64Url.encode(bytes, 0, length, encoded, 1);
+            String framed = "." + expected + ".";
+            byte[] decoded = new byte[Base64Url.decodedLength(expected.length())];
+            int decodedLength = Base64Url.decode(framed, 1, framed.length() - 1, decoded);
+
+            // Assert
+            assertEquals(expected, new String(encoded, 1, end - 1));
+            assertArrayEquals(bytes, Arrays.copyOf(decoded, decodedLength));
+        }
+    }
+
+    @Test
+    void decode_WithInvalidCharsOrLength_ShouldReturnMinusOne() {
+        byte[] dst = new byte[16];
+
+        assertEquals(-1, Base64Url.decode("ab+d", 0, 4, dst));
+        assertEquals(-1, Base64Url.decode("ab=d", 0, 4, dst));
+        assertEquals(-1, Base64Url.decode("abcñ", 0, 4, dst));
+        assertEquals(-1, Base64Url.decode("abcde", 0, 5, dst));
+    }
+}
@@ -0,0 +1,168 @@
+package com.nisum.app.application.service.token;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.PrematureJwtException;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SignatureException;
+import io.jsonwebtoken.UnsupportedJwtException;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Hs256TokenCodecTest {
+
+    private static final byte[] KEY = "myTestSecretKey123456789myTestKey".getBytes(StandardCharsets.US_ASCII);
+    // Whole seconds, like the iat and exp claims; current so that jjwt's own expiry check passes
+    private static final long NOW = System.currentTimeMillis() / 1000 * 1000;
+    private static final long HOUR = 3_600_000L;
+
+    private final Hs256TokenCodec codec = new Hs256TokenCodec(KEY);
+
+    @Test
+    void sign_ShouldProduceTokenThatJjwtVerifies() {
+        // Arrange
+        UUID userId = UUID.randomUUID();
+
+        // Act
+        String token = codec.sign("juan@rodriguez.org", "t0k3n-1d", userId, 7L, List.of("ROLE_USER", "ROLE_ADMIN"), NOW, NOW + HOUR);
+        Claims claims = Jwts.parser().setSigningKey(KEY).parseClaimsJws(token).getBody();
+
+        // Assert
+        assertTrue(token.startsWith("eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9."));
+        assertEquals("juan@rodriguez.org", claims.getSubject());
+        assertEquals("t0k3n-1d", claims.getId());
+        assertEquals(userId.toString(), claims.get("uid"));
+        assertEquals(7, claims.get("ver"));
+        assertEquals(List.of("ROLE_USER", "ROLE_ADMIN"), claims.get("roles"));
+        assertEquals(new Date(NOW), claims.getIssuedAt());
+        assertEquals(new Date(NOW + HOUR), claims.getExpiration());
+        assertNull(claims.get("email"));
+    }
+
+    @Test
+    void verify_ShouldReadClaimsOfItsOwnTokens() {
+        // Arrange
+        UUID userId = UUID.randomUUID();
+        String tokenId = TokenCodec.newTokenId();
+        String token = codec.sign("juan@rodriguez.org", tokenId, userId, 3L, List.of("ROLE_USER"), NOW, NOW + HOUR);
+
+        // Act
+        ParsedToken parsed = codec.verify(token, NOW);
+
+        // Assert
+        assertEquals("juan@rodriguez.org", parsed.getSubject());
+        assertEquals(22, tokenId.length());
+        assertEquals(tokenId, parsed.getTokenId());
+        assertEquals(userId, parsed.getUserId());
+        assertEquals(3L, parsed.getTokenVersion());
+        assertEquals(List.of("ROLE_USER"), parsed.getAuthorities());
+        assertEquals(Instant.ofEpochMilli(NOW), parsed.getIssuedAt());
+        assertEquals(Instant.ofEpochMilli(NOW + HOUR), parsed.getExpiresAt());
+    }
+
+    @Test
+    void verify_ShouldAcceptTokensIssuedByJjwt() {
+        // Arrange: the shape of tokens issued before this codec
+        String token = Jwts.builder()
+                .setClaims(new HashMap<>(Map.of("email", "juan@rodriguez.org",
+                        "uid", "5f0c3e0e-8a5b-4a8e-9d43-1b2c3d4e5f60", "ver", 2, "roles", List.of("ROLE_USER"))))
+                .setSubject("juan@rodriguez.org")
+                .setIssuedAt(new Date(NOW))
+                .setExpiration(new Date(NOW + HOUR))
+                .signWith(SignatureAlgorithm.HS256, KEY)
+                .compact();
+
+        // Act
+        ParsedToken parsed = codec.verify(token, NOW);
+
+        // Assert
+        assertEquals("juan@rodriguez.org", parsed.getSubject());
+        assertEquals(UUID.fromString("5f0c3e0e-8a5b-4a8e-9d43-1b2c3d4e5f60"), parsed.getUserId());
+        assertEquals(2L, parsed.getTokenVersion());
+        assertEquals(List.of("ROLE_USER"), parsed.getAuthorities());
+    }
+
+    @Test
+    void sign_ShouldEscapeStringsAndEncodeUtf8() {
+        // Arrange
+        String subject = "\"josé\"\\\n😀@example.org";
+
+        // Act
+        String token = codec.sign(subject, null, null, null, List.of(), NOW, NOW + HOUR);
+
+        // Assert
+        assertEquals(subject, codec.verify(token, NOW).getSubject());
+        assertEquals(subject, Jwts.parser().setSigningKey(KEY).parseClaimsJws(token).getBody().getSubject());
+    }
+
+    @Test
+    void verify_WithTamperedPayloadOrOtherKey_ShouldThrowSignatureException() {
+        // Arrange
+        String token = codec.sign("juan@rodriguez.org", null, null, null, List.of(), NOW, NOW + HOUR);
+        String[] parts = token.split("\\.");
+        String forged = codec.sign("admin@rodriguez.org", null, null, null, List.of(), NOW, NOW + HOUR).split("\\.")[1];
+        Hs256TokenCodec otherKey = new Hs256TokenCodec("anotherSecretKey123456789anotherKey".getBytes(StandardCharsets.US_ASCII));
+
+        // Act & Assert
+        assertThrows(SignatureException.class, () -> codec.verify(parts[0] + "." + forged + "." + parts[2], NOW));
+        assertThrows(SignatureException.class, () -> otherKey.verify(token, NOW));
+        assertThrows(SignatureException.class, () -> codec.verify(token + "x", NOW));
+    }
+
+    @Test
+    void verify_WithMalformedToken_ShouldThrowMalformedJwtException() {
+        assertThrows(MalformedJwtException.class, () -> codec.verify("not-a-jwt", NOW));
+        assertThrows(MalformedJwtException.class, () -> codec.verify("a.b.c.d", NOW));
+        assertThrows(MalformedJwtException.class, () -> codec.verify(signed("{\"alg\":\"HS256\"}", "not json"), NOW));
+    }
+
+    @Test
+    void verify_WithOtherAlgorithmInHeader_ShouldThrowUnsupportedJwtException() {
+        // Signed with the right key, but declaring another algorithm or critical extensions
+        String otherAlgorithm = signed("{\"alg\":\"none\",\"typ\":\"JWT\"}", "{\"sub\":\"juan@rodriguez.org\"}");
+        String critical = signed("{\"alg\":\"HS256\",\"crit\":[\"b64\"],\"b64\":false}", "{\"sub\":\"juan@rodriguez.org\"}");
+
+        assertThrows(UnsupportedJwtException.class, () -> codec.verify(otherAlgorithm, NOW));
+        assertThrows(UnsupportedJwtException.class, () -> codec.verify(critical, NOW));
+    }
+
+    @Test
+    void verify_OutsideValidityWindow_ShouldThrowExpiredOrPremature() {
+        // Arrange
+        String token = codec.sign("juan@rodriguez.org", null, null, null, List.of(), NOW, NOW + HOUR);
+        String notYetValid = signed("{\"alg\":\"HS256\",\"typ\":\"JWT\"}",
+                "{\"sub\":\"juan@rodriguez.org\",\"nbf\":" + (NOW + HOUR) / 1000 + "}");
+
+        // Act & Assert
+        assertThrows(ExpiredJwtException.class, () -> codec.verify(token, NOW + HOUR));
+        assertThrows(PrematureJwtException.class, () -> codec.verify(notYetValid, NOW));
+        assertEquals("juan@rodriguez.org", codec.verify(notYetValid, NOW + HOUR).getSubject());
+    }
+
+    private static String signed(String header, String payload) {
+        try {
+            Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+            String signingInput = encoder.encodeToString(header.getBytes(StandardCharsets.UTF_8)) + "."
+                    + encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(KEY, "HmacSHA256"));
+            return signingInput + "." + encoder.encodeToString(mac.doFinal(signingInput.getBytes(StandardCharsets.US_ASCII)));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
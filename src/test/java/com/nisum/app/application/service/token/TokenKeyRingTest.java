@@ -0,0 +1,107 @@
+package com.nisum.app.application.service.token;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SignatureException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenKeyRingTest {
+
+    private static final long NOW = System.currentTimeMillis() / 1000 * 1000;
+    private static final long HOUR = 3_600_000L;
+
+    private final Hs256TokenCodec current = new Hs256TokenCodec("2026-10", key('c'));
+    private final Hs256TokenCodec previous = new Hs256TokenCodec("2026-09", key('p'));
+    private final Hs256TokenCodec secret = new Hs256TokenCodec(key('s'));
+
+    @Test
+    void verify_ShouldRouteEachTokenToTheKeyItsHeaderNames() {
+        // Arrange
+        TokenKeyRing ring = new TokenKeyRing(current, List.of(previous, secret));
+        String signedNow = ring.signer().sign("juan@rodriguez.org", null, null, null, List.of(), NOW, NOW + HOUR);
+        String signedBefore = previous.sign("ana@rodriguez.org", null, null, null, List.of(), NOW, NOW + HOUR);
+        String withoutKeyId = secret.sign("luis@rodriguez.org", null, null, null, List.of(), NOW, NOW + HOUR);
+
+        // Act & Assert
+        assertTrue(signedNow.startsWith("eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCIsImtpZCI6IjIwMjYtMTAifQ."));
+        assertEquals("juan@rodriguez.org", ring.verify(signedNow, NOW).getSubject());
+        assertEquals("ana@rodriguez.org", ring.verify(signedBefore, NOW).getSubject());
+        assertEquals("luis@rodriguez.org", ring.verify(withoutKeyId, NOW).getSubject());
+        assertEquals(List.of(previous, secret), ring.verifiers());
+    }
+
+    @Test
+    void verify_ShouldReadTheKeyIdOfHeadersWrittenByOtherIssuers() {
+        // Arrange: jjwt orders the header differently
+        TokenKeyRing ring = new TokenKeyRing(current, List.of(previous));
+        String token = Jwts.builder()
+                .setHeaderParam("kid", "2026-09")
+                .setSubject("juan@rodriguez.org")
+                .setExpiration(new Date(NOW + HOUR))
+                .signWith(SignatureAlgorithm.HS256, key('p'))
+                .compact();
+
+        // Act & Assert
+        assertEquals("juan@rodriguez.org", ring.verify(token, NOW).getSubject());
+    }
+
+    @Test
+    void verify_WithRetiredUnknownOrMissingKeyId_ShouldThrowSignatureException() {
+        // Arrange: a ring without the kid-less key nor 2026-09
+        TokenKeyRing ring = new TokenKeyRing(current, List.of());
+        String retired = previous.sign("juan@rodriguez.org", null, null, null, List.of(), NOW, NOW + HOUR);
+        String withoutKeyId = secret.sign("juan@rodriguez.org", null, null, null, List.of(), NOW, NOW + HOUR);
+        // Right kid, wrong key
+        String forged = new Hs256TokenCodec("2026-10", key('x'))
+                .sign("juan@rodriguez.org", null, null, null, List.of(), NOW, NOW + HOUR);
+
+        // Act & Assert
+        assertThrows(SignatureException.class, () -> ring.verify(retired, NOW));
+        assertThrows(SignatureException.class, () -> ring.verify(withoutKeyId, NOW));
+        assertThrows(SignatureException.class, () -> ring.verify(forged, NOW));
+    }
+
+    @Test
+    void publicKeys_ShouldListTheAsymmetricKeysAndNeverTheSecretOnes() throws Exception {
+        // Arrange
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("Ed25519");
+        KeyPair keyPair = generator.generateKeyPair();
+        AsymmetricTokenCodec ed25519 = new AsymmetricTokenCodec("ed-1", keyPair.getPrivate(), keyPair.getPublic());
+        TokenKeyRing ring = new TokenKeyRing(ed25519, List.of(current, secret));
+        // HS256 under the asymmetric key's kid, keyed with a secret the attacker holds
+        String confused = new Hs256TokenCodec("ed-1", key('x'))
+                .sign("admin@rodriguez.org", null, null, null, List.of(), NOW, NOW + HOUR);
+
+        // Act
+        List<Map<String, Object>> publicKeys = ring.publicKeys();
+
+        // Assert
+        assertEquals(List.of(ed25519.jwk()), publicKeys);
+        assertEquals("juan@rodriguez.org", ring.verify(ring.signer()
+                .sign("juan@rodriguez.org", null, null, null, List.of(), NOW, NOW + HOUR), NOW).getSubject());
+        assertThrows(SignatureException.class, () -> ring.verify(confused, NOW));
+    }
+
+    @Test
+    void constructor_WithDuplicateKeyIds_ShouldThrow() {
+        Hs256TokenCodec duplicate = new Hs256TokenCodec("2026-10", key('d'));
+        Hs256TokenCodec secondSecret = new Hs256TokenCodec(key('d'));
+
+        assertThrows(IllegalArgumentException.class, () -> new TokenKeyRing(current, List.of(duplicate)));
+        assertThrows(IllegalArgumentException.class, () -> new TokenKeyRing(secret, List.of(secondSecret)));
+        assertThrows(IllegalArgumentException.class, () -> new Hs256TokenCodec("a\"b", key('d')));
+    }
+
+    private static byte[] key(char fill) {
+        return String.valueOf(fill).repeat(32).getBytes(StandardCharsets.US_ASCII);
+    }
+}
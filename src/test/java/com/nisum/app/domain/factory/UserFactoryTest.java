@@ -19,7 +19,7 @@ class UserFactoryTest {
 
     @BeforeEach
     void setUp() {
-        userFactory = new UserFactory();
+        userFactory = new UserFactory(passwordEncoder);
 
         PhoneDto phoneDto = new PhoneDto("1234567", "1", "57");
         registrationRequestDto = new UserRegistrationRequestDto(
@@ -46,6 +46,9 @@ class UserFactoryTest {
         assertTrue(passwordEncoder.matches("Password123", result.getPassword()));
         assertEquals(token, result.getToken());
         assertTrue(result.getIsActive());
+        assertNotNull(result.getId());
+        assertEquals(0L, result.getTokenVersion());
+        assertTrue(result.isNew());
     }
 
     @Test
@@ -113,4 +116,23 @@ class UserFactoryTest {
         // Assert
         assertEquals("juan@rodriguez.org", result.getEmail());
     }
+
+    @Test
+    void createUserWithEncodedPassword_ShouldKeepHashAndSetCreated() {
+        // Arrange
+        String hash = passwordEncoder.encode("Password123");
+        registrationRequestDto.setPassword(hash);
+
+        // Act
+        User result = userFactory.createUserWithEncodedPassword(registrationRequestDto);
+
+        // Assert
+        assertEquals(hash, result.getPassword());
+        assertTrue(passwordEncoder.matches("Password123", result.getPassword()));
+        assertNotNull(result.getCreated());
+        assertNull(result.getLastLogin());
+        assertNull(result.getToken());
+        assertEquals(1, result.getPhones().size());
+        assertSame(result, result.getPhones().get(0).getUser());
+    }
 }
@@ -0,0 +1,119 @@
+package com.nisum.app.domain.repository;
+
+import com.nisum.app.domain.model.Phone;
+import com.nisum.app.domain.model.User;
+import com.nisum.app.domain.model.UserTokenState;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class UserRepositoryTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        User user = User.builder()
+                .id(UUID.randomUUID())
+                .name("Juan Rodriguez")
+                .email("juan@rodriguez.org")
+                .password("encodedPassword")
+                .build();
+        user.setPhones(List.of(
+                Phone.builder().number("1234567").citycode("1").contrycode("57").user(user).build(),
+                Phone.builder().number("7654321").citycode("2").contrycode("57").user(user).build()));
+        userRepository.save(user);
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findWithPhonesByEmail_ShouldLoadUserAndPhonesInOneStatement() {
+        // Act
+        User user = userRepository.findWithPhonesByEmail("juan@rodriguez.org").orElseThrow();
+        List<String> numbers = user.getPhones().stream().map(Phone::getNumber).sorted().toList();
+
+        // Assert
+        assertEquals(List.of("1234567", "7654321"), numbers);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findByEmail_ThenTouchingPhones_ShouldNeedASecondStatement() {
+        // Act
+        User user = userRepository.findByEmail("juan@rodriguez.org").orElseThrow();
+        user.getPhones().size();
+
+        // Assert
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findTokenStatesChangedSince_ShouldReturnUsersCreatedOrModifiedSinceOnce() {
+        // Arrange
+        LocalDateTime since = LocalDateTime.now().minusMinutes(1);
+        User old = userRepository.findByEmail("juan@rodriguez.org").orElseThrow();
+        entityManager.createQuery("update User u set u.created = :created").setParameter("created", since.minusDays(1))
+                .executeUpdate();
+        User modified = saveUser("maria@rodriguez.org");
+        User created = saveUser("pedro@rodriguez.org");
+        entityManager.flush();
+        entityManager.createQuery("update User u set u.created = :created, u.modified = :modified where u.id = :id")
+                .setParameter("created", since.minusDays(1)).setParameter("modified", since.plusSeconds(1))
+                .setParameter("id", modified.getId()).executeUpdate();
+        entityManager.createQuery("update User u set u.modified = :modified where u.id = :id")
+                .setParameter("modified", since.plusSeconds(1)).setParameter("id", created.getId()).executeUpdate();
+
+        // Act
+        List<UUID> ids = userRepository.findTokenStatesChangedSince(since).stream().map(UserTokenState::getId).toList();
+
+        // Assert
+        assertEquals(2, ids.size());
+        assertTrue(ids.containsAll(List.of(modified.getId(), created.getId())));
+        assertFalse(ids.contains(old.getId()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void findTokenStatesChangedSince_ShouldReadIndexRangesOnly() {
+        // Act
+        List<String> plan = entityManager.createNativeQuery("explain select id from users where modified >= ?1 "
+                        + "union select id from users where created >= ?1")
+                .setParameter(1, LocalDateTime.now())
+                .getResultList();
+
+        // Assert
+        assertTrue(plan.get(0).contains("IDX_USERS_MODIFIED"), plan.get(0));
+        assertTrue(plan.get(0).contains("IDX_USERS_CREATED_ID"), plan.get(0));
+    }
+
+    private User saveUser(String email) {
+        return userRepository.save(User.builder()
+                .id(UUID.randomUUID())
+                .name("Usuario")
+                .email(email)
+                .password("encodedPassword")
+                .phones(List.of())
+                .build());
+    }
+}
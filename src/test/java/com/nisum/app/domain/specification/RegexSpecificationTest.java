@@ -0,0 +1,43 @@
+package com.nisum.app.domain.specification;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegexSpecificationTest {
+
+    @Test
+    void isSatisfiedBy_WithInputOverMaxLength_ShouldReturnFalse() {
+        // Arrange
+        RegexSpecification spec = new RegexSpecification("^a+$", 8, "demasiado largo");
+
+        // Act & Assert
+        assertTrue(spec.isSatisfiedBy("aaaaaaaa"));
+        assertFalse(spec.isSatisfiedBy("aaaaaaaaa"));
+        assertFalse(spec.isSatisfiedBy(null));
+    }
+
+    @Test
+    void isSatisfiedBy_WithCatastrophicBacktracking_ShouldFailInsteadOfHanging() {
+        // Arrange: 2^40 paths for an unbounded matcher
+        RegexSpecification spec = new RegexSpecification("^(a+)+$", 1000, "invalido");
+        String evil = "a".repeat(40) + "!";
+
+        // Act & Assert
+        assertFalse(assertTimeoutPreemptively(Duration.ofSeconds(5), () -> spec.isSatisfiedBy(evil)));
+        assertTrue(spec.isSatisfiedBy("a".repeat(40)));
+    }
+
+    @Test
+    void isSatisfiedBy_WithLongestAcceptedPassword_ShouldStayWithinTheStepBudget() {
+        // Arrange
+        PasswordValidationSpecification spec =
+                new PasswordValidationSpecification("^(?=.*[a-z])(?=.*[A-Z])(?=.*\\d)[a-zA-Z\\d]{8,}$");
+
+        // Act & Assert
+        assertTrue(spec.isSatisfiedBy("Aa1" + "b".repeat(PasswordValidationSpecification.MAX_LENGTH - 3)));
+        assertFalse(spec.isSatisfiedBy("Aa1" + "b".repeat(PasswordValidationSpecification.MAX_LENGTH - 2)));
+    }
+}
@@ -0,0 +1,96 @@
+package com.nisum.app.domain.specification;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RuleSetTest {
+
+    private record Candidate(String email, String password) {
+    }
+
+    private final EmailValidationSpecification emailSpec = new EmailValidationSpecification("^[A-Za-z0-9+_.-]+@(.+)$");
+    private final PasswordValidationSpecification passwordSpec =
+            new PasswordValidationSpecification("^(?=.*[a-z])(?=.*[A-Z])(?=.*\\d)[a-zA-Z\\d]{8,}$");
+    private final AtomicInteger queries = new AtomicInteger();
+
+    // Declared first on purpose: database rules run after the in-memory ones whatever the declaration order
+    private final RuleSet<Candidate> rules = RuleSet.<Candidate>builder("test")
+            .rule("email", "available", Candidate::email, ValidationSpecification.of(email -> {
+                queries.incrementAndGet();
+                return !"taken@example.com".equals(email);
+            }, "este correo ya existe", ValidationCost.DATABASE))
+            .rule("email", "present", Candidate::email, ValidationSpecification.of(email -> email != null,
+                    "Email es requerido", ValidationCost.IN_MEMORY))
+            .rule("email", "format", Candidate::email, emailSpec)
+            .rule("password", "format", Candidate::password, passwordSpec)
+            .build();
+
+    @Test
+    void validate_WithValidCandidate_ShouldReturnNoViolations() {
+        // Act
+        List<RuleSet.Violation> violations = rules.validate(new Candidate("juan@rodriguez.org", "Password123"));
+
+        // Assert
+        assertTrue(violations.isEmpty());
+        assertEquals(1, queries.get());
+    }
+
+    @Test
+    void validate_WithSeveralInvalidFields_ShouldReportOneViolationPerFieldAndSkipTheDatabase() {
+        // Act
+        List<RuleSet.Violation> violations = rules.validate(new Candidate(null, "short"));
+
+        // Assert
+        assertEquals(List.of(
+                new RuleSet.Violation("email", "Email es requerido"),
+                new RuleSet.Violation("password", passwordSpec.getErrorMessage())), violations);
+        assertEquals(0, queries.get());
+    }
+
+    @Test
+    void validate_WithTakenEmail_ShouldReportTheDatabaseRule() {
+        // Act
+        List<RuleSet.Violation> violations = rules.validate(new Candidate("taken@example.com", "Password123"));
+
+        // Assert
+        assertEquals(List.of(new RuleSet.Violation("email", "este correo ya existe")), violations);
+    }
+
+    @Test
+    void rules_ShouldExposeTimingsOfEveryRule() {
+        // Act
+        rules.validate(new Candidate("juan@rodriguez.org", "Password123"));
+        rules.validate(new Candidate("juan", "Password123"));
+
+        // Assert
+        assertEquals(List.of("email.available", "email.present", "email.format", "password.format"),
+                rules.rules().stream().map(RuleSet.RuleStatistics::name).toList());
+        RuleSet.RuleStatistics format = rules.rules().get(2);
+        assertEquals(2, format.count());
+        assertTrue(format.totalNanos() > 0);
+        assertEquals(1, rules.rules().get(0).count());
+    }
+
+    @Test
+    void composites_ShouldCombineAndReportTheReceiversMessage() {
+        // Arrange
+        ValidationSpecification<String> corporate = ValidationSpecification.of(
+                email -> email.endsWith("@nisum.com"), "solo correos corporativos", ValidationCost.IN_MEMORY);
+        ValidationSpecification<String> both = emailSpec.and(corporate);
+        ValidationSpecification<String> either = corporate.or(emailSpec);
+
+        // Act & Assert
+        assertTrue(both.isSatisfiedBy("juan@nisum.com"));
+        assertFalse(both.isSatisfiedBy("juan@rodriguez.org"));
+        assertEquals(emailSpec.getErrorMessage(), both.getErrorMessage());
+        assertTrue(either.isSatisfiedBy("juan@rodriguez.org"));
+        assertEquals("solo correos corporativos", either.getErrorMessage());
+        assertTrue(corporate.not("no se aceptan correos corporativos").isSatisfiedBy("juan@rodriguez.org"));
+        assertEquals(ValidationCost.DATABASE, corporate.and(ValidationSpecification.of(
+                email -> true, "", ValidationCost.DATABASE)).getCost());
+    }
+}
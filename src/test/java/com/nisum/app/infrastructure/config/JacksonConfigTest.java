@@ -0,0 +1,82 @@
+package com.nisum.app.infrastructure.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.nisum.app.infrastructure.dto.phone.PhoneDto;
+import com.nisum.app.infrastructure.dto.user.UserInfoResponseDto;
+import com.nisum.app.infrastructure.dto.user.UserRegistrationRequestDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JacksonConfigTest {
+
+    private final ObjectMapper defaultMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final ObjectMapper tunedMapper = JacksonConfig.tune(Jackson2ObjectMapperBuilder.json()).build();
+
+    @Test
+    void tune_ShouldWriteTheSameJsonAsTheDefaultMapper() throws Exception {
+        // Arrange: with and without seconds and fraction digits, and a year ISO writes with a sign
+        List<String> timestamps = List.of(
+                "2024-03-14T09:26:53", "2024-03-14T09:26:00", "2024-03-14T00:00:00.5",
+                "2024-03-14T09:26:53.123", "2024-03-14T09:26:53.000000100", "0001-01-01T23:59:59.999999999",
+                "+10000-01-01T00:00:00");
+
+        for (String timestamp : timestamps) {
+            UserInfoResponseDto dto = profile(LocalDateTime.parse(timestamp));
+
+            // Act
+            String tuned = tunedMapper.writeValueAsString(dto);
+
+            // Assert
+            assertEquals(defaultMapper.writeValueAsString(dto), tuned, timestamp);
+        }
+    }
+
+    @Test
+    void tune_WhenDatesAsTimestamps_ShouldWriteTheSameArrays() throws Exception {
+        // Arrange
+        UserInfoResponseDto dto = profile(LocalDateTime.parse("2024-03-14T09:26:53.589"));
+
+        // Act
+        String tuned = tunedMapper.writer().with(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).writeValueAsString(dto);
+
+        // Assert
+        assertEquals(defaultMapper.writer().with(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).writeValueAsString(dto), tuned);
+    }
+
+    @Test
+    void tune_ShouldRegisterBlackbirdAndStillReadRequests() throws Exception {
+        // Arrange
+        String json = "{\"name\":\"Juan Rodriguez\",\"email\":\"juan@rodriguez.org\",\"password\":\"Password123\","
+                + "\"phones\":[{\"number\":\"1234567\",\"citycode\":\"1\",\"contrycode\":\"57\"}]}";
+
+        // Act
+        UserRegistrationRequestDto request = tunedMapper.readValue(json, UserRegistrationRequestDto.class);
+
+        // Assert
+        assertTrue(tunedMapper.getRegisteredModuleIds().contains(new BlackbirdModule().getTypeId()));
+        assertEquals(defaultMapper.readValue(json, UserRegistrationRequestDto.class), request);
+    }
+
+    private static UserInfoResponseDto profile(LocalDateTime timestamp) {
+        UserInfoResponseDto dto = new UserInfoResponseDto();
+        dto.setId(UUID.fromString("6f1c2a3e-4b5d-4e6f-8a9b-0c1d2e3f4a5b"));
+        dto.setCreated(timestamp);
+        dto.setModified(timestamp);
+        dto.setLastLogin(timestamp);
+        dto.setToken("token");
+        dto.setIsActive(true);
+        dto.setName("Juan Rodriguez");
+        dto.setEmail("juan@rodriguez.org");
+        dto.setPhones(List.of(new PhoneDto("1234567", "1", "57")));
+        return dto;
+    }
+}
@@ -0,0 +1,33 @@
+package com.nisum.app.infrastructure.config;
+
+import com.nisum.app.domain.model.User;
+import com.nisum.app.infrastructure.dto.error.ErrorResponseDto;
+import com.nisum.app.infrastructure.dto.user.UserImportRecordDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NativeHintsConfigTest {
+
+    @Test
+    void registerHints_ShouldCoverDirectlyMappedDtosEntitiesAndJjwt() {
+        // Arrange
+        RuntimeHints hints = new RuntimeHints();
+
+        // Act
+        new NativeHintsConfig.ApplicationRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        // Assert
+        assertTrue(RuntimeHintsPredicates.reflection().onType(UserImportRecordDto.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(ErrorResponseDto.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(User.class)
+                .withMemberCategory(MemberCategory.DECLARED_FIELDS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("org.bouncycastle.jce.provider.BouncyCastleProvider"))
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS).test(hints));
+    }
+}
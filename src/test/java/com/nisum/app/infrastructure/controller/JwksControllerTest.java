@@ -0,0 +1,79 @@
+package com.nisum.app.infrastructure.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nisum.app.application.service.token.AsymmetricTokenCodec;
+import com.nisum.app.application.service.token.Hs256TokenCodec;
+import com.nisum.app.application.service.token.TokenKeyRing;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class JwksControllerTest {
+
+    private final AtomicReference<TokenKeyRing> keyRing = new AtomicReference<>();
+    private AsymmetricTokenCodec es256;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        KeyPair keyPair = generator.generateKeyPair();
+        es256 = new AsymmetricTokenCodec("es-1", keyPair.getPrivate(), keyPair.getPublic());
+        keyRing.set(new TokenKeyRing(es256, List.of(new Hs256TokenCodec("a".repeat(32).getBytes(StandardCharsets.US_ASCII)))));
+        mockMvc = MockMvcBuilders.standaloneSetup(new JwksController(keyRing::get, new ObjectMapper(), Duration.ofMinutes(2)))
+                .build();
+    }
+
+    @Test
+    void jwks_ShouldPublishPublicKeysWithCachingHeaders() throws Exception {
+        mockMvc.perform(get("/.well-known/jwks.json"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=120, public, stale-if-error=86400"))
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.keys", hasSize(1)))
+                .andExpect(jsonPath("$.keys[0].kid", is("es-1")))
+                .andExpect(jsonPath("$.keys[0].kty", is("EC")))
+                .andExpect(jsonPath("$.keys[0].d").doesNotExist());
+    }
+
+    @Test
+    void jwks_ShouldAnswer304UntilTheKeysChange() throws Exception {
+        // Arrange
+        MvcResult first = mockMvc.perform(get("/.well-known/jwks.json")).andReturn();
+        String etag = first.getResponse().getHeader("ETag");
+
+        // Act & Assert
+        mockMvc.perform(get("/.well-known/jwks.json").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag));
+
+        // A new key published ahead of its activation
+        KeyPair ed25519 = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        keyRing.set(new TokenKeyRing(es256,
+                List.of(new AsymmetricTokenCodec("ed-1", ed25519.getPrivate(), ed25519.getPublic()))));
+        MvcResult rotated = mockMvc.perform(get("/.well-known/jwks.json").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.keys", hasSize(2)))
+                .andReturn();
+        assertNotEquals(etag, rotated.getResponse().getHeader("ETag"));
+    }
+}
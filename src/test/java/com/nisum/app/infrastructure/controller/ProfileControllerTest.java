@@ -3,6 +3,8 @@ package com.nisum.app.infrastructure.controller;
 import java.security.Principal;
 
 import com.nisum.app.application.service.IUserService;
+import com.nisum.app.domain.model.UserProfileVersion;
+import com.nisum.app.infrastructure.dto.phone.PhoneDto;
 import com.nisum.app.infrastructure.dto.user.UserInfoResponseDto;
 import com.nisum.app.infrastructure.dto.user.UserResponseDto;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,17 +12,28 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -57,7 +70,7 @@ class ProfileControllerTest {
         responseDto.setToken("token123");
 
 
-        when(userService.getUserProfile(email)).thenReturn(responseDto);
+        when(userService.getUserProfile(email, false)).thenReturn(responseDto);
 
         mockMvc.perform(get("/api/profile/me")
                         .principal(principal)
@@ -67,4 +80,114 @@ class ProfileControllerTest {
                 .andExpect(jsonPath("$.token", is(responseDto.getToken())))
                 .andExpect(jsonPath("$.isactive", is(responseDto.getIsActive())));
     }
+
+    @Test
+    void testGetCurrentUserProfileWithPhones() throws Exception {
+        String email = "test@example.com";
+        Principal principal = mock(Principal.class);
+        when(principal.getName()).thenReturn(email);
+
+        UserInfoResponseDto responseDto = new UserInfoResponseDto();
+        responseDto.setEmail(email);
+        responseDto.setPhones(List.of(new PhoneDto("1234567", "1", "57")));
+
+        when(userService.getUserProfile(email, true)).thenReturn(responseDto);
+
+        mockMvc.perform(get("/api/profile/me")
+                        .param("includePhones", "true")
+                        .principal(principal)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.phones[0].number", is("1234567")));
+    }
+
+    @Test
+    void getCurrentUserProfile_ShouldSendETagAndPrivateCacheControl() throws Exception {
+        // Arrange
+        Principal principal = principal("test@example.com");
+        when(userService.getUserProfile("test@example.com", false)).thenReturn(profile());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/profile/me").principal(principal))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"));
+        verify(userService, never()).getUserProfileVersion(anyString());
+    }
+
+    @Test
+    void getCurrentUserProfile_WhenETagMatches_ShouldAnswerNotModifiedWithoutLoadingTheProfile() throws Exception {
+        // Arrange
+        Principal principal = principal("test@example.com");
+        UserInfoResponseDto profile = profile();
+        when(userService.getUserProfile("test@example.com", false)).thenReturn(profile);
+        when(userService.getUserProfileVersion("test@example.com")).thenReturn(new UserProfileVersion(
+                profile.getId(), profile.getCreated(), profile.getModified(), profile.getLastLogin()));
+        String etag = mockMvc.perform(get("/api/profile/me").principal(principal))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/profile/me").principal(principal).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andExpect(content().bytes(new byte[0]));
+        verify(userService, times(1)).getUserProfile(anyString(), anyBoolean());
+    }
+
+    @Test
+    void getCurrentUserProfile_WhenLastLoginChanged_ShouldSendTheProfileWithANewETag() throws Exception {
+        // Arrange
+        Principal principal = principal("test@example.com");
+        UserInfoResponseDto profile = profile();
+        when(userService.getUserProfile("test@example.com", false)).thenReturn(profile);
+        String etag = mockMvc.perform(get("/api/profile/me").principal(principal))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        LocalDateTime newerLogin = profile.getLastLogin().plusMinutes(5);
+        when(userService.getUserProfileVersion("test@example.com")).thenReturn(new UserProfileVersion(
+                profile.getId(), profile.getCreated(), profile.getModified(), newerLogin));
+        profile.setLastLogin(newerLogin);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/profile/me").principal(principal).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email", is("test@example.com")))
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+    }
+
+    @Test
+    void getCurrentUserProfile_ShouldTagThePhonesVariantApart() throws Exception {
+        // Arrange
+        Principal principal = principal("test@example.com");
+        UserInfoResponseDto profile = profile();
+        when(userService.getUserProfile("test@example.com", false)).thenReturn(profile);
+        when(userService.getUserProfile("test@example.com", true)).thenReturn(profile);
+
+        // Act
+        String withoutPhones = mockMvc.perform(get("/api/profile/me").principal(principal))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String withPhones = mockMvc.perform(get("/api/profile/me").param("includePhones", "true").principal(principal))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Assert
+        assertNotEquals(withoutPhones, withPhones);
+    }
+
+    private static Principal principal(String email) {
+        Principal principal = mock(Principal.class);
+        when(principal.getName()).thenReturn(email);
+        return principal;
+    }
+
+    private static UserInfoResponseDto profile() {
+        UserInfoResponseDto responseDto = new UserInfoResponseDto();
+        responseDto.setEmail("test@example.com");
+        responseDto.setIsActive(true);
+        responseDto.setName("test");
+        responseDto.setId(UUID.randomUUID());
+        responseDto.setCreated(LocalDateTime.of(2025, 8, 1, 0, 36, 43, 806_918_000));
+        responseDto.setLastLogin(LocalDateTime.of(2025, 8, 2, 10, 15, 0));
+        responseDto.setToken("token123");
+        return responseDto;
+    }
 }
@@ -1,44 +1,88 @@
 package com.nisum.app.infrastructure.controller;
 
 import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nisum.app.application.service.IBulkUserRegistrationService;
+import com.nisum.app.application.service.IRefreshTokenService;
+import com.nisum.app.application.service.ITokenRevocationService;
+import com.nisum.app.application.service.IUserQueryService;
 import com.nisum.app.application.service.IUserService;
 import com.nisum.app.infrastructure.dto.login.LoginRequestDto;
+import com.nisum.app.infrastructure.dto.login.TokenResponseDto;
+import com.nisum.app.infrastructure.dto.phone.PhoneDto;
+import com.nisum.app.infrastructure.dto.user.BulkRegistrationItemDto;
+import com.nisum.app.infrastructure.dto.user.BulkRegistrationResponseDto;
+import com.nisum.app.infrastructure.dto.user.UserPageResponseDto;
 import com.nisum.app.infrastructure.dto.user.UserRegistrationRequestDto;
 import com.nisum.app.infrastructure.dto.user.UserResponseDto;
+import com.nisum.app.infrastructure.dto.user.UserSummaryDto;
+import com.nisum.app.infrastructure.exception.BusinessException;
+import com.nisum.app.infrastructure.exception.GlobalExceptionHandler;
+import com.nisum.app.infrastructure.exception.HashingCapacityExceededException;
+import com.nisum.app.infrastructure.exception.InvalidRefreshTokenException;
+import com.nisum.app.infrastructure.security.PasswordHashingExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 class UserControllerTest {
 
     private MockMvc mockMvc;
-    private ObjectMapper objectMapper;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
 
     @Mock
     private IUserService userService;
 
-    @InjectMocks
+    @Mock
+    private IBulkUserRegistrationService bulkRegistrationService;
+
+    @Mock
+    private IUserQueryService userQueryService;
+
+    @Mock
+    private ITokenRevocationService tokenRevocationService;
+
+    @Mock
+    private IRefreshTokenService refreshTokenService;
+
     private UserController userController;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        mockMvc = MockMvcBuilders.standaloneSetup(userController).build();
-        objectMapper = new ObjectMapper();
+        PasswordHashingExecutor hashingExecutor = new PasswordHashingExecutor(1, 10, Duration.ofSeconds(1), new SimpleMeterRegistry());
+        userController = new UserController(userService, bulkRegistrationService, userQueryService, tokenRevocationService, refreshTokenService, hashingExecutor, objectMapper);
+        mockMvc = MockMvcBuilders.standaloneSetup(userController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+        when(bulkRegistrationService.maxItems()).thenReturn(10);
     }
 
     @Test
@@ -61,9 +105,13 @@ class UserControllerTest {
 
         when(userService.registerUser(requestDto)).thenReturn(responseDto);
 
-        mockMvc.perform(post("/api/users")
+        MvcResult asyncResult = mockMvc.perform(post("/api/users")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(asyncResult))
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.id", is(responseDto.getId().toString())))
                 .andExpect(jsonPath("$.token", is(responseDto.getToken())))
@@ -85,12 +133,192 @@ class UserControllerTest {
 
         when(userService.loginUser(requestDto)).thenReturn(responseDto);
 
-        mockMvc.perform(post("/api/login")
+        MvcResult asyncResult = mockMvc.perform(post("/api/login")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(asyncResult))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id", is(responseDto.getId().toString())))
                 .andExpect(jsonPath("$.token", is(responseDto.getToken())))
                 .andExpect(jsonPath("$.isactive", is(responseDto.getIsActive())));
     }
+
+    @Test
+    void testLoginUserWithInvalidCredentials() throws Exception {
+        LoginRequestDto requestDto = new LoginRequestDto("login@example.com", "wrong");
+
+        when(userService.loginUser(requestDto)).thenThrow(new BusinessException("Credenciales inválidas"));
+
+        MvcResult asyncResult = mockMvc.perform(post("/api/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.mensaje", is("Credenciales inválidas")));
+    }
+
+    @Test
+    void testRegisterUserWithMalformedEmail() throws Exception {
+        // Addresses the configured regex alone would let through
+        for (String email : List.of("a@b c", "x@<script>")) {
+            UserRegistrationRequestDto requestDto = new UserRegistrationRequestDto(
+                    "Test", email, "password123", Collections.emptyList());
+
+            mockMvc.perform(post("/api/users")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(requestDto)))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.mensaje", is("Validacion fallida: {email=formato de emial invalido}")));
+        }
+        verify(userService, never()).registerUser(any());
+    }
+
+    @Test
+    void testLoginUserWithMalformedEmail() throws Exception {
+        LoginRequestDto requestDto = new LoginRequestDto("x@<script>", "pass123");
+
+        mockMvc.perform(post("/api/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.mensaje", is("Validacion fallida: {email=formato de Email invalido}")));
+        verify(userService, never()).loginUser(any());
+    }
+
+    @Test
+    void testLoginUserWhenHashingQueueIsFull() throws Exception {
+        PasswordHashingExecutor saturatedExecutor = mock(PasswordHashingExecutor.class);
+        when(saturatedExecutor.submit(any())).thenThrow(new HashingCapacityExceededException("servicio ocupado, reintente en unos segundos", 2));
+        MockMvc saturatedMvc = MockMvcBuilders
+                .standaloneSetup(new UserController(userService, bulkRegistrationService, userQueryService, tokenRevocationService, refreshTokenService, saturatedExecutor, objectMapper))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+
+        saturatedMvc.perform(post("/api/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LoginRequestDto("login@example.com", "pass123"))))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"));
+    }
+
+    @Test
+    void testRegisterUsersBatch() throws Exception {
+        List<UserRegistrationRequestDto> requestDtos = List.of(
+                new UserRegistrationRequestDto("Uno", "uno@example.com", "Password123",
+                        List.of(new PhoneDto("1234567", "1", "57"))),
+                new UserRegistrationRequestDto("Dos", "dos@example.com", "Password123",
+                        List.of(new PhoneDto("7654321", "1", "57"))));
+
+        when(bulkRegistrationService.registerUsers(requestDtos)).thenReturn(batchResponse());
+
+        mockMvc.perform(post("/api/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDtos)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created", is(1)))
+                .andExpect(jsonPath("$.results[1].status", is("REJECTED")))
+                .andExpect(jsonPath("$.results[1].mensaje", is("este correo ya existe")));
+    }
+
+    @Test
+    void testRegisterUsersBatchNdjson() throws Exception {
+        String body = "{\"name\":\"Uno\",\"email\":\"uno@example.com\",\"password\":\"Password123\",\"phones\":[]}\n"
+                + "\n"
+                + "{\"name\":\"Dos\",\"email\":\"dos@example.com\",\"password\":\"Password123\",\"phones\":[]}\n";
+
+        when(bulkRegistrationService.registerUsers(argThat(list -> list.size() == 2
+                && list.get(1).getEmail().equals("dos@example.com")))).thenReturn(batchResponse());
+
+        mockMvc.perform(post("/api/users/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total", is(2)));
+    }
+
+    @Test
+    void testRegisterUsersBatchNdjsonOverMaxItems() throws Exception {
+        when(bulkRegistrationService.maxItems()).thenReturn(1);
+        String body = "{\"name\":\"Uno\",\"email\":\"uno@example.com\",\"password\":\"Password123\",\"phones\":[]}\n"
+                + "{\"name\":\"Dos\",\"email\":\"dos@example.com\",\"password\":\"Password123\",\"phones\":[]}\n";
+
+        mockMvc.perform(post("/api/users/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(body))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.mensaje", is("el lote excede el maximo de 1 usuarios")));
+        verify(bulkRegistrationService, never()).registerUsers(anyList());
+    }
+
+    @Test
+    void testListUsers() throws Exception {
+        UserPageResponseDto page = UserPageResponseDto.builder()
+                .users(List.of(UserSummaryDto.builder().id(UUID.randomUUID()).name("Uno").email("uno@example.com").build()))
+                .size(1)
+                .nextCursor("abc")
+                .build();
+        when(userQueryService.listUsers("cur", 1, true)).thenReturn(page);
+
+        mockMvc.perform(get("/api/users")
+                        .param("cursor", "cur")
+                        .param("size", "1")
+                        .param("includePhones", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users[0].email", is("uno@example.com")))
+                .andExpect(jsonPath("$.nextCursor", is("abc")));
+    }
+
+    @Test
+    void testLogoutUser() throws Exception {
+        mockMvc.perform(post("/api/logout")
+                        .header("Authorization", "Bearer abc.def.ghi"))
+                .andExpect(status().isNoContent());
+
+        verify(tokenRevocationService).logout("abc.def.ghi", null);
+    }
+
+    @Test
+    void testRefreshToken() throws Exception {
+        when(refreshTokenService.refresh("old-refresh")).thenReturn(TokenResponseDto.builder()
+                .token("new-jwt").refreshToken("new-refresh").expiresIn(900).build());
+
+        mockMvc.perform(post("/api/token/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refresh_token\":\"old-refresh\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token", is("new-jwt")))
+                .andExpect(jsonPath("$.refresh_token", is("new-refresh")))
+                .andExpect(jsonPath("$.expires_in", is(900)));
+    }
+
+    @Test
+    void testRefreshTokenWhenRejected() throws Exception {
+        when(refreshTokenService.refresh("reused")).thenThrow(new InvalidRefreshTokenException("refresh token invalido o expirado"));
+
+        mockMvc.perform(post("/api/token/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refresh_token\":\"reused\"}"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.mensaje", is("refresh token invalido o expirado")));
+    }
+
+    private BulkRegistrationResponseDto batchResponse() {
+        return BulkRegistrationResponseDto.builder()
+                .total(2)
+                .created(1)
+                .rejected(1)
+                .results(List.of(
+                        BulkRegistrationItemDto.builder().index(0).email("uno@example.com")
+                                .status(BulkRegistrationItemDto.Status.CREATED).id(UUID.randomUUID()).token("t1").build(),
+                        BulkRegistrationItemDto.builder().index(1).email("dos@example.com")
+                                .status(BulkRegistrationItemDto.Status.REJECTED).mensaje("este correo ya existe").build()))
+                .build();
+    }
+
 }
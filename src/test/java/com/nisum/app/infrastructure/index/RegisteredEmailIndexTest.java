@@ -0,0 +1,152 @@
+package com.nisum.app.infrastructure.index;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RegisteredEmailIndexTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private RegisteredEmailIndex emailIndex;
+
+    @BeforeEach
+    void setUp() {
+        emailIndex = new RegisteredEmailIndex(jdbcTemplate, true, 1_000, 0.01, 100, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void mightContain_BeforeFirstBuild_ShouldPassEverythingThrough() {
+        assertTrue(emailIndex.mightContain("nadie@example.com"));
+    }
+
+    @Test
+    void rebuild_ShouldIndexStoredEmailsCaseInsensitively() throws Exception {
+        // Arrange
+        stubStoredEmails(List.of("juan@rodriguez.org"));
+
+        // Act
+        emailIndex.rebuild();
+
+        // Assert
+        assertTrue(emailIndex.mightContain("Juan@Rodriguez.org"));
+        assertFalse(emailIndex.mightContain("nadie@example.com"));
+        assertEquals(1L, emailIndex.stats().get("emails"));
+        assertEquals(1L, emailIndex.stats().get("negativeChecks"));
+    }
+
+    @Test
+    void add_AfterBuild_ShouldMakeEmailVisible() throws Exception {
+        // Arrange
+        stubStoredEmails(List.of());
+        emailIndex.rebuild();
+
+        // Act
+        emailIndex.add("maria@rodriguez.org");
+
+        // Assert
+        assertTrue(emailIndex.mightContain("maria@rodriguez.org"));
+    }
+
+    @Test
+    void add_InsideTransaction_ShouldWaitForCommit() throws Exception {
+        // Arrange
+        stubStoredEmails(List.of());
+        emailIndex.rebuild();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            emailIndex.add("maria@rodriguez.org");
+
+            // Assert
+            assertFalse(emailIndex.mightContain("maria@rodriguez.org"));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertTrue(emailIndex.mightContain("maria@rodriguez.org"));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void add_DuringRebuild_ShouldReachTheNewFilter() throws Exception {
+        // Arrange: a registration commits while the table is being streamed
+        doAnswer(invocation -> {
+            emailIndex.add("maria@rodriguez.org");
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getString(1)).thenReturn("juan@rodriguez.org");
+            invocation.<RowCallbackHandler>getArgument(1).processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        // Act
+        emailIndex.rebuild();
+
+        // Assert
+        assertTrue(emailIndex.mightContain("maria@rodriguez.org"));
+        assertTrue(emailIndex.mightContain("juan@rodriguez.org"));
+    }
+
+    @Test
+    void mightContainCurrent_ShouldShareOneRefreshAndStillRejectUnknownEmails() throws Exception {
+        // Arrange
+        stubStoredEmails(List.of());
+        emailIndex.rebuild();
+
+        // Act
+        boolean first = emailIndex.mightContainCurrent("nadie@example.com");
+        boolean second = emailIndex.mightContainCurrent("nadie@example.com");
+
+        // Assert: each call reads the rows created since the previous sync
+        assertFalse(first);
+        assertFalse(second);
+        verify(jdbcTemplate, times(2)).query(eq("select email from users where created >= ?"),
+                any(PreparedStatementSetter.class), any(RowCallbackHandler.class));
+        assertEquals(2L, emailIndex.stats().get("negativeChecks"));
+    }
+
+    @Test
+    void mightContainCurrent_WhenRefreshFails_ShouldPassTheEmailThrough() throws Exception {
+        // Arrange
+        stubStoredEmails(List.of());
+        emailIndex.rebuild();
+        doThrow(new DataAccessResourceFailureException("connection lost")).when(jdbcTemplate)
+                .query(anyString(), any(PreparedStatementSetter.class), any(RowCallbackHandler.class));
+
+        // Act & Assert
+        assertTrue(emailIndex.mightContainCurrent("nadie@example.com"));
+        assertFalse(emailIndex.mightContain("nadie@example.com"));
+    }
+
+    private void stubStoredEmails(List<String> emails) throws Exception {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (String email : emails) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getString(1)).thenReturn(email);
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+}
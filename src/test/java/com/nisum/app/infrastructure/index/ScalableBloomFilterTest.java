@@ -0,0 +1,59 @@
+package com.nisum.app.infrastructure.index;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScalableBloomFilterTest {
+
+    @Test
+    void mightContain_ShouldNeverReturnFalseForAddedValues() {
+        // Arrange
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01);
+
+        // Act
+        for (int i = 0; i < 5_000; i++) {
+            filter.put("user" + i + "@example.com");
+        }
+
+        // Assert
+        for (int i = 0; i < 5_000; i++) {
+            assertTrue(filter.mightContain("user" + i + "@example.com"));
+        }
+    }
+
+    @Test
+    void put_BeyondCapacity_ShouldAddStagesAndKeepFppBelowTarget() {
+        // Arrange
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01);
+
+        // Act
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user" + i + "@example.com");
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("unknown" + i + "@example.org")) {
+                falsePositives++;
+            }
+        }
+
+        // Assert
+        assertTrue(filter.stageCount() > 1);
+        assertTrue(filter.expectedFpp() < 0.01, "expected fpp " + filter.expectedFpp());
+        assertTrue(falsePositives / 100_000.0 < 0.015, "observed fpp " + falsePositives / 100_000.0);
+    }
+
+    @Test
+    void put_WithDuplicateValue_ShouldNotCountTwice() {
+        // Arrange
+        ScalableBloomFilter filter = new ScalableBloomFilter(100, 0.01);
+
+        // Act
+        filter.put("juan@rodriguez.org");
+        filter.put("juan@rodriguez.org");
+
+        // Assert
+        assertEquals(1, filter.approximateCount());
+    }
+}
@@ -0,0 +1,169 @@
+package com.nisum.app.infrastructure.persistence;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LastLoginWriteBehindBufferTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    private SimpleMeterRegistry meterRegistry;
+    private LastLoginWriteBehindBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        buffer = new LastLoginWriteBehindBuffer(jdbcTemplate, taskScheduler, true, 3, meterRegistry);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_ShouldCoalesceLoginsPerUserIntoOneBatch() {
+        // Arrange
+        UUID juan = UUID.randomUUID();
+        UUID maria = UUID.randomUUID();
+        LocalDateTime first = LocalDateTime.of(2025, 1, 1, 10, 0);
+        LocalDateTime latest = first.plusMinutes(5);
+        buffer.record(juan, first);
+        buffer.record(juan, latest);
+        buffer.record(maria, first);
+        verifyNoInteractions(jdbcTemplate);
+
+        // Act
+        buffer.flush();
+
+        // Assert
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+        assertEquals(2, rows.getValue().size());
+        Object[] juanRow = rows.getValue().stream().filter(r -> r[1].equals(juan)).findFirst().orElseThrow();
+        assertEquals(Timestamp.valueOf(latest), juanRow[0]);
+        assertNull(buffer.pendingLastLogin(juan));
+        assertEquals(1, meterRegistry.get("last.login.flush.batch.size").summary().count());
+        assertEquals(2.0, meterRegistry.get("last.login.flush.batch.size").summary().totalAmount());
+    }
+
+    @Test
+    void record_WhenMaxPendingReached_ShouldFlushOnTheSchedulerOnce() {
+        // Act
+        buffer.record(UUID.randomUUID(), LocalDateTime.now());
+        buffer.record(UUID.randomUUID(), LocalDateTime.now());
+        verifyNoInteractions(taskScheduler);
+        buffer.record(UUID.randomUUID(), LocalDateTime.now());
+        buffer.record(UUID.randomUUID(), LocalDateTime.now());
+
+        // Assert: not on the caller's thread, and one queued flush for both full-buffer logins
+        verifyNoInteractions(jdbcTemplate);
+        scheduledFlush().run();
+        verify(jdbcTemplate).batchUpdate(anyString(), anyList());
+        assertEquals(0.0, meterRegistry.get("last.login.pending").gauge().value());
+    }
+
+    @Test
+    void record_WhenTheLoginThatFillsTheBufferRollsBack_ShouldKeepTheOtherUsersLastLogins() {
+        // Arrange: three users in a real database, two logins already buffered
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        try {
+            JdbcTemplate realJdbcTemplate = new JdbcTemplate(database);
+            realJdbcTemplate.execute("create table users (id uuid primary key, last_login timestamp)");
+            List<UUID> users = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+            users.forEach(id -> realJdbcTemplate.update("insert into users (id) values (?)", id));
+            LastLoginWriteBehindBuffer realBuffer = new LastLoginWriteBehindBuffer(realJdbcTemplate, taskScheduler, true, 3, meterRegistry);
+            LocalDateTime lastLogin = LocalDateTime.of(2025, 1, 1, 10, 0);
+            realBuffer.record(users.get(0), lastLogin);
+            realBuffer.record(users.get(1), lastLogin);
+            TransactionTemplate login = new TransactionTemplate(new DataSourceTransactionManager(database));
+
+            // Act: the third login fills the buffer, then fails after recording its last login
+            assertThrows(IllegalStateException.class, () -> login.executeWithoutResult(status -> {
+                realBuffer.record(users.get(2), lastLogin);
+                throw new IllegalStateException("refresh token not issued");
+            }));
+            scheduledFlush().run();
+
+            // Assert
+            assertEquals(3, realJdbcTemplate.queryForObject(
+                    "select count(*) from users where last_login = ?", Integer.class, Timestamp.valueOf(lastLogin)));
+        } finally {
+            database.shutdown();
+        }
+    }
+
+    @Test
+    void flush_WhenUpdateFails_ShouldKeepEntriesForNextFlush() {
+        // Arrange
+        UUID juan = UUID.randomUUID();
+        LocalDateTime lastLogin = LocalDateTime.now();
+        buffer.record(juan, lastLogin);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("connection lost"))
+                .thenReturn(new int[]{1});
+
+        // Act
+        buffer.flush();
+
+        // Assert
+        assertEquals(lastLogin, buffer.pendingLastLogin(juan));
+        buffer.flush();
+        assertNull(buffer.pendingLastLogin(juan));
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void drain_ShouldWritePendingEntriesOnShutdown() {
+        // Arrange
+        buffer.record(UUID.randomUUID(), LocalDateTime.now());
+
+        // Act
+        buffer.drain();
+
+        // Assert
+        verify(jdbcTemplate).batchUpdate(anyString(), anyList());
+    }
+
+    private Runnable scheduledFlush() {
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler).schedule(task.capture(), any(Instant.class));
+        return task.getValue();
+    }
+
+    @Test
+    void record_WhenDisabled_ShouldWriteThrough() {
+        // Arrange
+        LastLoginWriteBehindBuffer writeThrough = new LastLoginWriteBehindBuffer(jdbcTemplate, taskScheduler, false, 1000, new SimpleMeterRegistry());
+
+        // Act
+        writeThrough.record(UUID.randomUUID(), LocalDateTime.now());
+
+        // Assert
+        verify(jdbcTemplate).batchUpdate(anyString(), anyList());
+    }
+}
@@ -0,0 +1,71 @@
+package com.nisum.app.infrastructure.persistence;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Forward-only ResultSet shaped like {@link UserNdjsonExporter#EXPORT_SQL_WITH_PASSWORDS} that generates
+ * its rows on the fly: user i has i % 3 phones (a user without phones is one row with null phone columns).
+ */
+final class SyntheticUserRows {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private final long users;
+    private long user = -1;
+    private int phone;
+    private boolean lastWasNull;
+
+    private SyntheticUserRows(long users) {
+        this.users = users;
+    }
+
+    static ResultSet of(long users) {
+        SyntheticUserRows rows = new SyntheticUserRows(users);
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "next" -> rows.next();
+                    case "getString" -> rows.value((Integer) args[0]);
+                    case "getTimestamp" -> rows.value((Integer) args[0]);
+                    case "getBoolean" -> rows.user % 7 != 0;
+                    case "wasNull" -> rows.lastWasNull;
+                    case "close" -> null;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    static int phonesOf(long user) {
+        return (int) (user % 3);
+    }
+
+    private boolean next() {
+        if (user >= 0 && phone + 1 < phonesOf(user)) {
+            phone++;
+            return true;
+        }
+        user++;
+        phone = 0;
+        return user < users;
+    }
+
+    private Object value(int column) {
+        Object value = switch (column) {
+            case 1 -> new UUID(0, user).toString();
+            case 2 -> "Usuario " + user;
+            case 3 -> "usuario" + user + "@example.com";
+            case 4 -> "$2a$10$abcdefghijklmnopqrstuvABCDEFGHIJKLMNOPQRSTUVWXYZ01234";
+            case 5 -> Timestamp.valueOf(BASE.plusSeconds(user));
+            case 6 -> null;
+            case 7 -> Timestamp.valueOf(BASE.plusSeconds(user).plusHours(1));
+            case 9 -> phonesOf(user) > 0 ? String.valueOf(1_000_000 + phone) : null;
+            case 10 -> phonesOf(user) > 0 ? "1" : null;
+            case 11 -> phonesOf(user) > 0 ? "57" : null;
+            default -> throw new IllegalArgumentException("column " + column);
+        };
+        lastWasNull = value == null;
+        return value;
+    }
+}
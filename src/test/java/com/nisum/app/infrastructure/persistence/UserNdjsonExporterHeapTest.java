@@ -0,0 +1,77 @@
+package com.nisum.app.infrastructure.persistence;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.ResultSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Runs in its own surefire execution with a small -Xmx (see the small-heap execution in pom.xml):
+ * the export below is several times larger than the heap, so it only passes if it really streams.
+ */
+@Tag("small-heap")
+class UserNdjsonExporterHeapTest {
+
+    private static final long USERS = 1_500_000;
+
+    @Test
+    void export_MillionsOfRows_ShouldStreamWithinSmallHeap() throws IOException {
+        // Arrange
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        ResultSet rows = SyntheticUserRows.of(USERS);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            while (rows.next()) {
+                handler.processRow(rows);
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        UserNdjsonExporter exporter = new UserNdjsonExporter(jdbcTemplate, new ObjectMapper(),
+                mock(PlatformTransactionManager.class), 1000);
+        CountingOutputStream out = new CountingOutputStream();
+
+        // Act
+        long users = exporter.export(out, false, false);
+
+        // Assert
+        assertEquals(USERS, users);
+        assertEquals(USERS, out.lines);
+        assertTrue(out.bytes > 2 * Runtime.getRuntime().maxMemory(),
+                "export of " + out.bytes + " bytes should exceed the heap of " + Runtime.getRuntime().maxMemory());
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long bytes;
+        private long lines;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.nisum.app.infrastructure.persistence;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@ExtendWith(MockitoExtension.class)
+class UserNdjsonExporterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private UserNdjsonExporter exporter;
+
+    @BeforeEach
+    void setUp() {
+        exporter = new UserNdjsonExporter(jdbcTemplate, objectMapper, transactionManager, 500);
+    }
+
+    @Test
+    void export_ShouldWriteOneLinePerUserWithItsPhones() throws IOException {
+        // Arrange
+        streamRows(SyntheticUserRows.of(3));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long users = exporter.export(out, false, false);
+
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, users);
+        assertEquals(3, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        JsonNode last = objectMapper.readTree(lines[2]);
+        assertEquals("usuario0@example.com", first.get("email").asText());
+        assertEquals(0, first.get("phones").size());
+        assertFalse(first.has("modified"));
+        assertFalse(first.has("password"));
+        assertEquals("2024-01-01T00:00", first.get("created").asText());
+        assertEquals(2, last.get("phones").size());
+        assertEquals("1000001", last.get("phones").get(1).get("number").asText());
+        assertEquals("57", last.get("phones").get(1).get("contrycode").asText());
+    }
+
+    @Test
+    void export_WithIncludePasswords_ShouldWriteTheStoredHashes() throws IOException {
+        // Arrange
+        streamRows(SyntheticUserRows.of(2));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        exporter.export(out, false, true);
+
+        // Assert
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            assertTrue(objectMapper.readTree(line).get("password").asText().startsWith("$2a$10$"));
+        }
+    }
+
+    @Test
+    void export_WithGzip_ShouldWriteCompressedNdjson() throws IOException {
+        // Arrange
+        streamRows(SyntheticUserRows.of(2));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        exporter.export(out, true, false);
+
+        // Assert
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            String text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            assertTrue(text.endsWith("\n"));
+            assertEquals(2, text.lines().count());
+        }
+    }
+
+    @Test
+    void export_WhenClientDisconnects_ShouldPropagateIOException() {
+        // Arrange
+        streamRows(SyntheticUserRows.of(100_000));
+        OutputStream broken = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        // Act & Assert
+        IOException exception = assertThrows(IOException.class, () -> exporter.export(broken, false, false));
+        assertEquals("Broken pipe", exception.getMessage());
+    }
+
+    // Mirrors JdbcTemplate: feeds every row of the cursor to the handler
+    private void streamRows(ResultSet rows) {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            while (rows.next()) {
+                handler.processRow(rows);
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+}
@@ -0,0 +1,67 @@
+package com.nisum.app.infrastructure.security;
+
+import com.nisum.app.domain.model.User;
+import com.nisum.app.domain.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AdminAccountProvisionerTest {
+
+    private static final String HASH = "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3oB5b0E6p0yQqVxX1JcRyQe";
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Test
+    void run_WhenTheEmailIsFree_ShouldCreateTheAdministrator() {
+        // Arrange
+        when(userRepository.findByEmail("admin@nisum.com")).thenReturn(Optional.empty());
+        AdminAccountProvisioner provisioner = new AdminAccountProvisioner(userRepository, " Admin@Nisum.com ", HASH);
+
+        // Act
+        provisioner.run(null);
+
+        // Assert
+        ArgumentCaptor<User> saved = ArgumentCaptor.forClass(User.class);
+        verify(userRepository).save(saved.capture());
+        assertEquals("admin@nisum.com", saved.getValue().getEmail());
+        assertEquals(HASH, saved.getValue().getPassword());
+        assertTrue(saved.getValue().getIsAdmin());
+    }
+
+    @Test
+    void run_WhenTheEmailIsAlreadyRegistered_ShouldNotPromoteTheAccount() {
+        // Arrange: someone registered the admin address before the first startup with it
+        User squatter = User.builder().id(UUID.randomUUID()).email("admin@nisum.com").build();
+        when(userRepository.findByEmail("admin@nisum.com")).thenReturn(Optional.of(squatter));
+        AdminAccountProvisioner provisioner = new AdminAccountProvisioner(userRepository, "admin@nisum.com", HASH);
+
+        // Act
+        provisioner.run(null);
+
+        // Assert
+        assertFalse(squatter.getIsAdmin());
+        verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    void run_WithoutEmailOrHash_ShouldDoNothing() {
+        // Act
+        new AdminAccountProvisioner(userRepository, "", HASH).run(null);
+        new AdminAccountProvisioner(userRepository, "admin@nisum.com", "").run(null);
+
+        // Assert
+        verifyNoInteractions(userRepository);
+    }
+}
@@ -0,0 +1,90 @@
+package com.nisum.app.infrastructure.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CalibratedPasswordEncoderTest {
+
+    private static final String PASSWORD = "Password123";
+
+    @Test
+    void encode_ShouldPrefixHashWithConfiguredAlgorithm() {
+        // Arrange
+        CalibratedPasswordEncoder bcrypt = encoder("bcrypt", 4);
+        CalibratedPasswordEncoder pbkdf2 = encoder("pbkdf2", 4);
+        CalibratedPasswordEncoder argon2 = encoder("argon2", 4);
+
+        // Act
+        String bcryptHash = bcrypt.encode(PASSWORD);
+        String pbkdf2Hash = pbkdf2.encode(PASSWORD);
+        String argon2Hash = argon2.encode(PASSWORD);
+
+        // Assert
+        assertTrue(bcryptHash.startsWith("{bcrypt}$2a$04$"));
+        assertTrue(pbkdf2Hash.startsWith("{pbkdf2}"));
+        assertTrue(argon2Hash.startsWith("{argon2}$argon2id$"));
+        assertTrue(bcrypt.matches(PASSWORD, bcryptHash));
+        assertTrue(pbkdf2.matches(PASSWORD, pbkdf2Hash));
+        assertTrue(argon2.matches(PASSWORD, argon2Hash));
+        assertTrue(bcrypt.isEncoded(bcryptHash) && bcrypt.isEncoded(pbkdf2Hash) && bcrypt.isEncoded(argon2Hash));
+    }
+
+    @Test
+    void matches_ShouldAcceptHashesOfOtherAlgorithmsAndUnprefixedBcrypt() {
+        // Arrange
+        CalibratedPasswordEncoder argon2 = encoder("argon2", 4);
+        String legacyHash = new BCryptPasswordEncoder(4).encode(PASSWORD);
+        String pbkdf2Hash = encoder("pbkdf2", 4).encode(PASSWORD);
+
+        // Act & Assert
+        assertTrue(argon2.matches(PASSWORD, legacyHash));
+        assertTrue(argon2.matches(PASSWORD, pbkdf2Hash));
+        assertFalse(argon2.matches("WrongPassword1", legacyHash));
+    }
+
+    @Test
+    void upgradeEncoding_ShouldFlagOtherAlgorithmLowerCostAndMissingPrefix() {
+        // Arrange
+        CalibratedPasswordEncoder current = encoder("bcrypt", 5);
+
+        // Act & Assert
+        assertFalse(current.upgradeEncoding(current.encode(PASSWORD)));
+        assertTrue(current.upgradeEncoding(encoder("bcrypt", 4).encode(PASSWORD)));
+        assertTrue(current.upgradeEncoding(encoder("pbkdf2", 4).encode(PASSWORD)));
+        assertTrue(current.upgradeEncoding(new BCryptPasswordEncoder(5).encode(PASSWORD)));
+    }
+
+    @Test
+    void isEncoded_ShouldRejectPlainPasswordsAndUnknownPrefixes() {
+        // Arrange
+        CalibratedPasswordEncoder encoder = encoder("bcrypt", 4);
+
+        // Act & Assert
+        assertFalse(encoder.isEncoded(PASSWORD));
+        assertFalse(encoder.isEncoded("{noop}" + PASSWORD));
+        assertFalse(encoder.isEncoded("{bcrypt}" + PASSWORD));
+        assertFalse(encoder.isEncoded(null));
+    }
+
+    @Test
+    void constructor_WithTargetLatency_ShouldNeverGoBelowConfiguredCost() {
+        // Act: a 1 ns target cannot be met, so calibration keeps the floor
+        CalibratedPasswordEncoder encoder = new CalibratedPasswordEncoder("bcrypt", Duration.ofNanos(1), 4, 1000, 1, 1024);
+
+        // Assert
+        assertEquals("strength=4", encoder.parameters());
+    }
+
+    @Test
+    void constructor_WithUnknownAlgorithm_ShouldFail() {
+        assertThrows(IllegalArgumentException.class, () -> encoder("md5", 4));
+    }
+
+    private static CalibratedPasswordEncoder encoder(String algorithm, int bcryptStrength) {
+        return new CalibratedPasswordEncoder(algorithm, Duration.ZERO, bcryptStrength, 1000, 1, 1024);
+    }
+}
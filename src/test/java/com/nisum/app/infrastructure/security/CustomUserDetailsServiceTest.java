@@ -0,0 +1,160 @@
+package com.nisum.app.infrastructure.security;
+
+import com.nisum.app.domain.model.User;
+import com.nisum.app.domain.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CustomUserDetailsServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserPrincipalCache principalCache;
+    private CustomUserDetailsService userDetailsService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        principalCache = new UserPrincipalCache(true, 100, Duration.ofMinutes(5), new SimpleMeterRegistry());
+        userDetailsService = new CustomUserDetailsService(userRepository, principalCache, new AuthorityResolver());
+
+        user = User.builder()
+                .id(UUID.randomUUID())
+                .name("Juan Rodriguez")
+                .email("juan@rodriguez.org")
+                .password("encodedPassword")
+                .isActive(true)
+                .build();
+    }
+
+    @Test
+    void loadUserByUsername_CalledTwice_ShouldHitDatabaseOnce() {
+        // Arrange
+        when(userRepository.findByEmail("juan@rodriguez.org")).thenReturn(Optional.of(user));
+
+        // Act
+        UserDetails first = userDetailsService.loadUserByUsername("juan@rodriguez.org");
+        UserDetails second = userDetailsService.loadUserByUsername("JUAN@rodriguez.org");
+
+        // Assert
+        assertSame(first, second);
+        assertEquals("juan@rodriguez.org", second.getUsername());
+        verify(userRepository, times(1)).findByEmail("juan@rodriguez.org");
+        assertEquals(1, principalCache.stats().hitCount());
+        assertEquals(1, principalCache.stats().missCount());
+    }
+
+    @Test
+    void loadUserByUsername_ShouldGrantAdminOnlyFromTheStoredRole() {
+        // Arrange
+        User admin = User.builder().id(UUID.randomUUID()).email("admin@rodriguez.org").password("encodedPassword")
+                .isActive(true).isAdmin(true).build();
+        when(userRepository.findByEmail("juan@rodriguez.org")).thenReturn(Optional.of(user));
+        when(userRepository.findByEmail("admin@rodriguez.org")).thenReturn(Optional.of(admin));
+
+        // Act
+        UserDetails regular = userDetailsService.loadUserByUsername("juan@rodriguez.org");
+        UserDetails administrator = userDetailsService.loadUserByUsername("admin@rodriguez.org");
+
+        // Assert
+        assertEquals(List.of(AuthorityResolver.ROLE_USER), authorities(regular));
+        assertEquals(List.of(AuthorityResolver.ROLE_USER, AuthorityResolver.ROLE_ADMIN), authorities(administrator));
+    }
+
+    @Test
+    void loadUserByUsername_WhenInvalidatedDuringLoad_ShouldNotCacheTheStalePrincipal() {
+        // Arrange: a token-version bump lands while the first lookup is in flight
+        User revoked = User.builder().id(user.getId()).email(user.getEmail()).password("encodedPassword")
+                .isActive(true).tokenVersion(1L).build();
+        when(userRepository.findByEmail("juan@rodriguez.org"))
+                .thenAnswer(invocation -> {
+                    principalCache.invalidate("juan@rodriguez.org");
+                    return Optional.of(user);
+                })
+                .thenReturn(Optional.of(revoked));
+
+        // Act
+        userDetailsService.loadUserByUsername("juan@rodriguez.org");
+        UserDetails afterInvalidation = userDetailsService.loadUserByUsername("juan@rodriguez.org");
+
+        // Assert
+        assertEquals(1L, ((CustomUserDetailsService.CustomUserPrincipal) afterInvalidation).getTokenVersion());
+        verify(userRepository, times(2)).findByEmail("juan@rodriguez.org");
+    }
+
+    @Test
+    void loadUserByUsername_AfterInvalidate_ShouldReloadFromDatabase() {
+        // Arrange
+        when(userRepository.findByEmail("juan@rodriguez.org")).thenReturn(Optional.of(user));
+        userDetailsService.loadUserByUsername("juan@rodriguez.org");
+
+        // Act
+        principalCache.invalidate("juan@rodriguez.org");
+        userDetailsService.loadUserByUsername("juan@rodriguez.org");
+
+        // Assert
+        verify(userRepository, times(2)).findByEmail("juan@rodriguez.org");
+    }
+
+    @Test
+    void loadUserByUsername_WithInactiveUser_ShouldReturnDisabledPrincipal() {
+        // Arrange
+        user.setIsActive(false);
+        when(userRepository.findByEmail("juan@rodriguez.org")).thenReturn(Optional.of(user));
+
+        // Act
+        UserDetails result = userDetailsService.loadUserByUsername("juan@rodriguez.org");
+
+        // Assert
+        assertFalse(result.isEnabled());
+    }
+
+    @Test
+    void loadUserByUsername_WithUnknownEmail_ShouldThrowAndNotCache() {
+        // Arrange
+        when(userRepository.findByEmail("unknown@example.com")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(UsernameNotFoundException.class,
+                () -> userDetailsService.loadUserByUsername("unknown@example.com"));
+        assertThrows(UsernameNotFoundException.class,
+                () -> userDetailsService.loadUserByUsername("unknown@example.com"));
+        verify(userRepository, times(2)).findByEmail("unknown@example.com");
+    }
+
+    @Test
+    void loadUserByUsername_WithCacheDisabled_ShouldAlwaysHitDatabase() {
+        // Arrange
+        UserPrincipalCache disabledCache = new UserPrincipalCache(false, 100, Duration.ofMinutes(5), new SimpleMeterRegistry());
+        CustomUserDetailsService service = new CustomUserDetailsService(userRepository, disabledCache, new AuthorityResolver());
+        when(userRepository.findByEmail("juan@rodriguez.org")).thenReturn(Optional.of(user));
+
+        // Act
+        service.loadUserByUsername("juan@rodriguez.org");
+        service.loadUserByUsername("juan@rodriguez.org");
+
+        // Assert
+        verify(userRepository, times(2)).findByEmail("juan@rodriguez.org");
+    }
+
+    private static List<String> authorities(UserDetails principal) {
+        return principal.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
+    }
+}
@@ -0,0 +1,184 @@
+package com.nisum.app.infrastructure.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginRateLimitFilterTest {
+
+    private static final String LOGIN_BODY = "{\"email\":\"juan@rodriguez.org\",\"password\":\"Password123\"}";
+    private static final int MAX_BODY_SIZE = 8192;
+
+    private SimpleMeterRegistry meterRegistry;
+    private LoginRateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = filter(true);
+    }
+
+    @Test
+    void doFilter_WithinLimits_ShouldPassTheUntouchedBodyOn() throws Exception {
+        // Arrange
+        String body = "{\"name\":\"Juan\",\"password\":\"Password123\",\"phones\":["
+                + "{\"number\":\"1234567\",\"citycode\":\"1\",\"contrycode\":\"57\"}".repeat(40)
+                .replace("}{", "},{") + "],\"email\":\"juan@rodriguez.org\"}";
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        MockHttpServletResponse response = execute(post("/api/users", body, "10.0.0.1"), chain);
+
+        // Assert
+        assertEquals(200, response.getStatus());
+        byte[] passedOn = chain.getRequest().getInputStream().readAllBytes();
+        assertEquals(body, new String(passedOn, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void doFilter_AfterEmailBurst_ShouldRespond429WithRetryAfter() throws Exception {
+        // Arrange: 3 attempts per email, from different addresses and in any letter case
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, execute(post("/api/login", LOGIN_BODY, "10.0.0." + i), new MockFilterChain()).getStatus());
+        }
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        MockHttpServletResponse response = execute(
+                post("/api/login", LOGIN_BODY.replace("juan@", "JUAN@"), "10.0.0.9"), chain);
+
+        // Assert
+        assertEquals(429, response.getStatus());
+        assertEquals("20", response.getHeader("Retry-After"));
+        assertTrue(response.getContentAsString(StandardCharsets.UTF_8).contains(LoginRateLimitFilter.RATE_LIMITED_MESSAGE));
+        assertNull(chain.getRequest());
+        assertEquals(1.0, meterRegistry.get("rate.limit.rejections").tag("limit", "email").counter().count());
+    }
+
+    @Test
+    void doFilter_WithTheEmailBehindPaddingOrRepeated_ShouldStillCountAgainstIt() throws Exception {
+        // Arrange: unknown properties are ignored on binding, and the last of repeated fields wins
+        String padded = "{\"pad\":\"" + "x".repeat(4096) + "\"," + LOGIN_BODY.substring(1);
+        String repeated = "{\"email\":\"decoy@example.com\"," + LOGIN_BODY.substring(1);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, execute(post("/api/login", i % 2 == 0 ? padded : repeated, "10.0.0." + i), new MockFilterChain()).getStatus());
+        }
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        MockHttpServletResponse response = execute(post("/api/login", padded, "10.0.0.9"), chain);
+
+        // Assert
+        assertEquals(429, response.getStatus());
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void doFilter_WithBodyOverTheLimit_ShouldRespond413WithoutCallingTheController() throws Exception {
+        // Arrange: with and without Content-Length
+        String body = "{\"pad\":\"" + "x".repeat(MAX_BODY_SIZE) + "\"," + LOGIN_BODY.substring(1);
+        MockHttpServletRequest chunked = new MockHttpServletRequest("POST", "/api/login") {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        chunked.setServletPath("/api/login");
+        chunked.setRemoteAddr("10.0.0.2");
+        chunked.setContent(body.getBytes(StandardCharsets.UTF_8));
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        MockHttpServletResponse declared = execute(post("/api/login", body, "10.0.0.1"), chain);
+        MockHttpServletResponse streamed = execute(chunked, new MockFilterChain());
+
+        // Assert
+        assertEquals(413, declared.getStatus());
+        assertEquals(413, streamed.getStatus());
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void doFilter_AfterIpBurst_ShouldRespond429ForAnyEmail() throws Exception {
+        // Arrange: 10 attempts per address
+        for (int i = 0; i < 10; i++) {
+            String body = LOGIN_BODY.replace("juan", "user" + i);
+            assertEquals(200, execute(post("/api/login", body, "10.0.0.1"), new MockFilterChain()).getStatus());
+        }
+
+        // Act
+        MockHttpServletResponse blocked = execute(post("/api/login", LOGIN_BODY, "10.0.0.1"), new MockFilterChain());
+        MockHttpServletResponse otherAddress = execute(post("/api/login", LOGIN_BODY, "10.0.0.2"), new MockFilterChain());
+
+        // Assert
+        assertEquals(429, blocked.getStatus());
+        assertEquals(200, otherAddress.getStatus());
+        assertEquals(1.0, meterRegistry.get("rate.limit.rejections").tag("limit", "ip").counter().count());
+    }
+
+    @Test
+    void doFilter_OnBatchRegistration_ShouldOnlyCountAgainstTheIp() throws Exception {
+        // Arrange: 10 batches for the same email, the IP limit
+        for (int i = 0; i < 10; i++) {
+            assertEquals(200, execute(post("/api/users/batch", "[" + LOGIN_BODY + "]", "10.0.0.1"), new MockFilterChain()).getStatus());
+        }
+
+        // Act
+        MockHttpServletResponse response = execute(post("/api/users/batch", "[]", "10.0.0.1"), new MockFilterChain());
+
+        // Assert
+        assertEquals(429, response.getStatus());
+        assertEquals(1.0, meterRegistry.get("rate.limit.rejections").tag("limit", "ip").counter().count());
+        assertEquals(0.0, meterRegistry.get("rate.limit.rejections").tag("limit", "email").counter().count());
+    }
+
+    @Test
+    void doFilter_WithMalformedBody_ShouldLeaveItToTheController() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, execute(post("/api/login", "{\"email\":", "10.0.0." + i), new MockFilterChain()).getStatus());
+        }
+    }
+
+    @Test
+    void shouldNotFilter_OtherRoutesAndWhenDisabled() {
+        MockHttpServletRequest listing = new MockHttpServletRequest("GET", "/api/users");
+        listing.setServletPath("/api/users");
+
+        assertTrue(filter.shouldNotFilter(listing));
+        assertTrue(filter.shouldNotFilter(post("/api/users/me", "{}", "10.0.0.1")));
+        assertTrue(filter(false).shouldNotFilter(post("/api/login", LOGIN_BODY, "10.0.0.1")));
+        assertFalse(filter.shouldNotFilter(post("/api/login", LOGIN_BODY, "10.0.0.1")));
+    }
+
+    private LoginRateLimitFilter filter(boolean enabled) {
+        return new LoginRateLimitFilter(enabled, 1024, 10, Duration.ofMinutes(1), 3, Duration.ofMinutes(1),
+                MAX_BODY_SIZE, new ObjectMapper(), meterRegistry);
+    }
+
+    private MockHttpServletResponse execute(MockHttpServletRequest request, MockFilterChain chain)
+            throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static MockHttpServletRequest post(String path, String body, String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setServletPath(path);
+        request.setRemoteAddr(remoteAddr);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
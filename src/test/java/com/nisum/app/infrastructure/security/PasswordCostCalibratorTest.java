@@ -0,0 +1,56 @@
+package com.nisum.app.infrastructure.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordCostCalibratorTest {
+
+    private static final long MILLIS = 1_000_000;
+
+    @Test
+    void calibrateExponential_ShouldPickHighestCostWithinTarget() {
+        // 10 ms at cost 8, doubling per step: 9 -> 20 ms, 10 -> 40 ms, 11 -> 80 ms, 12 -> 160 ms
+        int cost = PasswordCostCalibrator.calibrateExponential(
+                c -> (10 * MILLIS) << (c - 8), 8, 31, 100 * MILLIS);
+
+        assertEquals(11, cost);
+    }
+
+    @Test
+    void calibrateExponential_WhenFloorIsAlreadyTooSlow_ShouldKeepFloor() {
+        int cost = PasswordCostCalibrator.calibrateExponential(c -> 500 * MILLIS, 10, 31, 100 * MILLIS);
+
+        assertEquals(10, cost);
+    }
+
+    @Test
+    void calibrateExponential_ShouldIgnoreOneSlowRunOfAProbe() {
+        // Every other run is slowed down by a pause; the faster of the two runs of each probe counts
+        AtomicInteger runs = new AtomicInteger();
+        int cost = PasswordCostCalibrator.calibrateExponential(
+                c -> ((10 * MILLIS) << (c - 8)) + (runs.getAndIncrement() % 2 == 0 ? 500 * MILLIS : 0),
+                8, 31, 100 * MILLIS);
+
+        assertEquals(11, cost);
+    }
+
+    @Test
+    void calibrateLinear_ShouldScaleProbeToTargetRoundedDown() {
+        // 20,000 iterations in 8 ms -> 250,000 in 100 ms
+        int iterations = PasswordCostCalibrator.calibrateLinear(
+                i -> i * 400L, 20_000, 100_000, 10_000, 100 * MILLIS);
+
+        assertEquals(250_000, iterations);
+    }
+
+    @Test
+    void calibrateLinear_ShouldNotGoBelowMinimum() {
+        int iterations = PasswordCostCalibrator.calibrateLinear(
+                i -> i * 400L, 20_000, 310_000, 10_000, 100 * MILLIS);
+
+        assertEquals(310_000, iterations);
+    }
+}
@@ -0,0 +1,135 @@
+package com.nisum.app.infrastructure.security;
+
+import com.nisum.app.application.service.token.ParsedToken;
+import com.nisum.app.domain.model.RevokedToken;
+import com.nisum.app.domain.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RevokedTokenRegistryTest {
+
+    private static final long HOUR = 3_600_000L;
+
+    @Mock
+    private RevokedTokenRepository repository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private final AtomicLong now = new AtomicLong(1_700_000_000_000L);
+
+    private RevokedTokenRegistry registry(long maxEntries) {
+        return new RevokedTokenRegistry(repository, jdbcTemplate, HOUR, maxEntries, 100,
+                new SimpleMeterRegistry(), now::get);
+    }
+
+    @Test
+    void isRevoked_ShouldFindRevokedIdsOnly() {
+        // Arrange: enough ids in one bucket to make it grow several times
+        RevokedTokenRegistry registry = registry(10_000);
+        Instant expiresAt = Instant.ofEpochMilli(now.get() + HOUR);
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(registry.revoke("jti-" + i, expiresAt));
+        }
+
+        // Act & Assert
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(registry.isRevoked(token("jti-" + i, expiresAt)));
+        }
+        assertFalse(registry.isRevoked(token("jti-1000", expiresAt)));
+        assertFalse(registry.isRevoked(token(null, expiresAt)));
+        assertEquals(1000, registry.size());
+    }
+
+    @Test
+    void revoke_AtMaxEntries_ShouldRefuse() {
+        // Arrange
+        RevokedTokenRegistry registry = registry(2);
+        Instant expiresAt = Instant.ofEpochMilli(now.get() + HOUR);
+        registry.revoke("a", expiresAt);
+        registry.revoke("b", expiresAt);
+
+        // Act & Assert
+        assertFalse(registry.revoke("c", expiresAt));
+        assertFalse(registry.isRevoked(token("c", expiresAt)));
+        // Expired tokens need no entry and are never refused
+        assertTrue(registry.revoke("d", Instant.ofEpochMilli(now.get() - 1)));
+    }
+
+    @Test
+    void purge_ShouldDropEntriesOnceTheirTokensExpired() {
+        // Arrange
+        RevokedTokenRegistry registry = registry(10_000);
+        Instant soon = Instant.ofEpochMilli(now.get() + 10 * 60_000L);
+        Instant later = Instant.ofEpochMilli(now.get() + HOUR);
+        // Past the ring, as with a token issued under a longer expiration
+        Instant beyond = Instant.ofEpochMilli(now.get() + 3 * HOUR);
+        registry.revoke("soon", soon);
+        registry.revoke("later", later);
+        registry.revoke("beyond", beyond);
+
+        // Act
+        now.addAndGet(20 * 60_000L);
+        registry.purge();
+
+        // Assert
+        assertEquals(2, registry.size());
+        assertTrue(registry.isRevoked(token("later", later)));
+        assertTrue(registry.isRevoked(token("beyond", beyond)));
+        verify(repository).deleteExpired(any(LocalDateTime.class));
+
+        now.addAndGet(3 * HOUR);
+        registry.purge();
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    void reload_ShouldLoadUnexpiredRowsAndRefreshShouldAddNewOnes() throws Exception {
+        // Arrange
+        Instant expiresAt = Instant.ofEpochMilli(now.get() + HOUR);
+        ResultSet row = mock(ResultSet.class);
+        when(row.getString(1)).thenReturn("loaded");
+        when(row.getTimestamp(2)).thenReturn(new Timestamp(expiresAt.toEpochMilli()));
+        doAnswer(invocation -> {
+            invocation.getArgument(1, RowCallbackHandler.class).processRow(row);
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        when(repository.findByRevokedAtGreaterThanEqualAndExpiresAtAfter(any(), any())).thenReturn(List.of(
+                RevokedToken.builder().tokenId("refreshed")
+                        .expiresAt(LocalDateTime.ofInstant(expiresAt, ZoneId.systemDefault()))
+                        .revokedAt(LocalDateTime.now()).build()));
+        RevokedTokenRegistry registry = registry(10_000);
+
+        // Act
+        registry.reload();
+        registry.refresh();
+
+        // Assert
+        assertTrue(registry.isRevoked(token("loaded", expiresAt)));
+        assertTrue(registry.isRevoked(token("refreshed", expiresAt)));
+        assertEquals(2, registry.size());
+    }
+
+    private static ParsedToken token(String tokenId, Instant expiresAt) {
+        return ParsedToken.builder().subject("juan@rodriguez.org").tokenId(tokenId).expiresAt(expiresAt).build();
+    }
+}
@@ -0,0 +1,147 @@
+package com.nisum.app.infrastructure.security;
+
+import com.nisum.app.application.service.token.TokenKeyRing;
+import io.jsonwebtoken.SignatureException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SigningKeyRegistryTest {
+
+    private static final String SECRET = "mySecretKey123456789mySecretKey123456789";
+    private static final String PASSWORD = "changeit";
+    private static final long MINUTE = 60_000L;
+    private static final long HOUR = 60 * MINUTE;
+
+    @TempDir
+    Path directory;
+
+    private final AtomicLong now = new AtomicLong(System.currentTimeMillis());
+
+    @Test
+    void withoutKeystore_ShouldSignAndVerifyWithTheSecretAlone() {
+        // Arrange
+        SigningKeyRegistry registry = registry(SECRET, "");
+
+        // Act
+        registry.reload();
+        TokenKeyRing ring = registry.get();
+
+        // Assert
+        assertNull(ring.signer().keyId());
+        assertEquals(List.of(), ring.verifiers());
+        assertEquals("signing", registry.status().get(0).get("state"));
+    }
+
+    @Test
+    void rotation_ShouldActivateANewKeyAfterTheDelayAndRetireTheOldOneOnceItsTokensExpired() throws Exception {
+        // Arrange: the first key signs at once
+        KeyStore keyStore = keyStore();
+        add(keyStore, "k1", 'a');
+        Path path = store(keyStore);
+        SigningKeyRegistry registry = registry(SECRET, path.toString());
+        registry.reload();
+        String signedWithK1 = sign(registry);
+        assertEquals("k1", registry.get().signer().keyId());
+
+        // Act & Assert: a new key is picked up from the file and verifies before it signs
+        add(keyStore, "k2", 'b');
+        store(keyStore);
+        registry.refresh();
+        assertEquals("k1", registry.get().signer().keyId());
+        assertEquals(List.of("k2", "k1", "app.jwt.secret"), keyIds(registry.status()));
+        assertEquals(List.of("pending", "signing", "verifying"), states(registry.status()));
+
+        now.addAndGet(6 * MINUTE);
+        registry.refresh();
+        assertEquals("k2", registry.get().signer().keyId());
+        assertEquals(List.of("signing", "verifying", "verifying"), states(registry.status()));
+        assertEquals("juan@rodriguez.org", registry.get().verify(signedWithK1, now.get()).getSubject());
+
+        now.addAndGet(HOUR + 5 * MINUTE);
+        registry.refresh();
+        assertEquals(List.of("signing", "retired", "verifying"), states(registry.status()));
+        assertThrows(SignatureException.class, () -> registry.get().verify(signedWithK1, now.get()));
+    }
+
+    @Test
+    void refresh_WithUnreadableKeystore_ShouldKeepTheCurrentKeys() throws Exception {
+        // Arrange
+        KeyStore keyStore = keyStore();
+        add(keyStore, "k1", 'a');
+        Path path = store(keyStore);
+        SigningKeyRegistry registry = registry("", path.toString());
+        registry.reload();
+        TokenKeyRing ring = registry.get();
+
+        // Act
+        Files.writeString(path, "not a keystore");
+        registry.refresh();
+
+        // Assert
+        assertSame(ring, registry.get());
+        assertThrows(IllegalStateException.class, registry::reload);
+    }
+
+    @Test
+    void reload_WithoutUsableKey_ShouldThrow() throws Exception {
+        // Arrange: too short for HS256, and no secret to fall back on
+        KeyStore keyStore = keyStore();
+        keyStore.setEntry("short", new KeyStore.SecretKeyEntry(new SecretKeySpec(new byte[16], "HmacSHA256")),
+                new KeyStore.PasswordProtection(PASSWORD.toCharArray()));
+        SigningKeyRegistry registry = registry("", store(keyStore).toString());
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, registry::reload);
+        assertThrows(IllegalStateException.class, () -> registry("", ""));
+    }
+
+    private SigningKeyRegistry registry(String secret, String keystorePath) {
+        return new SigningKeyRegistry(secret, keystorePath, "PKCS12", PASSWORD, Duration.ofMinutes(5), HOUR,
+                now::get);
+    }
+
+    private String sign(SigningKeyRegistry registry) {
+        return registry.get().signer().sign("juan@rodriguez.org", null, null, null, List.of(),
+                now.get(), now.get() + HOUR);
+    }
+
+    private static KeyStore keyStore() throws Exception {
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        keyStore.load(null, null);
+        return keyStore;
+    }
+
+    private static void add(KeyStore keyStore, String alias, char fill) throws Exception {
+        byte[] key = String.valueOf(fill).repeat(32).getBytes();
+        keyStore.setEntry(alias, new KeyStore.SecretKeyEntry(new SecretKeySpec(key, "HmacSHA256")),
+                new KeyStore.PasswordProtection(PASSWORD.toCharArray()));
+    }
+
+    private Path store(KeyStore keyStore) throws Exception {
+        Path path = directory.resolve("jwt-keys.p12");
+        try (OutputStream out = Files.newOutputStream(path)) {
+            keyStore.store(out, PASSWORD.toCharArray());
+        }
+        return path;
+    }
+
+    private static List<Object> keyIds(List<Map<String, Object>> status) {
+        return status.stream().map(key -> key.get("kid") != null ? key.get("kid") : "app.jwt.secret").toList();
+    }
+
+    private static List<Object> states(List<Map<String, Object>> status) {
+        return status.stream().map(key -> key.get("state")).toList();
+    }
+}
@@ -0,0 +1,120 @@
+package com.nisum.app.infrastructure.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketRateLimiterTest {
+
+    private static final long MILLIS = 1_000_000;
+
+    private final AtomicLong clock = new AtomicLong(42 * MILLIS);
+
+    @Test
+    void tryAcquire_ShouldAllowBurstThenReturnMillisUntilNextToken() {
+        // Arrange: 5 requests per minute, one token every 12 s
+        TokenBucketRateLimiter limiter = limiter(1024, 5, Duration.ofMinutes(1));
+
+        // Act & Assert
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire("juan@rodriguez.org"));
+        }
+        assertEquals(12_000, limiter.tryAcquire("juan@rodriguez.org"));
+        clock.addAndGet(2_000 * MILLIS);
+        assertEquals(10_000, limiter.tryAcquire("juan@rodriguez.org"));
+    }
+
+    @Test
+    void tryAcquire_ShouldRefillOneTokenPerInterval() {
+        // Arrange
+        TokenBucketRateLimiter limiter = limiter(1024, 5, Duration.ofMinutes(1));
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("juan@rodriguez.org");
+        }
+
+        // Act
+        clock.addAndGet(12_000 * MILLIS);
+
+        // Assert
+        assertEquals(0, limiter.tryAcquire("juan@rodriguez.org"));
+        assertTrue(limiter.tryAcquire("juan@rodriguez.org") > 0);
+    }
+
+    @Test
+    void tryAcquire_ShouldIgnoreCaseAndKeepKeysApart() {
+        // Arrange
+        TokenBucketRateLimiter limiter = limiter(1024, 1, Duration.ofMinutes(1));
+
+        // Act & Assert
+        assertEquals(0, limiter.tryAcquire("juan@rodriguez.org"));
+        assertTrue(limiter.tryAcquire("Juan@Rodriguez.ORG") > 0);
+        assertEquals(0, limiter.tryAcquire("maria@rodriguez.org"));
+    }
+
+    @Test
+    void tryAcquire_WhenTableIsFull_ShouldReuseRefilledBucketsBeforeEvicting() {
+        // Arrange: 4 slots, all taken by drained buckets
+        TokenBucketRateLimiter limiter = limiter(4, 1, Duration.ofMinutes(1));
+        for (int i = 0; i < 4; i++) {
+            assertEquals(0, limiter.tryAcquire("user" + i + "@example.org"));
+        }
+
+        // Act: a fifth key evicts; once the buckets refill, their slots are taken without evicting
+        assertEquals(0, limiter.tryAcquire("user4@example.org"));
+        clock.addAndGet(60_000 * MILLIS);
+        for (int i = 5; i < 9; i++) {
+            assertEquals(0, limiter.tryAcquire("user" + i + "@example.org"));
+        }
+
+        // Assert
+        assertEquals(1, limiter.evictions());
+    }
+
+    @Test
+    void tryAcquire_FromConcurrentThreads_ShouldHandOutExactlyTheBurst() throws Exception {
+        // Arrange: the clock stands still, so no tokens are refilled during the test
+        TokenBucketRateLimiter limiter = limiter(1024, 100, Duration.ofMinutes(100));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        Callable<Integer> attempts = () -> {
+            int allowed = 0;
+            for (int i = 0; i < 1_000; i++) {
+                if (limiter.tryAcquire("juan@rodriguez.org") == 0) {
+                    allowed++;
+                }
+            }
+            return allowed;
+        };
+
+        // Act
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            results.add(executor.submit(attempts));
+        }
+        int allowed = 0;
+        for (Future<Integer> result : results) {
+            allowed += result.get();
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals(100, allowed);
+    }
+
+    @Test
+    void constructor_WithPeriodShorterThanBurstMillis_ShouldFail() {
+        assertThrows(IllegalArgumentException.class, () -> limiter(1024, 10, Duration.ofMillis(5)));
+    }
+
+    private TokenBucketRateLimiter limiter(int capacity, int burst, Duration period) {
+        return new TokenBucketRateLimiter(capacity, burst, period, clock::get);
+    }
+}
@@ -0,0 +1,83 @@
+package com.nisum.app.infrastructure.security;
+
+import com.nisum.app.domain.model.UserTokenState;
+import com.nisum.app.domain.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenVersionRegistryTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private TokenVersionRegistry registry;
+    private final UUID revokedUser = UUID.randomUUID();
+    private final UUID inactiveUser = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        registry = new TokenVersionRegistry(userRepository, true);
+        when(userRepository.findNonDefaultTokenStates()).thenReturn(List.of(
+                new UserTokenState(revokedUser, 2L, true),
+                new UserTokenState(inactiveUser, 0L, false)));
+        registry.reload();
+    }
+
+    @Test
+    void isCurrent_WithUnknownUserAtVersionZero_ShouldReturnTrue() {
+        assertTrue(registry.isCurrent(UUID.randomUUID(), 0L));
+    }
+
+    @Test
+    void isCurrent_WithOutdatedVersion_ShouldReturnFalse() {
+        assertFalse(registry.isCurrent(revokedUser, 1L));
+        assertTrue(registry.isCurrent(revokedUser, 2L));
+    }
+
+    @Test
+    void isCurrent_WithInactiveUser_ShouldReturnFalse() {
+        assertFalse(registry.isCurrent(inactiveUser, 0L));
+    }
+
+    @Test
+    void refresh_ShouldApplyChangesFromRepository() {
+        // Arrange
+        UUID newlyRevoked = UUID.randomUUID();
+        when(userRepository.findTokenStatesChangedSince(any(LocalDateTime.class))).thenReturn(List.of(
+                new UserTokenState(newlyRevoked, 1L, true),
+                new UserTokenState(inactiveUser, 0L, true)));
+
+        // Act
+        registry.refresh();
+
+        // Assert
+        assertFalse(registry.isCurrent(newlyRevoked, 0L));
+        assertTrue(registry.isCurrent(inactiveUser, 0L));
+    }
+
+    @Test
+    void reload_WhenDisabled_ShouldNotQueryRepository() {
+        // Arrange
+        UserRepository repository = mock(UserRepository.class);
+        TokenVersionRegistry disabled = new TokenVersionRegistry(repository, false);
+
+        // Act
+        disabled.reload();
+        disabled.refresh();
+
+        // Assert
+        verifyNoInteractions(repository);
+    }
+}